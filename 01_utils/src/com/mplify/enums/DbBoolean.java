@@ -2,7 +2,9 @@ package com.mplify.enums;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 //import org.slf4j.Logger;
 //import org.slf4j.LoggerFactory;
@@ -18,11 +20,14 @@ import java.util.List;
  *******************************************************************************
  *******************************************************************************
  * A simple bi-state enumerative value: used to map Booleans to the database
- * and vice-versa. Does not use a map.
+ * and vice-versa.
  * 
  * 2004.10.04 - Created. 
  * 2005.05.02 - Mobilux code compared with this class. This class moved from
  *              com.mplify.scf.core.values to here.
+ * 2026.10.19 - obtain(int) uses an IntegerLookupTable like the other
+ *              enumerative types; the if/else on random 0/1 values from
+ *              the database was mispredicted half of the time
  ******************************************************************************/
 
 public class DbBoolean implements EnumerativeTypeUsingInteger {
@@ -54,6 +59,12 @@ public class DbBoolean implements EnumerativeTypeUsingInteger {
 
 	public final static List<DbBoolean> LIST;
 
+	/*
+	 * The values indexed by their int id, private
+	 */
+
+	private final static IntegerLookupTable<DbBoolean> TABLE;
+
 	/*
 	 * Static construction takes care to assign unique (and constant) numeric identifiers
 	 * to the various instances. They must be stable because they are used in the database. 
@@ -66,6 +77,11 @@ public class DbBoolean implements EnumerativeTypeUsingInteger {
 		myList.add(FALSE = new DbBoolean(0,"false")); 
 		myList.add(TRUE = new DbBoolean(1,"true"));
 		LIST = Collections.unmodifiableList(myList);
+		Map<Integer, DbBoolean> myMap = new HashMap<Integer, DbBoolean>();
+		for (DbBoolean x : myList) {
+			myMap.put(Integer.valueOf(x.value), x);
+		}
+		TABLE = new IntegerLookupTable<DbBoolean>(myMap);
 	}
 
 	/**
@@ -198,14 +214,12 @@ public class DbBoolean implements EnumerativeTypeUsingInteger {
 	 */
 
 	public static DbBoolean obtain(int x) {
-		if (x==1) {
-			return DbBoolean.TRUE;
-		}
-		else if (x==0) {
-			return DbBoolean.FALSE;
+		DbBoolean res = TABLE.get(x);
+		if (res == null) {
+			throw new IllegalArgumentException("A DbBoolean corresponding to value " + x + " was requested");
 		}
 		else {
-			throw new IllegalArgumentException("A DbBoolean corresponding to value " + x + " was requested");
+			return res;
 		}
 	}
 	
@@ -0,0 +1,160 @@
+package com.mplify.enums;
+
+import java.util.Map;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * An immutable int -> instance table for the enumerative types which are
+ * coded by an integer (see EnumerativeTypeUsingInteger). It is built once,
+ * in the static initializer of the type, from the Map<Integer,X> the type
+ * already builds there, and then answers get(int) without boxing the int
+ * and without calling hashCode()/equals() on anything.
+ *
+ * If the codes are reasonably dense (which is the usual case: 0..2, 1..3,
+ * -1..1000 for CountryId), they index directly into an array offset by the
+ * smallest code. Otherwise, an open-addressing table of int keys with
+ * linear probing is used; it is at most half full so probes are short.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public final class IntegerLookupTable<T> {
+
+    /**
+     * The direct array is used if it has at most that many slots...
+     */
+
+    private final static int MAX_DENSE_SPAN = 1024;
+
+    /**
+     * ...or if at least that fraction (1/n) of its slots is used
+     */
+
+    private final static int MAX_DENSE_SPARSITY = 8;
+
+    private final int size;
+    private final int minKey;
+    private final int maxKey;
+
+    /**
+     * Dense case: "values" is indexed by (key - minKey) and "keys" is null.
+     * Sparse case: "keys" and "values" form the open-addressing table, "mask" is its length - 1.
+     * An empty slot has a (null) value.
+     */
+
+    private final int[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * Build from a map; the map is not retained. Its keys must not be (null), its values must not be (null).
+     */
+
+    public IntegerLookupTable(Map<Integer, ? extends T> map) {
+        Check.notNull(map, "map");
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Map.Entry<Integer, ? extends T> entry : map.entrySet()) {
+            Check.notNull(entry.getKey(), "key");
+            Check.notNull(entry.getValue(), "value");
+            int k = entry.getKey().intValue();
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        this.size = map.size();
+        if (size == 0) {
+            this.minKey = 0;
+            this.maxKey = -1;
+            this.keys = null;
+            this.values = new Object[0];
+            this.mask = 0;
+        } else {
+            this.minKey = min;
+            this.maxKey = max;
+            long span = (long) max - (long) min + 1;
+            if (span <= MAX_DENSE_SPAN || span <= (long) size * MAX_DENSE_SPARSITY) {
+                this.keys = null;
+                this.values = new Object[(int) span];
+                this.mask = 0;
+                for (Map.Entry<Integer, ? extends T> entry : map.entrySet()) {
+                    values[entry.getKey().intValue() - min] = entry.getValue();
+                }
+            } else {
+                int capacity = Integer.highestOneBit(size) << 2; // between 2x and 4x the size
+                this.keys = new int[capacity];
+                this.values = new Object[capacity];
+                this.mask = capacity - 1;
+                for (Map.Entry<Integer, ? extends T> entry : map.entrySet()) {
+                    int k = entry.getKey().intValue();
+                    int i = slot(k);
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = k;
+                    values[i] = entry.getValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Fibonacci hashing of the key onto the open-addressing table
+     */
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Get the instance coded by "key", (null) if there is none
+     */
+
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        if (key < minKey || key > maxKey) {
+            return null;
+        }
+        if (keys == null) {
+            return (T) values[key - minKey];
+        }
+        int i = slot(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                return (T) v;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Is there an instance coded by "key"?
+     */
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the codes are looked up by direct indexing (as opposed to hashing); for tests
+     */
+
+    public boolean isDense() {
+        return keys == null;
+    }
+}
@@ -30,9 +30,14 @@ import java.util.Map;
  * internal newlines are kept and sequences of whitespace are kept.
  * 
  * 2006.10.01 - Created
+ * 2026.10.19 - Now an EnumerativeTypeUsingInteger (getValue() was there
+ *              already). obtain(int) and isValid(int) use an
+ *              IntegerLookupTable instead of boxing and probing a Map
+ * 2026.10.19 - obtain(CharSequence, ...) uses a NameLookupTable instead of
+ *              lowercasing into a new String and probing a Map
  ******************************************************************************/
 
-public class JdomSerializationFormat {
+public class JdomSerializationFormat implements EnumerativeTypeUsingInteger {
 
 //	private final static String CLASS = JdomSerializationFormat.class.getName();
 
@@ -61,11 +66,11 @@ public class JdomSerializationFormat {
 	public final static List<JdomSerializationFormat> LIST;
 	
 	/*
-	 * The values hashed by their Integer id, private
+	 * The values indexed by their int id and by their (case-insensitive) name, private
 	 */
 
-	private final static Map<Integer, JdomSerializationFormat> MAP_BY_VALUE;
-	private final static Map<String, JdomSerializationFormat> MAP_BY_NAME;
+	private final static NameLookupTable<JdomSerializationFormat> TABLE_BY_NAME;
+	private final static IntegerLookupTable<JdomSerializationFormat> TABLE_BY_VALUE;
 	
 	/*
 	 * Static construction takes care to assign unique (and stable) identifiers
@@ -89,8 +94,8 @@ public class JdomSerializationFormat {
 				assert(old1==null);
 				assert(old2==null);
 			}
-			MAP_BY_NAME = Collections.unmodifiableMap(myMapByName);
-			MAP_BY_VALUE = Collections.unmodifiableMap(myMapByValue);
+			TABLE_BY_NAME = new NameLookupTable<JdomSerializationFormat>(myMapByName);
+			TABLE_BY_VALUE = new IntegerLookupTable<JdomSerializationFormat>(myMapByValue);
 		}
 	}
 
@@ -118,7 +123,7 @@ public class JdomSerializationFormat {
 	 */
 
 	public static boolean isValid(int x) {
-		return (MAP_BY_VALUE.containsKey(new Integer(x)));
+		return TABLE_BY_VALUE.containsKey(x);
 	}
 
 	/**
@@ -144,6 +149,7 @@ public class JdomSerializationFormat {
 	 * Get the actual underlying value for the database (use sparingly)
 	 */
 
+	@Override
 	public int getValue() {
 		return value.intValue();
 	}
@@ -162,7 +168,7 @@ public class JdomSerializationFormat {
 	 */
 
 	public static JdomSerializationFormat obtain(int x) {
-		JdomSerializationFormat res = MAP_BY_VALUE.get(new Integer(x));
+		JdomSerializationFormat res = TABLE_BY_VALUE.get(x);
 		if (res == null) {
 			throw new IllegalArgumentException("Nothing corresponding to value '" + x + "' exists");
 		} else {
@@ -184,14 +190,15 @@ public class JdomSerializationFormat {
 	}
 
 	/**
-	 * Return a value instance given a String, which should correspond to the "name"
+	 * Return a value instance given a text, which should correspond to the "name" (ignoring case and
+	 * surrounding whitespace)
 	 */
 
-	public static JdomSerializationFormat obtain(String name, JdomSerializationFormat defaultValue, boolean throwIfNotFound) {
+	public static JdomSerializationFormat obtain(CharSequence name, JdomSerializationFormat defaultValue, boolean throwIfNotFound) {
 		if (name == null) {
 			throw new IllegalArgumentException("The passed 'name' is (null)");
 		} else {
-			JdomSerializationFormat so = MAP_BY_NAME.get(name.toLowerCase().trim()); // LOWERCASE
+			JdomSerializationFormat so = TABLE_BY_NAME.get(name);
 			if (so == null) {
 				if (throwIfNotFound) {
 					throw new IllegalArgumentException("Nothing corresponding to name '" + name + "' exists");
@@ -0,0 +1,256 @@
+package com.mplify.enums;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * An immutable name -> instance table for the enumerative types which are
+ * looked up by name (e.g. "high", "mu", "luxembourg"). It is built once, in
+ * the static initializer of the type, from the Map<String,X> the type
+ * already builds there, and then answers get(CharSequence) case-
+ * insensitively and ignoring leading and trailing whitespace (as
+ * String.trim() does), without creating a trimmed or lowercased copy of
+ * the passed text. Protocol parsers can thus pass a CharBuffer or a
+ * StringBuilder region directly.
+ *
+ * The table is a minimal perfect hash built with the "hash and displace"
+ * method: a first hash puts each name into a bucket; each bucket gets the
+ * smallest displacement that sends all of its names to free slots, the
+ * buckets with most names being placed first. A lookup thus hashes the text
+ * once, reads one displacement, and compares against a single candidate.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public final class NameLookupTable<T> {
+
+    /**
+     * Give up on a bucket after that many displacements and retry with a larger table (never happened so far)
+     */
+
+    private final static int MAX_DISPLACEMENT = 1 << 16;
+
+    private final String[] names; // folded names, indexed by slot; (null) only for unused slots
+    private final Object[] values;
+    private final int[] displacements; // indexed by bucket
+    private final int size;
+
+    /**
+     * Build from a map; the map is not retained. Its keys are folded (trimmed and lowercased) and must be distinct
+     * after folding; its values must not be (null).
+     */
+
+    public NameLookupTable(Map<String, ? extends T> map) {
+        Check.notNull(map, "map");
+        int n = map.size();
+        this.size = n;
+        final String[] keys = new String[n];
+        Object[] vals = new Object[n];
+        final long[] hashes = new long[n];
+        {
+            int i = 0;
+            for (Map.Entry<String, ? extends T> entry : map.entrySet()) {
+                Check.notNull(entry.getKey(), "key");
+                Check.notNull(entry.getValue(), "value");
+                keys[i] = fold(entry.getKey());
+                vals[i] = entry.getValue();
+                hashes[i] = hash(keys[i], 0, keys[i].length());
+                for (int j = 0; j < i; j++) {
+                    if (keys[j].equals(keys[i])) {
+                        throw new IllegalArgumentException("The name '" + entry.getKey() + "' occurs twice once trimmed and lowercased");
+                    }
+                }
+                i++;
+            }
+        }
+        int bucketCount = Math.max(1, n / 2);
+        int tableSize = Math.max(1, n);
+        while (true) {
+            int[] disp = new int[bucketCount];
+            int[] slots = place(hashes, bucketCount, tableSize, disp);
+            if (slots != null) {
+                this.names = new String[tableSize];
+                this.values = new Object[tableSize];
+                this.displacements = disp;
+                for (int i = 0; i < n; i++) {
+                    names[slots[i]] = keys[i];
+                    values[slots[i]] = vals[i];
+                }
+                return;
+            }
+            tableSize++;
+        }
+    }
+
+    /**
+     * Find a displacement per bucket so that all keys land in distinct slots. Returns the slot of each key, or (null)
+     * if that did not work out with the given table size.
+     */
+
+    private static int[] place(final long[] hashes, int bucketCount, int tableSize, int[] disp) {
+        int n = hashes.length;
+        final List<List<Integer>> buckets = new ArrayList<List<Integer>>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < n; i++) {
+            buckets.get(bucketOf(hashes[i], bucketCount)).add(Integer.valueOf(i));
+        }
+        List<Integer> order = new ArrayList<Integer>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            order.add(Integer.valueOf(b));
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer b1, Integer b2) {
+                return buckets.get(b2.intValue()).size() - buckets.get(b1.intValue()).size();
+            }
+        });
+        boolean[] taken = new boolean[tableSize];
+        int[] slots = new int[n];
+        for (Integer b : order) {
+            List<Integer> bucket = buckets.get(b.intValue());
+            if (bucket.isEmpty()) {
+                break; // sorted by size, so all remaining buckets are empty, too
+            }
+            boolean placed = false;
+            for (int d = 0; d < MAX_DISPLACEMENT && !placed; d++) {
+                placed = true;
+                int k = 0;
+                for (; k < bucket.size(); k++) {
+                    int i = bucket.get(k).intValue();
+                    int s = slotOf(hashes[i], d, tableSize);
+                    if (taken[s]) {
+                        placed = false;
+                        break;
+                    }
+                    taken[s] = true;
+                    slots[i] = s;
+                }
+                if (!placed) {
+                    // undo the partial placement
+                    for (int u = 0; u < k; u++) {
+                        taken[slots[bucket.get(u).intValue()]] = false;
+                    }
+                } else {
+                    disp[b.intValue()] = d;
+                }
+            }
+            if (!placed) {
+                return null;
+            }
+        }
+        return slots;
+    }
+
+    private static int bucketOf(long hash, int bucketCount) {
+        return (int) (((hash >>> 32) * bucketCount) >>> 32);
+    }
+
+    private static int slotOf(long hash, int displacement, int tableSize) {
+        long h = mix(hash + displacement * 0x9E3779B97F4A7C15L);
+        return (int) (((h >>> 32) * tableSize) >>> 32);
+    }
+
+    /**
+     * The MurmurHash3 finalizer, so that all bits of the result depend on all bits of the input
+     */
+
+    private static long mix(long x) {
+        long h = x;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Lowercase a character, with a fast path for ASCII
+     */
+
+    private static char foldChar(char c) {
+        if (c < 0x80) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        } else {
+            return Character.toLowerCase(c);
+        }
+    }
+
+    private static String fold(String x) {
+        String trimmed = x.trim();
+        StringBuilder buf = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            buf.append(foldChar(trimmed.charAt(i)));
+        }
+        return buf.toString();
+    }
+
+    /**
+     * FNV-1a over the folded characters of x[start,end[, mixed as FNV's high bits are poor for short names
+     */
+
+    private static long hash(CharSequence x, int start, int end) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            h = (h ^ foldChar(x.charAt(i))) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Get the instance named by "x" (ignoring case and surrounding whitespace), (null) if there is none or if "x" is
+     * (null)
+     */
+
+    public T get(CharSequence x) {
+        if (x == null) {
+            return null;
+        }
+        return get(x, 0, x.length());
+    }
+
+    /**
+     * Get the instance named by the region x[start,end[ (ignoring case and surrounding whitespace), (null) if there
+     * is none
+     */
+
+    @SuppressWarnings("unchecked")
+    public T get(CharSequence x, int start, int end) {
+        int s = start;
+        int e = end;
+        while (s < e && x.charAt(s) <= ' ') {
+            s++;
+        }
+        while (e > s && x.charAt(e - 1) <= ' ') {
+            e--;
+        }
+        long h = hash(x, s, e);
+        int slot = slotOf(h, displacements[bucketOf(h, displacements.length)], names.length);
+        String candidate = names[slot];
+        if (candidate == null || candidate.length() != e - s) {
+            return null;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != foldChar(x.charAt(s + i))) {
+                return null;
+            }
+        }
+        return (T) values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+}
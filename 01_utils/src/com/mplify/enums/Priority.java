@@ -11,7 +11,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mplify.checkers.Check;
-import com.mplify.properties.PropertyName;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
  * *****************************************************************************
@@ -43,6 +42,10 @@ import com.mplify.properties.PropertyName;
  * 2010.07.27 - Re-add a serializationId as we are "Serializable".
  * 2011.02.20 - Implemented Comparable simplified from 
  *              "Comparable" to "Comparable<Priority>" 
+ * 2026.10.19 - obtain(int) and isValid(int) use an IntegerLookupTable
+ *              instead of boxing and probing a Map
+ * 2026.10.19 - obtain(CharSequence, ...) uses a NameLookupTable instead of
+ *              namifying into a new String and probing a Map
  ******************************************************************************/
 
 public class Priority implements Comparable<Priority>, Serializable, EnumerativeTypeUsingInteger {
@@ -81,11 +84,11 @@ public class Priority implements Comparable<Priority>, Serializable, Enumerative
 	public final static List<Priority> LIST_HIGH_TO_LOW;
 
 	/*
-	 * The values hashed by their Integer id and their lowercased String, private
+	 * The values indexed by their int id and by their (case-insensitive) name, private
 	 */
 
-	private final static Map<Integer, Priority> MAP_BY_ID;
-	private final static Map<String, Priority> MAP_BY_NAME;
+	private final static NameLookupTable<Priority> TABLE_BY_NAME;
+	private final static IntegerLookupTable<Priority> TABLE_BY_ID;
 
 	/*
 	 * Static construction takes care to assign unique (and constant) numeric identifiers
@@ -114,8 +117,8 @@ public class Priority implements Comparable<Priority>, Serializable, Enumerative
 				// the reverse map takes up the *lowercase* string
 				reverseMap.put(priority.toString().toLowerCase(), priority);
 			}
-			MAP_BY_ID = Collections.unmodifiableMap(map);
-			MAP_BY_NAME = Collections.unmodifiableMap(reverseMap);
+			TABLE_BY_NAME = new NameLookupTable<Priority>(reverseMap);
+			TABLE_BY_ID = new IntegerLookupTable<Priority>(map);
 		}
 		{
 			List<Priority> list2 = new ArrayList<Priority>();
@@ -160,7 +163,7 @@ public class Priority implements Comparable<Priority>, Serializable, Enumerative
 	 */
 
 	public static boolean isValid(int x) {
-		return (MAP_BY_ID.containsKey(new Integer(x)));
+		return TABLE_BY_ID.containsKey(x);
 	}
 
 	/**
@@ -197,7 +200,7 @@ public class Priority implements Comparable<Priority>, Serializable, Enumerative
 	 */
 
 	public static Priority obtain(int x) {
-		Priority res = MAP_BY_ID.get(Integer.valueOf(x));
+		Priority res = TABLE_BY_ID.get(x);
 		if (res == null) {
 			Logger logCat = LOGGER_obtain;
 			logCat.warn("A Priority corresponding to value " + x + " was requested; returning nearest approximation instead");
@@ -218,18 +221,15 @@ public class Priority implements Comparable<Priority>, Serializable, Enumerative
 	}
 
 	/**
-	 * Obtain a Priority from the passed String, which is lowercased and trimmed
-	 * before being handled and must yield either 'high', 'medium' or 'low'. In
+	 * Obtain a Priority from the passed text, which is matched ignoring case and
+	 * surrounding whitespace and must yield either 'high', 'medium' or 'low'. In
 	 * case no match is found, the 'defaultValue' is returned. That value can be (null).
 	 * You may also want to throw an IllegalArgumentException, set 'throwIfNoMatch' to
 	 * true.
 	 */
 
-	public static Priority obtain(String x, Priority defaultValue, boolean throwIfNoMatch) {
-		Priority p = null;
-		if (x != null) {
-			p = MAP_BY_NAME.get(PropertyName.namify(x));
-		}
+	public static Priority obtain(CharSequence x, Priority defaultValue, boolean throwIfNoMatch) {
+		Priority p = TABLE_BY_NAME.get(x); // (null) if x is (null)
 		if (p == null) {
 			if (throwIfNoMatch) {
 				throw new IllegalArgumentException("The passed String, '" + x + "' could not be transformed into a " + CLASS);
@@ -28,6 +28,10 @@ import java.util.Map;
  * 2005.12.06 - Class is now Serializable as it is used for the AlarmTILT client
  * 2013.01.26 - Added valueOf() methods 
  * 2013.02.01 - Added asBoolean() to be used by Groovy
+ * 2026.10.19 - obtain(int) and isValid(int) use an IntegerLookupTable
+ *              instead of boxing and probing a Map
+ * 2026.10.19 - obtain(CharSequence, ...) uses a NameLookupTable instead of
+ *              lowercasing into a new String and probing a Map
  * *****************************************************************************/
 
 public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
@@ -61,11 +65,11 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
     public final static List<Troolean> LIST;
 
     /*
-     * The values hashed by their Integer id, private
+     * The values indexed by their int id and by their (case-insensitive) name, private
      */
 
-    private final static Map<Integer, Troolean> MAP = new HashMap<Integer, Troolean>();
-    private final static Map<String, Troolean> REVERSE_MAP = new HashMap<String, Troolean>();
+    private final static NameLookupTable<Troolean> TABLE_BY_NAME;
+    private final static IntegerLookupTable<Troolean> TABLE;
 
     /*
      * Static construction takes care to assign unique (and constant) numeric identifiers
@@ -76,6 +80,8 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
 
     static {
         ArrayList<Troolean> list = new ArrayList<Troolean>();
+        Map<Integer, Troolean> map = new HashMap<Integer, Troolean>();
+        Map<String, Troolean> reverseMap = new HashMap<String, Troolean>();
         list.add(FALSE = new Troolean( 0, "false"));
         list.add(TRUE = new Troolean( 1, "true"));
         list.add(MU = new Troolean( 2, "mu"));
@@ -84,11 +90,13 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
         // should we check for duplicates here? naahh...
         //
         for (Troolean tr : list) {
-            MAP.put(new Integer(tr.value), tr);
-            REVERSE_MAP.put(tr.toString().trim().toLowerCase(), tr); // key is the lowercased short string
+            map.put(new Integer(tr.value), tr);
+            reverseMap.put(tr.toString().trim().toLowerCase(), tr); // key is the lowercased short string
         }
         // saturday night special: "-1" is *also* "mu"
-        MAP.put(new Integer(-1), MU);
+        map.put(new Integer(-1), MU);
+        TABLE = new IntegerLookupTable<Troolean>(map);
+        TABLE_BY_NAME = new NameLookupTable<Troolean>(reverseMap);
         LIST = Collections.unmodifiableList(list);
     }
 
@@ -116,7 +124,7 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
      */
 
     public static boolean isValid(int x) {
-        return (MAP.containsKey(new Integer(x)));
+        return TABLE.containsKey(x);
     }
 
     /**
@@ -153,7 +161,7 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
      */
 
     public static Troolean obtain(int x) {
-        Troolean res = MAP.get(new Integer(x));
+        Troolean res = TABLE.get(x);
         if (res == null) {
             throw new IllegalArgumentException("Nothing corresponding to value '" + x + "' exists");
         } else {
@@ -174,20 +182,16 @@ public class Troolean implements Serializable, EnumerativeTypeUsingInteger {
     }
 
     /**
-     * Obtain a Troolean from the passed String 'x', which is lowercased and trimmed
-     * before being compared to the 'short text'. In case no match is found, the
+     * Obtain a Troolean from the passed text 'x', which is compared to the 'short text'
+     * ignoring case and surrounding whitespace. In case no match is found, the
      * 'defaultValue' is returned. That value can be (null).
      * You may also want to throw an IllegalArgumentException, set 'throwIfNoMatch' to
      * true.
      * This method can grok 'null' as 'x'.
      */
 
-    public static Troolean obtain(String xIn, Troolean defaultValue, boolean throwIfNoMatch) {
-        String x = xIn;
-        if (x != null) {
-            x = x.toLowerCase().trim(); // values is lowercase!
-        }
-        Troolean smc = REVERSE_MAP.get(x);
+    public static Troolean obtain(CharSequence x, Troolean defaultValue, boolean throwIfNoMatch) {
+        Troolean smc = TABLE_BY_NAME.get(x); // (null) if x is (null)
         if (smc == null) {
             if (throwIfNoMatch) {
                 throw new IllegalArgumentException("The passed String, '" + x + "' could not be transformed into a " + CLASS);
@@ -21,6 +21,10 @@ import java.util.Map;
  * 2005.01.09 - Added toUsageString(), moved to core classes
  * 2006.01.25 - Slight modification of code text
  * 2006.06.15 - Slight rewrite of static init
+ * 2026.10.19 - obtain(int) and isValid(int) use an IntegerLookupTable
+ *              instead of boxing and probing a Map
+ * 2026.10.19 - obtain(CharSequence, ...) uses a NameLookupTable instead of
+ *              lowercasing into a new String and probing a Map
  ******************************************************************************/
 
 public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInteger {
@@ -53,11 +57,11 @@ public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInt
 	public final static List<Verbosity> LIST_HIGH_TO_LOW;
 
 	/*
-	 * The values hashed by their Integer id, private
+	 * The values indexed by their int id and by their (case-insensitive) name, private
 	 */
 
-	private final static Map<Integer, Verbosity> MAP;
-	private final static Map<String, Verbosity> REVERSE_MAP;
+	private final static NameLookupTable<Verbosity> TABLE_BY_NAME;
+	private final static IntegerLookupTable<Verbosity> TABLE;
 
 	/*
 	 * Static construction takes care to assign unique (and stable) identifiers
@@ -91,8 +95,8 @@ public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInt
 				Object old2 = myReverseMap.put(vl.shortText.toLowerCase(), vl); // note the 'to lower case'
 				assert (old2 == null);
 			}
-			MAP = Collections.unmodifiableMap(myMap);
-			REVERSE_MAP = Collections.unmodifiableMap(myReverseMap);
+			TABLE_BY_NAME = new NameLookupTable<Verbosity>(myReverseMap);
+			TABLE = new IntegerLookupTable<Verbosity>(myMap);
 		}
 	}
 
@@ -120,7 +124,7 @@ public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInt
 	 */
 
 	public static boolean isValid(int x) {
-		return (MAP.containsKey(new Integer(x)));
+		return TABLE.containsKey(x);
 	}
 
 	/**
@@ -157,7 +161,7 @@ public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInt
 	 */
 
 	public static Verbosity obtain(int x) {
-		Verbosity res = MAP.get(new Integer(x));
+		Verbosity res = TABLE.get(x);
 		if (res == null) {
 			throw new IllegalArgumentException("Nothing corresponding to value '" + x + "' exists");
 		} else {
@@ -179,18 +183,15 @@ public class Verbosity implements Comparable<Verbosity>, EnumerativeTypeUsingInt
 	}
 
 	/**
-	 * Obtain a VerbosityLevel from the passed String, which is lowercased and trimmed
-	 * before being handled and must yield either 'high', 'medium' or 'low'. In
+	 * Obtain a VerbosityLevel from the passed text, which is matched ignoring case and
+	 * surrounding whitespace and must yield either 'high', 'medium' or 'low'. In
 	 * case no match is found, the 'defaultValue' is returned. That value can be (null).
 	 * You may also want to throw an IllegalArgumentException, set 'throwIfNoMatch' to
 	 * true.
 	 */
 
-	public static Verbosity obtain(String x, Verbosity defaultValue, boolean throwIfNoMatch) {
-		Verbosity p = null;
-		if (x != null) {
-			p = REVERSE_MAP.get(x.toLowerCase().trim());
-		}
+	public static Verbosity obtain(CharSequence x, Verbosity defaultValue, boolean throwIfNoMatch) {
+		Verbosity p = TABLE_BY_NAME.get(x); // (null) if x is (null)
 		if (p == null) {
 			if (throwIfNoMatch) {
 				throw new IllegalArgumentException("The passed String, '" + x + "' could not be transformed into a " + CLASS);
@@ -0,0 +1,146 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.util.Date;
+
+import com.mplify.logging.Story;
+import com.mplify.logging.storyhelpers.Doublet;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Class holding stuff collected from a cgroup v2 directory (generally
+ * /sys/fs/cgroup/...) in one place. Exists to make retrieval atomic, just
+ * like "ProcCollection".
+ *
+ * Values that could not be read (file missing, controller not enabled) are
+ * set to NOT_AVAILABLE. Limits that are set to "max" in the cgroup files are
+ * set to UNLIMITED.
+ *
+ * Unlike "ProcCollection", the time of collection is stored, as rates can
+ * only be computed from two collections (see CgroupRates)
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class CgroupCollection {
+
+    public final static long NOT_AVAILABLE = -1;
+    public final static long UNLIMITED = Long.MAX_VALUE;
+
+    public final long when_ms; // when the collection was made
+    public final long cpuQuota_us; // from "cpu.max": CPU time allowed per period, UNLIMITED if "max"
+    public final long cpuPeriod_us; // from "cpu.max": length of the period
+    public final long cpuUsage_us; // from "cpu.stat": "usage_usec", total CPU time used by the cgroup
+    public final long cpuUser_us; // from "cpu.stat": "user_usec"
+    public final long cpuSystem_us; // from "cpu.stat": "system_usec"
+    public final long cpuPeriodCount; // from "cpu.stat": "nr_periods", number of enforcement periods that elapsed
+    public final long cpuThrottledCount; // from "cpu.stat": "nr_throttled", number of periods in which the cgroup was throttled
+    public final long cpuThrottled_us; // from "cpu.stat": "throttled_usec", total time the cgroup was throttled
+    public final long memoryCurrent; // from "memory.current": bytes in use by the cgroup
+    public final long memoryMax; // from "memory.max": hard limit in bytes, UNLIMITED if "max"
+    public final long memoryHighEvents; // from "memory.events": "high", times the cgroup was reclaimed because over "memory.high"
+    public final long memoryMaxEvents; // from "memory.events": "max", times the cgroup was about to go over "memory.max"
+    public final long memoryOomEvents; // from "memory.events": "oom", times the cgroup hit the OOM condition
+    public final long memoryOomKillEvents; // from "memory.events": "oom_kill", processes killed by the OOM killer
+    public final long pidsCurrent; // from "pids.current": number of tasks in the cgroup
+    public final long pidsMax; // from "pids.max": limit on the number of tasks, UNLIMITED if "max"
+
+    public CgroupCollection(long when_ms, long cpuQuota_us, long cpuPeriod_us, long cpuUsage_us, long cpuUser_us, long cpuSystem_us, long cpuPeriodCount, long cpuThrottledCount,
+            long cpuThrottled_us, long memoryCurrent, long memoryMax, long memoryHighEvents, long memoryMaxEvents, long memoryOomEvents, long memoryOomKillEvents, long pidsCurrent,
+            long pidsMax) {
+        this.when_ms = when_ms;
+        this.cpuQuota_us = cpuQuota_us;
+        this.cpuPeriod_us = cpuPeriod_us;
+        this.cpuUsage_us = cpuUsage_us;
+        this.cpuUser_us = cpuUser_us;
+        this.cpuSystem_us = cpuSystem_us;
+        this.cpuPeriodCount = cpuPeriodCount;
+        this.cpuThrottledCount = cpuThrottledCount;
+        this.cpuThrottled_us = cpuThrottled_us;
+        this.memoryCurrent = memoryCurrent;
+        this.memoryMax = memoryMax;
+        this.memoryHighEvents = memoryHighEvents;
+        this.memoryMaxEvents = memoryMaxEvents;
+        this.memoryOomEvents = memoryOomEvents;
+        this.memoryOomKillEvents = memoryOomKillEvents;
+        this.pidsCurrent = pidsCurrent;
+        this.pidsMax = pidsMax;
+    }
+
+    /**
+     * The CPU limit expressed in "number of cores" (e.g. 1.5 if cpu.max is "150000 100000"). NaN if there is no limit
+     * or the limit is unknown.
+     */
+
+    public double getCpuLimit_cores() {
+        if (cpuQuota_us == UNLIMITED || cpuQuota_us == NOT_AVAILABLE || cpuPeriod_us <= 0) {
+            return Double.NaN;
+        } else {
+            return (double) cpuQuota_us / (double) cpuPeriod_us;
+        }
+    }
+
+    /**
+     * Memory in use divided by the memory limit. NaN if there is no limit or the value is unknown.
+     */
+
+    public double getMemoryUtilization() {
+        return ratio(memoryCurrent, memoryMax);
+    }
+
+    /**
+     * Tasks in use divided by the tasks limit. NaN if there is no limit or the value is unknown.
+     */
+
+    public double getPidsUtilization() {
+        return ratio(pidsCurrent, pidsMax);
+    }
+
+    private static double ratio(long current, long max) {
+        if (current == NOT_AVAILABLE || max == NOT_AVAILABLE || max == UNLIMITED || max <= 0) {
+            return Double.NaN;
+        } else {
+            return (double) current / (double) max;
+        }
+    }
+
+    private static String limitPrintout(long x) {
+        if (x == UNLIMITED) {
+            return "max";
+        } else if (x == NOT_AVAILABLE) {
+            return "n/a";
+        } else {
+            return Long.toString(x);
+        }
+    }
+
+    @SuppressWarnings("boxing")
+    public Story toStory() {
+        Story res = new Story();
+        res.add(new Doublet("Collected at", new Date(when_ms)));
+        res.add(new Doublet("CPU quota", limitPrintout(cpuQuota_us) + " us per " + limitPrintout(cpuPeriod_us) + " us"));
+        res.add(new Doublet("CPU limit", getCpuLimit_cores() + " cores"));
+        res.add(new Doublet("CPU usage so far", limitPrintout(cpuUsage_us) + " us"));
+        res.add(new Doublet("CPU usage so far, user", limitPrintout(cpuUser_us) + " us"));
+        res.add(new Doublet("CPU usage so far, system", limitPrintout(cpuSystem_us) + " us"));
+        res.add(new Doublet("Periods so far", limitPrintout(cpuPeriodCount)));
+        res.add(new Doublet("Throttled periods so far", limitPrintout(cpuThrottledCount)));
+        res.add(new Doublet("Throttled time so far", limitPrintout(cpuThrottled_us) + " us"));
+        res.add(new Doublet("Memory current", limitPrintout(memoryCurrent) + " byte"));
+        res.add(new Doublet("Memory max", limitPrintout(memoryMax) + " byte"));
+        res.add(new Doublet("Memory utilization", getMemoryUtilization()));
+        res.add(new Doublet("Memory 'high' events", limitPrintout(memoryHighEvents)));
+        res.add(new Doublet("Memory 'max' events", limitPrintout(memoryMaxEvents)));
+        res.add(new Doublet("Memory 'oom' events", limitPrintout(memoryOomEvents)));
+        res.add(new Doublet("Memory 'oom_kill' events", limitPrintout(memoryOomKillEvents)));
+        res.add(new Doublet("Tasks current", limitPrintout(pidsCurrent)));
+        res.add(new Doublet("Tasks max", limitPrintout(pidsMax)));
+        return res;
+    }
+}
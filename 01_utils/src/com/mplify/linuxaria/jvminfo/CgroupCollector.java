@@ -0,0 +1,251 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.util.StringTokenizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Read the cgroup v2 ("unified hierarchy") filesystem on Linux to find out
+ * about the resource limits imposed on the process (generally by a container
+ * runtime) and how close the process is to these limits.
+ *
+ * The cgroup directory of the process is found by reading /proc/self/cgroup,
+ * which for cgroup v2 contains a single line "0::/path/of/cgroup". The path
+ * is relative to the cgroup mount point /sys/fs/cgroup. Inside a container
+ * with a private cgroup namespace, the path is generally "/".
+ *
+ * The following files are read:
+ *
+ * cpu.max        - "$QUOTA $PERIOD", $QUOTA may be "max"
+ * cpu.stat       - "key value" lines: usage_usec, user_usec, system_usec,
+ *                  nr_periods, nr_throttled, throttled_usec
+ * memory.current - a single value in bytes
+ * memory.max     - a single value in bytes, may be "max"
+ * memory.events  - "key value" lines: low, high, max, oom, oom_kill
+ * pids.current   - a single value
+ * pids.max       - a single value, may be "max"
+ *
+ * If a file is missing (for example because the controller has not been
+ * enabled for the cgroup) the corresponding values are NOT_AVAILABLE.
+ *
+ * 2026.10.19 - Created, modeled on ProcCollector
+ ******************************************************************************/
+
+public class CgroupCollector {
+
+    private final static String CLASS = CgroupCollector.class.getName();
+    private final static Logger LOGGER_readCgroupFilesystem = LoggerFactory.getLogger(CLASS + ".readCgroupFilesystem");
+    private final static Logger LOGGER_findCgroupDirectory = LoggerFactory.getLogger(CLASS + ".findCgroupDirectory");
+
+    public final static File CGROUP_MOUNT_POINT = new File("/sys/fs/cgroup");
+    public final static File PROC_SELF_CGROUP = new File("/proc/self/cgroup");
+
+    /*
+     * Unreachable constructor as this class needs no instances
+     */
+
+    private CgroupCollector() {
+        // unreachable
+    }
+
+    /**
+     * Find the cgroup v2 directory of the current process below the given mount point, using the given "cgroup" file
+     * (normally /proc/self/cgroup). Returns null if this is not a cgroup v2 system.
+     */
+
+    public static File findCgroupDirectory(File mountPoint, File procSelfCgroup) {
+        Check.notNull(mountPoint, "mount point");
+        Check.notNull(procSelfCgroup, "/proc/self/cgroup file");
+        Logger logger = LOGGER_findCgroupDirectory;
+        String relPath = null;
+        try {
+            LineNumberReader lnr = new LineNumberReader(new InputStreamReader(new FileInputStream(procSelfCgroup), "US-ASCII"));
+            try {
+                String line;
+                while ((line = lnr.readLine()) != null) {
+                    // the cgroup v2 entry has hierarchy id 0 and no controller list
+                    if (line.startsWith("0::")) {
+                        relPath = line.substring(3).trim();
+                        break;
+                    }
+                }
+            } finally {
+                lnr.close();
+            }
+        } catch (IOException exe) {
+            logger.debug("Could not read " + procSelfCgroup, exe);
+        }
+        File res = mountPoint;
+        if (relPath != null && !relPath.isEmpty() && !"/".equals(relPath)) {
+            File candidate = new File(mountPoint, relPath);
+            // in a container without cgroup namespace, the host path may not be visible; fall back to the mount point
+            if (candidate.isDirectory()) {
+                res = candidate;
+            }
+        }
+        if (isCgroupV2Directory(res)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Using cgroup v2 directory " + res);
+            }
+            return res;
+        } else {
+            if (logger.isDebugEnabled()) {
+                logger.debug("No cgroup v2 directory found at " + res);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Find the cgroup v2 directory of the current process. Returns null if this is not a cgroup v2 system.
+     */
+
+    public static File findCgroupDirectory() {
+        return findCgroupDirectory(CGROUP_MOUNT_POINT, PROC_SELF_CGROUP);
+    }
+
+    /**
+     * A cgroup v2 directory always contains "cgroup.controllers"; a cgroup v1 hierarchy does not
+     */
+
+    public static boolean isCgroupV2Directory(File dir) {
+        return dir != null && new File(dir, "cgroup.controllers").isFile();
+    }
+
+    /**
+     * Get information from the given cgroup v2 directory. If this is not such a directory, the update will silently fail
+     * and return null.
+     */
+
+    public static CgroupCollection readCgroupFilesystem(File cgroupDir) {
+        Logger logger = LOGGER_readCgroupFilesystem;
+        if (!isCgroupV2Directory(cgroupDir)) {
+            return null;
+        }
+        try {
+            long when_ms = System.currentTimeMillis();
+            long cpuQuota_us = CgroupCollection.NOT_AVAILABLE;
+            long cpuPeriod_us = CgroupCollection.NOT_AVAILABLE;
+            {
+                String cpuMax = slurp(new File(cgroupDir, "cpu.max"));
+                if (cpuMax != null) {
+                    StringTokenizer st = new StringTokenizer(cpuMax);
+                    cpuQuota_us = parseValueOrMax(st.nextToken());
+                    cpuPeriod_us = parseValueOrMax(st.nextToken());
+                }
+            }
+            String cpuStat = slurp(new File(cgroupDir, "cpu.stat"));
+            String memoryEvents = slurp(new File(cgroupDir, "memory.events"));
+            return new CgroupCollection(when_ms, cpuQuota_us, cpuPeriod_us,
+                    getKeyedValue(cpuStat, "usage_usec"),
+                    getKeyedValue(cpuStat, "user_usec"),
+                    getKeyedValue(cpuStat, "system_usec"),
+                    getKeyedValue(cpuStat, "nr_periods"),
+                    getKeyedValue(cpuStat, "nr_throttled"),
+                    getKeyedValue(cpuStat, "throttled_usec"),
+                    getSingleValue(new File(cgroupDir, "memory.current")),
+                    getSingleValue(new File(cgroupDir, "memory.max")),
+                    getKeyedValue(memoryEvents, "high"),
+                    getKeyedValue(memoryEvents, "max"),
+                    getKeyedValue(memoryEvents, "oom"),
+                    getKeyedValue(memoryEvents, "oom_kill"),
+                    getSingleValue(new File(cgroupDir, "pids.current")),
+                    getSingleValue(new File(cgroupDir, "pids.max")));
+        } catch (Exception exe) {
+            // something went wrong...info this
+            logger.info("While accessing cgroup filesystem at " + cgroupDir, exe);
+            return null;
+        }
+    }
+
+    /**
+     * Read a (small) file into a String; return null if the file does not exist
+     */
+
+    private static String slurp(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        StringBuilder buf = new StringBuilder();
+        try {
+            InputStreamReader isr = new InputStreamReader(new FileInputStream(file), "US-ASCII");
+            try {
+                char[] cbuf = new char[500];
+                int actuallyRead;
+                while ((actuallyRead = isr.read(cbuf, 0, cbuf.length)) >= 0) {
+                    buf.append(cbuf, 0, actuallyRead);
+                }
+            } finally {
+                isr.close();
+            }
+        } catch (FileNotFoundException exe) {
+            // the file vanished in the meantime (or is not readable)
+            return null;
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Parse a value which may be "max"
+     */
+
+    private static long parseValueOrMax(String x) {
+        if ("max".equals(x)) {
+            return CgroupCollection.UNLIMITED;
+        } else {
+            return Long.parseLong(x);
+        }
+    }
+
+    /**
+     * Read a file which contains a single value, which may be "max"
+     */
+
+    private static long getSingleValue(File file) throws IOException {
+        String contents = slurp(file);
+        if (contents == null) {
+            return CgroupCollection.NOT_AVAILABLE;
+        } else {
+            return parseValueOrMax(contents.trim());
+        }
+    }
+
+    /**
+     * Find the value for "key" in the contents of a "flat keyed" file, i.e. a file made of "key value" lines
+     */
+
+    private static long getKeyedValue(String contents, String key) {
+        if (contents == null) {
+            return CgroupCollection.NOT_AVAILABLE;
+        }
+        StringTokenizer st = new StringTokenizer(contents);
+        while (st.hasMoreTokens()) {
+            String k = st.nextToken();
+            if (!st.hasMoreTokens()) {
+                break;
+            }
+            String v = st.nextToken();
+            if (key.equals(k)) {
+                return parseValueOrMax(v);
+            }
+        }
+        return CgroupCollection.NOT_AVAILABLE;
+    }
+}
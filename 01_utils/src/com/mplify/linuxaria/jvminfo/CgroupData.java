@@ -0,0 +1,303 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.io.File;
+import java.util.Date;
+
+import com.mplify.logging.Story;
+import com.mplify.logging.storyhelpers.Doublet;
+import com.mplify.mbeans.MBeanMarker;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Implementation of an MBean which exports the cgroup v2 limits of the
+ * process and the utilization relative to these limits. Works like
+ * "LinuxProcessData": data is read and buffered; a re-read is triggered by
+ * calling collect() or by a daemon thread animating run(). Access to the
+ * buffered data is synchronized on "collectionLock".
+ *
+ * Rates (CPU utilization, throttling) are computed between the last two
+ * collections, so they are NaN until the second collection.
+ *
+ * In order for JMX to recognize this as a StandardMBean implementing
+ * "CgroupDataMBean", the class MUST be named "CgroupData"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class CgroupData implements CgroupDataMBean, Runnable, MBeanMarker {
+
+    /**
+     * The cgroup directory being read; null if there is none
+     */
+
+    private final File cgroupDir;
+
+    /**
+     * Information obtained during the last collection and rates computed against the collection before that. (null)
+     * if no information has been obtained yet. There is also a "lock object" to make sure two collections don't run at
+     * the same time
+     */
+
+    private CgroupCollection collection = null;
+    private CgroupRates rates = null;
+    private Object collectionLock = new Object();
+
+    /**
+     * Timing
+     */
+
+    private long lastCollectionTime = 0; // when "collection" was created
+    private long nextCollectionTime = 0; // when "collection" will be created next
+    private long collectionInterval_ms = 5000; // time between collections; always at least 500 ms
+
+    /**
+     * Constructor which looks for the cgroup directory of the current process
+     */
+
+    public CgroupData() {
+        this(CgroupCollector.findCgroupDirectory());
+    }
+
+    /**
+     * Constructor which uses the given cgroup directory, which may be null (in which case nothing is ever collected)
+     */
+
+    public CgroupData(File cgroupDir) {
+        this.cgroupDir = cgroupDir;
+    }
+
+    /**
+     * If a background thread shall run to collect data, use a Thread object to run a daemon thread to animate
+     * Runnable.run().
+     */
+
+    @Override
+    public void run() {
+        for (;;) {
+            sleep();
+            collect();
+        }
+    }
+
+    /**
+     * Sleeping until time's up; see LinuxProcessData.sleep()
+     */
+
+    private void sleep() {
+        synchronized (collectionLock) {
+            while (System.currentTimeMillis() < nextCollectionTime) {
+                try {
+                    long waitTime_ms = Math.max(1, nextCollectionTime - System.currentTimeMillis());
+                    // the sleep
+                    collectionLock.wait(waitTime_ms);
+                } catch (Exception exe) {
+                    // probably interrupted
+                }
+            }
+        }
+    }
+
+    /**
+     * To have collection of new data proceed at once, call this
+     */
+
+    @Override
+    public void collect() {
+        synchronized (collectionLock) {
+            CgroupCollection newCollection = null;
+            if (cgroupDir != null) {
+                newCollection = CgroupCollector.readCgroupFilesystem(cgroupDir); // returns null if collection fails
+            }
+            if (newCollection != null && this.collection != null) {
+                this.rates = new CgroupRates(this.collection, newCollection);
+            } else {
+                this.rates = null;
+            }
+            this.collection = newCollection;
+            this.lastCollectionTime = System.currentTimeMillis();
+            this.nextCollectionTime = this.lastCollectionTime + this.collectionInterval_ms;
+        }
+    }
+
+    /**
+     * To set the collection interval, call this. The interval must be at least 500 ms.
+     */
+
+    @Override
+    public void setCollectionInterval_ms(long collectionInterval_ms) {
+        synchronized (collectionLock) {
+            this.collectionInterval_ms = Math.max(500, collectionInterval_ms);
+        }
+    }
+
+    /**
+     * Getter for the collection interval
+     */
+
+    @Override
+    public long getCollectionInterval_ms() {
+        synchronized (collectionLock) {
+            return this.collectionInterval_ms;
+        }
+    }
+
+    /**
+     * When did the last collection happen? Returns null if "never"
+     */
+
+    @Override
+    public Date getLastCollectionTime() {
+        synchronized (collectionLock) {
+            if (lastCollectionTime == 0) {
+                return null;
+            } else {
+                return new Date(lastCollectionTime);
+            }
+        }
+    }
+
+    @Override
+    public String getCgroupDirectory() {
+        if (cgroupDir == null) {
+            return null;
+        } else {
+            return cgroupDir.getPath();
+        }
+    }
+
+    /**
+     * Get the last collection; may be null
+     */
+
+    public CgroupCollection getCollection() {
+        synchronized (collectionLock) {
+            return collection;
+        }
+    }
+
+    /**
+     * Get the rates computed at the last collection; may be null
+     */
+
+    public CgroupRates getRates() {
+        synchronized (collectionLock) {
+            return rates;
+        }
+    }
+
+    @Override
+    public double getCpuLimit_cores() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? Double.NaN : c.getCpuLimit_cores();
+    }
+
+    @Override
+    public double getCpuCoresUsed() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.cpuCoresUsed;
+    }
+
+    @Override
+    public double getCpuUtilization() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.cpuUtilization;
+    }
+
+    @Override
+    public double getThrottledPeriodRatio() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.throttledPeriodRatio;
+    }
+
+    @Override
+    public double getThrottledTimeRatio() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.throttledTimeRatio;
+    }
+
+    @Override
+    public long getMemoryCurrent() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? CgroupCollection.NOT_AVAILABLE : c.memoryCurrent;
+    }
+
+    @Override
+    public long getMemoryMax() {
+        CgroupCollection c = getCollection();
+        if (c == null || c.memoryMax == CgroupCollection.UNLIMITED) {
+            return CgroupCollection.NOT_AVAILABLE;
+        } else {
+            return c.memoryMax;
+        }
+    }
+
+    @Override
+    public double getMemoryUtilization() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? Double.NaN : c.getMemoryUtilization();
+    }
+
+    @Override
+    public long getOomKillCount() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? CgroupCollection.NOT_AVAILABLE : c.memoryOomKillEvents;
+    }
+
+    @Override
+    public double getOomKillsPerMinute() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.oomKillsPerMinute;
+    }
+
+    @Override
+    public double getMemoryMaxEventsPerMinute() {
+        CgroupRates r = getRates();
+        return (r == null) ? Double.NaN : r.memoryMaxEventsPerMinute;
+    }
+
+    @Override
+    public long getPidsCurrent() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? CgroupCollection.NOT_AVAILABLE : c.pidsCurrent;
+    }
+
+    @Override
+    public double getPidsUtilization() {
+        CgroupCollection c = getCollection();
+        return (c == null) ? Double.NaN : c.getPidsUtilization();
+    }
+
+    /**
+     * A method that obtains all the values and returns them as a String
+     */
+
+    @SuppressWarnings("boxing")
+    @Override
+    public String toFlatStory() {
+        synchronized (collectionLock) {
+            if (this.collection != null) {
+                Story story = this.collection.toStory();
+                story.add(0, new Doublet("Cgroup directory", cgroupDir));
+                if (this.rates != null) {
+                    story.add(new Doublet("Interval", rates.interval_ms + " ms"));
+                    story.add(new Doublet("CPU cores used", rates.cpuCoresUsed));
+                    story.add(new Doublet("CPU utilization", rates.cpuUtilization));
+                    story.add(new Doublet("Throttled period ratio", rates.throttledPeriodRatio));
+                    story.add(new Doublet("Throttled time ratio", rates.throttledTimeRatio));
+                    story.add(new Doublet("OOM kills per minute", rates.oomKillsPerMinute));
+                }
+                return story.toString();
+            } else {
+                return "[nothing collected yet]";
+            }
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.util.Date;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Declaration of an MBean which exports the cgroup v2 resource limits of the
+ * process and how close the process is to them (thus works on Linux only).
+ * This is the counterpart of "LinuxProcessDataMBean" for containers.
+ *
+ * Values that are not available (not a cgroup v2 system, controller not
+ * enabled, no limit set, not enough collections yet) are NaN or -1.
+ *
+ * This currently is a "standard MBean"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface CgroupDataMBean {
+
+    /**
+     * To have collection of new data proceed at once, call this
+     */
+
+    public void collect();
+
+    /**
+     * To set the collection interval, call this. The interval must be at least 500 ms.
+     */
+
+    public void setCollectionInterval_ms(long collectionInterval_ms);
+
+    /**
+     * Getter for the collection interval
+     */
+
+    public long getCollectionInterval_ms();
+
+    /**
+     * When did the last collection happen? Returns null if "never"
+     */
+
+    public Date getLastCollectionTime();
+
+    /**
+     * The cgroup directory being read; null if none found
+     */
+
+    public String getCgroupDirectory();
+
+    /**
+     * CPU limit in cores (quota divided by period); NaN if unlimited
+     */
+
+    public double getCpuLimit_cores();
+
+    /**
+     * Average number of cores used during the last collection interval
+     */
+
+    public double getCpuCoresUsed();
+
+    /**
+     * CPU used divided by CPU allowed during the last collection interval; NaN if unlimited
+     */
+
+    public double getCpuUtilization();
+
+    /**
+     * Throttled periods divided by elapsed periods during the last collection interval
+     */
+
+    public double getThrottledPeriodRatio();
+
+    /**
+     * Time spent throttled divided by elapsed time during the last collection interval
+     */
+
+    public double getThrottledTimeRatio();
+
+    /**
+     * Memory in use by the cgroup in bytes
+     */
+
+    public long getMemoryCurrent();
+
+    /**
+     * Memory limit of the cgroup in bytes; -1 if unlimited or unknown
+     */
+
+    public long getMemoryMax();
+
+    /**
+     * Memory in use divided by the memory limit; NaN if unlimited
+     */
+
+    public double getMemoryUtilization();
+
+    /**
+     * Number of processes killed by the OOM killer in the cgroup since its creation
+     */
+
+    public long getOomKillCount();
+
+    /**
+     * OOM kills per minute during the last collection interval
+     */
+
+    public double getOomKillsPerMinute();
+
+    /**
+     * "memory.max" events per minute during the last collection interval
+     */
+
+    public double getMemoryMaxEventsPerMinute();
+
+    /**
+     * Number of tasks in the cgroup
+     */
+
+    public long getPidsCurrent();
+
+    /**
+     * Number of tasks divided by the task limit; NaN if unlimited
+     */
+
+    public double getPidsUtilization();
+
+    /**
+     * Get a user-readable text of the values
+     */
+
+    public String toFlatStory();
+}
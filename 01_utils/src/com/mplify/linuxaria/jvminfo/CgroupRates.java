@@ -0,0 +1,115 @@
+package com.mplify.linuxaria.jvminfo;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Rates computed from two successive "CgroupCollection" instances. Any rate
+ * that cannot be computed (counter not available, no limit, no elapsed time,
+ * counter reset) is NaN.
+ *
+ * cpuUtilization
+ *   CPU time used during the interval divided by the CPU time allowed by the
+ *   quota during the interval. 1.0 means "running at the limit".
+ *
+ * cpuCoresUsed
+ *   CPU time used during the interval divided by the wall clock time of the
+ *   interval, i.e. the average number of cores busy. Available even if
+ *   there is no limit.
+ *
+ * throttledPeriodRatio
+ *   Throttled periods divided by elapsed periods during the interval.
+ *
+ * throttledTimeRatio
+ *   Time spent throttled divided by the wall clock time of the interval.
+ *
+ * oomKillsPerMinute, memoryMaxEventsPerMinute
+ *   Event rates during the interval.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class CgroupRates {
+
+    public final long interval_ms;
+    public final double cpuUtilization;
+    public final double cpuCoresUsed;
+    public final double throttledPeriodRatio;
+    public final double throttledTimeRatio;
+    public final double oomKillsPerMinute;
+    public final double memoryMaxEventsPerMinute;
+
+    /**
+     * Compute the rates between an "earlier" and a "later" collection
+     */
+
+    public CgroupRates(CgroupCollection earlier, CgroupCollection later) {
+        Check.notNull(earlier, "earlier collection");
+        Check.notNull(later, "later collection");
+        this.interval_ms = later.when_ms - earlier.when_ms;
+        double interval_us = interval_ms * 1000.0;
+        long cpuUsed_us = delta(earlier.cpuUsage_us, later.cpuUsage_us);
+        {
+            double limit_cores = later.getCpuLimit_cores();
+            if (cpuUsed_us < 0 || interval_us <= 0 || Double.isNaN(limit_cores)) {
+                cpuUtilization = Double.NaN;
+            } else {
+                cpuUtilization = cpuUsed_us / (interval_us * limit_cores);
+            }
+        }
+        {
+            if (cpuUsed_us < 0 || interval_us <= 0) {
+                cpuCoresUsed = Double.NaN;
+            } else {
+                cpuCoresUsed = cpuUsed_us / interval_us;
+            }
+        }
+        {
+            long periods = delta(earlier.cpuPeriodCount, later.cpuPeriodCount);
+            long throttled = delta(earlier.cpuThrottledCount, later.cpuThrottledCount);
+            if (periods <= 0 || throttled < 0) {
+                throttledPeriodRatio = (periods == 0 && throttled == 0) ? 0.0 : Double.NaN;
+            } else {
+                throttledPeriodRatio = (double) throttled / (double) periods;
+            }
+        }
+        {
+            long throttled_us = delta(earlier.cpuThrottled_us, later.cpuThrottled_us);
+            if (throttled_us < 0 || interval_us <= 0) {
+                throttledTimeRatio = Double.NaN;
+            } else {
+                throttledTimeRatio = throttled_us / interval_us;
+            }
+        }
+        oomKillsPerMinute = perMinute(delta(earlier.memoryOomKillEvents, later.memoryOomKillEvents), interval_ms);
+        memoryMaxEventsPerMinute = perMinute(delta(earlier.memoryMaxEvents, later.memoryMaxEvents), interval_ms);
+    }
+
+    /**
+     * Difference between two counter values; -1 if one of them is unavailable or the counter went backwards (which
+     * happens if the cgroup was recreated)
+     */
+
+    private static long delta(long earlier, long later) {
+        if (earlier == CgroupCollection.NOT_AVAILABLE || later == CgroupCollection.NOT_AVAILABLE || later < earlier) {
+            return -1;
+        } else {
+            return later - earlier;
+        }
+    }
+
+    private static double perMinute(long count, long interval_ms) {
+        if (count < 0 || interval_ms <= 0) {
+            return Double.NaN;
+        } else {
+            return count * 60000.0 / interval_ms;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A bounded aggregation of "folded stacks", i.e. the format understood by
+ * Brendan Gregg's flamegraph.pl and most flame graph viewers: one line per
+ * distinct stack, frames separated by ";" from the root to the leaf,
+ * followed by a space and a weight.
+ *
+ *    worker-1;java.lang.Thread.run;com.foo.Bar.work;com.foo.Bar.hash 17
+ *
+ * The number of distinct stacks is bounded; once the bound is reached,
+ * weight for stacks not yet seen goes to the OVERFLOW entry so that totals
+ * stay correct.
+ *
+ * Access is synchronized; the sampler adds at a low rate and the MBean reads
+ * rarely, so there is no contention to speak of.
+ *
+ * 2026.10.19 - Created for ThreadCpuSampler
+ ******************************************************************************/
+
+public class FoldedStacks {
+
+    public final static String OVERFLOW = "[other stacks]";
+
+    private final int maxStacks;
+    private final Map<String, long[]> weights = new HashMap<String, long[]>();
+    private long totalWeight = 0;
+    private long overflowWeight = 0;
+
+    /**
+     * Constructor taking the maximum number of distinct stacks kept
+     */
+
+    public FoldedStacks(int maxStacks) {
+        if (maxStacks <= 0) {
+            throw new IllegalArgumentException("Passed maximum number of stacks was <=0 : " + maxStacks);
+        }
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * Build the folded representation of a stack trace, prefixed by the thread name. The passed frames are ordered as
+     * returned by the JVM, i.e. leaf first. Characters that would confuse flame graph tools are replaced.
+     */
+
+    public static String fold(String threadName, StackTraceElement[] frames) {
+        StringBuilder buf = new StringBuilder(64 + 48 * (frames == null ? 0 : frames.length));
+        appendSanitized(buf, threadName);
+        if (frames != null) {
+            for (int i = frames.length - 1; i >= 0; i--) {
+                buf.append(';');
+                appendSanitized(buf, frames[i].getClassName());
+                buf.append('.');
+                appendSanitized(buf, frames[i].getMethodName());
+            }
+        }
+        return buf.toString();
+    }
+
+    private static void appendSanitized(StringBuilder buf, String x) {
+        if (x == null) {
+            buf.append("(null)");
+            return;
+        }
+        for (int i = 0; i < x.length(); i++) {
+            char ch = x.charAt(i);
+            if (ch == ';' || ch == '\n' || ch == '\r') {
+                buf.append('_');
+            } else {
+                buf.append(ch);
+            }
+        }
+    }
+
+    /**
+     * Add weight to a folded stack
+     */
+
+    public synchronized void add(String folded, long weight) {
+        if (folded == null) {
+            throw new IllegalArgumentException("The passed folded stack is (null)");
+        }
+        if (weight <= 0) {
+            return;
+        }
+        long[] w = weights.get(folded);
+        if (w == null) {
+            if (weights.size() >= maxStacks) {
+                overflowWeight += weight;
+                totalWeight += weight;
+                return;
+            }
+            w = new long[1];
+            weights.put(folded, w);
+        }
+        w[0] += weight;
+        totalWeight += weight;
+    }
+
+    /**
+     * Forget everything
+     */
+
+    public synchronized void clear() {
+        weights.clear();
+        totalWeight = 0;
+        overflowWeight = 0;
+    }
+
+    /**
+     * Number of distinct stacks currently kept (not counting OVERFLOW)
+     */
+
+    public synchronized int size() {
+        return weights.size();
+    }
+
+    public int getMaxStacks() {
+        return maxStacks;
+    }
+
+    public synchronized long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public synchronized long getOverflowWeight() {
+        return overflowWeight;
+    }
+
+    /**
+     * Get the weight of a given folded stack; 0 if unknown
+     */
+
+    public synchronized long getWeight(String folded) {
+        if (OVERFLOW.equals(folded)) {
+            return overflowWeight;
+        }
+        long[] w = weights.get(folded);
+        return (w == null) ? 0 : w[0];
+    }
+
+    /**
+     * Produce the text in "folded" format, heaviest stacks first
+     */
+
+    public String toFoldedText() {
+        List<Entry<String, long[]>> list;
+        long overflow;
+        synchronized (this) {
+            list = new ArrayList<Entry<String, long[]>>(weights.size());
+            for (Entry<String, long[]> e : weights.entrySet()) {
+                // copy the weight so that sorting and printing happen on a snapshot
+                list.add(new AbstractMap.SimpleImmutableEntry<String, long[]>(e.getKey(), new long[] { e.getValue()[0] }));
+            }
+            overflow = overflowWeight;
+        }
+        Collections.sort(list, new Comparator<Entry<String, long[]>>() {
+            @Override
+            public int compare(Entry<String, long[]> a, Entry<String, long[]> b) {
+                long wa = a.getValue()[0];
+                long wb = b.getValue()[0];
+                if (wa != wb) {
+                    return (wa > wb) ? -1 : 1;
+                } else {
+                    return a.getKey().compareTo(b.getKey());
+                }
+            }
+        });
+        StringBuilder buf = new StringBuilder();
+        for (Entry<String, long[]> e : list) {
+            buf.append(e.getKey()).append(' ').append(e.getValue()[0]).append('\n');
+        }
+        if (overflow > 0) {
+            buf.append(OVERFLOW).append(' ').append(overflow).append('\n');
+        }
+        return buf.toString();
+    }
+}
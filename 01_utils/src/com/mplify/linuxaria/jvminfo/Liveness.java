@@ -1,8 +1,14 @@
 package com.mplify.linuxaria.jvminfo;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
+import com.mplify.checkers.Check;
 import com.mplify.mbeans.MBeanMarker;
+import com.mplify.threads.Heartbeat;
+import com.mplify.threads.HeartbeatRegistry;
+import com.mplify.threads.ThreadColor.Role;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
  * *****************************************************************************
@@ -24,7 +30,14 @@ import com.mplify.mbeans.MBeanMarker;
  * In order for JMX to recognize this as a StandardMBean implementing
  * "LivenessMBean", the class MUST be named "Liveness"
  * 
+ * - Heartbeat-based values: which of the worker threads registered with a
+ *   HeartbeatRegistry (the default one unless another is passed) have
+ *   stalled, how long ago each role last showed progress, and the
+ *   fraction of heartbeats that are fine.
+ * 
  * 2011.03.28 - Created 
+ * 2026.10.19 - Added the heartbeat-based values
+ * 2026.10.19 - Unknown role names yield -1 instead of an exception
  ******************************************************************************/
 
 public class Liveness implements LivenessMBean, MBeanMarker {
@@ -32,7 +45,26 @@ public class Liveness implements LivenessMBean, MBeanMarker {
     private final static Date creationDate = new Date();
     private final static double HALF_LIFE_IN_MS = 3600000; 
     private final static double k = Math.log(2) / HALF_LIFE_IN_MS; 
-    
+
+    private final HeartbeatRegistry registry;
+
+    /**
+     * Constructor reporting on the default HeartbeatRegistry
+     */
+
+    public Liveness() {
+        this(HeartbeatRegistry.getDefault());
+    }
+
+    /**
+     * Constructor reporting on the given HeartbeatRegistry
+     */
+
+    public Liveness(HeartbeatRegistry registry) {
+        Check.notNull(registry, "registry");
+        this.registry = registry;
+    }
+
     @Override
     public Date getCreationDate() {
         return creationDate;
@@ -43,5 +75,63 @@ public class Liveness implements LivenessMBean, MBeanMarker {
         double delta_ms = System.currentTimeMillis() - creationDate.getTime();
         return Math.exp(-k * delta_ms);
     }
-    
+
+    @Override
+    public double getLivenessScore() {
+        return registry.getLivenessScore();
+    }
+
+    @Override
+    public int getHeartbeatCount() {
+        return registry.getHeartbeats().size();
+    }
+
+    @Override
+    public int getStalledCount() {
+        return registry.getStalled().size();
+    }
+
+    @Override
+    public String[] getStalledThreads() {
+        List<Heartbeat> stalled = registry.getStalled();
+        String[] res = new String[stalled.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = stalled.get(i).toString();
+        }
+        return res;
+    }
+
+    @Override
+    public long getMaxTimeSinceLastHeartbeat_ms() {
+        long res = 0;
+        for (Heartbeat hb : registry.getHeartbeats()) {
+            res = Math.max(res, hb.getTimeSinceLastBeat_ms());
+        }
+        return res;
+    }
+
+    @Override
+    public String[] getTimeSinceLastHeartbeatPerRole() {
+        Map<Role, Long> map = registry.getTimeSinceLastBeatPerRole_ms();
+        String[] res = new String[map.size()];
+        int i = 0;
+        for (Map.Entry<Role, Long> e : map.entrySet()) {
+            res[i++] = e.getKey() + ": " + e.getValue() + " ms";
+        }
+        return res;
+    }
+
+    @Override
+    public long getTimeSinceLastHeartbeat_ms(String role) {
+        Role r;
+        try {
+            r = Role.valueOf(role);
+        } catch (IllegalArgumentException exe) {
+            return -1; // no such role, so no heartbeat with that role either
+        } catch (NullPointerException exe) {
+            return -1;
+        }
+        Long res = registry.getTimeSinceLastBeatPerRole_ms().get(r);
+        return (res == null) ? -1 : res.longValue();
+    }
 }
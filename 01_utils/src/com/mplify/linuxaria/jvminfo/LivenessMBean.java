@@ -25,6 +25,9 @@ import java.util.Date;
  * 2011.03.28 - Created 
  * 2011.03.30 - Renamed to "LivenessMBean" as it's not necessarily baout the 
  *              process only.
+ * 2026.10.19 - Added the heartbeat-based values, which say whether the
+ *              worker threads registered with the HeartbeatRegistry are
+ *              still making progress.
  ******************************************************************************/
 
 public interface LivenessMBean {
@@ -33,4 +36,47 @@ public interface LivenessMBean {
     
     public double getLiveness();
 
+    /**
+     * Fraction of the registered heartbeats that are not stalled; 1.0 if there are none
+     */
+
+    public double getLivenessScore();
+
+    /**
+     * Number of registered heartbeats
+     */
+
+    public int getHeartbeatCount();
+
+    /**
+     * Number of stalled heartbeats
+     */
+
+    public int getStalledCount();
+
+    /**
+     * Description of the stalled heartbeats, one per entry
+     */
+
+    public String[] getStalledThreads();
+
+    /**
+     * Longest time since the last heartbeat over all heartbeats; 0 if there are none
+     */
+
+    public long getMaxTimeSinceLastHeartbeat_ms();
+
+    /**
+     * Per role, the longest time since the last heartbeat among its heartbeats, as "ROLE: n ms"
+     */
+
+    public String[] getTimeSinceLastHeartbeatPerRole();
+
+    /**
+     * The longest time since the last heartbeat among the heartbeats with the given role; -1 if there are none or if
+     * there is no such role
+     */
+
+    public long getTimeSinceLastHeartbeat_ms(String role);
+
 }
@@ -3,7 +3,7 @@ package com.mplify.linuxaria.jvminfo;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.math.BigInteger;
 
 import org.slf4j.Logger;
@@ -41,6 +41,10 @@ import org.slf4j.LoggerFactory;
  *              MBean instead of through printout.
  *              Renamed to ProcCollector.
  * 2010.09.24 - Made public because also used in TX_Keepalive
+ * 2026.10.19 - 'stat' files are read as bytes into a reused buffer and
+ *              parsed by the new byte-level StatLine, which copes with
+ *              thread names containing spaces ("GC Thread#0"). vsize and
+ *              rss are only turned into BigInteger once per collection.
  *               
  * TODO: Export what went wrong (the exception caught) as an array of string
  ******************************************************************************/
@@ -85,81 +89,28 @@ public class ProcCollector {
         long loc_stimeSum = 0;
         long loc_childrenUtimeSum = 0;
         long loc_childrenStimeSum = 0;
-        BigInteger loc_vsize = new BigInteger("0");
-        BigInteger loc_rss = new BigInteger("0");
+        long loc_vsize = 0;
+        long loc_rss = 0;
         try {
-            // buf will take up the contents of the 'stat' files
-            char[] buf = new char[500];
+            // buf will take up the contents of the 'stat' files; a stat line is well below 1 KiB
+            byte[] buf = new byte[2048];
             // the 'stat' file of this thread
             File selfStat = new File("/proc/self/stat");
             if (!selfStat.exists()) {
                 // not the correct Linux version 
                 return null;
             }
-            int actuallyRead;
-            {
-                InputStreamReader isr = new InputStreamReader(new FileInputStream(selfStat)); // assume default charset 
-                actuallyRead = isr.read(buf, 0, buf.length);
-                isr.close();
-            }
             // assume the buffer contains the Linux 'stat' line; parse it!
-            StatLine sl = new StatLine(new String(buf, 0, actuallyRead));
-            // this seems to have succeeded (i.e. no exception), so get the thread group id, stored under 'process group' 
-            int tgid = sl.process_group;
-            int tid = sl.pid;
-            File threadGroupDir = new File("/proc", Integer.toString(tgid));
-            File threadDir = new File("/proc", Integer.toString(tid));
-            File taskSubDir_tgid = new File(threadGroupDir, "task");
-            File taskSubDir_self = new File("/proc/self/task");
-            File taskSubDir_tid = new File(threadDir, "task");
-            if (logger.isDebugEnabled()) {
-                if (threadGroupDir.exists()) {
-                    logger.debug(threadGroupDir + " exists");
-                } else {
-                    logger.debug(threadGroupDir + " does not exist");
-                }
-                if (threadDir.exists()) {
-                    logger.debug(threadDir + " exists");
-                } else {
-                    logger.debug(threadDir + " does not exist");
-                }
-                if (taskSubDir_tgid.exists()) {
-                    logger.debug(taskSubDir_tgid + " exists");
-                } else {
-                    logger.debug(taskSubDir_tgid + " does not exist");
-                }
-                if (taskSubDir_self.exists()) {
-                    logger.debug(taskSubDir_self + " exists");
-                } else {
-                    logger.debug(taskSubDir_self + " does not exist");
-                }
-                if (taskSubDir_tid.exists()) {
-                    logger.debug(taskSubDir_tid + " exists");
-                } else {
-                    logger.debug(taskSubDir_tid + " does not exist");
-                }
-            }
-            // get the list of thread ids from a 'task' subdir that exists
-            File taskSubDir;
-            if (taskSubDir_self.exists()) {
-                taskSubDir = taskSubDir_self;
-            } else if (taskSubDir_tgid.exists()) {
-                taskSubDir = taskSubDir_tgid;
-            } else if (taskSubDir_tid.exists()) {
-                taskSubDir = taskSubDir_tid;
-            } else {
-                throw new IllegalStateException("No path found to a 'task' subdirectory - sorry");
-            }
+            StatLine sl = new StatLine(buf, 0, readFully(selfStat, buf));
+            // this seems to have succeeded (i.e. no exception), so find the 'task' subdir listing all the threads
+            File taskSubDir = findTaskDirectory(sl);
             String[] tids = taskSubDir.list();
             // loop over all the tids and check out their 'stat' files 
             for (int i = 0; i < tids.length; i++) {
                 try {
                     File threadStat = new File(taskSubDir, tids[i] + "/stat");
-                    InputStreamReader isr = new InputStreamReader(new FileInputStream(threadStat)); // assume default charset
-                    int actuallyRead2 = isr.read(buf, 0, buf.length);
-                    isr.close();
                     // parse the stat file...
-                    StatLine sl2 = new StatLine(new String(buf, 0, actuallyRead2));
+                    StatLine sl2 = new StatLine(buf, 0, readFully(threadStat, buf));
                     // seems to have succeeded, collect the data
                     loc_minorFaultSum += sl2.min_flt;
                     loc_majorFaultSum += sl2.maj_flt;
@@ -172,7 +123,7 @@ public class ProcCollector {
                     if (i == 0) {
                         // take any stat file for vsize and rss
                         loc_vsize = sl2.vsize; // originally in bytes
-                        loc_rss = sl2.rss.multiply(new BigInteger("4096")); // originally in pages == 4KByte on x86, so we multiply
+                        loc_rss = sl2.rss * 4096; // originally in pages == 4KByte on x86, so we multiply
                     }
                 } catch (FileNotFoundException exe) {
                     // If 'threadStat' is gone, we will get an FileNotFoundException; this
@@ -182,11 +133,84 @@ public class ProcCollector {
             }
             // we made it w/o Exception; transfer values in one atomic operation
             return new ProcCollection(loc_minorFaultSum, loc_majorFaultSum, loc_childrenMinorFaultSum, loc_childrenMajorFaultSum, loc_utimeSum, loc_stimeSum, loc_childrenUtimeSum,
-                    loc_childrenStimeSum, loc_vsize, loc_rss);
+                    loc_childrenStimeSum, BigInteger.valueOf(loc_vsize), BigInteger.valueOf(loc_rss));
         } catch (Exception exe) {
             // something went wrong...info this
             logger.info("While accessing /proc filesystem", exe);            
             return null;
         }
     }
+
+    /**
+     * Find the 'task' subdirectory of the current process, which contains one subdirectory per thread. The passed
+     * StatLine is the one read from /proc/self/stat. Throws if there is no such directory.
+     */
+
+    static File findTaskDirectory(StatLine sl) {
+        Logger logger = LOGGER_readProcFilesystem;
+        // get the thread group id, stored under 'process group'
+        int tgid = sl.process_group;
+        int tid = sl.pid;
+        File threadGroupDir = new File("/proc", Integer.toString(tgid));
+        File threadDir = new File("/proc", Integer.toString(tid));
+        File taskSubDir_tgid = new File(threadGroupDir, "task");
+        File taskSubDir_self = new File("/proc/self/task");
+        File taskSubDir_tid = new File(threadDir, "task");
+        if (logger.isDebugEnabled()) {
+            if (threadGroupDir.exists()) {
+                logger.debug(threadGroupDir + " exists");
+            } else {
+                logger.debug(threadGroupDir + " does not exist");
+            }
+            if (threadDir.exists()) {
+                logger.debug(threadDir + " exists");
+            } else {
+                logger.debug(threadDir + " does not exist");
+            }
+            if (taskSubDir_tgid.exists()) {
+                logger.debug(taskSubDir_tgid + " exists");
+            } else {
+                logger.debug(taskSubDir_tgid + " does not exist");
+            }
+            if (taskSubDir_self.exists()) {
+                logger.debug(taskSubDir_self + " exists");
+            } else {
+                logger.debug(taskSubDir_self + " does not exist");
+            }
+            if (taskSubDir_tid.exists()) {
+                logger.debug(taskSubDir_tid + " exists");
+            } else {
+                logger.debug(taskSubDir_tid + " does not exist");
+            }
+        }
+        // get the list of thread ids from a 'task' subdir that exists
+        if (taskSubDir_self.exists()) {
+            return taskSubDir_self;
+        } else if (taskSubDir_tgid.exists()) {
+            return taskSubDir_tgid;
+        } else if (taskSubDir_tid.exists()) {
+            return taskSubDir_tid;
+        } else {
+            throw new IllegalStateException("No path found to a 'task' subdirectory - sorry");
+        }
+    }
+
+    /**
+     * Read the (small) file into the buffer, return the number of bytes read. Throws FileNotFoundException if the file
+     * is gone.
+     */
+
+    static int readFully(File file, byte[] buf) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            int total = 0;
+            int actuallyRead;
+            while (total < buf.length && (actuallyRead = fis.read(buf, total, buf.length - total)) >= 0) {
+                total += actuallyRead;
+            }
+            return total;
+        } finally {
+            fis.close();
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package com.mplify.linuxaria.jvminfo;
 
-import java.math.BigInteger;
-import java.util.StringTokenizer;
+import java.nio.charset.Charset;
 
 //import org.slf4j.Logger;
 //import org.slf4j.LoggerFactory;
@@ -15,32 +14,59 @@ import java.util.StringTokenizer;
  * All rights reserved.
  *******************************************************************************
  *******************************************************************************
- * A class representing the contents of /proc/TID/stat. We are using the 
+ * A class representing the contents of /proc/TID/stat. We are using the
  * description given in O'Reilly: "/proc et /sys - accès direct au noyau Linux"
- * by Olivier Daudel. The value's sizes give rise to some caveats; see below. We
- * assume: 
- * 
- * %d == 32-bit signed ==> int 
- * %lu == 32-bit bitset or we use a 64-bit signed integer instead to accomodate 32-bit unsigned ==> long 
- * %ld == 32-bit signed value ==> int 
- * %%llu == 64-bit unsigned; we use 64-bit signed ==> long Addresses are BigInteger to accomodate 64-bit unsigned values
- * 
+ * by Olivier Daudel and proc(5). The value's sizes give rise to some caveats;
+ * see below. We assume:
+ *
+ * %d == 32-bit signed ==> int
+ * %lu == 32-bit bitset or we use a 64-bit signed integer instead to accomodate 32-bit unsigned ==> long
+ * %ld == 32-bit signed value ==> int
+ * %%llu == 64-bit unsigned; we use 64-bit signed ==> long
+ *
+ * Addresses and limits are 64-bit unsigned values. They are stored in a
+ * "long" with the same bit pattern, i.e. values above Long.MAX_VALUE come out
+ * negative (the typical case is "rlim_rss_cur", which is 2^64-1 if there is
+ * no limit, and thus -1).
+ *
+ * The line is parsed directly from the bytes read from the file. The "comm"
+ * field is enclosed in parentheses but may itself contain spaces and
+ * parentheses (thread names set through prctl(PR_SET_NAME), e.g.
+ * "GC Thread#0" or "C2 CompilerThre"), so it extends from the first "(" to
+ * the *last* ")" of the line; everything after that is parsed positionally.
+ *
+ * Fields appended by kernels after 2.6.x ("delayacct_blkio_ticks" to
+ * "exit_code") are optional: if missing they are 0 and "fieldCount" tells
+ * how many fields were actually found.
+ *
  * Package visibility is sufficient here!
- * 
+ *
  * 2004.06.21 - Created as private nested class of ProcAccessHelper
  * 2009.11.06 - Class moved out to toplevel for better legibility
  * 2010.02.18 - Reintegrated into new "JMX" project; data shall be access by
  *              MBean instead of through printout.
+ * 2026.10.19 - Replaced StringTokenizer with a byte-level parser that
+ *              handles "comm" containing spaces and parentheses. No more
+ *              BigInteger. Added the fields of newer kernels.
  ******************************************************************************/
 
 class StatLine {
 
 //    private final static String CLASS = StatLine.class.getName();
-//    private final static Logger LOGGER_init = LoggerFactory.getLogger(CLASS + ".<init>");    
+//    private final static Logger LOGGER_init = LoggerFactory.getLogger(CLASS + ".<init>");
+
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Number of fields up to and including "policy", which must always be there
+     */
 
-    public final int pid; // %d, thread id (by tradition, called pid) 
-    public final String comm; // name of executable, "zomb" if zombi
-    public final char state; // state of thread: 0->R, 1->S, 2->D, 4->Z, 8->T, 16->X
+    public final static int MANDATORY_FIELD_COUNT = 41;
+
+    public final int fieldCount; // number of fields found on the line, at least MANDATORY_FIELD_COUNT
+    public final int pid; // %d, thread id (by tradition, called pid)
+    public final String comm; // name of executable or thread, without the enclosing parentheses
+    public final char state; // state of thread: R, S, D, Z, T, t, X, I...
     public final int ppid; // %d,  parent thread id, we assume 32-bit signed
     public final int process_group; // %d,  thread id of thread group leader == thread group id
     public final int session; // %d,  session id == SID
@@ -60,112 +86,228 @@ class StatLine {
     public final int num_threads; // %ld, number of threads in thread group
     public final int it_real_value; // %ld, number of jiffies to the next SIGALRM
     public final long start_time; // %ll, utime of thread start counted from system boot in jiffies
-    public final BigInteger vsize; // %lu, virtual memory size in byte
-    public final BigInteger rss; // %ld, resident set size in blocks (4KB on x86)
-    public final BigInteger rlim_rss_cur; // %lu, current virtual memory limit ulimit -S -v
-    public final BigInteger start_code; // %lu, address of code start
-    public final BigInteger end_code; // %lu, address of code end
-    public final BigInteger start_stack; // %lu, address of start of stack
-    public final BigInteger esp; // %lu, stack pointer
-    public final BigInteger eip; // %lu, instruction pointer
+    public final long vsize; // %lu, virtual memory size in byte
+    public final long rss; // %ld, resident set size in blocks (4KB on x86)
+    public final long rlim_rss_cur; // %lu, current virtual memory limit ulimit -S -v (unsigned)
+    public final long start_code; // %lu, address of code start (unsigned)
+    public final long end_code; // %lu, address of code end (unsigned)
+    public final long start_stack; // %lu, address of start of stack (unsigned)
+    public final long esp; // %lu, stack pointer (unsigned)
+    public final long eip; // %lu, instruction pointer (unsigned)
     public final long pending; // %lu, pending signals
     public final long blocked; // %lu, blocked signals
     public final long sigign; // %lu, ignores signals
     public final long sigcatch; // %lu, caught signals
-    public final BigInteger wchan; // %lu, address of wait function
+    public final long wchan; // %lu, address of wait function (unsigned)
     public final long nswap; // %lu, number of pages swapped out - always 0
     public final long cnswap; // %lu, number of pages swapped out for child threads - always 0
     public final int exit_signal; // %d,  signal to send to parent on exit
     public final int processor_task_cpu; // %d,  cpu lastly used: 0, 1, 2, etc..
     public final int rt_priority; // %lu, real-time priority or 0 if NORMAL
     public final int policy; // %lu, scheduling policy: 0->NORMAL, 1->FIFO, 2->RR
+    public final long delayacct_blkio_ticks; // %llu, aggregated block I/O delays in jiffies (since 2.6.18)
+    public final long guest_time; // %lu, jiffies spent running a virtual CPU for a guest OS (since 2.6.24)
+    public final long cguest_time; // %ld, guest time of the thread's children (since 2.6.24)
+    public final long start_data; // %lu, address of start of data (unsigned, since 3.3)
+    public final long end_data; // %lu, address of end of data (unsigned, since 3.3)
+    public final long start_brk; // %lu, address above which the heap can be expanded (unsigned, since 3.3)
+    public final long arg_start; // %lu, address of command line arguments (unsigned, since 3.5)
+    public final long arg_end; // %lu, address of end of command line arguments (unsigned, since 3.5)
+    public final long env_start; // %lu, address of environment (unsigned, since 3.5)
+    public final long env_end; // %lu, address of end of environment (unsigned, since 3.5)
+    public final int exit_code; // %d, thread's exit status as reported by waitpid (since 3.5)
 
-    public StatLine(String line) {
+    /**
+     * Helper walking over the space-separated fields following "comm". Numbers are parsed in place, without creating
+     * intermediate Strings.
+     */
+
+    private static class Cursor {
+
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+        private int fieldCount;
+
+        Cursor(byte[] buf, int pos, int end, int fieldCount) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+            this.fieldCount = fieldCount;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (buf[pos] == ' ' || buf[pos] == '\n' || buf[pos] == 0)) {
+                pos++;
+            }
+        }
+
+        boolean hasNext() {
+            skipWhitespace();
+            return pos < end;
+        }
+
+        private void mustHaveNext() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException("The stat line ends after field " + fieldCount);
+            }
+        }
+
+        char nextChar() {
+            mustHaveNext();
+            char res = (char) (buf[pos++] & 0xFF);
+            if (pos < end && buf[pos] != ' ' && buf[pos] != '\n') {
+                throw new IllegalArgumentException("Field " + (fieldCount + 1) + " is not a single character");
+            }
+            fieldCount++;
+            return res;
+        }
+
+        /**
+         * Parse a decimal number, which may be negative. Unsigned 64-bit values larger than Long.MAX_VALUE wrap
+         * around and come out negative, which is what we want.
+         */
+
+        long nextLong() {
+            mustHaveNext();
+            boolean negative = false;
+            if (buf[pos] == '-') {
+                negative = true;
+                pos++;
+            }
+            int start = pos;
+            long res = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                res = res * 10 + (buf[pos] - '0');
+                pos++;
+            }
+            if (pos == start || (pos < end && buf[pos] != ' ' && buf[pos] != '\n')) {
+                throw new IllegalArgumentException("Field " + (fieldCount + 1) + " is not a decimal number");
+            }
+            fieldCount++;
+            return negative ? -res : res;
+        }
+
+        int nextInt() {
+            return (int) nextLong();
+        }
+
+        long nextOptionalLong() {
+            if (hasNext()) {
+                return nextLong();
+            } else {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Construct from the bytes of a stat file, as read
+     */
+
+    public StatLine(byte[] buf, int offset, int length) {
 //        Logger logger = LOGGER_init;
-        StringTokenizer st = new StringTokenizer(line);
-        // log after each parse so that we know when something goes wrong
-        pid = Integer.parseInt(st.nextToken());
-        // logger.info("pid: " + pid);
-        // TODO: this will fail if 'comm' contains spaces - need a regexp here? The name is enclosed in ()
-        comm = st.nextToken();
-        // logger.info("comm: " + comm);
-        state = st.nextToken().charAt(0);
-        // logger.info("state: " + state);
-        ppid = Integer.parseInt(st.nextToken());
-        // logger.info("ppid: " + ppid);
-        process_group = Integer.parseInt(st.nextToken());
-        // logger.info("process_group: " + process_group);
-        session = Integer.parseInt(st.nextToken());
-        // logger.info("session: " + session);
-        tty_nr = Integer.parseInt(st.nextToken());
-        // logger.info("tty_nr: " + tty_nr);
-        tty_pgrp = Integer.parseInt(st.nextToken());
-        // logger.info("tty_pgrp: " + tty_pgrp);
-        flags = Long.parseLong(st.nextToken());
-        // logger.info("flags: " + flags);
-        min_flt = Long.parseLong(st.nextToken());
-        // logger.info("min_flt: " + min_flt);
-        cmin_flt = Long.parseLong(st.nextToken());
-        // logger.info("cmin_flt: " + cmin_flt);
-        maj_flt = Long.parseLong(st.nextToken());
-        // logger.info("maj_flt: " + maj_flt);
-        cmaj_flt = Long.parseLong(st.nextToken());
-        // logger.info("cmaj_flt: " + cmaj_flt);
-        utime = Long.parseLong(st.nextToken());
-        // logger.info("utime: " + utime);
-        stime = Long.parseLong(st.nextToken());
-        // logger.info("stime: " + stime);
-        cutime = Long.parseLong(st.nextToken());
-        // logger.info("cutime: " + cutime);
-        cstime = Long.parseLong(st.nextToken());
-        // logger.info("cstime: " + cstime);
-        priority = Integer.parseInt(st.nextToken());
-        // logger.info("priority: " + priority);
-        nice = Integer.parseInt(st.nextToken());
-        // logger.info("nice: " + nice);
-        num_threads = Integer.parseInt(st.nextToken());
-        // logger.info("num_threads: " + num_threads);
-        it_real_value = Integer.parseInt(st.nextToken());
-        // logger.info("it_real_value: " + it_real_value);
-        start_time = Long.parseLong(st.nextToken());
-        // logger.info("start_time: " + start_time);
-        vsize = new BigInteger(st.nextToken());
-        // logger.info("vsize: " + vsize);
-        rss = new BigInteger(st.nextToken());
-        // logger.info("rss: " + rss);
-        rlim_rss_cur = new BigInteger(st.nextToken());
-        // logger.info("rlim_rss_cur: " + rlim_rss_cur);
-        start_code = new BigInteger(st.nextToken());
-        // logger.info("start_code: " + start_code);
-        end_code = new BigInteger(st.nextToken());
-        // logger.info("end_code: " + end_code);
-        start_stack = new BigInteger(st.nextToken());
-        // logger.info("start_stack: " + start_stack);
-        esp = new BigInteger(st.nextToken());
-        // logger.info("esp: " + esp);
-        eip = new BigInteger(st.nextToken());
-        // logger.info("eip: " + eip);
-        pending = Long.parseLong(st.nextToken());
-        // logger.info("pending: " + pending);
-        blocked = Long.parseLong(st.nextToken());
-        // logger.info("blocked: " + blocked);
-        sigign = Long.parseLong(st.nextToken());
-        // logger.info("sigign: " + sigign);
-        sigcatch = Long.parseLong(st.nextToken());
-        // logger.info("sigcatch: " + sigcatch);
-        wchan = new BigInteger(st.nextToken());
-        // logger.info("wchan: " + wchan);
-        nswap = Long.parseLong(st.nextToken());
-        // logger.info("nswap: " + nswap);
-        cnswap = Long.parseLong(st.nextToken());
-        // logger.info("cnswap: " + cnswap);
-        exit_signal = Integer.parseInt(st.nextToken());
-        // logger.info("exit_signal       : " + exit_signal);
-        processor_task_cpu = Integer.parseInt(st.nextToken());
-        // logger.info("processor_task_cpu: " + processor_task_cpu);
-        rt_priority = Integer.parseInt(st.nextToken());
-        // logger.info("rt_priority       : " + rt_priority);
-        policy = Integer.parseInt(st.nextToken());
-        // logger.info("policy: " + policy);
+        if (buf == null) {
+            throw new IllegalArgumentException("The passed buffer is (null)");
+        }
+        int end = offset + length;
+        if (offset < 0 || length < 0 || end > buf.length) {
+            throw new IllegalArgumentException("Offset " + offset + " and length " + length + " do not fit a buffer of length " + buf.length);
+        }
+        int openParen = -1;
+        for (int i = offset; i < end && openParen < 0; i++) {
+            if (buf[i] == '(') {
+                openParen = i;
+            }
+        }
+        int closeParen = -1;
+        for (int i = end - 1; i > openParen && closeParen < 0; i--) {
+            if (buf[i] == ')') {
+                closeParen = i;
+            }
+        }
+        if (openParen < 0 || closeParen < 0) {
+            throw new IllegalArgumentException("The stat line has no '(comm)' field");
+        }
+        {
+            Cursor cur = new Cursor(buf, offset, openParen, 0);
+            pid = cur.nextInt();
+            if (cur.hasNext()) {
+                throw new IllegalArgumentException("Unexpected data between 'pid' and 'comm'");
+            }
+        }
+        comm = new String(buf, openParen + 1, closeParen - openParen - 1, UTF8);
+        Cursor cur = new Cursor(buf, closeParen + 1, end, 2);
+        state = cur.nextChar();
+        ppid = cur.nextInt();
+        process_group = cur.nextInt();
+        session = cur.nextInt();
+        tty_nr = cur.nextInt();
+        tty_pgrp = cur.nextInt();
+        flags = cur.nextLong();
+        min_flt = cur.nextLong();
+        cmin_flt = cur.nextLong();
+        maj_flt = cur.nextLong();
+        cmaj_flt = cur.nextLong();
+        utime = cur.nextLong();
+        stime = cur.nextLong();
+        cutime = cur.nextLong();
+        cstime = cur.nextLong();
+        priority = cur.nextInt();
+        nice = cur.nextInt();
+        num_threads = cur.nextInt();
+        it_real_value = cur.nextInt();
+        start_time = cur.nextLong();
+        vsize = cur.nextLong();
+        rss = cur.nextLong();
+        rlim_rss_cur = cur.nextLong();
+        start_code = cur.nextLong();
+        end_code = cur.nextLong();
+        start_stack = cur.nextLong();
+        esp = cur.nextLong();
+        eip = cur.nextLong();
+        pending = cur.nextLong();
+        blocked = cur.nextLong();
+        sigign = cur.nextLong();
+        sigcatch = cur.nextLong();
+        wchan = cur.nextLong();
+        nswap = cur.nextLong();
+        cnswap = cur.nextLong();
+        exit_signal = cur.nextInt();
+        processor_task_cpu = cur.nextInt();
+        rt_priority = cur.nextInt();
+        policy = cur.nextInt();
+        // fields of newer kernels; anything beyond "exit_code" is ignored
+        delayacct_blkio_ticks = cur.nextOptionalLong();
+        guest_time = cur.nextOptionalLong();
+        cguest_time = cur.nextOptionalLong();
+        start_data = cur.nextOptionalLong();
+        end_data = cur.nextOptionalLong();
+        start_brk = cur.nextOptionalLong();
+        arg_start = cur.nextOptionalLong();
+        arg_end = cur.nextOptionalLong();
+        env_start = cur.nextOptionalLong();
+        env_end = cur.nextOptionalLong();
+        exit_code = (int) cur.nextOptionalLong();
+        fieldCount = cur.fieldCount;
+    }
+
+    /**
+     * Construct from a String; used in testing
+     */
+
+    public StatLine(String line) {
+        this(toBytes(line));
+    }
+
+    private StatLine(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    private static byte[] toBytes(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("The passed line is (null)");
+        }
+        return line.getBytes(UTF8);
     }
 }
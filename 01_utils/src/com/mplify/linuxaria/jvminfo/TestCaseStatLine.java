@@ -0,0 +1,194 @@
+package com.mplify.linuxaria.jvminfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the parsing of /proc/TID/stat lines. Lives in the package of
+ * "StatLine" because that class is package-visible only.
+ *
+ * The "captured" lines have been taken from a running JVM on Linux 6.x
+ * (52 fields) and from older systems (2.6.x, 44 fields). The fuzz test
+ * generates lines with random thread names (containing spaces and
+ * parentheses) and random field values, and checks they are read back.
+ ******************************************************************************/
+
+public class TestCaseStatLine extends TestStarter {
+
+    private final static String[] CAPTURED = {
+            "697 (java) S 678 697 678 0 -1 4194304 552 0 0 0 0 0 0 0 20 0 14 0 24709 3700760576 8765 18446744073709551615 94561664229376 94561664230437 140735619031440 0 0 0 0 0 16800975 1 0 0 17 0 0 0 0 0 0 94561664240928 94561664241688 94561745981440 140735619040443 140735619040460 140735619040460 140735619043273 0\n",
+            "700 (VM Thread) S 678 697 678 0 -1 4194368 2 0 0 0 0 0 0 0 20 0 14 0 24711 3700760576 8765 18446744073709551615 94561664229376 94561664230437 140735619031440 0 0 0 0 0 16800975 1 0 0 -1 0 0 0 0 0 0 94561664240928 94561664241688 94561745981440 140735619040443 140735619040460 140735619040460 140735619043273 0\n",
+            "706 (C2 CompilerThre) S 678 697 678 0 -1 4194368 122 0 0 0 0 0 0 0 20 0 14 0 24712 3700760576 8765 18446744073709551615 94561664229376 94561664230437 140735619031440 0 0 0 4 0 16800975 1 0 0 -1 0 0 0 0 0 0 94561664240928 94561664241688 94561745981440 140735619040443 140735619040460 140735619040460 140735619043273 0\n",
+            "31254 (GC Thread#0) S 1 31221 31221 0 -1 1077936192 1533 0 0 0 8731 412 0 0 20 0 83 0 1738 9461944320 423415 18446744073709551615 94230165762048 94230165762877 140724700011936 0 0 0 4 0 16800975 0 0 0 -1 3 0 0 0 0 0 94230165773640 94230165774352 94230176686080 140724700020019 140724700020360 140724700020360 140724700024793 0\n",
+            "31260 (G1 Young RemSet) S 1 31221 31221 0 -1 1077936192 3 0 0 0 15 2 0 0 20 0 83 0 1739 9461944320 423415 18446744073709551615 94230165762048 94230165762877 140724700011936 0 0 0 4 0 16800975 0 0 0 -1 1 0 0 0 0 0 94230165773640 94230165774352 94230176686080 140724700020019 140724700020360 140724700020360 140724700024793 0\n",
+            "4711 (java) S 4700 4711 4700 0 -1 4202560 15123 0 12 0 1234 567 0 0 20 0 27 0 7349 1266515968 31512 4294967295 134512640 134550092 3215953184 3215950480 3086062614 0 0 4096 16384 4294967295 0 0 17 1 0 0 7 0 0\n" };
+
+    @Test
+    public void testCapturedLines() {
+        {
+            StatLine sl = new StatLine(CAPTURED[0]);
+            assertEquals(52, sl.fieldCount);
+            assertEquals(697, sl.pid);
+            assertEquals("java", sl.comm);
+            assertEquals('S', sl.state);
+            assertEquals(678, sl.ppid);
+            assertEquals(697, sl.process_group);
+            assertEquals(14, sl.num_threads);
+            assertEquals(3700760576L, sl.vsize);
+            assertEquals(8765, sl.rss);
+            assertEquals(-1L, sl.rlim_rss_cur); // 2^64-1 as an unsigned value
+            assertEquals(94561664229376L, sl.start_code);
+            assertEquals(17, sl.exit_signal);
+            assertEquals(94561664240928L, sl.start_data);
+            assertEquals(140735619043273L, sl.env_end);
+            assertEquals(0, sl.exit_code);
+        }
+        {
+            StatLine sl = new StatLine(CAPTURED[1]);
+            assertEquals("VM Thread", sl.comm);
+            assertEquals(-1, sl.exit_signal);
+        }
+        {
+            StatLine sl = new StatLine(CAPTURED[2]);
+            assertEquals("C2 CompilerThre", sl.comm);
+        }
+        {
+            StatLine sl = new StatLine(CAPTURED[3]);
+            assertEquals("GC Thread#0", sl.comm);
+            assertEquals(8731, sl.utime);
+            assertEquals(412, sl.stime);
+            assertEquals(3, sl.processor_task_cpu);
+        }
+        {
+            StatLine sl = new StatLine(CAPTURED[4]);
+            assertEquals("G1 Young RemSet", sl.comm);
+            assertEquals(15, sl.utime);
+        }
+        {
+            // 2.6-era kernel: stops at "cguest_time"
+            StatLine sl = new StatLine(CAPTURED[5]);
+            assertEquals(44, sl.fieldCount);
+            assertEquals(1234, sl.utime);
+            assertEquals(567, sl.stime);
+            assertEquals(4294967295L, sl.rlim_rss_cur);
+            assertEquals(7, sl.delayacct_blkio_ticks);
+            assertEquals(0, sl.start_data);
+        }
+    }
+
+    @Test
+    public void testParenthesesInComm() {
+        String tail = " R 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15 16 17 18 19 20 21 22 23 24 25 26 27 28 29 30 31 32 33 34 35 36 37 38 39";
+        assertEquals(") (", new StatLine("42 () ()" + tail).comm);
+        assertEquals("a) b (c", new StatLine("42 (a) b (c)" + tail).comm);
+        assertEquals("", new StatLine("42 ()" + tail).comm);
+        assertEquals(11, new StatLine("42 (x) 1 R)" + tail).utime);
+    }
+
+    @Test
+    public void testBufferWithOffset() {
+        Charset ascii = Charset.forName("US-ASCII");
+        byte[] line = CAPTURED[3].getBytes(ascii);
+        byte[] buf = new byte[line.length + 20];
+        System.arraycopy(line, 0, buf, 10, line.length);
+        StatLine sl = new StatLine(buf, 10, line.length);
+        assertEquals(31254, sl.pid);
+        assertEquals("GC Thread#0", sl.comm);
+        assertEquals(52, sl.fieldCount);
+    }
+
+    @Test
+    public void testBrokenLines() {
+        String line = CAPTURED[0];
+        // truncation anywhere before "policy" must result in an exception, not in garbage
+        int limit = line.indexOf(" 0 0 0 0 0 0 94561664240928");
+        for (int i = 0; i < limit; i++) {
+            try {
+                new StatLine(line.substring(0, i));
+                fail("Truncation at " + i + " should have failed: " + line.substring(0, i));
+            } catch (IllegalArgumentException exe) {
+                // expected
+            }
+        }
+        String[] broken = { "x (java) S", "697 java S 1 2 3", "697 (java) SS 678", "697 (java) S 678 69x7" };
+        for (String b : broken) {
+            try {
+                new StatLine(b + CAPTURED[0].substring(20));
+                fail("Should have failed: " + b);
+            } catch (IllegalArgumentException exe) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFuzz() {
+        Random rand = new Random(20261019L);
+        String alphabet = "abcXYZ019 ()#-_/:.";
+        for (int round = 0; round < 10000; round++) {
+            // kernel truncates comm to 15 characters but we don't care
+            StringBuilder comm = new StringBuilder();
+            int commLength = rand.nextInt(20);
+            for (int i = 0; i < commLength; i++) {
+                comm.append(alphabet.charAt(rand.nextInt(alphabet.length())));
+            }
+            int pid = rand.nextInt(4194304);
+            long[] values = new long[50]; // values of fields 4 to 53
+            for (int i = 0; i < values.length; i++) {
+                switch (rand.nextInt(4)) {
+                case 0:
+                    values[i] = 0;
+                    break;
+                case 1:
+                    values[i] = rand.nextInt(1000);
+                    break;
+                case 2:
+                    values[i] = rand.nextInt() & 0x7FFFFFFFL;
+                    break;
+                default:
+                    values[i] = rand.nextLong() & Long.MAX_VALUE;
+                    break;
+                }
+            }
+            int fieldCount = StatLine.MANDATORY_FIELD_COUNT + rand.nextInt(13); // 41 to 53 fields
+            StringBuilder buf = new StringBuilder();
+            buf.append(pid).append(" (").append(comm).append(") ").append("RSDZTtXI".charAt(rand.nextInt(8)));
+            for (int i = 3; i < fieldCount; i++) {
+                buf.append(' ').append(values[i - 3]);
+            }
+            buf.append('\n');
+            StatLine sl = new StatLine(buf.toString());
+            String msg = "Line: " + buf;
+            assertEquals(msg, Math.min(fieldCount, 52), sl.fieldCount); // anything beyond "exit_code" is skipped
+            assertEquals(msg, pid, sl.pid);
+            assertEquals(msg, comm.toString(), sl.comm);
+            assertEquals(msg, (int) values[1], sl.process_group);
+            // field number N is in values[N - 4]
+            assertEquals(msg, values[6], sl.min_flt);
+            assertEquals(msg, values[10], sl.utime);
+            assertEquals(msg, values[11], sl.stime);
+            assertEquals(msg, values[12], sl.cutime);
+            assertEquals(msg, values[13], sl.cstime);
+            assertEquals(msg, values[19], sl.vsize);
+            assertEquals(msg, values[20], sl.rss);
+            assertEquals(msg, (int) values[37], sl.policy);
+            assertEquals(msg, fieldCount >= 42 ? values[38] : 0, sl.delayacct_blkio_ticks);
+            assertEquals(msg, fieldCount >= 52 ? (int) values[48] : 0, sl.exit_code);
+        }
+    }
+}
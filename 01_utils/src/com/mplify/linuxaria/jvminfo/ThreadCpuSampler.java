@@ -0,0 +1,466 @@
+package com.mplify.linuxaria.jvminfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.mbeans.MBeanMarker;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A cheap sampling profiler that can be left running in production.
+ *
+ * At each tick (20 Hz by default) the 'stat' files of all the threads of the
+ * process are read, as done by ProcCollector. Only the threads whose
+ * "utime + stime" jiffies increased since the previous tick are of interest:
+ * their Java stacks are fetched in a single ThreadMXBean.getThreadInfo()
+ * call and added to a bounded FoldedStacks aggregation, weighted by the
+ * jiffies consumed. Idle threads cost one small file read per tick and no
+ * stack walk at all.
+ *
+ * Linux threads are mapped to Java threads through the thread name: the JVM
+ * sets the native name ("comm") of a Java thread to the first 15 characters
+ * of its Java name. If several Java threads share the same truncated name,
+ * the jiffies are split between those that are RUNNABLE. Threads without a
+ * Java counterpart (GC, JIT compiler...) are recorded as "[comm]", so GC
+ * time shows up in the flame graph, too. (On JVMs which do not set native
+ * thread names, all Java threads show up as "[java]".)
+ *
+ * A daemon thread is supposed to animate run(). Sampling is off until
+ * enabled through setEnabled(true); the output is obtained through
+ * dumpFoldedStacks().
+ *
+ * In order for JMX to recognize this as a StandardMBean implementing
+ * "ThreadCpuSamplerMBean", the class MUST be named "ThreadCpuSampler"
+ *
+ * 2026.10.19 - Created, based on the task scanning of ProcCollector
+ * 2026.10.19 - run() ends when interrupted while disabled; a stat file that
+ *              does not parse skips its thread instead of the whole tick
+ ******************************************************************************/
+
+public class ThreadCpuSampler implements ThreadCpuSamplerMBean, Runnable, MBeanMarker {
+
+    private final static String CLASS = ThreadCpuSampler.class.getName();
+    private final static Logger LOGGER_tick = LoggerFactory.getLogger(CLASS + ".tick");
+
+    private final static int COMM_LENGTH = 15; // TASK_COMM_LEN - 1
+    private final static long NAME_REFRESH_INTERVAL_MS = 1000; // how often the Java thread names are re-read
+    private final static int DEFAULT_MAX_STACKS = 5000;
+
+    /**
+     * Settings; changes are signalled through "lock" so that the sampling thread reacts at once
+     */
+
+    private final Object lock = new Object();
+    private volatile boolean enabled = false;
+    private volatile int samplingRate_hz = 20;
+    private volatile int maxDepth = 64;
+
+    /**
+     * The aggregated stacks
+     */
+
+    private final FoldedStacks stacks;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * State of the sampling thread, only accessed in tick()
+     */
+
+    private final byte[] buf = new byte[2048];
+    private File taskDir = null;
+    private int[] prevTids = new int[0]; // sorted
+    private long[] prevJiffies = new long[0];
+    private Map<String, long[]> javaIdsByComm = new HashMap<String, long[]>();
+    private long javaIdsByCommTime = 0;
+
+    /**
+     * Statistics; only written by the sampling thread (except on reset)
+     */
+
+    private volatile long tickCount = 0;
+    private volatile long stackCaptureCount = 0;
+    private volatile long tickTimeSum_ns = 0;
+    private volatile long selfCpu_ns = 0;
+    private volatile long enabledWall_ns = 0;
+
+    /**
+     * Constructor using a default bound on the number of distinct stacks
+     */
+
+    public ThreadCpuSampler() {
+        this(DEFAULT_MAX_STACKS);
+    }
+
+    /**
+     * Constructor taking the bound on the number of distinct stacks
+     */
+
+    public ThreadCpuSampler(int maxStacks) {
+        this.stacks = new FoldedStacks(maxStacks);
+    }
+
+    /**
+     * To be animated by a daemon thread
+     */
+
+    @Override
+    public void run() {
+        for (;;) {
+            if (!waitUntilEnabled()) {
+                return;
+            }
+            long start_ns = System.nanoTime();
+            tick();
+            long period_ns = 1000000000L / samplingRate_hz;
+            synchronized (lock) {
+                long remaining_ns;
+                while (enabled && (remaining_ns = start_ns + period_ns - System.nanoTime()) > 0) {
+                    try {
+                        lock.wait(remaining_ns / 1000000, (int) (remaining_ns % 1000000));
+                    } catch (InterruptedException exe) {
+                        // probably interrupted for shutdown
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            enabledWall_ns += System.nanoTime() - start_ns;
+        }
+    }
+
+    /**
+     * Returns false if interrupted while waiting, in which case run() must end
+     */
+
+    private boolean waitUntilEnabled() {
+        synchronized (lock) {
+            boolean wasDisabled = false;
+            while (!enabled) {
+                wasDisabled = true;
+                try {
+                    lock.wait();
+                } catch (InterruptedException exe) {
+                    // probably interrupted for shutdown
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (wasDisabled) {
+                // the jiffies seen before the pause must not be attributed to the first tick
+                prevTids = new int[0];
+                prevJiffies = new long[0];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One sampling tick. Package visibility for testing.
+     */
+
+    void tick() {
+        Logger logger = LOGGER_tick;
+        long wallStart_ns = System.nanoTime();
+        long cpuStart_ns = currentThreadCpuTime();
+        try {
+            if (taskDir == null) {
+                File selfStat = new File("/proc/self/stat");
+                if (!selfStat.exists()) {
+                    // not Linux; nothing to do
+                    return;
+                }
+                taskDir = ProcCollector.findTaskDirectory(new StatLine(buf, 0, ProcCollector.readFully(selfStat, buf)));
+            }
+            Map<String, long[]> deltaByComm = scanTasks();
+            if (!deltaByComm.isEmpty()) {
+                sampleJavaStacks(deltaByComm);
+            }
+        } catch (Exception exe) {
+            logger.info("While sampling", exe);
+        } finally {
+            tickCount++;
+            tickTimeSum_ns += System.nanoTime() - wallStart_ns;
+            selfCpu_ns += currentThreadCpuTime() - cpuStart_ns;
+        }
+    }
+
+    private long currentThreadCpuTime() {
+        if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Read the jiffies of all threads, return the jiffies consumed since the previous tick, by "comm"
+     */
+
+    private Map<String, long[]> scanTasks() {
+        Map<String, long[]> res = new LinkedHashMap<String, long[]>();
+        String[] names = taskDir.list();
+        if (names == null) {
+            return res;
+        }
+        int[] tids = new int[names.length];
+        int n = 0;
+        for (String name : names) {
+            try {
+                tids[n] = Integer.parseInt(name);
+                n++;
+            } catch (NumberFormatException exe) {
+                // not a thread; skip
+            }
+        }
+        Arrays.sort(tids, 0, n);
+        long[] jiffies = new long[n];
+        int m = 0; // number of threads actually read; the arrays are compacted in place
+        for (int i = 0; i < n; i++) {
+            StatLine sl;
+            try {
+                sl = new StatLine(buf, 0, ProcCollector.readFully(new File(taskDir, tids[i] + "/stat"), buf));
+            } catch (IOException exe) {
+                // the thread is gone
+                continue;
+            } catch (IllegalArgumentException exe) {
+                // truncated or garbled stat file, e.g. of a thread that is just ending
+                continue;
+            }
+            tids[m] = tids[i];
+            jiffies[m] = sl.utime + sl.stime;
+            int p = Arrays.binarySearch(prevTids, tids[m]);
+            if (p >= 0) {
+                long delta = jiffies[m] - prevJiffies[p];
+                if (delta > 0) {
+                    long[] sum = res.get(sl.comm);
+                    if (sum == null) {
+                        res.put(sl.comm, new long[] { delta });
+                    } else {
+                        sum[0] += delta;
+                    }
+                }
+            }
+            m++;
+        }
+        prevTids = Arrays.copyOf(tids, m);
+        prevJiffies = Arrays.copyOf(jiffies, m);
+        return res;
+    }
+
+    /**
+     * Get the stacks of the Java threads that burnt CPU, in one ThreadMXBean call
+     */
+
+    private void sampleJavaStacks(Map<String, long[]> deltaByComm) {
+        long now = System.currentTimeMillis();
+        if (now - javaIdsByCommTime > NAME_REFRESH_INTERVAL_MS) {
+            refreshJavaIdsByComm();
+            javaIdsByCommTime = now;
+        }
+        List<String> javaComms = new ArrayList<String>();
+        int idCount = 0;
+        for (Entry<String, long[]> e : deltaByComm.entrySet()) {
+            long[] candidates = javaIdsByComm.get(e.getKey());
+            if (candidates == null) {
+                stacks.add("[" + e.getKey() + "]", e.getValue()[0]);
+            } else {
+                javaComms.add(e.getKey());
+                idCount += candidates.length;
+            }
+        }
+        if (idCount == 0) {
+            return;
+        }
+        long[] ids = new long[idCount];
+        {
+            int i = 0;
+            for (String comm : javaComms) {
+                long[] candidates = javaIdsByComm.get(comm);
+                System.arraycopy(candidates, 0, ids, i, candidates.length);
+                i += candidates.length;
+            }
+        }
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids, maxDepth);
+        stackCaptureCount += idCount;
+        int i = 0;
+        for (String comm : javaComms) {
+            int count = javaIdsByComm.get(comm).length;
+            attribute(comm, deltaByComm.get(comm)[0], infos, i, count);
+            i += count;
+        }
+    }
+
+    /**
+     * Split "delta" jiffies between the RUNNABLE threads among infos[from...from+count-1] (or all of them if none is
+     * RUNNABLE)
+     */
+
+    private void attribute(String comm, long delta, ThreadInfo[] infos, int from, int count) {
+        int runnable = 0;
+        int alive = 0;
+        for (int j = from; j < from + count; j++) {
+            if (infos[j] != null) {
+                alive++;
+                if (infos[j].getThreadState() == Thread.State.RUNNABLE) {
+                    runnable++;
+                }
+            }
+        }
+        if (alive == 0) {
+            stacks.add("[" + comm + "]", delta);
+            return;
+        }
+        boolean onlyRunnable = (runnable > 0);
+        int k = onlyRunnable ? runnable : alive;
+        long share = delta / k;
+        long remainder = delta % k;
+        for (int j = from; j < from + count; j++) {
+            ThreadInfo ti = infos[j];
+            if (ti != null && (!onlyRunnable || ti.getThreadState() == Thread.State.RUNNABLE)) {
+                stacks.add(FoldedStacks.fold(ti.getThreadName(), ti.getStackTrace()), share + remainder);
+                remainder = 0;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the map "truncated Java thread name" -> "Java thread ids"
+     */
+
+    private void refreshJavaIdsByComm() {
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds());
+        Map<String, long[]> map = new HashMap<String, long[]>();
+        for (ThreadInfo ti : infos) {
+            if (ti == null) {
+                continue;
+            }
+            String name = ti.getThreadName();
+            String comm = (name.length() > COMM_LENGTH) ? name.substring(0, COMM_LENGTH) : name;
+            long[] old = map.get(comm);
+            if (old == null) {
+                map.put(comm, new long[] { ti.getThreadId() });
+            } else {
+                long[] ids = Arrays.copyOf(old, old.length + 1);
+                ids[old.length] = ti.getThreadId();
+                map.put(comm, ids);
+            }
+        }
+        javaIdsByComm = map;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        synchronized (lock) {
+            this.enabled = enabled;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setSamplingRate_hz(int samplingRate_hz) {
+        synchronized (lock) {
+            this.samplingRate_hz = Math.min(1000, Math.max(1, samplingRate_hz));
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public int getSamplingRate_hz() {
+        return samplingRate_hz;
+    }
+
+    @Override
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    @Override
+    public long getStackCaptureCount() {
+        return stackCaptureCount;
+    }
+
+    @Override
+    public int getDistinctStackCount() {
+        return stacks.size();
+    }
+
+    @Override
+    public long getTotalJiffies() {
+        return stacks.getTotalWeight();
+    }
+
+    @Override
+    public long getOverflowJiffies() {
+        return stacks.getOverflowWeight();
+    }
+
+    @Override
+    public double getAverageTickTime_us() {
+        long ticks = tickCount;
+        return (ticks == 0) ? Double.NaN : tickTimeSum_ns / (ticks * 1000.0);
+    }
+
+    @Override
+    public double getSelfCpuRatio() {
+        long wall_ns = enabledWall_ns;
+        return (wall_ns == 0) ? Double.NaN : (double) selfCpu_ns / (double) wall_ns;
+    }
+
+    @Override
+    public String dumpFoldedStacks() {
+        return stacks.toFoldedText();
+    }
+
+    /**
+     * Direct access to the aggregation
+     */
+
+    public FoldedStacks getFoldedStacks() {
+        return stacks;
+    }
+
+    @Override
+    public void reset() {
+        stacks.clear();
+        tickCount = 0;
+        stackCaptureCount = 0;
+        tickTimeSum_ns = 0;
+        selfCpu_ns = 0;
+        enabledWall_ns = 0;
+    }
+}
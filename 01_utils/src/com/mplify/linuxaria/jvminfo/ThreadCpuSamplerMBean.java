@@ -0,0 +1,100 @@
+package com.mplify.linuxaria.jvminfo;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Declaration of an MBean controlling a low-overhead sampling profiler which
+ * uses the Linux /proc filesystem to find the threads that burnt CPU and
+ * the ThreadMXBean to get their Java stacks (thus works on Linux only).
+ *
+ * This currently is a "standard MBean"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface ThreadCpuSamplerMBean {
+
+    /**
+     * Switch sampling on or off. Sampling is off by default.
+     */
+
+    public void setEnabled(boolean enabled);
+
+    public boolean isEnabled();
+
+    /**
+     * Set the sampling rate, between 1 and 1000 Hz
+     */
+
+    public void setSamplingRate_hz(int samplingRate_hz);
+
+    public int getSamplingRate_hz();
+
+    /**
+     * Set the maximum depth of the Java stacks captured
+     */
+
+    public void setMaxDepth(int maxDepth);
+
+    public int getMaxDepth();
+
+    /**
+     * Number of sampling ticks since the last reset
+     */
+
+    public long getTickCount();
+
+    /**
+     * Number of Java stacks captured since the last reset
+     */
+
+    public long getStackCaptureCount();
+
+    /**
+     * Number of distinct folded stacks currently kept
+     */
+
+    public int getDistinctStackCount();
+
+    /**
+     * Total weight (in jiffies) attributed to stacks since the last reset
+     */
+
+    public long getTotalJiffies();
+
+    /**
+     * Weight (in jiffies) that went to the "[other stacks]" entry because the stack map was full
+     */
+
+    public long getOverflowJiffies();
+
+    /**
+     * Average wall clock time of one sampling tick, in microseconds
+     */
+
+    public double getAverageTickTime_us();
+
+    /**
+     * CPU time consumed by the sampler itself divided by the wall clock time it has been enabled
+     */
+
+    public double getSelfCpuRatio();
+
+    /**
+     * Get the aggregated stacks in "folded" format, suitable for flamegraph.pl
+     */
+
+    public String dumpFoldedStacks();
+
+    /**
+     * Forget all stacks and counters
+     */
+
+    public void reset();
+}
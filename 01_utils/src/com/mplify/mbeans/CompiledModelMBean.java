@@ -0,0 +1,454 @@
+package com.mplify.mbeans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.Descriptor;
+import javax.management.InstanceNotFoundException;
+import javax.management.InvalidAttributeValueException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.RuntimeErrorException;
+import javax.management.RuntimeOperationsException;
+import javax.management.modelmbean.InvalidTargetObjectTypeException;
+import javax.management.modelmbean.ModelMBeanAttributeInfo;
+import javax.management.modelmbean.ModelMBeanInfo;
+import javax.management.modelmbean.ModelMBeanOperationInfo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A LocalRequiredModelMBean which does not let RequiredModelMBean look up
+ * descriptors and reflect on the managed resource for every call.
+ *
+ * At construction, right after the ModelMBeanInfo has been created by the
+ * subclass, the "getMethod" of every readable attribute and every operation
+ * is resolved on the managed resource and turned into a MethodHandle bound
+ * to it. getAttribute(), getAttributes() and invoke() then go through these
+ * handles. Anything that cannot be resolved (e.g. a descriptor naming a
+ * "targetObject" other than the managed resource, a method that is not
+ * public) is left to RequiredModelMBean as before, as is setAttribute().
+ *
+ * Attribute values are cached according to the "currencyTimeLimit" field of
+ * the attribute's descriptor, if present, as described for
+ * ModelMBeanAttributeInfo: < 0 never cached, 0 cached forever, > 0 cached
+ * for that many seconds. Caching can be switched off as a whole.
+ *
+ * Replacing the managed resource through setManagedResource() drops the
+ * handles; all calls then go through RequiredModelMBean.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public abstract class CompiledModelMBean<T> extends LocalRequiredModelMBean<T> {
+
+    private final static String CLASS = CompiledModelMBean.class.getName();
+    private final static Logger LOGGER_compile = LoggerFactory.getLogger(CLASS + ".compile");
+    private final static Logger LOGGER_getAttribute = LoggerFactory.getLogger(CLASS + ".getAttribute");
+
+    private final static MethodType GETTER_TYPE = MethodType.methodType(Object.class);
+    private final static MethodType OPERATION_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /**
+     * A compiled attribute getter with its cache
+     */
+
+    private static class CompiledAttribute {
+
+        final MethodHandle getter; // type ()Object
+        final long ttl_ns; // <0: never cached, 0: cached forever, >0 cached for that long
+        volatile CachedValue cached;
+
+        CompiledAttribute(MethodHandle getter, long ttl_ns) {
+            this.getter = getter;
+            this.ttl_ns = ttl_ns;
+        }
+    }
+
+    private static class CachedValue {
+
+        final Object value;
+        final long fetched_ns;
+
+        CachedValue(Object value, long fetched_ns) {
+            this.value = value;
+            this.fetched_ns = fetched_ns;
+        }
+    }
+
+    /**
+     * Both maps are built once and not modified afterwards; they are replaced by empty maps if the managed resource
+     * changes. Not initialized here, as setManagedResource() is called by the superclass constructor.
+     */
+
+    private volatile Map<String, CompiledAttribute> attributes;
+    private volatile Map<String, MethodHandle> operations; // keyed by operation name and signature, type (Object[])Object
+
+    /**
+     * Constructor taking the "managed resource" and the "mbean name". If "useCurrencyTimeLimit" is false, attribute
+     * values are never cached.
+     */
+
+    public CompiledModelMBean(T managedResource, ObjectName mbeanName, boolean useCurrencyTimeLimit) throws RuntimeOperationsException, MBeanException,
+            InstanceNotFoundException, InvalidTargetObjectTypeException, SecurityException {
+        super(managedResource, mbeanName);
+        compile(managedResource, (ModelMBeanInfo) getMBeanInfo(), useCurrencyTimeLimit);
+    }
+
+    /**
+     * Resolve getters and operations into MethodHandles bound to the managed resource
+     */
+
+    private void compile(T managedResource, ModelMBeanInfo info, boolean useCurrencyTimeLimit) {
+        Logger logger = LOGGER_compile;
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> clazz = managedResource.getClass();
+        Map<String, CompiledAttribute> attrMap = new HashMap<String, CompiledAttribute>();
+        Map<String, MethodHandle> operMap = new HashMap<String, MethodHandle>();
+        for (MBeanOperationInfo oi : info.getOperations()) {
+            ModelMBeanOperationInfo mmoi = (ModelMBeanOperationInfo) oi;
+            if (!targetsManagedResource(mmoi.getDescriptor(), managedResource)) {
+                continue;
+            }
+            try {
+                Class<?>[] paramTypes = toClasses(mmoi.getSignature(), clazz.getClassLoader());
+                Method m = findPublicMethod(clazz, mmoi.getName(), paramTypes);
+                MethodHandle mh = lookup.unreflect(m).bindTo(managedResource);
+                mh = mh.asType(mh.type().changeReturnType(Object.class)).asSpreader(Object[].class, paramTypes.length);
+                operMap.put(operationKey(mmoi.getName(), mmoi.getSignature()), mh.asType(OPERATION_TYPE));
+            } catch (Exception exe) {
+                logger.debug("Operation '" + mmoi.getName() + "' left to RequiredModelMBean: " + exe);
+            }
+        }
+        for (MBeanAttributeInfo ai : info.getAttributes()) {
+            ModelMBeanAttributeInfo mmai = (ModelMBeanAttributeInfo) ai;
+            Descriptor descr = mmai.getDescriptor();
+            String getMethod = (String) descr.getFieldValue("getMethod");
+            if (!mmai.isReadable() || getMethod == null || !targetsManagedResource(descr, managedResource)) {
+                continue;
+            }
+            try {
+                Method m = findPublicMethod(clazz, getMethod, new Class<?>[0]);
+                MethodHandle mh = lookup.unreflect(m).bindTo(managedResource);
+                mh = mh.asType(GETTER_TYPE);
+                long ttl_ns = -1;
+                if (useCurrencyTimeLimit) {
+                    ttl_ns = toTtl_ns(descr.getFieldValue("currencyTimeLimit"));
+                }
+                attrMap.put(mmai.getName(), new CompiledAttribute(mh, ttl_ns));
+            } catch (Exception exe) {
+                logger.debug("Attribute '" + mmai.getName() + "' left to RequiredModelMBean: " + exe);
+            }
+        }
+        this.operations = Collections.unmodifiableMap(operMap);
+        this.attributes = Collections.unmodifiableMap(attrMap);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Compiled " + attrMap.size() + " attributes and " + operMap.size() + " operations of '" + getMBeanName() + "'");
+        }
+    }
+
+    /**
+     * A descriptor may name another "targetObject"; those are left to RequiredModelMBean
+     */
+
+    private static boolean targetsManagedResource(Descriptor descr, Object managedResource) {
+        if (descr == null) {
+            return true;
+        }
+        Object target = descr.getFieldValue("targetObject");
+        return target == null || target == managedResource;
+    }
+
+    /**
+     * The method must be public and declared in a public class or interface, otherwise the public lookup fails;
+     * look through the interfaces and superclasses for such a declaration
+     */
+
+    private static Method findPublicMethod(Class<?> clazz, String name, Class<?>[] paramTypes) throws NoSuchMethodException {
+        Method m = clazz.getMethod(name, paramTypes);
+        if (Modifier.isPublic(m.getDeclaringClass().getModifiers())) {
+            return m;
+        }
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            if (Modifier.isPublic(c.getModifiers())) {
+                try {
+                    return c.getMethod(name, paramTypes);
+                } catch (NoSuchMethodException exe) {
+                    // continue
+                }
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                if (Modifier.isPublic(i.getModifiers())) {
+                    try {
+                        return i.getMethod(name, paramTypes);
+                    } catch (NoSuchMethodException exe) {
+                        // continue
+                    }
+                }
+            }
+        }
+        throw new NoSuchMethodException("No publicly accessible declaration of '" + name + "' in " + clazz.getName());
+    }
+
+    private static Class<?>[] toClasses(MBeanParameterInfo[] signature, ClassLoader loader) throws ClassNotFoundException {
+        Class<?>[] res = new Class<?>[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            res[i] = toClass(signature[i].getType(), loader);
+        }
+        return res;
+    }
+
+    private static Class<?> toClass(String type, ClassLoader loader) throws ClassNotFoundException {
+        if ("int".equals(type)) {
+            return int.class;
+        } else if ("long".equals(type)) {
+            return long.class;
+        } else if ("boolean".equals(type)) {
+            return boolean.class;
+        } else if ("double".equals(type)) {
+            return double.class;
+        } else if ("float".equals(type)) {
+            return float.class;
+        } else if ("short".equals(type)) {
+            return short.class;
+        } else if ("byte".equals(type)) {
+            return byte.class;
+        } else if ("char".equals(type)) {
+            return char.class;
+        } else {
+            return Class.forName(type, false, loader);
+        }
+    }
+
+    private static String operationKey(String opName, MBeanParameterInfo[] signature) {
+        StringBuilder buf = new StringBuilder(opName);
+        buf.append('(');
+        for (int i = 0; i < signature.length; i++) {
+            if (i > 0) {
+                buf.append(',');
+            }
+            buf.append(signature[i].getType());
+        }
+        buf.append(')');
+        return buf.toString();
+    }
+
+    private static String operationKey(String opName, String[] sig) {
+        StringBuilder buf = new StringBuilder(opName);
+        buf.append('(');
+        if (sig != null) {
+            for (int i = 0; i < sig.length; i++) {
+                if (i > 0) {
+                    buf.append(',');
+                }
+                buf.append(sig[i]);
+            }
+        }
+        buf.append(')');
+        return buf.toString();
+    }
+
+    /**
+     * Transform the "currencyTimeLimit" descriptor value, in seconds, to nanoseconds; -1 if absent or unparseable
+     */
+
+    private static long toTtl_ns(Object currencyTimeLimit) {
+        if (currencyTimeLimit == null) {
+            return -1;
+        }
+        long seconds;
+        try {
+            seconds = Long.parseLong(currencyTimeLimit.toString().trim());
+        } catch (NumberFormatException exe) {
+            return -1;
+        }
+        if (seconds < 0) {
+            return -1;
+        } else {
+            return seconds * 1000000000L;
+        }
+    }
+
+    /**
+     * Call a compiled getter, going through the cache
+     */
+
+    private static Object fetch(CompiledAttribute ca) throws MBeanException {
+        if (ca.ttl_ns >= 0) {
+            CachedValue cv = ca.cached;
+            if (cv != null && (ca.ttl_ns == 0 || System.nanoTime() - cv.fetched_ns < ca.ttl_ns)) {
+                return cv.value;
+            }
+        }
+        Object res;
+        try {
+            res = (Object) ca.getter.invokeExact();
+        } catch (Exception exe) {
+            throw new MBeanException(exe);
+        } catch (Error err) {
+            throw new RuntimeErrorException(err);
+        } catch (Throwable thr) {
+            throw new MBeanException(new Exception(thr));
+        }
+        if (ca.ttl_ns >= 0) {
+            ca.cached = new CachedValue(res, System.nanoTime());
+        }
+        return res;
+    }
+
+    /**
+     * Get an attribute through its compiled getter, or through RequiredModelMBean if there is none
+     */
+
+    @Override
+    public Object getAttribute(String attrName) throws MBeanException, ReflectionException, AttributeNotFoundException {
+        Map<String, CompiledAttribute> attrMap = attributes;
+        CompiledAttribute ca = (attrMap == null || attrName == null) ? null : attrMap.get(attrName);
+        if (ca == null) {
+            return super.getAttribute(attrName);
+        }
+        Logger logger = LOGGER_getAttribute;
+        Object res = fetch(ca);
+        if (logger.isDebugEnabled()) {
+            logger.debug("getAttribute(" + attrName + ") returned " + res);
+        }
+        return res;
+    }
+
+    /**
+     * Get several attributes in one pass. As required by the DynamicMBean contract, attributes that cannot be
+     * retrieved are silently left out.
+     */
+
+    @Override
+    public AttributeList getAttributes(String[] attrNames) {
+        if (attrNames == null) {
+            throw new RuntimeOperationsException(new IllegalArgumentException("The passed array of attribute names is (null)"));
+        }
+        Map<String, CompiledAttribute> attrMap = attributes;
+        AttributeList res = new AttributeList(attrNames.length);
+        for (String attrName : attrNames) {
+            CompiledAttribute ca = (attrMap == null || attrName == null) ? null : attrMap.get(attrName);
+            try {
+                Object value = (ca == null) ? super.getAttribute(attrName) : fetch(ca);
+                res.add(new Attribute(attrName, value));
+            } catch (Exception exe) {
+                LOGGER_getAttribute.debug("getAttributes() skips '" + attrName + "': " + exe);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Setting goes through RequiredModelMBean; the cached value of the attribute is dropped
+     */
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException {
+        try {
+            super.setAttribute(attribute);
+        } finally {
+            Map<String, CompiledAttribute> attrMap = attributes;
+            CompiledAttribute ca = (attrMap == null || attribute == null) ? null : attrMap.get(attribute.getName());
+            if (ca != null) {
+                ca.cached = null;
+            }
+        }
+    }
+
+    /**
+     * Invoke an operation through its compiled handle, or through RequiredModelMBean if there is none. Any
+     * invocation may change attribute values, so all cached values are dropped.
+     */
+
+    @Override
+    public Object invoke(String opName, Object[] opArgs, String[] sig) throws MBeanException, ReflectionException {
+        Map<String, MethodHandle> operMap = operations;
+        MethodHandle mh = (operMap == null || opName == null) ? null : operMap.get(operationKey(opName, sig));
+        if (mh == null) {
+            return super.invoke(opName, opArgs, sig);
+        }
+        Object[] args = (opArgs == null) ? new Object[0] : opArgs;
+        if (args.length != ((sig == null) ? 0 : sig.length)) {
+            throw new RuntimeOperationsException(new IllegalArgumentException("Operation '" + opName + "' got " + args.length + " arguments for a signature of "
+                    + ((sig == null) ? 0 : sig.length)));
+        }
+        try {
+            return (Object) mh.invokeExact(args);
+        } catch (ClassCastException exe) {
+            throw new ReflectionException(exe, "Bad argument type for operation '" + opName + "'");
+        } catch (Exception exe) {
+            throw new MBeanException(exe);
+        } catch (Error err) {
+            throw new RuntimeErrorException(err);
+        } catch (Throwable thr) {
+            throw new MBeanException(new Exception(thr));
+        } finally {
+            dropCache();
+        }
+    }
+
+    private void dropCache() {
+        Map<String, CompiledAttribute> attrMap = attributes;
+        if (attrMap != null) {
+            for (CompiledAttribute ca : attrMap.values()) {
+                ca.cached = null;
+            }
+        }
+    }
+
+    /**
+     * Replacing the managed resource invalidates the compiled handles; everything goes through RequiredModelMBean
+     * afterwards
+     */
+
+    @Override
+    public void setManagedResource(Object mr, String mrType) throws MBeanException, RuntimeOperationsException, InstanceNotFoundException,
+            InvalidTargetObjectTypeException {
+        super.setManagedResource(mr, mrType);
+        if (attributes != null) {
+            attributes = Collections.emptyMap();
+            operations = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Number of attributes served by compiled getters (for tests and monitoring)
+     */
+
+    public int getCompiledAttributeCount() {
+        Map<String, CompiledAttribute> attrMap = attributes;
+        return (attrMap == null) ? 0 : attrMap.size();
+    }
+
+    /**
+     * Number of operations served by compiled handles (for tests and monitoring)
+     */
+
+    public int getCompiledOperationCount() {
+        Map<String, MethodHandle> operMap = operations;
+        return (operMap == null) ? 0 : operMap.size();
+    }
+}
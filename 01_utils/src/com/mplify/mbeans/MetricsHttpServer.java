@@ -0,0 +1,112 @@
+package com.mplify.mbeans;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A tiny HTTP endpoint, based on the JDK's HttpServer, which serves the
+ * text of a MetricsRegistry at "/metrics" for a Prometheus scraper. A single
+ * daemon thread handles the requests; scrapes are serialized anyway.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class MetricsHttpServer {
+
+    private final static String CLASS = MetricsHttpServer.class.getName();
+    private final static Logger LOGGER_handle = LoggerFactory.getLogger(CLASS + ".handle");
+
+    public final static String PATH = "/metrics";
+    public final static String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Start serving the registry on the given address; pass port 0 to have a free port chosen (see getPort())
+     */
+
+    public MetricsHttpServer(final MetricsRegistry registry, InetSocketAddress address) throws IOException {
+        Check.notNull(registry, "registry");
+        Check.notNull(address, "address");
+        this.server = HttpServer.create(address, 10);
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread res = new Thread(r, "MetricsHttpServer");
+                res.setDaemon(true);
+                return res;
+            }
+        });
+        server.createContext(PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    String method = exchange.getRequestMethod();
+                    if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                        exchange.sendResponseHeaders(405, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                    if ("HEAD".equals(method)) {
+                        exchange.sendResponseHeaders(200, -1);
+                        return;
+                    }
+                    // the registry's buffer is reused, so the response is written while holding its lock
+                    synchronized (registry) {
+                        int length = registry.scrape();
+                        exchange.sendResponseHeaders(200, (length == 0) ? -1 : length);
+                        OutputStream os = exchange.getResponseBody();
+                        registry.writeBufferTo(os);
+                        os.close();
+                    }
+                } catch (IOException exe) {
+                    LOGGER_handle.warn("Could not serve metrics to " + exchange.getRemoteAddress(), exe);
+                    throw exe;
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * The port actually listened on
+     */
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop serving, waiting at most the given number of seconds for an ongoing exchange to finish
+     */
+
+    public void stop(int delay_s) {
+        server.stop(delay_s);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,463 @@
+package com.mplify.mbeans;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * An in-process registry of the numeric attributes of all MBeans that
+ * implement "MBeanMarker", rendered in the Prometheus text exposition
+ * format (version 0.0.4). Serve it through MetricsHttpServer or write it
+ * to a file with writeTo(File), e.g. for the node_exporter "textfile"
+ * collector.
+ *
+ * Discovery queries the MBeanServer for MBeans implementing MBeanMarker and
+ * keeps the attributes of type int, long, double, float, short, byte,
+ * boolean (as 0/1), their wrappers, and java.util.Date (as seconds since the
+ * epoch). It is redone at most every "rediscovery interval", or on demand.
+ *
+ * A scrape reads all attributes of an MBean with a single getAttributes()
+ * call. Metric names and label strings are computed at discovery; the text
+ * is rendered into a single buffer (and encoded into a single byte buffer)
+ * which is reused from scrape to scrape, so scrapes are serialized.
+ *
+ * Naming: the MBean "com.mplify.threads:type=ExecutorStatistics,name=x"
+ * with attribute "ActiveCount" yields the sample
+ *   com_mplify_threads_ExecutorStatistics_ActiveCount{name="x"} 2
+ * i.e. domain, "type" key and attribute form the metric name, the other
+ * keys become labels. All metrics are declared "untyped", as JMX does not
+ * tell counters from gauges.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class MetricsRegistry {
+
+    private final static String CLASS = MetricsRegistry.class.getName();
+    private final static Logger LOGGER_discover = LoggerFactory.getLogger(CLASS + ".discover");
+    private final static Logger LOGGER_render = LoggerFactory.getLogger(CLASS + ".render");
+
+    private final static Set<String> NUMERIC_TYPES = new HashSet<String>();
+
+    static {
+        String[] types = { "int", "long", "double", "float", "short", "byte", "boolean", Integer.class.getName(), Long.class.getName(), Double.class.getName(),
+                Float.class.getName(), Short.class.getName(), Byte.class.getName(), Boolean.class.getName(), Date.class.getName() };
+        for (String type : types) {
+            NUMERIC_TYPES.add(type);
+        }
+    }
+
+    /**
+     * What is known about a discovered MBean
+     */
+
+    private static class Bean {
+
+        final ObjectName name;
+        final String[] attrNames;
+        final Map<String, Integer> attrIndex = new HashMap<String, Integer>();
+        final Object[] values; // filled at each scrape
+
+        Bean(ObjectName name, List<String> attrNames) {
+            this.name = name;
+            this.attrNames = attrNames.toArray(new String[attrNames.size()]);
+            this.values = new Object[this.attrNames.length];
+            for (int i = 0; i < this.attrNames.length; i++) {
+                attrIndex.put(this.attrNames[i], Integer.valueOf(i));
+            }
+        }
+    }
+
+    /**
+     * A sample: an attribute of a Bean, with its precomputed label string
+     */
+
+    private static class Sample {
+
+        final Bean bean;
+        final int index;
+        final String labels; // "{a=\"b\"}" or ""
+
+        Sample(Bean bean, int index, String labels) {
+            this.bean = bean;
+            this.index = index;
+            this.labels = labels;
+        }
+    }
+
+    /**
+     * A metric family: all samples with the same metric name
+     */
+
+    private static class Family {
+
+        final String name;
+        final String help;
+        final List<Sample> samples = new ArrayList<Sample>();
+
+        Family(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+    }
+
+    private final MBeanServer mbeanServer;
+    private final long rediscoveryInterval_ms;
+
+    // the following are only accessed while holding the lock on "this"
+
+    private List<Bean> beans = new ArrayList<Bean>();
+    private List<Family> families = new ArrayList<Family>();
+    private long lastDiscovery_ms = 0;
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(
+            CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocate(16 * 1024);
+    private long scrapeCount = 0;
+
+    /**
+     * Constructor for the platform MBeanServer, rediscovering every minute
+     */
+
+    public MetricsRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer(), 60000);
+    }
+
+    /**
+     * Constructor. A rediscovery interval of 0 means "discover at each scrape".
+     */
+
+    public MetricsRegistry(MBeanServer mbeanServer, long rediscoveryInterval_ms) {
+        Check.notNull(mbeanServer, "mbean server");
+        if (rediscoveryInterval_ms < 0) {
+            throw new IllegalArgumentException("Passed rediscovery interval was <0 : " + rediscoveryInterval_ms);
+        }
+        this.mbeanServer = mbeanServer;
+        this.rediscoveryInterval_ms = rediscoveryInterval_ms;
+    }
+
+    /**
+     * Replace characters not allowed in a Prometheus metric name by '_'
+     */
+
+    static String sanitizeName(String raw) {
+        StringBuilder buf = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char ch = raw.charAt(i);
+            boolean ok = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_' || ch == ':' || (ch >= '0' && ch <= '9' && i > 0);
+            buf.append(ok ? ch : '_');
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Escape a label value: backslash, double quote and newline
+     */
+
+    static void appendEscapedLabelValue(StringBuilder buf, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\') {
+                buf.append("\\\\");
+            } else if (ch == '"') {
+                buf.append("\\\"");
+            } else if (ch == '\n') {
+                buf.append("\\n");
+            } else {
+                buf.append(ch);
+            }
+        }
+    }
+
+    /**
+     * The key properties of an ObjectName, without "type" and unquoted, as a label string
+     */
+
+    private static String toLabels(ObjectName name) {
+        // TreeMap so that the label order does not depend on the order of the keys in the name
+        Map<String, String> keys = new TreeMap<String, String>(name.getKeyPropertyList());
+        keys.remove("type");
+        if (keys.isEmpty()) {
+            return "";
+        }
+        StringBuilder buf = new StringBuilder("{");
+        boolean addComma = false;
+        for (Map.Entry<String, String> e : keys.entrySet()) {
+            if (addComma) {
+                buf.append(',');
+            }
+            String value = e.getValue();
+            if (value.length() >= 2 && value.startsWith("\"")) {
+                try {
+                    value = ObjectName.unquote(value);
+                } catch (IllegalArgumentException exe) {
+                    // keep as is
+                }
+            }
+            buf.append(sanitizeName(e.getKey())).append("=\"");
+            appendEscapedLabelValue(buf, value);
+            buf.append('"');
+            addComma = true;
+        }
+        buf.append('}');
+        return buf.toString();
+    }
+
+    private static String toMetricName(ObjectName name, String attrName) {
+        String type = name.getKeyProperty("type");
+        String raw = name.getDomain() + "_" + ((type == null) ? "" : type + "_") + attrName;
+        return sanitizeName(raw);
+    }
+
+    /**
+     * Find the MBeanMarker MBeans and their numeric attributes. Called automatically when the rediscovery interval
+     * has elapsed.
+     */
+
+    public synchronized void discover() {
+        Logger logger = LOGGER_discover;
+        List<Bean> newBeans = new ArrayList<Bean>();
+        Map<String, Family> familyMap = new TreeMap<String, Family>();
+        for (ObjectName name : mbeanServer.queryNames(null, null)) {
+            try {
+                if (!mbeanServer.isInstanceOf(name, MBeanMarker.class.getName())) {
+                    continue;
+                }
+                List<String> attrNames = new ArrayList<String>();
+                for (MBeanAttributeInfo ai : mbeanServer.getMBeanInfo(name).getAttributes()) {
+                    if (ai.isReadable() && NUMERIC_TYPES.contains(ai.getType())) {
+                        attrNames.add(ai.getName());
+                    }
+                }
+                if (attrNames.isEmpty()) {
+                    continue;
+                }
+                Bean bean = new Bean(name, attrNames);
+                newBeans.add(bean);
+                String labels = toLabels(name);
+                for (int i = 0; i < bean.attrNames.length; i++) {
+                    String metricName = toMetricName(name, bean.attrNames[i]);
+                    Family family = familyMap.get(metricName);
+                    if (family == null) {
+                        family = new Family(metricName, "Attribute '" + bean.attrNames[i] + "' of " + name.getDomain() + ":type=" + name.getKeyProperty("type"));
+                        familyMap.put(metricName, family);
+                    }
+                    family.samples.add(new Sample(bean, i, labels));
+                }
+            } catch (Exception exe) {
+                // the MBean may have been unregistered in the meantime
+                logger.debug("Skipping '" + name + "': " + exe);
+            }
+        }
+        beans = newBeans;
+        families = new ArrayList<Family>(familyMap.values());
+        lastDiscovery_ms = System.currentTimeMillis();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Discovered " + newBeans.size() + " MBeans yielding " + families.size() + " metrics");
+        }
+    }
+
+    private static void appendValue(StringBuilder buf, Object value) {
+        double x;
+        if (value instanceof Boolean) {
+            x = ((Boolean) value).booleanValue() ? 1 : 0;
+        } else if (value instanceof Date) {
+            x = ((Date) value).getTime() / 1000.0;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buf.append(((Number) value).longValue());
+            return;
+        } else {
+            x = ((Number) value).doubleValue();
+        }
+        if (Double.isNaN(x)) {
+            buf.append("NaN");
+        } else if (x == Double.POSITIVE_INFINITY) {
+            buf.append("+Inf");
+        } else if (x == Double.NEGATIVE_INFINITY) {
+            buf.append("-Inf");
+        } else {
+            buf.append(x);
+        }
+    }
+
+    /**
+     * Render the text into the reused buffer and encode it into the reused byte buffer, which is flipped for
+     * reading on return
+     */
+
+    private void render() {
+        Logger logger = LOGGER_render;
+        if (families.isEmpty() || System.currentTimeMillis() - lastDiscovery_ms >= rediscoveryInterval_ms) {
+            discover();
+        }
+        //
+        // read all attributes, one batch per MBean
+        //
+        for (Bean bean : beans) {
+            for (int i = 0; i < bean.values.length; i++) {
+                bean.values[i] = null;
+            }
+            try {
+                AttributeList list = mbeanServer.getAttributes(bean.name, bean.attrNames);
+                for (Object obj : list) {
+                    Attribute attr = (Attribute) obj;
+                    Integer index = bean.attrIndex.get(attr.getName());
+                    if (index != null) {
+                        bean.values[index.intValue()] = attr.getValue();
+                    }
+                }
+            } catch (Exception exe) {
+                logger.debug("Could not read '" + bean.name + "': " + exe);
+            }
+        }
+        //
+        // render; samples whose value could not be read are left out
+        //
+        text.setLength(0);
+        for (Family family : families) {
+            boolean headerDone = false;
+            for (Sample sample : family.samples) {
+                Object value = sample.bean.values[sample.index];
+                if (!(value instanceof Number || value instanceof Boolean || value instanceof Date)) {
+                    continue;
+                }
+                if (!headerDone) {
+                    text.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+                    text.append("# TYPE ").append(family.name).append(" untyped\n");
+                    headerDone = true;
+                }
+                text.append(family.name).append(sample.labels).append(' ');
+                appendValue(text, value);
+                text.append('\n');
+            }
+        }
+        //
+        // encode, growing the byte buffer if needed
+        //
+        while (true) {
+            bytes.clear();
+            encoder.reset();
+            CoderResult cr = encoder.encode(CharBuffer.wrap(text), bytes, true);
+            if (!cr.isOverflow()) {
+                cr = encoder.flush(bytes);
+            }
+            if (cr.isOverflow()) {
+                bytes = ByteBuffer.allocate(bytes.capacity() * 2);
+            } else {
+                break;
+            }
+        }
+        bytes.flip();
+        scrapeCount++;
+    }
+
+    /**
+     * Scrape into the reused buffer, returning the length of the result in bytes. Call writeBufferTo() while still
+     * holding the lock on this registry to get the result.
+     */
+
+    public synchronized int scrape() {
+        render();
+        return bytes.remaining();
+    }
+
+    /**
+     * Write the result of the last scrape to the passed stream. The stream is not closed.
+     */
+
+    public synchronized void writeBufferTo(OutputStream os) throws IOException {
+        os.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
+    /**
+     * Scrape and write the result to the passed stream, returning the number of bytes written. The stream is not
+     * closed.
+     */
+
+    public synchronized int writeTo(OutputStream os) throws IOException {
+        int length = scrape();
+        writeBufferTo(os);
+        return length;
+    }
+
+    /**
+     * Scrape and write the result to the passed file. The text is first written to a temporary file in the same
+     * directory, which then replaces the target, so that readers never see a partial file.
+     */
+
+    public synchronized void writeTo(File file) throws IOException {
+        File tmp = new File(file.getAbsoluteFile().getParentFile(), "." + file.getName() + ".tmp");
+        OutputStream os = new FileOutputStream(tmp);
+        try {
+            writeTo(os);
+        } finally {
+            os.close();
+        }
+        if (!tmp.renameTo(file)) {
+            // renameTo() does not replace existing files on every platform
+            if (!file.delete() || !tmp.renameTo(file)) {
+                throw new IOException("Could not rename '" + tmp + "' to '" + file + "'");
+            }
+        }
+    }
+
+    /**
+     * Scrape and return the result as a String (mainly for tests)
+     */
+
+    public synchronized String scrapeToString() {
+        render();
+        return text.toString();
+    }
+
+    /**
+     * Number of MBeans found at the last discovery
+     */
+
+    public synchronized int getBeanCount() {
+        return beans.size();
+    }
+
+    /**
+     * Number of scrapes done
+     */
+
+    public synchronized long getScrapeCount() {
+        return scrapeCount;
+    }
+}
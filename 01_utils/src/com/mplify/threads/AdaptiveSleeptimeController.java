@@ -0,0 +1,259 @@
+package com.mplify.threads;
+
+import java.text.NumberFormat;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+import com.mplify.logging.Story;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Sleeptime computation for poller threads, replacing the fixed stepping of
+ * SleeptimeManager by AIMD ("additive increase, multiplicative decrease")
+ * driven by the amount of work found in each cycle:
+ *
+ * - A cycle that found no work increases the sleeptime by a fixed
+ *   increment, up to the maximum. An idle poller thus backs off slowly and
+ *   ends up waking rarely.
+ * - A cycle that found work multiplies the sleeptime by a factor < 1, down
+ *   to the minimum. A cycle that found a "full batch" (at least as much work
+ *   as the batch size) sets the sleeptime to the minimum at once, as there
+ *   is probably more waiting. A busy poller thus reacts fast.
+ *
+ * Instead of Thread.sleep(), the poller parks on a Condition. Producers that
+ * know they just made work available call signalWork(), which wakes the
+ * poller at once, whatever its sleeptime. A signal that arrives while the
+ * poller is working is remembered, so the next sleep returns immediately;
+ * no wake-up is ever lost. Producers that never signal simply get the
+ * adaptive polling behaviour.
+ *
+ * The poller thread calls sleepOMatic(workFound) at the end of each cycle.
+ * signalWork() may be called by any thread.
+ *
+ * If a Heartbeat is set, sleepOMatic() beats it at the end of each cycle.
+ *
+ * 2026.10.19 - Created as an alternative to SleeptimeManager
+ * 2026.10.19 - Added the optional Heartbeat
+ * 2026.10.19 - The sleeptime is volatile, as the getters read it from other
+ *              threads
+ ******************************************************************************/
+
+public class AdaptiveSleeptimeController {
+
+    private final double minSleeptime_ms; // sleeptime after a full batch, may be 0
+    private final double maxSleeptime_ms; // sleeptime of an idle poller
+    private final double increment_ms; // added to the sleeptime after an idle cycle
+    private final double decreaseFactor; // the sleeptime is multiplied by this after a cycle that found work
+    private final int batchSize; // work found at or above this means "there is more", sleep the minimum
+
+    private volatile double sleeptime_ms; // only written by the poller thread, read by anyone
+
+    /**
+     * Wake-up machinery
+     */
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workSignalled = lock.newCondition();
+    private volatile boolean signalled = false;
+
+    /**
+     * Statistics; only written by the poller thread
+     */
+
+    private volatile long cycleCount = 0;
+    private volatile long idleCycleCount = 0; // cycles that found no work: the poller woke up for nothing
+    private volatile long signalledWakeupCount = 0; // sleeps ended early by signalWork()
+    private volatile long lastWorkFound = 0;
+
+    private volatile Heartbeat heartbeat; // may be null
+
+    /**
+     * Constructor checks the passed values & throws an exception if there is a problem
+     */
+
+    public AdaptiveSleeptimeController(int minSleeptime_ms, int maxSleeptime_ms, int increment_ms, double decreaseFactor, int batchSize) {
+        if (minSleeptime_ms < 0) {
+            throw new IllegalArgumentException("Passed minimum sleeptime was <0 : " + minSleeptime_ms);
+        }
+        if (maxSleeptime_ms <= 0) {
+            throw new IllegalArgumentException("Passed maximum sleeptime was <=0 : " + maxSleeptime_ms);
+        }
+        if (maxSleeptime_ms < minSleeptime_ms) {
+            throw new IllegalArgumentException("Passed maximum sleeptime (" + maxSleeptime_ms + ") was < minimum sleeptime (" + minSleeptime_ms + ")");
+        }
+        if (increment_ms <= 0) {
+            throw new IllegalArgumentException("Passed increment was <=0 : " + increment_ms);
+        }
+        if (decreaseFactor < 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Passed decrease factor is " + decreaseFactor + " and thus outside of [0,1)");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Passed batch size was <=0 : " + batchSize);
+        }
+        this.minSleeptime_ms = minSleeptime_ms;
+        this.maxSleeptime_ms = maxSleeptime_ms;
+        this.increment_ms = increment_ms;
+        this.decreaseFactor = decreaseFactor;
+        this.batchSize = batchSize;
+        this.sleeptime_ms = minSleeptime_ms;
+    }
+
+    /**
+     * Constructor with a decrease factor of 0.5 and no notion of "batch"
+     */
+
+    public AdaptiveSleeptimeController(int minSleeptime_ms, int maxSleeptime_ms, int increment_ms) {
+        this(minSleeptime_ms, maxSleeptime_ms, increment_ms, 0.5, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adjust the sleeptime according to the work found in the cycle that just ended
+     */
+
+    public void cycleDone(int workFound) {
+        cycleCount++;
+        lastWorkFound = workFound;
+        if (workFound <= 0) {
+            idleCycleCount++;
+            sleeptime_ms = Math.min(maxSleeptime_ms, sleeptime_ms + increment_ms);
+        } else if (workFound >= batchSize) {
+            sleeptime_ms = minSleeptime_ms;
+        } else {
+            sleeptime_ms = Math.max(minSleeptime_ms, sleeptime_ms * decreaseFactor);
+        }
+    }
+
+    /**
+     * Park for the current sleeptime or until signalWork() is called, whichever comes first. Returns true if woken by
+     * a signal (including one that arrived before this call).
+     */
+
+    public boolean sleep() throws InterruptedException {
+        long remaining_ns = (long) (sleeptime_ms * 1000000.0);
+        lock.lock();
+        try {
+            while (!signalled && remaining_ns > 0) {
+                remaining_ns = workSignalled.awaitNanos(remaining_ns);
+            }
+            boolean res = signalled;
+            signalled = false;
+            if (res) {
+                signalledWakeupCount++;
+            }
+            return res;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To be called at the end of a cycle by the poller thread: adjust the sleeptime according to the work found, then
+     * sleep. Like SleeptimeManager.sleepOMatic(), an interruption is logged (if a logger is passed) but not thrown;
+     * the thread's interrupt flag is set again so that the caller can find out.
+     */
+
+    public void sleepOMatic(int workFound, Logger logger) {
+        Heartbeat hb = heartbeat;
+        if (hb != null) {
+            hb.beat();
+        }
+        cycleDone(workFound);
+        try {
+            sleep();
+        } catch (InterruptedException exe) {
+            if (logger != null) {
+                logger.warn("Woke up with exception: " + exe.getMessage());
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Set the heartbeat to beat at each sleepOMatic(); null to have none
+     */
+
+    public void setHeartbeat(Heartbeat heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * To be called by producers whenever they make work available to the poller. Cheap if a signal is already
+     * pending.
+     */
+
+    public void signalWork() {
+        if (signalled) {
+            return;
+        }
+        lock.lock();
+        try {
+            signalled = true;
+            workSignalled.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the actual time-to-sleep in milliseconds
+     */
+
+    public double getSleeptime_ms() {
+        return sleeptime_ms;
+    }
+
+    /**
+     * Get the 'load' which is computed as (max - sleeptime) / (max - min) and thus 1 if the poller sleeps the minimum
+     * and 0 if it is idle
+     */
+
+    public double getLoad() {
+        double range = maxSleeptime_ms - minSleeptime_ms;
+        if (range <= 0) {
+            return 1.0;
+        } else {
+            return (maxSleeptime_ms - sleeptime_ms) / range;
+        }
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    public long getIdleCycleCount() {
+        return idleCycleCount;
+    }
+
+    public long getSignalledWakeupCount() {
+        return signalledWakeupCount;
+    }
+
+    /**
+     * Generate output describing structure
+     */
+
+    public Story toStory() {
+        NumberFormat fmt = NumberFormat.getNumberInstance();
+        fmt.setMaximumFractionDigits(3);
+        Story res = new Story();
+        res.add("Sleeptime: " + fmt.format(sleeptime_ms) + " ms");
+        res.add("Sleeptime min: " + fmt.format(minSleeptime_ms) + " ms");
+        res.add("Sleeptime max: " + fmt.format(maxSleeptime_ms) + " ms");
+        res.add("Sleeptime increment: " + fmt.format(increment_ms) + " ms");
+        res.add("Sleeptime decrease factor: " + fmt.format(decreaseFactor));
+        res.add("Load: " + fmt.format(getLoad()));
+        res.add("Cycles: " + cycleCount + ", of which idle: " + idleCycleCount);
+        res.add("Wake-ups by signal: " + signalledWakeupCount);
+        res.add("Work found in last cycle: " + lastWorkFound);
+        return res;
+    }
+}
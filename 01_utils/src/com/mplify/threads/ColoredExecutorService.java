@@ -0,0 +1,203 @@
+package com.mplify.threads;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * An ExecutorService, as returned by ColoredExecutors, which wraps another
+ * ExecutorService in order to keep ExecutorStatistics about the tasks. All
+ * submit()/invoke*() variants go through execute(), so every task is
+ * counted. A task counts as failed if it threw, or, for those coming from
+ * submit()/invoke*(), if its Future completed exceptionally.
+ *
+ * If an ObjectName is given, the statistics are registered with the
+ * platform MBeanServer at construction and unregistered at shutdown.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Failures of submitted tasks, kept by their FutureTask, are
+ *              counted too
+ ******************************************************************************/
+
+public class ColoredExecutorService extends AbstractExecutorService {
+
+    private final static String CLASS = ColoredExecutorService.class.getName();
+    private final static Logger LOGGER_registerMBean = LoggerFactory.getLogger(CLASS + ".registerMBean");
+    private final static Logger LOGGER_unregisterMBean = LoggerFactory.getLogger(CLASS + ".unregisterMBean");
+
+    private final ExecutorService delegate;
+    private final ExecutorStatistics statistics;
+    private final ObjectName mbeanName; // null if not registered
+
+    /**
+     * A task remembering when it was submitted and reporting to the statistics
+     */
+
+    private class InstrumentedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submitted_ns = System.nanoTime();
+
+        InstrumentedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            statistics.taskStarted(submitted_ns, System.nanoTime());
+            boolean failed = true;
+            try {
+                task.run();
+                failed = failedInside(task);
+            } finally {
+                statistics.taskCompleted(submitted_ns, System.nanoTime(), failed);
+            }
+        }
+    }
+
+    /**
+     * The tasks of submit()/invoke*() are FutureTasks, which keep what the callable threw instead of throwing it; look
+     * at the outcome in that case. A cancelled task has not failed.
+     */
+
+    private static boolean failedInside(Runnable task) {
+        if (!(task instanceof Future) || !((Future<?>) task).isDone()) {
+            return false;
+        }
+        try {
+            ((Future<?>) task).get();
+            return false;
+        } catch (ExecutionException exe) {
+            return true;
+        } catch (CancellationException exe) {
+            return false;
+        } catch (InterruptedException exe) {
+            // cannot happen as the task is done; keep the flag anyway
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Constructor. If "mbeanName" is not null, the statistics are registered under that name.
+     */
+
+    public ColoredExecutorService(ExecutorService delegate, ExecutorStatistics statistics, ObjectName mbeanName) {
+        Check.notNull(delegate, "delegate");
+        Check.notNull(statistics, "statistics");
+        this.delegate = delegate;
+        this.statistics = statistics;
+        this.mbeanName = registerMBean(statistics, mbeanName) ? mbeanName : null;
+    }
+
+    private static boolean registerMBean(ExecutorStatistics statistics, ObjectName mbeanName) {
+        if (mbeanName == null) {
+            return false;
+        }
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            mbs.registerMBean(statistics, mbeanName);
+            return true;
+        } catch (Exception exe) {
+            LOGGER_registerMBean.warn("Could not register the statistics of pool '" + statistics.getPoolName() + "' as '" + mbeanName + "'", exe);
+            return false;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mbeanName == null) {
+            return;
+        }
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            if (mbs.isRegistered(mbeanName)) {
+                mbs.unregisterMBean(mbeanName);
+            }
+        } catch (Exception exe) {
+            LOGGER_unregisterMBean.warn("Could not unregister '" + mbeanName + "'", exe);
+        }
+    }
+
+    /**
+     * Get the statistics
+     */
+
+    public ExecutorStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get the name under which the statistics are registered; null if they are not
+     */
+
+    public ObjectName getMBeanName() {
+        return mbeanName;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Check.notNull(command, "command");
+        statistics.taskSubmitted();
+        try {
+            delegate.execute(new InstrumentedTask(command));
+        } catch (RejectedExecutionException exe) {
+            statistics.taskRejected();
+            throw exe;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+        unregisterMBean();
+    }
+
+    /**
+     * As for any ExecutorService; note that the returned Runnables are wrappers of the submitted tasks
+     */
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> res = delegate.shutdownNow();
+        statistics.tasksDropped(res.size());
+        unregisterMBean();
+        return res;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
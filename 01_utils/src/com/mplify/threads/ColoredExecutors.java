@@ -0,0 +1,173 @@
+package com.mplify.threads;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Factory for executors whose threads:
+ *
+ * - are named "<pool name>-<n>",
+ * - carry ThreadColor roles, so that role assertions work in the tasks,
+ * - are counted in ExecutorStatistics (active, queued, completed, task
+ *   latency histogram), optionally registered as an MBean named
+ *   "com.mplify.threads:type=ExecutorStatistics,name=<pool name>".
+ *
+ * Pools of platform threads are fixed-size ThreadPoolExecutors. Executors of
+ * virtual threads start one virtual thread per task; they are meant for
+ * workers doing blocking I/O. As this code is compiled for Java 7, virtual
+ * threads are obtained through reflection (Thread.ofVirtual() and
+ * Executors.newThreadPerTaskExecutor()); on a JVM which does not have them,
+ * a cached pool of daemon platform threads is used instead, which has the
+ * same "one thread per concurrent task" behaviour.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class ColoredExecutors {
+
+    private final static String CLASS = ColoredExecutors.class.getName();
+    private final static Logger LOGGER_virtualThreadFactory = LoggerFactory.getLogger(CLASS + ".virtualThreadFactory");
+
+    public final static String MBEAN_DOMAIN = "com.mplify.threads";
+
+    /**
+     * Reflective access to Thread.ofVirtual().factory() and Executors.newThreadPerTaskExecutor(); null if the JVM
+     * has no virtual threads
+     */
+
+    private final static Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private final static Method BUILDER_FACTORY = findMethod(findClass("java.lang.Thread$Builder"), "factory");
+    private final static Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private ColoredExecutors() {
+        // Unreachable
+    }
+
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException exe) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        if (clazz == null) {
+            return null;
+        }
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException exe) {
+            return null;
+        }
+    }
+
+    /**
+     * Does this JVM have virtual threads?
+     */
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null && BUILDER_FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Get a factory of (unnamed, uncolored) virtual threads; null if not supported or if reflection fails
+     */
+
+    private static ThreadFactory virtualThreadFactory() {
+        if (!isVirtualThreadSupported()) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (Exception exe) {
+            LOGGER_virtualThreadFactory.warn("Could not obtain a factory of virtual threads, using platform threads", exe);
+            return null;
+        }
+    }
+
+    /**
+     * Build the name under which the statistics of a pool are registered
+     */
+
+    public static ObjectName getMBeanName(String poolName) {
+        try {
+            return new ObjectName(MBEAN_DOMAIN + ":type=ExecutorStatistics,name=" + ObjectName.quote(poolName));
+        } catch (MalformedObjectNameException exe) {
+            throw new IllegalArgumentException("Pool name '" + poolName + "' yields no valid ObjectName", exe);
+        }
+    }
+
+    private static EnumSet<Role> toEnumSet(Set<Role> roles) {
+        Check.notNull(roles, "roles");
+        return roles.isEmpty() ? EnumSet.noneOf(Role.class) : EnumSet.copyOf(roles);
+    }
+
+    /**
+     * Create a fixed-size pool of platform threads with the given roles. The threads are daemon threads if so
+     * requested. The statistics are registered as an MBean if "registerMBean" is set.
+     */
+
+    public static ColoredExecutorService newFixedThreadPool(String poolName, int threadCount, Set<Role> roles, boolean daemon, boolean registerMBean) {
+        Check.notNull(poolName, "pool name");
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Passed thread count was <=0 : " + threadCount);
+        }
+        EnumSet<Role> roleSet = toEnumSet(roles);
+        ThreadFactory tf = new ColoredThreadFactory(poolName, roleSet, daemon);
+        ThreadPoolExecutor tpe = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), tf);
+        ExecutorStatistics stats = new ExecutorStatistics(poolName, roleSet, false);
+        return new ColoredExecutorService(tpe, stats, registerMBean ? getMBeanName(poolName) : null);
+    }
+
+    /**
+     * Create an executor which runs each task on a new virtual thread with the given roles, or, if the JVM does not
+     * have virtual threads, on a cached daemon platform thread. The statistics are registered as an MBean if
+     * "registerMBean" is set; ExecutorStatistics.isVirtual() tells which kind of thread is actually used.
+     */
+
+    public static ColoredExecutorService newVirtualThreadExecutor(String poolName, Set<Role> roles, boolean registerMBean) {
+        Check.notNull(poolName, "pool name");
+        EnumSet<Role> roleSet = toEnumSet(roles);
+        ThreadFactory vtf = virtualThreadFactory();
+        ExecutorService delegate = null;
+        if (vtf != null) {
+            try {
+                delegate = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, new ColoredThreadFactory(poolName, roleSet, true, vtf));
+            } catch (Exception exe) {
+                LOGGER_virtualThreadFactory.warn("Could not create an executor of virtual threads, using platform threads", exe);
+            }
+        }
+        boolean virtual = (delegate != null);
+        if (!virtual) {
+            delegate = Executors.newCachedThreadPool(new ColoredThreadFactory(poolName, roleSet, true));
+        }
+        ExecutorStatistics stats = new ExecutorStatistics(poolName, roleSet, virtual);
+        return new ColoredExecutorService(delegate, stats, registerMBean ? getMBeanName(poolName) : null);
+    }
+}
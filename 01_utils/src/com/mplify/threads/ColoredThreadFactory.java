@@ -0,0 +1,105 @@
+package com.mplify.threads;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mplify.checkers.Check;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A ThreadFactory whose threads are named "<pool name>-<n>" (n counting from
+ * 1) and carry the given ThreadColor roles from the moment they start, so
+ * that "assert ThreadColor.assertRole(...)" works in tasks run by them.
+ *
+ * Threads are created by a "base" factory if one is given (e.g. a factory
+ * of virtual threads), otherwise as platform threads. Either way, the roles
+ * are set by the thread itself before it runs anything, thus no reliance on
+ * thread-local inheritance.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class ColoredThreadFactory implements ThreadFactory {
+
+    private final String poolName;
+    private final EnumSet<Role> roles;
+    private final boolean daemon;
+    private final ThreadFactory baseFactory; // may be null
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * Constructor for a factory of platform threads
+     */
+
+    public ColoredThreadFactory(String poolName, Set<Role> roles, boolean daemon) {
+        this(poolName, roles, daemon, null);
+    }
+
+    /**
+     * Constructor for a factory which delegates thread creation to "baseFactory". The "daemon" flag is only
+     * applied to platform threads created by this factory itself.
+     */
+
+    public ColoredThreadFactory(String poolName, Set<Role> roles, boolean daemon, ThreadFactory baseFactory) {
+        Check.notNull(poolName, "pool name");
+        Check.notNull(roles, "roles");
+        this.poolName = poolName;
+        this.roles = roles.isEmpty() ? EnumSet.noneOf(Role.class) : EnumSet.copyOf(roles);
+        this.daemon = daemon;
+        this.baseFactory = baseFactory;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Get a copy of the roles given to the threads
+     */
+
+    public EnumSet<Role> getRoles() {
+        return EnumSet.copyOf(roles);
+    }
+
+    /**
+     * Get the number of threads created so far
+     */
+
+    public int getThreadCount() {
+        return threadCount.get();
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Runnable colored = new Runnable() {
+            @Override
+            public void run() {
+                ThreadColor.setRoles(roles);
+                runnable.run();
+            }
+        };
+        String name = poolName + "-" + threadCount.incrementAndGet();
+        Thread res;
+        if (baseFactory == null) {
+            res = new Thread(colored, name);
+            res.setDaemon(daemon);
+        } else {
+            res = baseFactory.newThread(colored);
+            if (res == null) {
+                return null;
+            }
+            res.setName(name);
+        }
+        return res;
+    }
+}
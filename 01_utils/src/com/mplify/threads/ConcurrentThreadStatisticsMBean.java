@@ -0,0 +1,128 @@
+package com.mplify.threads;
+
+import java.util.Date;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Declaration of an MBean exporting the statistics gathered by a pool of
+ * worker threads sharing a ConcurrentThreadStatistics.
+ *
+ * All values are since the last reset. Times are in milliseconds, with
+ * microsecond resolution; they are NaN if nothing has been measured yet.
+ *
+ * This currently is a "standard MBean"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface ConcurrentThreadStatisticsMBean {
+
+    /**
+     * Number of delays measured
+     */
+
+    public long getDelayCount();
+
+    /**
+     * Mean delay
+     */
+
+    public double getDelayMean_ms();
+
+    /**
+     * Median delay
+     */
+
+    public double getDelayP50_ms();
+
+    /**
+     * 99th percentile of the delay
+     */
+
+    public double getDelayP99_ms();
+
+    /**
+     * 99.9th percentile of the delay
+     */
+
+    public double getDelayP999_ms();
+
+    /**
+     * Largest delay measured
+     */
+
+    public double getDelayMax_ms();
+
+    /**
+     * Number of thread loops measured
+     */
+
+    public long getThreadLoopCount();
+
+    /**
+     * Mean thread loop time
+     */
+
+    public double getThreadLoopTimeMean_ms();
+
+    /**
+     * Median thread loop time
+     */
+
+    public double getThreadLoopTimeP50_ms();
+
+    /**
+     * 99th percentile of the thread loop time
+     */
+
+    public double getThreadLoopTimeP99_ms();
+
+    /**
+     * 99.9th percentile of the thread loop time
+     */
+
+    public double getThreadLoopTimeP999_ms();
+
+    /**
+     * Largest thread loop time measured
+     */
+
+    public double getThreadLoopTimeMax_ms();
+
+    /**
+     * Time spent working divided by time spent working or sleeping, over all threads; NaN if nothing measured
+     */
+
+    public double getWorkload();
+
+    /**
+     * Number of times a thread was (re)started
+     */
+
+    public long getRestartCount();
+
+    /**
+     * Time of the last (re)start; null if "never"
+     */
+
+    public Date getLastRestartTime();
+
+    /**
+     * When did the last reset happen?
+     */
+
+    public Date getLastResetTime();
+
+    /**
+     * Forget all measurements, restarts included
+     */
+
+    public void reset();
+}
@@ -0,0 +1,216 @@
+package com.mplify.threads;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mplify.logging.Story;
+import com.mplify.mbeans.MBeanMarker;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Statistics of an executor created by ColoredExecutors, updated by the
+ * ColoredExecutorService as tasks are submitted, started and completed.
+ * Works the same for platform and virtual threads, as nothing is asked of
+ * the underlying executor.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class ExecutorStatistics implements ExecutorStatisticsMBean, MBeanMarker {
+
+    private final String poolName;
+    private final EnumSet<Role> roles;
+    private final boolean virtual;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final StripedHistogram waitTime_us = new StripedHistogram();
+    private final StripedHistogram latency_us = new StripedHistogram();
+
+    /**
+     * Constructor
+     */
+
+    public ExecutorStatistics(String poolName, EnumSet<Role> roles, boolean virtual) {
+        this.poolName = poolName;
+        this.roles = EnumSet.copyOf(roles);
+        this.virtual = virtual;
+    }
+
+    /**
+     * Called by the executor service when a task is accepted
+     */
+
+    void taskSubmitted() {
+        submittedCount.incrementAndGet();
+    }
+
+    /**
+     * Called by the executor service when the underlying executor refused a task that was counted as submitted
+     */
+
+    void taskRejected() {
+        submittedCount.decrementAndGet();
+        rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * Called by the thread running a task just before it starts
+     */
+
+    void taskStarted(long submitted_ns, long started_ns) {
+        startedCount.incrementAndGet();
+        activeCount.incrementAndGet();
+        waitTime_us.record(TimeUnit.NANOSECONDS.toMicros(started_ns - submitted_ns));
+    }
+
+    /**
+     * Called by the thread running a task just after it ended
+     */
+
+    void taskCompleted(long submitted_ns, long completed_ns, boolean failed) {
+        activeCount.decrementAndGet();
+        completedCount.incrementAndGet();
+        if (failed) {
+            failedCount.incrementAndGet();
+        }
+        latency_us.record(TimeUnit.NANOSECONDS.toMicros(completed_ns - submitted_ns));
+    }
+
+    /**
+     * Called by the executor service for tasks that were removed from the queue by shutdownNow()
+     */
+
+    void tasksDropped(int count) {
+        submittedCount.addAndGet(-count);
+    }
+
+    /**
+     * Get a merged snapshot of the latencies, in microseconds
+     */
+
+    public StripedHistogram.Snapshot getLatencySnapshot_us() {
+        return latency_us.snapshot();
+    }
+
+    private static double toMs(double value_us) {
+        return value_us / 1000.0;
+    }
+
+    @Override
+    public String getPoolName() {
+        return poolName;
+    }
+
+    @Override
+    public String getRoles() {
+        StringBuilder buf = new StringBuilder();
+        for (Role r : roles) {
+            if (buf.length() > 0) {
+                buf.append(", ");
+            }
+            buf.append(r);
+        }
+        return buf.toString();
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    @Override
+    public long getQueuedCount() {
+        // read "started" first so that the difference is never negative
+        long started = startedCount.get();
+        return Math.max(0, submittedCount.get() - started);
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public double getWaitTimeMean_ms() {
+        return toMs(waitTime_us.snapshot().getMean());
+    }
+
+    @Override
+    public double getLatencyMean_ms() {
+        return toMs(latency_us.snapshot().getMean());
+    }
+
+    @Override
+    public double getLatencyP50_ms() {
+        return toMs(latency_us.snapshot().getPercentile(0.5));
+    }
+
+    @Override
+    public double getLatencyP99_ms() {
+        return toMs(latency_us.snapshot().getPercentile(0.99));
+    }
+
+    @Override
+    public double getLatencyP999_ms() {
+        return toMs(latency_us.snapshot().getPercentile(0.999));
+    }
+
+    @Override
+    public double getLatencyMax_ms() {
+        StripedHistogram.Snapshot snap = latency_us.snapshot();
+        return (snap.getCount() == 0) ? Double.NaN : toMs(snap.getMax());
+    }
+
+    @Override
+    public void resetLatencies() {
+        waitTime_us.reset();
+        latency_us.reset();
+    }
+
+    /**
+     * Generate output describing structure
+     */
+
+    public Story toStory() {
+        StripedHistogram.Snapshot snap = latency_us.snapshot();
+        Story res = new Story();
+        res.add("Pool: " + poolName + (virtual ? " (virtual threads)" : " (platform threads)"));
+        res.add("Roles: " + getRoles());
+        res.add("Active: " + getActiveCount() + ", queued: " + getQueuedCount() + ", completed: " + getCompletedCount() + ", failed: " + getFailedCount() + ", rejected: "
+                + getRejectedCount());
+        res.add("Wait time mean in ms: " + getWaitTimeMean_ms());
+        res.add("Latency in ms: mean " + toMs(snap.getMean()) + ", p50 " + toMs(snap.getPercentile(0.5)) + ", p99 " + toMs(snap.getPercentile(0.99)) + ", p999 "
+                + toMs(snap.getPercentile(0.999)) + ", max " + toMs(snap.getMax()));
+        return res;
+    }
+}
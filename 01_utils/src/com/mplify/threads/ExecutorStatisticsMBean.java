@@ -0,0 +1,114 @@
+package com.mplify.threads;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Declaration of an MBean exporting the statistics of an executor created
+ * by ColoredExecutors.
+ *
+ * Times are in milliseconds, with microsecond resolution; they are NaN if
+ * no task has completed yet.
+ *
+ * This currently is a "standard MBean"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface ExecutorStatisticsMBean {
+
+    /**
+     * Name of the pool, which is also the prefix of the thread names
+     */
+
+    public String getPoolName();
+
+    /**
+     * The roles of the pool's threads, comma-separated
+     */
+
+    public String getRoles();
+
+    /**
+     * Whether the pool runs tasks on virtual threads
+     */
+
+    public boolean isVirtual();
+
+    /**
+     * Number of tasks currently running
+     */
+
+    public int getActiveCount();
+
+    /**
+     * Number of tasks accepted but not yet started
+     */
+
+    public long getQueuedCount();
+
+    /**
+     * Number of tasks that ran to completion, normally or not
+     */
+
+    public long getCompletedCount();
+
+    /**
+     * Number of tasks that threw, or whose Future completed exceptionally
+     */
+
+    public long getFailedCount();
+
+    /**
+     * Number of tasks rejected by the executor
+     */
+
+    public long getRejectedCount();
+
+    /**
+     * Mean time between submission and start of a task
+     */
+
+    public double getWaitTimeMean_ms();
+
+    /**
+     * Mean time between submission and completion of a task
+     */
+
+    public double getLatencyMean_ms();
+
+    /**
+     * Median time between submission and completion of a task
+     */
+
+    public double getLatencyP50_ms();
+
+    /**
+     * 99th percentile of the time between submission and completion of a task
+     */
+
+    public double getLatencyP99_ms();
+
+    /**
+     * 99.9th percentile of the time between submission and completion of a task
+     */
+
+    public double getLatencyP999_ms();
+
+    /**
+     * Largest time between submission and completion of a task
+     */
+
+    public double getLatencyMax_ms();
+
+    /**
+     * Forget the wait time and latency measurements (the counters are kept)
+     */
+
+    public void resetLatencies();
+}
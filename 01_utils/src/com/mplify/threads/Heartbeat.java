@@ -0,0 +1,139 @@
+package com.mplify.threads;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * The handle through which a worker thread reports progress to the
+ * HeartbeatRegistry: call beat() once per loop. The values are kept in a
+ * slot of the registry that no other heartbeat shares a cache line with.
+ *
+ * beat() takes no lock; it is meant to be called by a single thread (the
+ * owner), readers may see its values with some delay.
+ *
+ * After close(), the slot may be handed to another heartbeat. The slot
+ * holds a stamp of its current owner, and beat() does nothing if the
+ * heartbeat is closed or the stamp is not its own, so that a worker beating
+ * on a stale handle cannot hide a stall of the new owner. As a beat may
+ * already be past that check when the slot changes hands, it writes the
+ * values with compare-and-set against those read before the check: the
+ * registration of the new owner changes them, and the stale beat is lost.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Owner stamp in the slot; beats after close() are dropped
+ * 2026.10.19 - A beat racing with the reuse of the slot is dropped too
+ ******************************************************************************/
+
+public final class Heartbeat {
+
+    private final HeartbeatRegistry registry;
+    private final AtomicLongArray segment;
+    private final int base; // index of the "last beat" value in the segment; the beat count and the owner stamp follow
+    private final long stamp; // unique per registration
+    private final String name;
+    private final Role role; // may be null
+    private final long stallTimeout_ms;
+    private volatile boolean closed = false;
+
+    /**
+     * Created by the registry only
+     */
+
+    Heartbeat(HeartbeatRegistry registry, AtomicLongArray segment, int base, long stamp, String name, Role role, long stallTimeout_ms) {
+        this.registry = registry;
+        this.segment = segment;
+        this.base = base;
+        this.stamp = stamp;
+        this.name = name;
+        this.role = role;
+        this.stallTimeout_ms = stallTimeout_ms;
+        segment.set(base + 2, stamp);
+        segment.set(base, System.nanoTime());
+        segment.set(base + 1, 0);
+    }
+
+    /**
+     * Record progress; does nothing once closed
+     */
+
+    public void beat() {
+        // read before the stamp, which the registration of a new owner writes before the time and count
+        long last = segment.get(base);
+        long count = segment.get(base + 1);
+        if (closed || segment.get(base + 2) != stamp) {
+            return;
+        }
+        if (segment.compareAndSet(base, last, System.nanoTime())) {
+            segment.compareAndSet(base + 1, count, count + 1);
+        }
+    }
+
+    /**
+     * Milliseconds since the last beat (or since registration if there was none)
+     */
+
+    public long getTimeSinceLastBeat_ms() {
+        return (System.nanoTime() - segment.get(base)) / 1000000L;
+    }
+
+    public long getBeatCount() {
+        return segment.get(base + 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public long getStallTimeout_ms() {
+        return stallTimeout_ms;
+    }
+
+    /**
+     * A heartbeat is stalled if no beat happened for longer than the stall timeout
+     */
+
+    public boolean isStalled() {
+        return !closed && getTimeSinceLastBeat_ms() > stallTimeout_ms;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Give the slot back to the registry, e.g. when the worker ends normally. Further beats are ignored.
+     */
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            registry.release(this);
+        }
+    }
+
+    AtomicLongArray getSegment() {
+        return segment;
+    }
+
+    int getBase() {
+        return base;
+    }
+
+    @Override
+    public String toString() {
+        return name + ((role == null) ? "" : " (" + role + ")") + ": " + getTimeSinceLastBeat_ms() + " ms since last heartbeat, " + getBeatCount() + " beats";
+    }
+}
@@ -0,0 +1,177 @@
+package com.mplify.threads;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mplify.checkers.Check;
+import com.mplify.logging.Story;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Registry of the Heartbeats of worker threads, to find out whether their
+ * loops are still making progress (as opposed to the thread merely being
+ * alive).
+ *
+ * A worker registers once, giving a role and a "stall timeout", then calls
+ * Heartbeat.beat() once per loop. Passing a Heartbeat to a
+ * ThreadStatistics or an AdaptiveSleeptimeController makes
+ * measureAliveness() or sleepOMatic() beat.
+ *
+ * The heartbeat values live in "segments" (AtomicLongArrays), one slot of
+ * 16 longs (128 bytes) per heartbeat, so that two workers never write to
+ * the same cache line (nor to adjacent ones, which some processors fetch
+ * in pairs). Registration and release are synchronized; beating and reading
+ * take no lock.
+ *
+ * A released slot is handed out again; each registration writes a new
+ * owner stamp into it, so the old Heartbeat can no longer beat there.
+ *
+ * The Liveness MBean reports on the default registry.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Owner stamp per registration
+ ******************************************************************************/
+
+public class HeartbeatRegistry {
+
+    private final static int SLOT_STRIDE = 16; // longs per slot
+    private final static int SLOTS_PER_SEGMENT = 64;
+
+    private final static HeartbeatRegistry DEFAULT = new HeartbeatRegistry();
+
+    private final List<AtomicLongArray> segments = new ArrayList<AtomicLongArray>(); // guarded by "this"
+    private final List<int[]> freeSlots = new ArrayList<int[]>(); // { segment index, base }, guarded by "this"
+    private final CopyOnWriteArrayList<Heartbeat> heartbeats = new CopyOnWriteArrayList<Heartbeat>();
+    private long lastStamp = 0; // guarded by "this"
+
+    /**
+     * The registry used by default, e.g. by the Liveness MBean
+     */
+
+    public static HeartbeatRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Register a heartbeat with the given name and role (which may be null). It is considered stalled if no beat
+     * happens for longer than "stallTimeout_ms".
+     */
+
+    public synchronized Heartbeat register(String name, Role role, long stallTimeout_ms) {
+        Check.notNull(name, "name");
+        if (stallTimeout_ms <= 0) {
+            throw new IllegalArgumentException("Passed stall timeout was <=0 : " + stallTimeout_ms);
+        }
+        if (freeSlots.isEmpty()) {
+            int segmentIndex = segments.size();
+            segments.add(new AtomicLongArray(SLOTS_PER_SEGMENT * SLOT_STRIDE));
+            // hand out from the front; slot 0 is not used as its line neighbours the array header
+            for (int i = SLOTS_PER_SEGMENT - 1; i >= 1; i--) {
+                freeSlots.add(new int[] { segmentIndex, i * SLOT_STRIDE });
+            }
+        }
+        int[] slot = freeSlots.remove(freeSlots.size() - 1);
+        Heartbeat res = new Heartbeat(this, segments.get(slot[0]), slot[1], ++lastStamp, name, role, stallTimeout_ms);
+        heartbeats.add(res);
+        return res;
+    }
+
+    /**
+     * Register a heartbeat for the current thread, named after it
+     */
+
+    public Heartbeat registerCurrentThread(Role role, long stallTimeout_ms) {
+        return register(Thread.currentThread().getName(), role, stallTimeout_ms);
+    }
+
+    /**
+     * Called by Heartbeat.close()
+     */
+
+    synchronized void release(Heartbeat heartbeat) {
+        if (heartbeats.remove(heartbeat)) {
+            freeSlots.add(new int[] { segments.indexOf(heartbeat.getSegment()), heartbeat.getBase() });
+        }
+    }
+
+    /**
+     * Get the registered heartbeats
+     */
+
+    public List<Heartbeat> getHeartbeats() {
+        return new ArrayList<Heartbeat>(heartbeats);
+    }
+
+    /**
+     * Get the stalled heartbeats
+     */
+
+    public List<Heartbeat> getStalled() {
+        List<Heartbeat> res = new ArrayList<Heartbeat>();
+        for (Heartbeat hb : heartbeats) {
+            if (hb.isStalled()) {
+                res.add(hb);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * For each role that has heartbeats, the longest time since the last beat among them
+     */
+
+    public Map<Role, Long> getTimeSinceLastBeatPerRole_ms() {
+        Map<Role, Long> res = new EnumMap<Role, Long>(Role.class);
+        for (Heartbeat hb : heartbeats) {
+            if (hb.getRole() != null) {
+                long since = hb.getTimeSinceLastBeat_ms();
+                Long old = res.get(hb.getRole());
+                if (old == null || old.longValue() < since) {
+                    res.put(hb.getRole(), Long.valueOf(since));
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * The fraction of registered heartbeats that are not stalled; 1.0 if there are none
+     */
+
+    public double getLivenessScore() {
+        int total = 0;
+        int stalled = 0;
+        for (Heartbeat hb : heartbeats) {
+            total++;
+            if (hb.isStalled()) {
+                stalled++;
+            }
+        }
+        return (total == 0) ? 1.0 : (double) (total - stalled) / total;
+    }
+
+    /**
+     * Generate output describing structure
+     */
+
+    public Story toStory() {
+        Story res = new Story();
+        res.add("Heartbeats: " + heartbeats.size() + ", liveness score: " + getLivenessScore());
+        for (Heartbeat hb : heartbeats) {
+            res.add((hb.isStalled() ? "STALLED " : "") + hb);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mplify.threads;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a simulation program comparing the fixed
+ * stepping of SleeptimeManager with the AdaptiveSleeptimeController, with
+ * and without producer signalling. It sits in this package because
+ * SleeptimeManager is package-visible only.
+ *
+ * A producer thread puts timestamped items into a queue in bursts separated
+ * by random pauses (the same random sequence for each run). A poller thread
+ * drains the queue in batches. Printed are the mean and maximum latency
+ * between enqueue and dequeue, and the number of "idle wake-ups", i.e.
+ * poller cycles that found nothing to do.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseSleeptimeSimulation {
+
+    private final static long RUN_MS = 4000;
+    private final static int BATCH = 20;
+    private final static int MIN_MS = 1;
+    private final static int MAX_MS = 200;
+    private final static int STEP_MS = 10;
+
+    private enum Mode {
+        STEPPING, ADAPTIVE, ADAPTIVE_SIGNALLED
+    }
+
+    private static class Result {
+        long items;
+        long cycles;
+        long idleCycles;
+        long latencySum_ns;
+        long latencyMax_ns;
+    }
+
+    private static Result simulate(final Mode mode) throws InterruptedException {
+        final ConcurrentLinkedQueue<Long> queue = new ConcurrentLinkedQueue<Long>();
+        final SleeptimeManager stm = new SleeptimeManager(MIN_MS, MAX_MS, STEP_MS);
+        final AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(MIN_MS, MAX_MS, STEP_MS, 0.5, BATCH);
+        final Result res = new Result();
+        final long end = System.currentTimeMillis() + RUN_MS;
+        final boolean[] producerDone = new boolean[1];
+        Thread producer = new Thread("producer") {
+            @Override
+            public void run() {
+                Random rand = new Random(4711);
+                try {
+                    while (System.currentTimeMillis() < end) {
+                        int burst = 1 + rand.nextInt(50);
+                        for (int i = 0; i < burst; i++) {
+                            queue.add(Long.valueOf(System.nanoTime()));
+                            if (mode == Mode.ADAPTIVE_SIGNALLED) {
+                                asc.signalWork();
+                            }
+                            if (rand.nextInt(4) == 0) {
+                                Thread.sleep(1);
+                            }
+                        }
+                        Thread.sleep(rand.nextInt(300));
+                    }
+                } catch (InterruptedException exe) {
+                    // done
+                }
+                synchronized (producerDone) {
+                    producerDone[0] = true;
+                }
+            }
+        };
+        Thread poller = new Thread("poller") {
+            @Override
+            public void run() {
+                while (true) {
+                    boolean done;
+                    synchronized (producerDone) {
+                        done = producerDone[0];
+                    }
+                    if (done && queue.isEmpty()) {
+                        return;
+                    }
+                    if (mode == Mode.STEPPING) {
+                        stm.touchStartOfDoWork();
+                    }
+                    int found = 0;
+                    Long enqueued;
+                    while (found < BATCH && (enqueued = queue.poll()) != null) {
+                        long latency_ns = System.nanoTime() - enqueued.longValue();
+                        res.latencySum_ns += latency_ns;
+                        res.latencyMax_ns = Math.max(res.latencyMax_ns, latency_ns);
+                        found++;
+                    }
+                    res.items += found;
+                    res.cycles++;
+                    if (found == 0) {
+                        res.idleCycles++;
+                    }
+                    if (mode == Mode.STEPPING) {
+                        stm.sleepOMatic(found == 0, found > 0, null);
+                    } else {
+                        asc.sleepOMatic(found, null);
+                    }
+                }
+            }
+        };
+        poller.start();
+        producer.start();
+        producer.join();
+        if (mode == Mode.ADAPTIVE_SIGNALLED) {
+            asc.signalWork();
+        }
+        poller.join();
+        return res;
+    }
+
+    @Test
+    public void testSimulation() throws InterruptedException {
+        System.out.println("Run time: " + RUN_MS + " ms, batch: " + BATCH + ", sleeptime " + MIN_MS + ".." + MAX_MS + " ms, step " + STEP_MS + " ms");
+        for (Mode mode : Mode.values()) {
+            Result res = simulate(mode);
+            double meanLatency_ms = (res.items == 0) ? 0 : res.latencySum_ns / (1000000.0 * res.items);
+            System.out.println(String.format("%-20s items: %6d, cycles: %6d, idle wake-ups: %6d, mean latency: %8.3f ms, max latency: %8.3f ms", mode, res.items, res.cycles, res.idleCycles,
+                    meanLatency_ms, res.latencyMax_ns / 1000000.0));
+        }
+        System.out.flush();
+    }
+}
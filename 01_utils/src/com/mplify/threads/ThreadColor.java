@@ -1,6 +1,6 @@
 package com.mplify.threads;
 
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
@@ -17,6 +17,9 @@ import java.util.Set;
  * 
  * 2010.09.15 - Created
  * 2010.09.22 - Still changing
+ * 2026.10.19 - Roles kept in an EnumSet (a bitmask) instead of a HashSet.
+ *              Added setRoles(), getRoles(), hasRole(), clearRoles() so that
+ *              ColoredThreadFactory can color the threads it creates.
  ******************************************************************************/
 
 public class ThreadColor {
@@ -38,7 +41,7 @@ public class ThreadColor {
         DEALER_BOARD_SERVER__DISPATCHER          // the thread matching deals and dealers
     }
         
-    private static ThreadLocal<Set<Role>> myRoles = new ThreadLocal<Set<Role>>();
+    private static ThreadLocal<EnumSet<Role>> myRoles = new ThreadLocal<EnumSet<Role>>();
        
     // to be used in assert texts
             
@@ -75,10 +78,53 @@ public class ThreadColor {
     public static void addRole(Role newRole) {
         assert newRole != null;
         if (myRoles.get()==null) {
-            myRoles.set(new HashSet<Role>());
+            myRoles.set(EnumSet.noneOf(Role.class));
         }
         myRoles.get().add(newRole);
     }
+
+    /**
+     * Replace the roles of the current thread by a copy of the passed ones. Passing null or an empty set
+     * removes all roles.
+     */
+
+    public static void setRoles(Set<Role> newRoles) {
+        if (newRoles == null || newRoles.isEmpty()) {
+            myRoles.remove();
+        } else {
+            myRoles.set(EnumSet.copyOf(newRoles));
+        }
+    }
+
+    /**
+     * Get a copy of the roles of the current thread; empty if there are none
+     */
+
+    public static EnumSet<Role> getRoles() {
+        EnumSet<Role> rolesOfThisThread = myRoles.get();
+        if (rolesOfThisThread == null) {
+            return EnumSet.noneOf(Role.class);
+        } else {
+            return EnumSet.copyOf(rolesOfThisThread);
+        }
+    }
+
+    /**
+     * Check whether the current thread has the given role, without asserting
+     */
+
+    public static boolean hasRole(Role role) {
+        EnumSet<Role> rolesOfThisThread = myRoles.get();
+        return rolesOfThisThread != null && rolesOfThisThread.contains(role);
+    }
+
+    /**
+     * Remove all roles from the current thread
+     */
+
+    public static void clearRoles() {
+        myRoles.remove();
+    }
     
     /**
      * Helper for set membership check
@@ -47,6 +47,9 @@ import com.mplify.logging.TimeDecayingAverage;
  *              called ThreadStatistics now.
  * 2004.04.16 - Added toPolyline()
  * 2006.04.24 - Modified for new TimeDecayingAverage
+ * 2026.10.19 - Not thread-safe; see ConcurrentThreadStatistics for values
+ *              updated by several threads
+ * 2026.10.19 - measureAliveness() beats the optional Heartbeat
  ******************************************************************************/
 
 public class ThreadStatistics {
@@ -58,6 +61,7 @@ public class ThreadStatistics {
 	private final TimeDecayingAverage averageWorkload; // a value between 0 and 1 expressing the workload of the thread 
 	private final TimeDecayingAverage averageDelay_ms; // average delay that can be expected for a transaction with the remote gateway
 	private final TimeDecayingAverage averageThreadLoopTime_ms; // average time a passage through the thread loop takes
+	private volatile Heartbeat heartbeat; // beaten by measureAliveness(); may be null
 
 	/**
 	 * Constructor, takes the decays to apply to the values. The passed
@@ -153,9 +157,21 @@ public class ThreadStatistics {
 	 */
 
 	public double measureAliveness() {
+		Heartbeat hb = heartbeat;
+		if (hb != null) {
+			hb.beat();
+		}
 		return aliveness.measure(0.0, System.currentTimeMillis());
 	}
 
+	/**
+	 * Set the heartbeat to beat whenever measureAliveness() is called; null to have none
+	 */
+
+	public void setHeartbeat(Heartbeat heartbeat) {
+		this.heartbeat = heartbeat;
+	}
+
 	/**
 	 * Get the current 'aliveness' value without modifiying it
 	 */
@@ -33,6 +33,17 @@ import com.mplify.junit.TestStarter;
  * 2013.01.02 - Adapted to use TestStarter and JUnit 4 
  * 2013.01.29 - Added com.mplify.logic.TestLogicExpr
  * 2013.02.18 - Added TestCaseXMLHelper2
+ * 2026.10.19 - Added TestCaseCgroupCollector
+ * 2026.10.19 - Added com.mplify.linuxaria.jvminfo.TestCaseStatLine
+ * 2026.10.19 - Added TestCaseFoldedStacks
+ * 2026.10.19 - Added TestCaseAdaptiveSleeptimeController
+ * 2026.10.19 - Added TestCaseStripedHistogram
+ * 2026.10.19 - Added TestCaseColoredExecutors
+ * 2026.10.19 - Added TestCaseCompiledModelMBean
+ * 2026.10.19 - Added TestCaseMetricsRegistry
+ * 2026.10.19 - Added TestCaseHeartbeatRegistry
+ * 2026.10.19 - Added TestCaseIntegerLookupTable
+ * 2026.10.19 - Added TestCaseNameLookupTable
  *******************************************************************************/
 
 @RunWith(Suite.class)
@@ -41,7 +52,12 @@ import com.mplify.junit.TestStarter;
         TestCaseLocalDate.class, TestCaseLocalDateAndTime.class, TestCaseLocalTime.class, TestCaseLocalTimeParser.class, TestCaseMarshalUnmarshalPayload.class,
         TestCaseMarshalUnmarshalProperties.class, TestCasePayload.class, TestCasePhoneNumber.class, TestCaseRfc3066LangTag.class, TestCaseStringPacking.class, TestCaseTvec.class,
         TestReadingFilesWithNonAsciiFilenames.class, TestCaseConfirmationRequestSet.class,
-        com.mplify.logic.TestCaseLogicExpr.class, TestCaseMutableBoolean.class, TestCaseXMLHelper2.class })
+        com.mplify.logic.TestCaseLogicExpr.class, TestCaseMutableBoolean.class, TestCaseXMLHelper2.class,
+        TestCaseCgroupCollector.class, com.mplify.linuxaria.jvminfo.TestCaseStatLine.class,
+        TestCaseFoldedStacks.class, TestCaseAdaptiveSleeptimeController.class, TestCaseStripedHistogram.class,
+        TestCaseColoredExecutors.class, TestCaseCompiledModelMBean.class,
+        TestCaseMetricsRegistry.class, TestCaseHeartbeatRegistry.class, TestCaseIntegerLookupTable.class,
+        TestCaseNameLookupTable.class })
 public class AllTests extends TestStarter {
 
     // NOP, currently just a holder for annotations to be used by a JUnit Runner
@@ -0,0 +1,146 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.threads.AdaptiveSleeptimeController;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the AIMD sleeptime adaptation and the signalled wake-up of the
+ * AdaptiveSleeptimeController
+ ******************************************************************************/
+
+public class TestCaseAdaptiveSleeptimeController extends TestStarter {
+
+    private final static double EPSILON = 1E-9;
+
+    @Test
+    public void testBadArguments() {
+        try {
+            new AdaptiveSleeptimeController(-1, 100, 10);
+            fail("Expected exception");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+        try {
+            new AdaptiveSleeptimeController(200, 100, 10);
+            fail("Expected exception");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+        try {
+            new AdaptiveSleeptimeController(0, 100, 10, 1.0, 10);
+            fail("Expected exception");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAdditiveIncrease() {
+        AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(0, 35, 10);
+        assertEquals(0, asc.getSleeptime_ms(), EPSILON);
+        assertEquals(1.0, asc.getLoad(), EPSILON);
+        asc.cycleDone(0);
+        assertEquals(10, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(0);
+        asc.cycleDone(0);
+        assertEquals(30, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(0);
+        asc.cycleDone(0);
+        assertEquals(35, asc.getSleeptime_ms(), EPSILON);
+        assertEquals(0.0, asc.getLoad(), EPSILON);
+        assertEquals(5, asc.getCycleCount());
+        assertEquals(5, asc.getIdleCycleCount());
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() {
+        AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(2, 100, 50, 0.5, 1000);
+        asc.cycleDone(0);
+        asc.cycleDone(0);
+        assertEquals(100, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(3);
+        assertEquals(50, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(3);
+        assertEquals(25, asc.getSleeptime_ms(), EPSILON);
+        for (int i = 0; i < 20; i++) {
+            asc.cycleDone(1);
+        }
+        assertEquals(2, asc.getSleeptime_ms(), EPSILON);
+        assertEquals(2, asc.getIdleCycleCount());
+    }
+
+    @Test
+    public void testFullBatchResets() {
+        AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(1, 100, 100, 0.9, 10);
+        asc.cycleDone(0);
+        assertEquals(100, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(9);
+        assertEquals(90, asc.getSleeptime_ms(), EPSILON);
+        asc.cycleDone(10);
+        assertEquals(1, asc.getSleeptime_ms(), EPSILON);
+    }
+
+    @Test
+    public void testSignalBeforeSleepReturnsAtOnce() throws InterruptedException {
+        AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(0, 10000, 10000);
+        asc.cycleDone(0);
+        asc.signalWork();
+        asc.signalWork(); // coalesced
+        long start = System.nanoTime();
+        assertTrue(asc.sleep());
+        assertTrue(System.nanoTime() - start < 1000000000L);
+        assertEquals(1, asc.getSignalledWakeupCount());
+    }
+
+    @Test
+    public void testSleepWithoutSignalTimesOut() throws InterruptedException {
+        AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(0, 20, 20);
+        asc.cycleDone(0);
+        long start = System.nanoTime();
+        assertFalse(asc.sleep());
+        assertTrue(System.nanoTime() - start >= 20000000L);
+        assertEquals(0, asc.getSignalledWakeupCount());
+    }
+
+    @Test
+    public void testSignalWakesParkedPoller() throws InterruptedException {
+        final AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(0, 10000, 10000);
+        asc.cycleDone(0);
+        final long[] slept_ns = new long[1];
+        final boolean[] bySignal = new boolean[1];
+        Thread poller = new Thread("poller") {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                try {
+                    bySignal[0] = asc.sleep();
+                } catch (InterruptedException exe) {
+                    // leave as false
+                }
+                slept_ns[0] = System.nanoTime() - start;
+            }
+        };
+        poller.start();
+        Thread.sleep(50);
+        asc.signalWork();
+        poller.join(5000);
+        assertFalse(poller.isAlive());
+        assertTrue(bySignal[0]);
+        assertTrue("Poller slept " + slept_ns[0] + " ns", slept_ns[0] < 5000000000L);
+    }
+}
@@ -0,0 +1,178 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.linuxaria.jvminfo.CgroupCollection;
+import com.mplify.linuxaria.jvminfo.CgroupCollector;
+import com.mplify.linuxaria.jvminfo.CgroupData;
+import com.mplify.linuxaria.jvminfo.CgroupRates;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the cgroup v2 collector against a fake cgroup directory tree
+ * written to /tmp, so that this runs outside of a container, too.
+ ******************************************************************************/
+
+public class TestCaseCgroupCollector extends TestStarter {
+
+    private final File root = new File("/tmp/" + TestCaseCgroupCollector.class.getName());
+    private final File mountPoint = new File(root, "sys_fs_cgroup");
+    private final File cgroupDir = new File(mountPoint, "system.slice/docker-1234.scope");
+    private final File procSelfCgroup = new File(root, "proc_self_cgroup");
+
+    private static void write(File file, String contents) throws IOException {
+        Writer w = new OutputStreamWriter(new FileOutputStream(file), "US-ASCII");
+        try {
+            w.write(contents);
+        } finally {
+            w.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        delete(root);
+        assertTrue(cgroupDir.mkdirs());
+        write(new File(mountPoint, "cgroup.controllers"), "cpuset cpu io memory pids\n");
+        write(new File(cgroupDir, "cgroup.controllers"), "cpu memory pids\n");
+        write(new File(cgroupDir, "cpu.max"), "150000 100000\n");
+        write(new File(cgroupDir, "cpu.stat"), "usage_usec 5000000\nuser_usec 4000000\nsystem_usec 1000000\nnr_periods 200\nnr_throttled 20\nthrottled_usec 300000\n");
+        write(new File(cgroupDir, "memory.current"), "268435456\n");
+        write(new File(cgroupDir, "memory.max"), "536870912\n");
+        write(new File(cgroupDir, "memory.events"), "low 0\nhigh 3\nmax 7\noom 1\noom_kill 1\n");
+        write(new File(cgroupDir, "pids.current"), "42\n");
+        write(new File(cgroupDir, "pids.max"), "max\n");
+        write(procSelfCgroup, "0::/system.slice/docker-1234.scope\n");
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testFindCgroupDirectory() throws IOException {
+        assertEquals(cgroupDir, CgroupCollector.findCgroupDirectory(mountPoint, procSelfCgroup));
+        // inside a cgroup namespace, the path is "/"
+        write(procSelfCgroup, "0::/\n");
+        assertEquals(mountPoint, CgroupCollector.findCgroupDirectory(mountPoint, procSelfCgroup));
+        // a cgroup v1 system has no "0::" line and no "cgroup.controllers" file
+        write(procSelfCgroup, "12:memory:/user.slice\n11:cpu,cpuacct:/user.slice\n");
+        new File(mountPoint, "cgroup.controllers").delete();
+        assertNull(CgroupCollector.findCgroupDirectory(mountPoint, procSelfCgroup));
+    }
+
+    @Test
+    public void testReading() {
+        CgroupCollection cc = CgroupCollector.readCgroupFilesystem(cgroupDir);
+        assertNotNull(cc);
+        assertEquals(150000, cc.cpuQuota_us);
+        assertEquals(100000, cc.cpuPeriod_us);
+        assertEquals(1.5, cc.getCpuLimit_cores(), 0.0001);
+        assertEquals(5000000, cc.cpuUsage_us);
+        assertEquals(4000000, cc.cpuUser_us);
+        assertEquals(1000000, cc.cpuSystem_us);
+        assertEquals(200, cc.cpuPeriodCount);
+        assertEquals(20, cc.cpuThrottledCount);
+        assertEquals(300000, cc.cpuThrottled_us);
+        assertEquals(268435456, cc.memoryCurrent);
+        assertEquals(536870912, cc.memoryMax);
+        assertEquals(0.5, cc.getMemoryUtilization(), 0.0001);
+        assertEquals(3, cc.memoryHighEvents);
+        assertEquals(7, cc.memoryMaxEvents);
+        assertEquals(1, cc.memoryOomEvents);
+        assertEquals(1, cc.memoryOomKillEvents);
+        assertEquals(42, cc.pidsCurrent);
+        assertEquals(CgroupCollection.UNLIMITED, cc.pidsMax);
+        assertTrue(Double.isNaN(cc.getPidsUtilization()));
+    }
+
+    @Test
+    public void testMissingControllers() throws IOException {
+        new File(cgroupDir, "memory.current").delete();
+        new File(cgroupDir, "memory.max").delete();
+        new File(cgroupDir, "memory.events").delete();
+        write(new File(cgroupDir, "cpu.max"), "max 100000\n");
+        CgroupCollection cc = CgroupCollector.readCgroupFilesystem(cgroupDir);
+        assertNotNull(cc);
+        assertEquals(CgroupCollection.UNLIMITED, cc.cpuQuota_us);
+        assertTrue(Double.isNaN(cc.getCpuLimit_cores()));
+        assertEquals(CgroupCollection.NOT_AVAILABLE, cc.memoryCurrent);
+        assertEquals(CgroupCollection.NOT_AVAILABLE, cc.memoryOomKillEvents);
+        assertTrue(Double.isNaN(cc.getMemoryUtilization()));
+        // not a cgroup directory at all
+        assertNull(CgroupCollector.readCgroupFilesystem(root));
+    }
+
+    @Test
+    public void testRates() {
+        CgroupCollection earlier = new CgroupCollection(10000, 150000, 100000, 5000000, 4000000, 1000000, 200, 20, 300000, 1000, 2000, 0, 7, 1, 1, 42, 100);
+        // 10 seconds later: 7.5 s of CPU used, 100 periods of which 50 throttled for 2 s in total, 2 more OOM kills
+        CgroupCollection later = new CgroupCollection(20000, 150000, 100000, 12500000, 10000000, 2500000, 300, 70, 2300000, 1500, 2000, 0, 17, 3, 3, 50, 100);
+        CgroupRates rates = new CgroupRates(earlier, later);
+        assertEquals(10000, rates.interval_ms);
+        assertEquals(0.75, rates.cpuCoresUsed, 0.0001);
+        assertEquals(0.5, rates.cpuUtilization, 0.0001);
+        assertEquals(0.5, rates.throttledPeriodRatio, 0.0001);
+        assertEquals(0.2, rates.throttledTimeRatio, 0.0001);
+        assertEquals(12.0, rates.oomKillsPerMinute, 0.0001);
+        assertEquals(60.0, rates.memoryMaxEventsPerMinute, 0.0001);
+        // a counter reset (cgroup recreated) yields NaN rather than a negative rate
+        CgroupRates backwards = new CgroupRates(later, new CgroupCollection(30000, 150000, 100000, 100, 50, 50, 1, 0, 0, 1500, 2000, 0, 0, 0, 0, 50, 100));
+        assertTrue(Double.isNaN(backwards.cpuUtilization));
+        assertTrue(Double.isNaN(backwards.throttledPeriodRatio));
+    }
+
+    @Test
+    public void testMBean() throws IOException {
+        CgroupData data = new CgroupData(cgroupDir);
+        assertTrue(Double.isNaN(data.getCpuLimit_cores()));
+        data.collect();
+        assertEquals(1.5, data.getCpuLimit_cores(), 0.0001);
+        assertEquals(536870912, data.getMemoryMax());
+        assertEquals(42, data.getPidsCurrent());
+        // rates need two collections
+        assertTrue(Double.isNaN(data.getThrottledPeriodRatio()));
+        write(new File(cgroupDir, "cpu.stat"), "usage_usec 5100000\nuser_usec 4050000\nsystem_usec 1050000\nnr_periods 210\nnr_throttled 25\nthrottled_usec 310000\n");
+        data.collect();
+        assertEquals(0.5, data.getThrottledPeriodRatio(), 0.0001);
+        assertNotNull(data.toFlatStory());
+        // no cgroup at all
+        CgroupData none = new CgroupData(null);
+        none.collect();
+        assertNull(none.getCgroupDirectory());
+        assertEquals(CgroupCollection.NOT_AVAILABLE, none.getMemoryCurrent());
+    }
+
+}
@@ -0,0 +1,169 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.threads.ColoredExecutorService;
+import com.mplify.threads.ColoredExecutors;
+import com.mplify.threads.ExecutorStatistics;
+import com.mplify.threads.ThreadColor;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the executors created by ColoredExecutors: thread naming, thread
+ * roles, statistics and MBean registration
+ ******************************************************************************/
+
+public class TestCaseColoredExecutors extends TestStarter {
+
+    private static Callable<String> describeThread() {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                assert ThreadColor.assertRole(Role.DEALER_DEVICE);
+                return Thread.currentThread().getName() + "|" + ThreadColor.getRoles();
+            }
+        };
+    }
+
+    @Test
+    public void testThreadColorRoles() {
+        ThreadColor.clearRoles();
+        assertFalse(ThreadColor.hasRole(Role.MAIN));
+        ThreadColor.addRole(Role.MAIN);
+        ThreadColor.addRole(Role.DEALER_SERVICE);
+        assertTrue(ThreadColor.hasRole(Role.MAIN));
+        assertEquals(EnumSet.of(Role.MAIN, Role.DEALER_SERVICE), ThreadColor.getRoles());
+        ThreadColor.setRoles(EnumSet.of(Role.DEALER_DEVICE));
+        assertFalse(ThreadColor.hasRole(Role.MAIN));
+        assertTrue(ThreadColor.assertRole(Role.MAIN, Role.DEALER_DEVICE));
+        ThreadColor.clearRoles();
+        assertTrue(ThreadColor.getRoles().isEmpty());
+    }
+
+    @Test
+    public void testFixedThreadPool() throws Exception {
+        ColoredExecutorService exec = ColoredExecutors.newFixedThreadPool("test-pool", 2, EnumSet.of(Role.DEALER_DEVICE), true, true);
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(mbs.isRegistered(ColoredExecutors.getMBeanName("test-pool")));
+            assertEquals(Integer.valueOf(0), mbs.getAttribute(ColoredExecutors.getMBeanName("test-pool"), "ActiveCount"));
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(exec.submit(describeThread()));
+            }
+            for (Future<String> f : futures) {
+                String res = f.get();
+                assertTrue(res, res.startsWith("test-pool-1|") || res.startsWith("test-pool-2|"));
+                assertTrue(res, res.endsWith("|[DEALER_DEVICE]"));
+            }
+            // a failing task is counted as such
+            Future<Object> failing = exec.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw new IllegalStateException("expected");
+                }
+            });
+            try {
+                failing.get();
+                fail("Expected exception");
+            } catch (ExecutionException exe) {
+                // expected
+            }
+        } finally {
+            exec.shutdown();
+        }
+        assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(mbs.isRegistered(ColoredExecutors.getMBeanName("test-pool")));
+        ExecutorStatistics stats = exec.getStatistics();
+        assertEquals(11, stats.getCompletedCount());
+        // FutureTask catches the exception, but the outcome is looked at
+        assertEquals(1, stats.getFailedCount());
+        assertEquals(0, stats.getActiveCount());
+        assertEquals(0, stats.getQueuedCount());
+        assertEquals(11, stats.getLatencySnapshot_us().getCount());
+        assertFalse(stats.isVirtual());
+    }
+
+    @Test
+    public void testQueuedAndActive() throws Exception {
+        ColoredExecutorService exec = ColoredExecutors.newFixedThreadPool("test-queue", 1, EnumSet.of(Role.DEALER_DEVICE), true, false);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException exe) {
+                        // done
+                    }
+                }
+            });
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    throw new IllegalStateException("expected, will be logged by the thread's uncaught exception handler");
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(1, exec.getStatistics().getActiveCount());
+            assertEquals(1, exec.getStatistics().getQueuedCount());
+            release.countDown();
+        } finally {
+            exec.shutdown();
+        }
+        assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, exec.getStatistics().getCompletedCount());
+        assertEquals(1, exec.getStatistics().getFailedCount());
+        assertEquals(null, exec.getMBeanName());
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws Exception {
+        ColoredExecutorService exec = ColoredExecutors.newVirtualThreadExecutor("test-virtual", EnumSet.of(Role.DEALER_DEVICE), false);
+        try {
+            assertEquals(ColoredExecutors.isVirtualThreadSupported(), exec.getStatistics().isVirtual());
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(exec.submit(describeThread()));
+            }
+            for (Future<String> f : futures) {
+                String res = f.get();
+                assertTrue(res, res.startsWith("test-virtual-"));
+                assertTrue(res, res.endsWith("|[DEALER_DEVICE]"));
+            }
+        } finally {
+            exec.shutdown();
+        }
+        assertTrue(exec.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(100, exec.getStatistics().getCompletedCount());
+    }
+}
@@ -0,0 +1,177 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.Descriptor;
+import javax.management.MBeanException;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.modelmbean.DescriptorSupport;
+import javax.management.modelmbean.ModelMBeanAttributeInfo;
+import javax.management.modelmbean.ModelMBeanConstructorInfo;
+import javax.management.modelmbean.ModelMBeanInfo;
+import javax.management.modelmbean.ModelMBeanInfoSupport;
+import javax.management.modelmbean.ModelMBeanNotificationInfo;
+import javax.management.modelmbean.ModelMBeanOperationInfo;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.mbeans.CompiledModelMBean;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing attribute access, operation invocation and value caching through
+ * the MethodHandles of a CompiledModelMBean
+ ******************************************************************************/
+
+public class TestCaseCompiledModelMBean extends TestStarter {
+
+    /**
+     * The managed resource; must be public for the handles to be created
+     */
+
+    public static class Counter {
+
+        private int count;
+        private String label = "initial";
+
+        public int getCount() {
+            return ++count; // every read is visible
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public long add(int a, long b) {
+            return a + b;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("expected");
+        }
+    }
+
+    private static class CounterMBean extends CompiledModelMBean<Counter> {
+
+        public CounterMBean(Counter counter, boolean useCurrencyTimeLimit) throws Exception {
+            super(counter, new ObjectName("test:type=Counter"), useCurrencyTimeLimit);
+        }
+
+        private static ModelMBeanAttributeInfo attr(String name, String type, String getMethod, String setMethod, String currencyTimeLimit) {
+            Descriptor d = new DescriptorSupport();
+            d.setField("name", name);
+            d.setField("descriptorType", "attribute");
+            d.setField("getMethod", getMethod);
+            if (setMethod != null) {
+                d.setField("setMethod", setMethod);
+            }
+            if (currencyTimeLimit != null) {
+                d.setField("currencyTimeLimit", currencyTimeLimit);
+            }
+            return new ModelMBeanAttributeInfo(name, type, name, true, setMethod != null, false, d);
+        }
+
+        private static ModelMBeanOperationInfo oper(String name, String returnType, MBeanParameterInfo... signature) {
+            Descriptor d = new DescriptorSupport();
+            d.setField("name", name);
+            d.setField("descriptorType", "operation");
+            d.setField("role", "operation");
+            return new ModelMBeanOperationInfo(name, name, signature, returnType, ModelMBeanOperationInfo.ACTION, d);
+        }
+
+        @Override
+        protected ModelMBeanInfo createModelMBeanInfo(Counter managedResource, ObjectName mbeanName) {
+            List<ModelMBeanAttributeInfo> attrs = new ArrayList<ModelMBeanAttributeInfo>();
+            attrs.add(attr("Count", "int", "getCount", null, null));
+            attrs.add(attr("CachedCount", "int", "getCount", null, "3600"));
+            attrs.add(attr("Label", "java.lang.String", "getLabel", "setLabel", "0"));
+            List<ModelMBeanOperationInfo> opers = new ArrayList<ModelMBeanOperationInfo>();
+            opers.add(oper("getCount", "int"));
+            opers.add(oper("getLabel", "java.lang.String"));
+            opers.add(oper("setLabel", "void", new MBeanParameterInfo("label", "java.lang.String", "label")));
+            opers.add(oper("add", "long", new MBeanParameterInfo("a", "int", "a"), new MBeanParameterInfo("b", "long", "b")));
+            opers.add(oper("fail", "void"));
+            return new ModelMBeanInfoSupport(Counter.class.getName(), "test", attrs.toArray(new ModelMBeanAttributeInfo[0]), new ModelMBeanConstructorInfo[0],
+                    opers.toArray(new ModelMBeanOperationInfo[0]), new ModelMBeanNotificationInfo[0]);
+        }
+    }
+
+    @Test
+    public void testCompiledAccess() throws Exception {
+        CounterMBean mbean = new CounterMBean(new Counter(), true);
+        assertEquals(3, mbean.getCompiledAttributeCount());
+        assertEquals(5, mbean.getCompiledOperationCount());
+        assertEquals(1, mbean.getAttribute("Count"));
+        assertEquals(2, mbean.getAttribute("Count"));
+        assertEquals(Long.valueOf(7), mbean.invoke("add", new Object[] { Integer.valueOf(3), Long.valueOf(4) }, new String[] { "int", "long" }));
+        assertEquals(null, mbean.invoke("setLabel", new Object[] { "changed" }, new String[] { "java.lang.String" }));
+        assertEquals("changed", mbean.getAttribute("Label"));
+        try {
+            mbean.invoke("fail", null, null);
+            fail("Expected exception");
+        } catch (MBeanException exe) {
+            assertEquals(IllegalStateException.class, exe.getTargetException().getClass());
+        }
+    }
+
+    @Test
+    public void testCaching() throws Exception {
+        CounterMBean mbean = new CounterMBean(new Counter(), true);
+        assertEquals(1, mbean.getAttribute("CachedCount"));
+        assertEquals(1, mbean.getAttribute("CachedCount"));
+        assertEquals(2, mbean.getAttribute("Count"));
+        // an operation drops the cached values
+        mbean.invoke("add", new Object[] { Integer.valueOf(1), Long.valueOf(1) }, new String[] { "int", "long" });
+        assertEquals(3, mbean.getAttribute("CachedCount"));
+        // "Label" is cached forever, but setting it drops the cached value
+        assertEquals("initial", mbean.getAttribute("Label"));
+        mbean.setAttribute(new Attribute("Label", "set"));
+        assertEquals("set", mbean.getAttribute("Label"));
+    }
+
+    @Test
+    public void testCachingSwitchedOff() throws Exception {
+        CounterMBean mbean = new CounterMBean(new Counter(), false);
+        assertEquals(1, mbean.getAttribute("CachedCount"));
+        assertEquals(2, mbean.getAttribute("CachedCount"));
+    }
+
+    @Test
+    public void testGetAttributes() throws Exception {
+        CounterMBean mbean = new CounterMBean(new Counter(), true);
+        AttributeList list = mbean.getAttributes(new String[] { "Count", "Label", "NoSuchAttribute", "CachedCount" });
+        assertEquals(3, list.size());
+        assertEquals(new Attribute("Count", Integer.valueOf(1)), list.get(0));
+        assertEquals(new Attribute("Label", "initial"), list.get(1));
+        assertEquals(new Attribute("CachedCount", Integer.valueOf(2)), list.get(2));
+    }
+
+    @Test
+    public void testReplacedResourceFallsBack() throws Exception {
+        CounterMBean mbean = new CounterMBean(new Counter(), true);
+        Counter other = new Counter();
+        other.setLabel("other");
+        mbean.setManagedResource(other, "ObjectReference");
+        assertEquals(0, mbean.getCompiledAttributeCount());
+        assertEquals("other", mbean.getAttribute("Label"));
+    }
+}
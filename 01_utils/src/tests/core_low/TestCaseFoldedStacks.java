@@ -0,0 +1,69 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.linuxaria.jvminfo.FoldedStacks;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the bounded "folded stacks" aggregation used by ThreadCpuSampler
+ ******************************************************************************/
+
+public class TestCaseFoldedStacks extends TestStarter {
+
+    private static StackTraceElement frame(String clazz, String method) {
+        return new StackTraceElement(clazz, method, null, -1);
+    }
+
+    @Test
+    public void testFold() {
+        // leaf first, as returned by the JVM
+        StackTraceElement[] frames = { frame("com.foo.Bar", "hash"), frame("com.foo.Bar", "work"), frame("java.lang.Thread", "run") };
+        assertEquals("worker-1;java.lang.Thread.run;com.foo.Bar.work;com.foo.Bar.hash", FoldedStacks.fold("worker-1", frames));
+        assertEquals("a_b", FoldedStacks.fold("a;b", new StackTraceElement[0]));
+        assertEquals("GC Thread#0", FoldedStacks.fold("GC Thread#0", null));
+    }
+
+    @Test
+    public void testAggregationAndOutput() {
+        FoldedStacks fs = new FoldedStacks(10);
+        fs.add("t;a;b", 3);
+        fs.add("t;a;c", 5);
+        fs.add("t;a;b", 4);
+        fs.add("t;a;d", 0); // ignored
+        assertEquals(2, fs.size());
+        assertEquals(7, fs.getWeight("t;a;b"));
+        assertEquals(12, fs.getTotalWeight());
+        // heaviest first
+        assertEquals("t;a;b 7\nt;a;c 5\n", fs.toFoldedText());
+        fs.clear();
+        assertEquals(0, fs.size());
+        assertEquals("", fs.toFoldedText());
+    }
+
+    @Test
+    public void testBound() {
+        FoldedStacks fs = new FoldedStacks(2);
+        fs.add("x", 1);
+        fs.add("y", 1);
+        fs.add("z", 5);
+        fs.add("w", 2);
+        fs.add("x", 1);
+        assertEquals(2, fs.size());
+        assertEquals(2, fs.getWeight("x"));
+        assertEquals(0, fs.getWeight("z"));
+        assertEquals(7, fs.getOverflowWeight());
+        assertEquals(10, fs.getTotalWeight());
+        assertEquals("[other stacks] 7", fs.toFoldedText().split("\n")[2]);
+    }
+}
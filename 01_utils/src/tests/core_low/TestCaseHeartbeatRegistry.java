@@ -0,0 +1,167 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.linuxaria.jvminfo.Liveness;
+import com.mplify.threads.AdaptiveSleeptimeController;
+import com.mplify.threads.Heartbeat;
+import com.mplify.threads.HeartbeatRegistry;
+import com.mplify.threads.ThreadColor.Role;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing stall detection of the HeartbeatRegistry and its reporting through
+ * the Liveness MBean
+ ******************************************************************************/
+
+public class TestCaseHeartbeatRegistry extends TestStarter {
+
+    @Test
+    public void testEmpty() {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        Liveness liveness = new Liveness(registry);
+        assertEquals(1.0, liveness.getLivenessScore(), 0);
+        assertEquals(0, liveness.getHeartbeatCount());
+        assertEquals(0, liveness.getStalledThreads().length);
+        assertEquals(-1, liveness.getTimeSinceLastHeartbeat_ms(Role.DEALER_DEVICE.toString()));
+        assertEquals(-1, liveness.getTimeSinceLastHeartbeat_ms("NO_SUCH_ROLE"));
+        assertEquals(-1, liveness.getTimeSinceLastHeartbeat_ms(null));
+    }
+
+    @Test
+    public void testStallDetection() throws InterruptedException {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        Heartbeat alive = registry.register("alive", Role.DEALER_DEVICE, 10000);
+        Heartbeat stuck = registry.register("stuck", Role.DEALER_SERVICE, 20);
+        Thread.sleep(60);
+        alive.beat();
+        alive.beat();
+        assertEquals(2, alive.getBeatCount());
+        assertFalse(alive.isStalled());
+        assertTrue(stuck.isStalled());
+        Liveness liveness = new Liveness(registry);
+        assertEquals(2, liveness.getHeartbeatCount());
+        assertEquals(1, liveness.getStalledCount());
+        assertEquals(0.5, liveness.getLivenessScore(), 0);
+        assertTrue(liveness.getStalledThreads()[0], liveness.getStalledThreads()[0].startsWith("stuck (DEALER_SERVICE): "));
+        assertTrue(liveness.getTimeSinceLastHeartbeat_ms("DEALER_SERVICE") >= 60);
+        assertTrue(liveness.getTimeSinceLastHeartbeat_ms("DEALER_DEVICE") < 60);
+        assertTrue(liveness.getMaxTimeSinceLastHeartbeat_ms() >= 60);
+        assertEquals(2, liveness.getTimeSinceLastHeartbeatPerRole().length);
+        // a beat revives it
+        stuck.beat();
+        assertFalse(stuck.isStalled());
+        assertEquals(1.0, registry.getLivenessScore(), 0);
+        // a closed heartbeat is no longer reported, and its slot is reused
+        stuck.close();
+        assertEquals(1, registry.getHeartbeats().size());
+        Heartbeat again = registry.register("again", null, 1000);
+        assertEquals(0, again.getBeatCount());
+        assertEquals(2, registry.getHeartbeats().size());
+    }
+
+    @Test
+    public void testStaleHandleAfterClose() throws InterruptedException {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        Heartbeat old = registry.register("old", Role.DEALER_DEVICE, 10000);
+        old.beat();
+        old.close();
+        Heartbeat current = registry.register("current", Role.DEALER_DEVICE, 20); // gets the slot of "old"
+        Thread.sleep(60);
+        old.beat();
+        old.beat();
+        assertEquals(0, current.getBeatCount());
+        assertTrue(current.isStalled());
+        assertEquals(1, registry.getStalled().size());
+        current.beat();
+        assertEquals(1, current.getBeatCount());
+        assertFalse(current.isStalled());
+    }
+
+    @Test
+    public void testBeatsInFlightDuringCloseAreDropped() throws InterruptedException {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        final AtomicReference<Heartbeat> handle = new AtomicReference<Heartbeat>(registry.register("worker", null, 10000));
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread worker = new Thread() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    handle.get().beat();
+                }
+            }
+        };
+        worker.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                Heartbeat old = handle.get();
+                while (old.getBeatCount() == 0) {
+                    Thread.yield();
+                }
+                old.close(); // the worker may be in the middle of old.beat()
+                Heartbeat current = registry.register("worker", null, 10000); // gets the slot of "old"
+                Thread.yield();
+                assertEquals("stale beat reached the new owner in round " + i, 0, current.getBeatCount());
+                handle.set(current);
+            }
+        } finally {
+            stop.set(true);
+            worker.join();
+        }
+    }
+
+    @Test
+    public void testManySlots() {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        Heartbeat[] hbs = new Heartbeat[200];
+        for (int i = 0; i < hbs.length; i++) {
+            hbs[i] = registry.register("hb-" + i, Role.DEALER_DEVICE, 10000);
+        }
+        for (int i = 0; i < hbs.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                hbs[i].beat();
+            }
+        }
+        for (int i = 0; i < hbs.length; i++) {
+            assertEquals(i + 1, hbs[i].getBeatCount());
+        }
+    }
+
+    @Test
+    public void testWorkerLoop() throws InterruptedException {
+        HeartbeatRegistry registry = new HeartbeatRegistry();
+        final AdaptiveSleeptimeController asc = new AdaptiveSleeptimeController(1, 5, 1);
+        final Heartbeat hb = registry.register("worker", Role.DEALER_DEVICE, 1000);
+        asc.setHeartbeat(hb);
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread worker = new Thread() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    asc.sleepOMatic(0, null);
+                }
+            }
+        };
+        worker.start();
+        Thread.sleep(100);
+        stop.set(true);
+        worker.join();
+        assertTrue(hb.getBeatCount() > 5);
+        assertFalse(hb.isStalled());
+    }
+}
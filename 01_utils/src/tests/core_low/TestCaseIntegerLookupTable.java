@@ -0,0 +1,140 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.enums.DbBoolean;
+import com.mplify.enums.IntegerLookupTable;
+import com.mplify.enums.JdomSerializationFormat;
+import com.mplify.enums.Priority;
+import com.mplify.enums.Troolean;
+import com.mplify.enums.Verbosity;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the IntegerLookupTable and the enumerative types using it
+ ******************************************************************************/
+
+public class TestCaseIntegerLookupTable extends TestStarter {
+
+    private static void checkAgainstMap(Map<Integer, String> map, int from, int to) {
+        IntegerLookupTable<String> table = new IntegerLookupTable<String>(map);
+        assertEquals(map.size(), table.size());
+        for (int i = from; i <= to; i++) {
+            assertSame("key " + i, map.get(Integer.valueOf(i)), table.get(i));
+            assertEquals("key " + i, map.containsKey(Integer.valueOf(i)), table.containsKey(i));
+        }
+        for (Integer key : map.keySet()) {
+            assertSame("key " + key, map.get(key), table.get(key.intValue()));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        IntegerLookupTable<String> table = new IntegerLookupTable<String>(new HashMap<Integer, String>());
+        assertEquals(0, table.size());
+        assertNull(table.get(0));
+        assertNull(table.get(-1));
+        assertNull(table.get(Integer.MIN_VALUE));
+        assertNull(table.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testDenseWithNegativeCodes() {
+        Map<Integer, String> map = new HashMap<Integer, String>();
+        map.put(Integer.valueOf(-1), "undefined");
+        map.put(Integer.valueOf(0), "zero");
+        map.put(Integer.valueOf(2), "two");
+        map.put(Integer.valueOf(1000), "thousand");
+        assertTrue(new IntegerLookupTable<String>(map).isDense());
+        checkAgainstMap(map, -10, 1010);
+    }
+
+    @Test
+    public void testSparse() {
+        Map<Integer, String> map = new HashMap<Integer, String>();
+        Random rand = new Random(4711);
+        for (int i = 0; i < 300; i++) {
+            int k = rand.nextInt();
+            map.put(Integer.valueOf(k), "v" + k);
+        }
+        map.put(Integer.valueOf(Integer.MIN_VALUE), "min");
+        map.put(Integer.valueOf(Integer.MAX_VALUE), "max");
+        map.put(Integer.valueOf(0), "zero");
+        IntegerLookupTable<String> table = new IntegerLookupTable<String>(map);
+        assertFalse(table.isDense());
+        checkAgainstMap(map, -1000, 1000);
+        for (int i = 0; i < 100000; i++) {
+            int k = rand.nextInt();
+            assertSame(map.get(Integer.valueOf(k)), table.get(k));
+        }
+    }
+
+    @Test
+    public void testSparseWithCollidingKeys() {
+        // multiples of a large power of two are the classic bad case for a naive hash
+        Map<Integer, String> map = new HashMap<Integer, String>();
+        for (int i = 0; i < 64; i++) {
+            map.put(Integer.valueOf(i << 20), "v" + i);
+        }
+        IntegerLookupTable<String> table = new IntegerLookupTable<String>(map);
+        assertFalse(table.isDense());
+        checkAgainstMap(map, -5, 5);
+    }
+
+    @Test
+    public void testEnumerativeTypes() {
+        for (Priority p : Priority.LIST_LOW_TO_HIGH) {
+            assertSame(p, Priority.obtain(p.getValue()));
+            assertTrue(Priority.isValid(p.getValue()));
+        }
+        assertSame(Priority.LOW, Priority.obtain(-5));
+        assertSame(Priority.HIGH, Priority.obtain(99));
+        assertFalse(Priority.isValid(3));
+        for (Verbosity v : Verbosity.LIST_LOW_TO_HIGH) {
+            assertSame(v, Verbosity.obtain(v.getValue()));
+        }
+        assertFalse(Verbosity.isValid(-1));
+        for (Troolean t : Troolean.LIST) {
+            assertSame(t, Troolean.obtain(t.getValue()));
+        }
+        assertSame(Troolean.MU, Troolean.obtain(-1));
+        assertFalse(Troolean.isValid(3));
+        for (JdomSerializationFormat f : JdomSerializationFormat.LIST) {
+            assertSame(f, JdomSerializationFormat.obtain(f.getValue()));
+        }
+        assertFalse(JdomSerializationFormat.isValid(0));
+        assertSame(DbBoolean.TRUE, DbBoolean.obtain(1));
+        assertSame(DbBoolean.FALSE, DbBoolean.obtain(0));
+        try {
+            JdomSerializationFormat.obtain(4);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+        try {
+            DbBoolean.obtain(-1);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.linuxaria.jvminfo.Liveness;
+import com.mplify.mbeans.MetricsHttpServer;
+import com.mplify.mbeans.MetricsRegistry;
+import com.mplify.threads.ConcurrentThreadStatistics;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing discovery and Prometheus text rendering of the MetricsRegistry,
+ * the file dump and the HTTP endpoint (on localhost)
+ ******************************************************************************/
+
+public class TestCaseMetricsRegistry extends TestStarter {
+
+    /**
+     * An MBean which is not an MBeanMarker, thus not to be exported
+     */
+
+    public static interface ForeignMBean {
+        public int getValue();
+    }
+
+    public static class Foreign implements ForeignMBean {
+        @Override
+        public int getValue() {
+            return 42;
+        }
+    }
+
+    private MBeanServer mbs;
+    private ConcurrentThreadStatistics stats;
+
+    @Before
+    public void setUp() throws Exception {
+        // a private MBeanServer, which is not kept by MBeanServerFactory, thus needs no release
+        mbs = MBeanServerFactory.newMBeanServer();
+        mbs.registerMBean(new Liveness(), new ObjectName("com.mplify:type=Liveness"));
+        mbs.registerMBean(new Foreign(), new ObjectName("other:type=Foreign"));
+        stats = new ConcurrentThreadStatistics();
+        stats.measureDelay(10);
+        stats.touchRestart();
+        mbs.registerMBean(stats, new ObjectName("com.mplify.threads:type=ConcurrentThreadStatistics,name=\"pool \\\"a\\\"\""));
+    }
+
+    @Test
+    public void testRendering() {
+        MetricsRegistry registry = new MetricsRegistry(mbs, 60000);
+        String text = registry.scrapeToString();
+        assertEquals(2, registry.getBeanCount());
+        assertTrue(text, text.contains("# TYPE com_mplify_Liveness_Liveness untyped\n"));
+        assertTrue(text, text.contains("\ncom_mplify_Liveness_Liveness 0."));
+        assertTrue(text, text.contains("\ncom_mplify_Liveness_CreationDate 1"));
+        assertTrue(text, text.contains("\ncom_mplify_threads_ConcurrentThreadStatistics_DelayCount{name=\"pool \\\"a\\\"\"} 1\n"));
+        assertTrue(text, text.contains("\ncom_mplify_threads_ConcurrentThreadStatistics_RestartCount{name=\"pool \\\"a\\\"\"} 1\n"));
+        // NaN is rendered as such
+        assertTrue(text, text.contains("\ncom_mplify_threads_ConcurrentThreadStatistics_ThreadLoopTimeP50_ms{name=\"pool \\\"a\\\"\"} NaN\n"));
+        assertFalse(text, text.contains("Foreign"));
+        // the values are read again at each scrape
+        stats.measureDelay(20);
+        assertTrue(registry.scrapeToString().contains("_DelayCount{name=\"pool \\\"a\\\"\"} 2\n"));
+        assertEquals(2, registry.getScrapeCount());
+    }
+
+    @Test
+    public void testFileDump() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry(mbs, 0);
+        File file = File.createTempFile("metrics", ".prom");
+        try {
+            registry.writeTo(file);
+            registry.writeTo(file);
+            InputStream is = new FileInputStream(file);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try {
+                byte[] buf = new byte[4096];
+                int count;
+                while ((count = is.read(buf)) > 0) {
+                    bos.write(buf, 0, count);
+                }
+            } finally {
+                is.close();
+            }
+            String text = new String(bos.toByteArray(), "UTF-8");
+            assertTrue(text, text.startsWith("# HELP "));
+            assertTrue(text, text.contains("com_mplify_Liveness_Liveness"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testHttpEndpoint() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry(mbs, 60000);
+        MetricsHttpServer server = new MetricsHttpServer(registry, new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+        try {
+            for (int i = 0; i < 3; i++) {
+                URL url = new URL("http://127.0.0.1:" + server.getPort() + MetricsHttpServer.PATH);
+                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+                try {
+                    assertEquals(200, conn.getResponseCode());
+                    assertEquals(MetricsHttpServer.CONTENT_TYPE, conn.getContentType());
+                    InputStream is = conn.getInputStream();
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    byte[] buf = new byte[4096];
+                    int count;
+                    while ((count = is.read(buf)) > 0) {
+                        bos.write(buf, 0, count);
+                    }
+                    is.close();
+                    String text = new String(bos.toByteArray(), "UTF-8");
+                    assertEquals(conn.getContentLength(), bos.size());
+                    assertTrue(text, text.contains("_DelayCount{name=\"pool \\\"a\\\"\"} 1\n"));
+                } finally {
+                    conn.disconnect();
+                }
+            }
+            URL url = new URL("http://127.0.0.1:" + server.getPort() + MetricsHttpServer.PATH);
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setRequestMethod("DELETE");
+            assertEquals(405, conn.getResponseCode());
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+        assertEquals(3, registry.getScrapeCount());
+    }
+}
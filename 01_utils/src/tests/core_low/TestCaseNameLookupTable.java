@@ -0,0 +1,140 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.CharBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.mplify.enums.JdomSerializationFormat;
+import com.mplify.enums.NameLookupTable;
+import com.mplify.enums.Priority;
+import com.mplify.enums.Troolean;
+import com.mplify.enums.Verbosity;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the NameLookupTable and the enumerative types using it
+ ******************************************************************************/
+
+public class TestCaseNameLookupTable extends TestStarter {
+
+    private static Map<String, String> someNames(int count) {
+        Map<String, String> res = new HashMap<String, String>();
+        for (int i = 0; i < count; i++) {
+            res.put("name_" + i, "value" + i);
+        }
+        return res;
+    }
+
+    @Test
+    public void testEmpty() {
+        NameLookupTable<String> table = new NameLookupTable<String>(new HashMap<String, String>());
+        assertEquals(0, table.size());
+        assertNull(table.get("x"));
+        assertNull(table.get(""));
+        assertNull(table.get(null));
+    }
+
+    @Test
+    public void testAllNamesFoundForManySizes() {
+        for (int count = 1; count <= 400; count += 7) {
+            Map<String, String> map = someNames(count);
+            NameLookupTable<String> table = new NameLookupTable<String>(map);
+            assertEquals(count, table.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                assertSame(entry.getValue(), table.get(entry.getKey()));
+                assertSame(entry.getValue(), table.get("  " + entry.getKey().toUpperCase() + "\t"));
+            }
+            assertNull(table.get("name_" + count));
+            assertNull(table.get("name_"));
+            assertNull(table.get("name_0x"));
+        }
+    }
+
+    @Test
+    public void testRegionAndCharSequence() {
+        NameLookupTable<String> table = new NameLookupTable<String>(someNames(10));
+        String line = "key=NAME_7;other=name_3";
+        assertEquals("value7", table.get(line, 4, 10));
+        assertEquals("value3", table.get(line, 17, line.length()));
+        assertNull(table.get(line, 4, 9));
+        assertEquals("value7", table.get(new StringBuilder(" Name_7 ")));
+        assertEquals("value7", table.get(CharBuffer.wrap(line.toCharArray(), 4, 6)));
+    }
+
+    @Test
+    public void testNamesMustBeDistinctOnceFolded() {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("abc", "1");
+        map.put(" ABC", "2");
+        try {
+            new NameLookupTable<String>(map);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLookupDoesNotAllocate() {
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        if (!(tmx instanceof com.sun.management.ThreadMXBean)) {
+            return; // cannot measure on this JVM
+        }
+        com.sun.management.ThreadMXBean stmx = (com.sun.management.ThreadMXBean) tmx;
+        if (!stmx.isThreadAllocatedMemorySupported() || !stmx.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        NameLookupTable<String> table = new NameLookupTable<String>(someNames(100));
+        String[] inputs = { " NAME_17 ", "name_99", "Name_5", "nothing" };
+        int found = 0;
+        for (int i = 0; i < 20000; i++) { // warm up, so that the measurement below runs compiled code
+            found += (table.get(inputs[i & 3]) == null) ? 0 : 1;
+        }
+        long tid = Thread.currentThread().getId();
+        long before = stmx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 100000; i++) {
+            found += (table.get(inputs[i & 3]) == null) ? 0 : 1;
+        }
+        long allocated = stmx.getThreadAllocatedBytes(tid) - before;
+        assertTrue("found " + found, found > 0);
+        // lowercasing copies would take several MB here; allow for the measuring itself
+        assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+
+    @Test
+    public void testEnumerativeTypes() {
+        assertSame(Priority.HIGH, Priority.obtain(" High", null, true));
+        assertSame(Priority.LOW, Priority.obtain(new StringBuilder("LOW"), null, true));
+        assertNull(Priority.obtain("highest", null, false));
+        assertNull(Priority.obtain((CharSequence) null, null, false));
+        assertSame(Troolean.MU, Troolean.obtain("Mu ", null, true));
+        assertSame(Troolean.TRUE, Troolean.obtain("TRUE", Troolean.FALSE, false));
+        assertSame(Troolean.FALSE, Troolean.obtain("yes", Troolean.FALSE, false));
+        assertSame(Verbosity.MEDIUM, Verbosity.obtain("medium", null, true));
+        assertSame(JdomSerializationFormat.PRETTY, JdomSerializationFormat.obtain("Pretty", null, true));
+        try {
+            JdomSerializationFormat.obtain("ugly", null, true);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.junit.TestStarter;
+import com.mplify.threads.ConcurrentThreadStatistics;
+import com.mplify.threads.StripedHistogram;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the StripedHistogram and the ConcurrentThreadStatistics built on it
+ ******************************************************************************/
+
+public class TestCaseStripedHistogram extends TestStarter {
+
+    @Test
+    public void testEmpty() {
+        StripedHistogram.Snapshot snap = new StripedHistogram().snapshot();
+        assertEquals(0, snap.getCount());
+        assertTrue(Double.isNaN(snap.getMean()));
+        assertTrue(Double.isNaN(snap.getPercentile(0.5)));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        StripedHistogram h = new StripedHistogram(4);
+        for (int i = 1; i <= 20; i++) {
+            h.record(i);
+        }
+        StripedHistogram.Snapshot snap = h.snapshot();
+        assertEquals(20, snap.getCount());
+        assertEquals(210, snap.getSum());
+        assertEquals(20, snap.getMax());
+        assertEquals(10.5, snap.getMean(), 1E-9);
+        assertEquals(10, snap.getPercentile(0.5), 0);
+        assertEquals(20, snap.getPercentile(1.0), 0);
+        assertEquals(1, snap.getPercentile(0.0), 0);
+    }
+
+    @Test
+    public void testClamping() {
+        StripedHistogram h = new StripedHistogram(1);
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        StripedHistogram.Snapshot snap = h.snapshot();
+        assertEquals(2, snap.getCount());
+        assertEquals(StripedHistogram.MAX_VALUE, snap.getMax());
+        assertEquals(0, snap.getPercentile(0.5), 0);
+        assertEquals(StripedHistogram.MAX_VALUE, snap.getPercentile(1.0), 0);
+    }
+
+    @Test
+    public void testRelativeError() {
+        StripedHistogram h = new StripedHistogram();
+        Random rand = new Random(4711);
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            // roughly log-uniform between 1 us and 10 s
+            values[i] = (long) Math.pow(10, 7 * rand.nextDouble());
+            h.record(values[i]);
+        }
+        java.util.Arrays.sort(values);
+        StripedHistogram.Snapshot snap = h.snapshot();
+        double[] fractions = { 0.5, 0.9, 0.99, 0.999 };
+        for (double f : fractions) {
+            long exact = values[(int) Math.ceil(f * values.length) - 1];
+            double estimate = snap.getPercentile(f);
+            assertTrue("p" + f + ": exact " + exact + ", estimate " + estimate, estimate >= exact && estimate <= exact * (1 + 1.0 / 16));
+        }
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreAllCounted() throws InterruptedException {
+        final StripedHistogram h = new StripedHistogram(4);
+        final int threadCount = 8;
+        final int perThread = 50000;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; j++) {
+                        h.record(j % 1000);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        StripedHistogram.Snapshot snap = h.snapshot();
+        assertEquals(threadCount * perThread, snap.getCount());
+        assertEquals(threadCount * (perThread / 1000) * (999L * 1000 / 2), snap.getSum());
+        assertEquals(999, snap.getMax());
+        h.reset();
+        assertEquals(0, h.snapshot().getCount());
+    }
+
+    @Test
+    public void testConcurrentThreadStatistics() {
+        ConcurrentThreadStatistics cts = new ConcurrentThreadStatistics();
+        assertTrue(Double.isNaN(cts.getDelayP50_ms()));
+        assertTrue(Double.isNaN(cts.getWorkload()));
+        for (int i = 1; i <= 1000; i++) {
+            cts.measureDelay(i);
+        }
+        cts.measureThreadLoopTime_ns(2500000);
+        cts.measureWorkload_ns(1000000, 3000000);
+        cts.touchRestart();
+        assertEquals(1000, cts.getDelayCount());
+        assertEquals(500.5, cts.getDelayMean_ms(), 1E-9);
+        assertEquals(1000, cts.getDelayMax_ms(), 1E-9);
+        assertTrue(Math.abs(cts.getDelayP50_ms() - 500) <= 500 / 16.0);
+        assertTrue(Math.abs(cts.getDelayP99_ms() - 990) <= 990 / 16.0);
+        assertEquals(2.5, cts.getThreadLoopTimeP50_ms(), 2.5 / 16);
+        assertEquals(0.25, cts.getWorkload(), 1E-9);
+        assertEquals(1, cts.getRestartCount());
+        cts.reset();
+        assertEquals(0, cts.getDelayCount());
+        assertEquals(0, cts.getRestartCount());
+        assertNull(cts.getLastRestartTime());
+        assertTrue(Double.isNaN(cts.getWorkload()));
+    }
+}
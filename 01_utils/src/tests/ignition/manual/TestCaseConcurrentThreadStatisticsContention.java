@@ -0,0 +1,97 @@
+package tests.ignition.manual;
+
+import org.junit.Test;
+
+import com.mplify.threads.StripedHistogram;
+import com.mplify.threads.ThreadStatistics;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see what an update of
+ * the statistics costs when 16 threads update at the same time.
+ *
+ * Compared are: the StripedHistogram used by ConcurrentThreadStatistics,
+ * the same with a single stripe (all threads contend on the same counters)
+ * and ThreadStatistics made safe by synchronizing on it.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseConcurrentThreadStatisticsContention {
+
+    private final static int THREADS = 16;
+    private final static int UPDATES_PER_THREAD = 2000000;
+
+    private interface Updater {
+        void update(long value);
+    }
+
+    private static double run(final Updater updater) throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread("updater-" + i) {
+                @Override
+                public void run() {
+                    for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+                        updater.update(j & 0xFFFF);
+                    }
+                }
+            };
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        // wall clock time per update, as seen by one thread
+        return (double) elapsed / UPDATES_PER_THREAD;
+    }
+
+    @Test
+    public void testContention() throws InterruptedException {
+        final StripedHistogram striped = new StripedHistogram();
+        final StripedHistogram single = new StripedHistogram(1);
+        final ThreadStatistics locked = new ThreadStatistics(0.5, 0.5, 0.5, 0.5);
+        Updater stripedUpdater = new Updater() {
+            @Override
+            public void update(long value) {
+                striped.record(value);
+            }
+        };
+        Updater singleUpdater = new Updater() {
+            @Override
+            public void update(long value) {
+                single.record(value);
+            }
+        };
+        Updater lockedUpdater = new Updater() {
+            @Override
+            public void update(long value) {
+                synchronized (locked) {
+                    locked.measureAverageDelay(value);
+                }
+            }
+        };
+        // warm up
+        run(stripedUpdater);
+        run(singleUpdater);
+        run(lockedUpdater);
+        System.out.println(THREADS + " threads, " + UPDATES_PER_THREAD + " updates each, " + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.println("StripedHistogram (" + striped.getStripeCount() + " stripes) : " + run(stripedUpdater) + " ns per update");
+        System.out.println("StripedHistogram (1 stripe)    : " + run(singleUpdater) + " ns per update");
+        System.out.println("synchronized ThreadStatistics  : " + run(lockedUpdater) + " ns per update");
+        System.out.println("Striped p50/p99/p999: " + striped.snapshot().getPercentile(0.5) + " / " + striped.snapshot().getPercentile(0.99) + " / "
+                + striped.snapshot().getPercentile(0.999));
+        System.out.flush();
+    }
+}
@@ -0,0 +1,191 @@
+package tests.ignition.manual;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.enums.DbBoolean;
+import com.mplify.enums.EnumerativeTypeUsingInteger;
+import com.mplify.enums.JdomSerializationFormat;
+import com.mplify.enums.Priority;
+import com.mplify.enums.Troolean;
+import com.mplify.enums.Verbosity;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see what obtain(int)
+ * costs for each integer-coded enumerative type, compared to the former
+ * way of boxing the int and probing a HashMap<Integer,X>. The codes are
+ * drawn at random from the valid ones so that branch prediction does not
+ * make things look better than on a row-mapping path.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseEnumerativeLookupCost {
+
+    private final static int CODES = 1 << 16;
+    private final static int ROUNDS = 200;
+
+    private static int[] randomCodes(List<? extends EnumerativeTypeUsingInteger> list) {
+        Random rand = new Random(4711);
+        int[] res = new int[CODES];
+        for (int i = 0; i < CODES; i++) {
+            res[i] = list.get(rand.nextInt(list.size())).getValue();
+        }
+        return res;
+    }
+
+    private static <T extends EnumerativeTypeUsingInteger> Map<Integer, T> hashed(List<T> list) {
+        Map<Integer, T> res = new HashMap<Integer, T>();
+        for (T x : list) {
+            res.put(Integer.valueOf(x.getValue()), x);
+        }
+        return res;
+    }
+
+    /**
+     * Print nanoseconds per lookup. The loops of each type below are written out rather than passed in, so that
+     * every call site only ever sees a single target. The first quarter of the rounds is warm-up.
+     */
+
+    private static void print(String name, long viaMap, long viaTable, int sink) {
+        double ops = (double) ROUNDS * CODES;
+        System.out.printf("%-24s HashMap<Integer,X>: %6.2f ns   obtain(int): %6.2f ns   (%d)%n", name, viaMap / ops, viaTable / ops, sink);
+    }
+
+    @Test
+    public void testPriority() {
+        int[] codes = randomCodes(Priority.LIST_LOW_TO_HIGH);
+        Map<Integer, Priority> map = hashed(Priority.LIST_LOW_TO_HIGH);
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += Priority.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) {
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        print("Priority", viaMap, viaTable, sink);
+    }
+
+    @Test
+    public void testVerbosity() {
+        int[] codes = randomCodes(Verbosity.LIST_LOW_TO_HIGH);
+        Map<Integer, Verbosity> map = hashed(Verbosity.LIST_LOW_TO_HIGH);
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += Verbosity.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) {
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        print("Verbosity", viaMap, viaTable, sink);
+    }
+
+    @Test
+    public void testTroolean() {
+        int[] codes = randomCodes(Troolean.LIST);
+        Map<Integer, Troolean> map = hashed(Troolean.LIST);
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += Troolean.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) {
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        print("Troolean", viaMap, viaTable, sink);
+    }
+
+    @Test
+    public void testJdomSerializationFormat() {
+        int[] codes = randomCodes(JdomSerializationFormat.LIST);
+        Map<Integer, JdomSerializationFormat> map = hashed(JdomSerializationFormat.LIST);
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += JdomSerializationFormat.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) {
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        print("JdomSerializationFormat", viaMap, viaTable, sink);
+    }
+
+    @Test
+    public void testDbBoolean() {
+        int[] codes = randomCodes(DbBoolean.LIST);
+        Map<Integer, DbBoolean> map = hashed(DbBoolean.LIST);
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += DbBoolean.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) {
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        print("DbBoolean", viaMap, viaTable, sink);
+    }
+}
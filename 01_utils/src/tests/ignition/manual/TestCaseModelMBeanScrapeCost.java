@@ -0,0 +1,171 @@
+package tests.ignition.manual;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.AttributeList;
+import javax.management.Descriptor;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.modelmbean.DescriptorSupport;
+import javax.management.modelmbean.ModelMBeanAttributeInfo;
+import javax.management.modelmbean.ModelMBeanConstructorInfo;
+import javax.management.modelmbean.ModelMBeanInfo;
+import javax.management.modelmbean.ModelMBeanInfoSupport;
+import javax.management.modelmbean.ModelMBeanNotificationInfo;
+import javax.management.modelmbean.ModelMBeanOperationInfo;
+
+import org.junit.Test;
+
+import com.mplify.mbeans.CompiledModelMBean;
+import com.mplify.mbeans.LocalRequiredModelMBean;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see what a "scrape"
+ * of 500 attributes (50 MBeans with 10 attributes each, read through the
+ * platform MBeanServer with one getAttributes() per MBean) costs with
+ * LocalRequiredModelMBean and with CompiledModelMBean, the latter with and
+ * without honoring "currencyTimeLimit".
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseModelMBeanScrapeCost {
+
+    private final static int MBEANS = 50;
+    private final static int ATTRIBUTES = 10;
+    private final static int SCRAPES = 2000;
+
+    /**
+     * The managed resource, with 10 getters
+     */
+
+    public static class Resource {
+        private long x = 0;
+
+        public long getA0() { return x++; }
+        public long getA1() { return x++; }
+        public long getA2() { return x++; }
+        public long getA3() { return x++; }
+        public long getA4() { return x++; }
+        public long getA5() { return x++; }
+        public long getA6() { return x++; }
+        public long getA7() { return x++; }
+        public long getA8() { return x++; }
+        public long getA9() { return x++; }
+    }
+
+    private static ModelMBeanInfo createInfo() {
+        List<ModelMBeanAttributeInfo> attrs = new ArrayList<ModelMBeanAttributeInfo>();
+        List<ModelMBeanOperationInfo> opers = new ArrayList<ModelMBeanOperationInfo>();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            Descriptor ad = new DescriptorSupport();
+            ad.setField("name", "A" + i);
+            ad.setField("descriptorType", "attribute");
+            ad.setField("getMethod", "getA" + i);
+            ad.setField("currencyTimeLimit", "5");
+            attrs.add(new ModelMBeanAttributeInfo("A" + i, "long", "A" + i, true, false, false, ad));
+            Descriptor od = new DescriptorSupport();
+            od.setField("name", "getA" + i);
+            od.setField("descriptorType", "operation");
+            od.setField("role", "getter");
+            opers.add(new ModelMBeanOperationInfo("getA" + i, "getA" + i, null, "long", ModelMBeanOperationInfo.INFO, od));
+        }
+        return new ModelMBeanInfoSupport(Resource.class.getName(), "bench", attrs.toArray(new ModelMBeanAttributeInfo[0]), new ModelMBeanConstructorInfo[0],
+                opers.toArray(new ModelMBeanOperationInfo[0]), new ModelMBeanNotificationInfo[0]);
+    }
+
+    private static class PlainMBean extends LocalRequiredModelMBean<Resource> {
+        public PlainMBean(ObjectName name) throws Exception {
+            super(new Resource(), name);
+        }
+
+        @Override
+        protected ModelMBeanInfo createModelMBeanInfo(Resource managedResource, ObjectName mbeanName) {
+            return createInfo();
+        }
+    }
+
+    private static class FastMBean extends CompiledModelMBean<Resource> {
+        public FastMBean(ObjectName name, boolean useCurrencyTimeLimit) throws Exception {
+            super(new Resource(), name, useCurrencyTimeLimit);
+        }
+
+        @Override
+        protected ModelMBeanInfo createModelMBeanInfo(Resource managedResource, ObjectName mbeanName) {
+            return createInfo();
+        }
+    }
+
+    private interface Factory {
+        Object create(ObjectName name) throws Exception;
+    }
+
+    private static double scrape(String domain, Factory factory) throws Exception {
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName[] names = new ObjectName[MBEANS];
+        for (int i = 0; i < MBEANS; i++) {
+            names[i] = new ObjectName(domain + ":type=Bench,index=" + i);
+            mbs.registerMBean(factory.create(names[i]), names[i]);
+        }
+        String[] attrNames = new String[ATTRIBUTES];
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            attrNames[i] = "A" + i;
+        }
+        long read = 0;
+        long start = 0;
+        for (int s = -SCRAPES / 4; s < SCRAPES; s++) {
+            if (s == 0) {
+                start = System.nanoTime(); // the first quarter is warm-up
+            }
+            for (ObjectName name : names) {
+                AttributeList list = mbs.getAttributes(name, attrNames);
+                read += list.size();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (ObjectName name : names) {
+            mbs.unregisterMBean(name);
+        }
+        if (read != (long) (SCRAPES + SCRAPES / 4) * MBEANS * ATTRIBUTES) {
+            throw new IllegalStateException("Some attributes could not be read: " + read);
+        }
+        return elapsed / 1000.0 / SCRAPES;
+    }
+
+    @Test
+    public void testScrapeCost() throws Exception {
+        double plain = scrape("bench.plain", new Factory() {
+            @Override
+            public Object create(ObjectName name) throws Exception {
+                return new PlainMBean(name);
+            }
+        });
+        double compiled = scrape("bench.compiled", new Factory() {
+            @Override
+            public Object create(ObjectName name) throws Exception {
+                return new FastMBean(name, false);
+            }
+        });
+        double cached = scrape("bench.cached", new Factory() {
+            @Override
+            public Object create(ObjectName name) throws Exception {
+                return new FastMBean(name, true);
+            }
+        });
+        System.out.println("Scrape of " + (MBEANS * ATTRIBUTES) + " attributes, average over " + SCRAPES + " scrapes");
+        System.out.println("LocalRequiredModelMBean              : " + plain + " us");
+        System.out.println("CompiledModelMBean                   : " + compiled + " us");
+        System.out.println("CompiledModelMBean, currencyTimeLimit: " + cached + " us");
+        System.out.flush();
+    }
+}
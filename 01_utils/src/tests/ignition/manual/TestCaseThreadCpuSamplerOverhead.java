@@ -0,0 +1,107 @@
+package tests.ignition.manual;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.mplify.linuxaria.jvminfo.ThreadCpuSampler;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see what the
+ * ThreadCpuSampler costs (Linux only).
+ *
+ * A number of busy worker threads hash away for a fixed time, first without
+ * and then with the sampler running at 20 Hz. The throughput of the workers
+ * is compared and the sampler's own tick time and CPU usage are printed,
+ * followed by the heaviest folded stacks.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseThreadCpuSamplerOverhead {
+
+    private final static int WORKERS = 4;
+    private final static int IDLERS = 50; // sleeping threads which the sampler must scan, too
+    private final static long RUN_MS = 5000;
+
+    private static long runWorkers(long duration_ms) throws InterruptedException {
+        final AtomicLong done = new AtomicLong();
+        final long end = System.currentTimeMillis() + duration_ms;
+        Thread[] workers = new Thread[WORKERS];
+        for (int i = 0; i < WORKERS; i++) {
+            workers[i] = new Thread("busy-worker-" + i) {
+                @Override
+                public void run() {
+                    long local = 0;
+                    int x = 17;
+                    while (System.currentTimeMillis() < end) {
+                        for (int j = 0; j < 100000; j++) {
+                            x = x * 31 + j;
+                        }
+                        local++;
+                    }
+                    done.addAndGet(local + (x == 0 ? 1 : 0));
+                }
+            };
+            workers[i].start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        return done.get();
+    }
+
+    @Test
+    public void testOverhead() throws InterruptedException {
+        final Object idleLock = new Object();
+        for (int i = 0; i < IDLERS; i++) {
+            Thread t = new Thread("idle-" + i) {
+                @Override
+                public void run() {
+                    synchronized (idleLock) {
+                        try {
+                            idleLock.wait();
+                        } catch (InterruptedException exe) {
+                            // done
+                        }
+                    }
+                }
+            };
+            t.setDaemon(true);
+            t.start();
+        }
+        // warm up
+        runWorkers(1000);
+        long baseline = runWorkers(RUN_MS);
+        ThreadCpuSampler sampler = new ThreadCpuSampler();
+        Thread samplerThread = new Thread(sampler, "ThreadCpuSampler");
+        samplerThread.setDaemon(true);
+        samplerThread.start();
+        sampler.setSamplingRate_hz(20);
+        sampler.setEnabled(true);
+        long sampled = runWorkers(RUN_MS);
+        sampler.setEnabled(false);
+        System.out.println("Workers: " + WORKERS + ", idle threads: " + IDLERS + ", run time: " + RUN_MS + " ms");
+        System.out.println("Worker iterations without sampler: " + baseline);
+        System.out.println("Worker iterations with sampler   : " + sampled + " (" + (100.0 * (sampled - baseline) / baseline) + " %)");
+        System.out.println("Sampler ticks                    : " + sampler.getTickCount());
+        System.out.println("Average tick time                : " + sampler.getAverageTickTime_us() + " us");
+        System.out.println("Sampler self CPU ratio           : " + (100.0 * sampler.getSelfCpuRatio()) + " % of one core");
+        System.out.println("Stacks captured                  : " + sampler.getStackCaptureCount());
+        System.out.println("Distinct stacks                  : " + sampler.getDistinctStackCount());
+        System.out.println("Jiffies attributed               : " + sampler.getTotalJiffies());
+        String[] lines = sampler.dumpFoldedStacks().split("\n");
+        for (int i = 0; i < Math.min(10, lines.length); i++) {
+            System.out.println(lines[i]);
+        }
+        System.out.flush();
+    }
+}
@@ -0,0 +1,41 @@
+package com.mplify.countries;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Build step: parse "direct_dial_prefix_matrix.txt" and write its binary
+ * form to the file given as argument (by default
+ * "direct_dial_prefix_matrix.bin" in the current directory). Put the result
+ * next to the text resource, in the output directory or the jar, and
+ * DirectDialPrefixMatrix reads it instead of parsing the text. If the text
+ * is changed later, the stale binary form is ignored.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class CompileDirectDialPrefixMatrix {
+
+    public static void main(String[] argv) throws IOException {
+        File file = new File(argv.length > 0 ? argv[0] : DirectDialPrefixMatrix.COMPILED_RESOURCE);
+        CompiledDirectDialPrefixMatrix matrix = DirectDialPrefixMatrix.parseResource();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            matrix.writeTo(out);
+        } finally {
+            out.close();
+        }
+        System.out.println("Wrote " + file.length() + " bytes to '" + file.getAbsolutePath() + "'");
+    }
+}
@@ -0,0 +1,369 @@
+package com.mplify.countries;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+import com.mplify.listparsing.Parsing;
+import com.mplify.logging.LogFacilities;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * The direct dial prefix -> country matrix, compiled into immutable arrays.
+ *
+ * Prefixes are identified by their index in a DirectDialPrefixTrie, countries
+ * by their value + 1 (CountryId values run from -1 for _UNDEFINED to 1000 for
+ * _NOWHERE). The countries reachable through a prefix are kept as a bitset
+ * (a long[] per prefix index) and, for callers who want a Set, as an
+ * immutable Set built once. The reverse mapping is an array of immutable
+ * Sets indexed by country. Once constructed, an instance is only ever read,
+ * so it can be shared between threads without any synchronization.
+ *
+ * An instance is obtained by parsing the text format of
+ * "direct_dial_prefix_matrix.txt" or by reading the binary form written by
+ * writeTo(), which skips the regular expressions entirely:
+ *
+ *    int    MAGIC
+ *    int    VERSION
+ *    long   CRC32 of the UTF-8 text the matrix was compiled from
+ *    int    number of prefixes, then for each prefix:
+ *    UTF    the prefix digits
+ *    int    number of countries, then that many CountryId values
+ *
+ * The checksum allows a loader to notice that the binary form is older than
+ * the text.
+ *
+ * 2026.10.19 - Created from the parsing code of DirectDialPrefixMatrix
+ * 2026.10.19 - Set arrays created through newSetArray(), without raw types
+ ******************************************************************************/
+
+public final class CompiledDirectDialPrefixMatrix {
+
+    private final static String CLASS = CompiledDirectDialPrefixMatrix.class.getName();
+    private final static Logger LOGGER_parse = LoggerFactory.getLogger(CLASS + ".parse");
+    private final static Logger LOGGER_readFrom = LoggerFactory.getLogger(CLASS + ".readFrom");
+
+    private final static int MAGIC = 0x4444504D; // "DDPM"
+    private final static int VERSION = 1;
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final static Set<CountryId> EMPTY_COUNTRYID_SET = Collections.emptySet();
+    private final static Set<DirectDialPrefixId> EMPTY_PREFIXID_SET = Collections.emptySet();
+
+    /**
+     * Number of countries that can be indexed, i.e. the largest CountryId value + 2
+     */
+
+    private final static int COUNTRY_SLOTS;
+
+    static {
+        int max = 0;
+        for (CountryId cid : CountryId.LIST_WITH_UNDEFINED_AND_NOWHERE) {
+            max = Math.max(max, cid.getValue());
+        }
+        COUNTRY_SLOTS = max + 2;
+    }
+
+    private final DirectDialPrefixTrie trie;
+    private final long[][] targetBits; // prefix index -> bitset over (country value + 1), never null
+    private final Set<CountryId>[] targets; // prefix index -> immutable set
+    private final Set<DirectDialPrefixId>[] prefixesByCountry; // country value + 1 -> immutable set
+    private final long sourceChecksum;
+
+    /**
+     * Constructor, taking over the passed bitsets, which are indexed by prefix index of "trie"; entries may be (null)
+     */
+
+    private CompiledDirectDialPrefixMatrix(DirectDialPrefixTrie trie, long[][] bits, long sourceChecksum) {
+        this.trie = trie;
+        this.sourceChecksum = sourceChecksum;
+        int prefixCount = trie.getPrefixCount();
+        int words = (COUNTRY_SLOTS + 63) >>> 6;
+        this.targetBits = new long[prefixCount][];
+        this.targets = newSetArray(prefixCount);
+        List<Set<DirectDialPrefixId>> byCountry = new ArrayList<Set<DirectDialPrefixId>>(COUNTRY_SLOTS);
+        for (int c = 0; c < COUNTRY_SLOTS; c++) {
+            byCountry.add(null);
+        }
+        for (int p = 0; p < prefixCount; p++) {
+            long[] b = (bits[p] == null) ? new long[words] : bits[p];
+            targetBits[p] = b;
+            Set<CountryId> set = new LinkedHashSet<CountryId>();
+            for (int c = nextSetBit(b, 0); c >= 0; c = nextSetBit(b, c + 1)) {
+                set.add(CountryId.obtain(c - 1));
+                if (byCountry.get(c) == null) {
+                    byCountry.set(c, new LinkedHashSet<DirectDialPrefixId>());
+                }
+                byCountry.get(c).add(trie.getPrefix(p));
+            }
+            targets[p] = set.isEmpty() ? EMPTY_COUNTRYID_SET : Collections.unmodifiableSet(set);
+        }
+        this.prefixesByCountry = newSetArray(COUNTRY_SLOTS);
+        for (int c = 0; c < COUNTRY_SLOTS; c++) {
+            Set<DirectDialPrefixId> set = byCountry.get(c);
+            prefixesByCountry[c] = (set == null) ? EMPTY_PREFIXID_SET : Collections.unmodifiableSet(set);
+        }
+    }
+
+    /**
+     * Java cannot create generic arrays; this is the only place where the unchecked cast happens
+     */
+
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T>[] newSetArray(int length) {
+        return (Set<T>[]) new Set<?>[length];
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= bits.length) {
+            return -1;
+        }
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == bits.length) {
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+
+    private static void setBit(long[][] bits, int prefixIndex, CountryId cid) {
+        if (bits[prefixIndex] == null) {
+            bits[prefixIndex] = new long[(COUNTRY_SLOTS + 63) >>> 6];
+        }
+        int c = cid.getValue() + 1;
+        bits[prefixIndex][c >>> 6] |= 1L << c;
+    }
+
+    /**
+     * The CRC32 of the UTF-8 encoding of "text", as stored in the binary form
+     */
+
+    public static long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(UTF8));
+        return crc.getValue();
+    }
+
+    /**
+     * Parse the text form; "sourceName" is only used in log messages. Lines with unknown prefixes or countries are
+     * logged and skipped, as DirectDialPrefixMatrix always did.
+     */
+
+    public static CompiledDirectDialPrefixMatrix parse(String text, String sourceName, DirectDialPrefixTrie trie) throws IOException {
+        Check.notNull(text, "text");
+        Check.notNull(trie, "trie");
+        Logger logger = LOGGER_parse;
+        LineNumberReader lr = new LineNumberReader(new StringReader(text));
+        // Set up the patterns to handle comments and mapping
+        Pattern commentPattern = Pattern.compile("^\\s*#");
+        Pattern mappingPattern = Pattern.compile("^\\s*(\\w+)\\s*->\\s*(.+?)\\s*$");
+        long[][] bits = new long[trie.getPrefixCount()][];
+        String line;
+        while ((line = lr.readLine()) != null) {
+            if (commentPattern.matcher(line).lookingAt() || "".equals(line.trim())) {
+                continue; // loop around
+            }
+            Matcher m = mappingPattern.matcher(line);
+            if (!m.matches()) {
+                logger.warn("Syntax error at line " + lr.getLineNumber() + " of '" + sourceName + "': " + LogFacilities.mangleString(line));
+                continue; // loop around
+            }
+            String prefix = m.group(1).trim();
+            String postfix = m.group(2).trim();
+            // prefix must match "exactly"
+            DirectDialPrefixId prefixId = trie.exactMatch(prefix);
+            if (prefixId == null) {
+                logger.warn("Unknown direct-dial prefix at line " + lr.getLineNumber() + " of '" + sourceName + "': " + LogFacilities.mangleString(line));
+                continue;
+            }
+            // postfix must be separable into exactly matchable canonical country names
+            List<String> canoNames = Parsing.parseCommaSeparatedStuff(postfix, true);
+            if (canoNames.isEmpty()) {
+                logger.warn("Empty mapping at line " + lr.getLineNumber() + " of '" + sourceName + "': " + LogFacilities.mangleString(line));
+                continue;
+            }
+            int p = trie.indexOf(prefixId);
+            if (bits[p] != null) {
+                logger.warn("Prefix " + prefix + " appears at least twice in '" + sourceName + "'");
+            }
+            for (String canoName : canoNames) {
+                CountryId cid = CountryId.obtainFromCanonicalName(canoName, false);
+                if (cid == null) {
+                    logger.warn("Unknown country '" + canoName + "' at line " + lr.getLineNumber() + " of '" + sourceName + "': " + LogFacilities.mangleString(line));
+                } else {
+                    setBit(bits, p, cid);
+                }
+            }
+        }
+        return new CompiledDirectDialPrefixMatrix(trie, bits, checksum(text));
+    }
+
+    /**
+     * Build from a mapping prefix -> countries; prefixes not in "trie" are an error. For NumberingPlan.
+     */
+
+    static CompiledDirectDialPrefixMatrix build(DirectDialPrefixTrie trie, Map<DirectDialPrefixId, Set<CountryId>> mapping, long sourceChecksum) {
+        long[][] bits = new long[trie.getPrefixCount()][];
+        for (Map.Entry<DirectDialPrefixId, Set<CountryId>> entry : mapping.entrySet()) {
+            int p = trie.indexOf(entry.getKey());
+            if (p < 0) {
+                throw new IllegalArgumentException("The prefix '" + entry.getKey() + "' is not in the trie");
+            }
+            for (CountryId cid : entry.getValue()) {
+                setBit(bits, p, cid);
+            }
+        }
+        return new CompiledDirectDialPrefixMatrix(trie, bits, sourceChecksum);
+    }
+
+    /**
+     * Write the binary form. The stream is not closed.
+     */
+
+    public void writeTo(OutputStream out) throws IOException {
+        Check.notNull(out, "output stream");
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeLong(sourceChecksum);
+        int count = 0;
+        for (int p = 0; p < targets.length; p++) {
+            if (!targets[p].isEmpty()) {
+                count++;
+            }
+        }
+        dos.writeInt(count);
+        for (int p = 0; p < targets.length; p++) {
+            if (!targets[p].isEmpty()) {
+                dos.writeUTF(trie.getPrefix(p).getDdPrefix());
+                dos.writeInt(targets[p].size());
+                for (CountryId cid : targets[p]) {
+                    dos.writeInt(cid.getValue());
+                }
+            }
+        }
+        dos.flush();
+    }
+
+    /**
+     * Read the binary form. Prefixes not in "trie" and unknown countries are logged and skipped. Throws IOException
+     * if the data is not in the binary form or truncated. The stream is not closed.
+     */
+
+    public static CompiledDirectDialPrefixMatrix readFrom(InputStream in, DirectDialPrefixTrie trie) throws IOException {
+        Check.notNull(in, "input stream");
+        Check.notNull(trie, "trie");
+        Logger logger = LOGGER_readFrom;
+        DataInputStream dis = new DataInputStream(in);
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Not a compiled direct dial prefix matrix (bad magic number)");
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of compiled direct dial prefix matrix");
+        }
+        long checksum = dis.readLong();
+        long[][] bits = new long[trie.getPrefixCount()][];
+        int count = dis.readInt();
+        for (int i = 0; i < count; i++) {
+            String prefix = dis.readUTF();
+            int countryCount = dis.readInt();
+            DirectDialPrefixId prefixId = trie.exactMatch(prefix);
+            if (prefixId == null) {
+                logger.warn("Unknown direct-dial prefix '" + prefix + "' in compiled matrix, skipped");
+            }
+            for (int j = 0; j < countryCount; j++) {
+                int value = dis.readInt();
+                if (prefixId == null) {
+                    continue;
+                }
+                if (!CountryId.isValid(value)) {
+                    logger.warn("Unknown country value " + value + " for prefix '" + prefix + "' in compiled matrix, skipped");
+                } else {
+                    setBit(bits, trie.indexOf(prefixId), CountryId.obtain(value));
+                }
+            }
+        }
+        return new CompiledDirectDialPrefixMatrix(trie, bits, checksum);
+    }
+
+    /**
+     * The set of countries reachable through "prefixId"; never (null), empty if the prefix is unknown
+     */
+
+    public Set<CountryId> getTargets(DirectDialPrefixId prefixId) {
+        int p = trie.indexOf(prefixId);
+        return (p < 0) ? EMPTY_COUNTRYID_SET : targets[p];
+    }
+
+    /**
+     * The set of countries reachable through the prefix with the given index in the trie
+     */
+
+    public Set<CountryId> getTargets(int prefixIndex) {
+        return targets[prefixIndex];
+    }
+
+    /**
+     * Whether "countryId" can be reached through "prefixId"; a bit test, nothing is allocated
+     */
+
+    public boolean isTarget(DirectDialPrefixId prefixId, CountryId countryId) {
+        int p = trie.indexOf(prefixId);
+        if (p < 0) {
+            return false;
+        }
+        int c = countryId.getValue() + 1;
+        return (targetBits[p][c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * The set of prefixes through which "countryId" can be reached; never (null)
+     */
+
+    public Set<DirectDialPrefixId> getPrefixes(CountryId countryId) {
+        return prefixesByCountry[countryId.getValue() + 1];
+    }
+
+    public DirectDialPrefixTrie getTrie() {
+        return trie;
+    }
+
+    /**
+     * The CRC32 of the text this matrix was compiled from
+     */
+
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+}
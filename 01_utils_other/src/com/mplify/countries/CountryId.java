@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 import com.mplify.checkers.Check;
 import com.mplify.enums.EnumerativeTypeUsingInteger;
+import com.mplify.enums.IntegerLookupTable;
+import com.mplify.enums.NameLookupTable;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
  * *****************************************************************************
@@ -42,6 +44,10 @@ import com.mplify.enums.EnumerativeTypeUsingInteger;
  *              not a problem at runtime, this class cannot be used much.
  *              Changing to 242 anyway.
  * 2011.10.19 - Adapted for LOG4J --> SLF4J migration
+ * 2026.10.19 - obtain(int) and isValid(int) use an IntegerLookupTable
+ *              instead of boxing and probing a Map
+ * 2026.10.19 - obtainFromCanonicalName() takes a CharSequence and uses a
+ *              NameLookupTable instead of lowercasing into a new String
  ******************************************************************************/
 
 public class CountryId implements EnumerativeTypeUsingInteger {
@@ -336,10 +342,10 @@ public class CountryId implements EnumerativeTypeUsingInteger {
     public final static List<CountryId> LIST_WITH_UNDEFINED_AND_NOWHERE;
 
     /*
-     * The values hashed by their Integer id, private. Also contains _UNDEFINED and _NOWHERE.
+     * The values indexed by their int id, private. Also contains _UNDEFINED and _NOWHERE.
      */
 
-    private final static Map<Integer, CountryId> MAP_BY_VALUE;
+    private final static IntegerLookupTable<CountryId> TABLE_BY_VALUE;
 
     /*
      * The values hashed by their ISO code, currently private. Only contains countries. ISO codes are uppercase always.
@@ -348,10 +354,10 @@ public class CountryId implements EnumerativeTypeUsingInteger {
     private final static Map<String, CountryId> MAP_BY_ISOCODE;
 
     /*
-     * The values hashed by their Canonical Name, currently private. Does not contain NOWHERE nor UNDEFINED
+     * The values by their (case-insensitive) Canonical Name, currently private. Does not contain NOWHERE nor UNDEFINED
      */
 
-    private final static Map<String, CountryId> MAP_BY_CANONICAL_NAME;
+    private final static NameLookupTable<CountryId> TABLE_BY_CANONICAL_NAME;
 
     /*
      * Static construction takes care to assign unique (and constant) numeric identifiers to the various instances. They
@@ -649,7 +655,7 @@ public class CountryId implements EnumerativeTypeUsingInteger {
         }
 
         //
-        // Create a value->CountryId hash, and create MAP_BY_VALUE from it
+        // Create a value->CountryId hash, and create TABLE_BY_VALUE from it
         // ** This proecure checks whether a numeric id occurs twice, so we have nice self-checking code **  
         // Note that _UNDEFINED and _NOWHERE **are** taken up.
         //
@@ -661,7 +667,7 @@ public class CountryId implements EnumerativeTypeUsingInteger {
                 }
                 mapByValue.put(Integer.valueOf(cid.value), cid);
             }
-            MAP_BY_VALUE = Collections.unmodifiableMap(mapByValue);
+            TABLE_BY_VALUE = new IntegerLookupTable<CountryId>(mapByValue);
         }
         //
         // Create a ISOCode->CountryId hash, and create MAP_BY_ISOCODE from it
@@ -681,7 +687,7 @@ public class CountryId implements EnumerativeTypeUsingInteger {
             MAP_BY_ISOCODE = Collections.unmodifiableMap(mapByIsoCode);
         }
         //
-        // Create a CanonicalName->CountryId hash, and create MAP_BY_CANONICAL_NAME from it
+        // Create a CanonicalName->CountryId hash, and create TABLE_BY_CANONICAL_NAME from it
         // ** This proecure checks whether an Canonical Name occurs twice, so we have nice self-checking code **   
         //
         {
@@ -694,7 +700,7 @@ public class CountryId implements EnumerativeTypeUsingInteger {
                     mapByCanoName.put(cid.canoName, cid);
                 }
             }
-            MAP_BY_CANONICAL_NAME = Collections.unmodifiableMap(mapByCanoName);
+            TABLE_BY_CANONICAL_NAME = new NameLookupTable<CountryId>(mapByCanoName);
         }
         /*
          * for (CountryId cid : LIST_WITH_UNDEFINED_AND_NOWHERE) {
@@ -770,11 +776,11 @@ public class CountryId implements EnumerativeTypeUsingInteger {
      */
 
     public static boolean isValid(Integer x) {
-        return (MAP_BY_VALUE.containsKey(x));
+        return (x != null && TABLE_BY_VALUE.containsKey(x.intValue()));
     }
 
     public static boolean isValid(int x) {
-        return (MAP_BY_VALUE.containsKey(Integer.valueOf(x)));
+        return TABLE_BY_VALUE.containsKey(x);
     }
 
     /**
@@ -812,7 +818,13 @@ public class CountryId implements EnumerativeTypeUsingInteger {
      */
 
     public static CountryId obtain(int x) {
-        return obtain(Integer.valueOf(x));
+        CountryId res = TABLE_BY_VALUE.get(x);
+        // Undefined is in the table, so obtain(-1) will yield res!=null
+        if (res == null) {
+            throw new IllegalArgumentException("Nothing corresponding to value '" + x + "' exists");
+        } else {
+            return res;
+        }
     }
 
     /**
@@ -822,13 +834,7 @@ public class CountryId implements EnumerativeTypeUsingInteger {
 
     public static CountryId obtain(Integer x) {
         Check.notNull(x,"integer");
-        CountryId res = MAP_BY_VALUE.get(x);
-        // Undefined is in the map, so obtain(-1) will yield res!=null
-        if (res == null) {
-            throw new IllegalArgumentException("Nothing corresponding to value '" + x + "' exists");
-        } else {
-            return res;
-        }
+        return obtain(x.intValue());
     }
 
     /**
@@ -849,16 +855,16 @@ public class CountryId implements EnumerativeTypeUsingInteger {
     }
 
     /**
-     * Pass the *canonical name* 'x', which is parsed and used for retrieval. Do not pass (null). Throws if not found or
-     * returns null, depending on the "throwIfNotFound" boolean. NOWHERE and UNDEFINED won't give results here.
+     * Pass the *canonical name* 'x', which is matched ignoring case and surrounding whitespace. Do not pass (null).
+     * Throws if not found or returns null, depending on the "throwIfNotFound" boolean. NOWHERE and UNDEFINED won't
+     * give results here.
      */
 
-    public static CountryId obtainFromCanonicalName(String canoName, boolean throwIfNotFound) {
+    public static CountryId obtainFromCanonicalName(CharSequence canoName, boolean throwIfNotFound) {
         if (canoName == null) {
             throw new IllegalArgumentException("The passed 'canonical name' is (null)");
         }
-        String myCanoName = canoName.trim().toLowerCase();
-        CountryId res = MAP_BY_CANONICAL_NAME.get(myCanoName);
+        CountryId res = TABLE_BY_CANONICAL_NAME.get(canoName);
         if (res == null && throwIfNotFound) {
             throw new IllegalArgumentException("Nothing corresponding to canonical name '" + canoName + "' exists");
         } else {
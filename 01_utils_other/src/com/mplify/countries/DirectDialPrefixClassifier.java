@@ -0,0 +1,516 @@
+package com.mplify.countries;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Bulk classification of phone numbers by direct dial prefix and country,
+ * for billing runs over tens of millions of numbers.
+ *
+ * The prefix -> countries mapping of DirectDialPrefixMatrix is copied at
+ * construction into arrays indexed by the prefix index of a
+ * DirectDialPrefixTrie, so that classifying a number is a trie walk plus an
+ * array increment; no Set<CountryId> is looked at per number.
+ *
+ * Input is either a stream of numbers, one per line (ASCII, e.g. a file),
+ * or a List of CharSequence. A stream is read in blocks of a few MB; the
+ * next block is read while the current one is classified by a ForkJoinPool,
+ * which splits it (at line boundaries) into leaves of 64 KiB. Lines are
+ * trimmed; empty lines are skipped. As with
+ * DirectDialPrefixId.obtainUsingBestFit(), numbers are expected in
+ * international form without "+" or "00", e.g. "352661123456".
+ *
+ * The result is a Counts instance: per prefix, per country and unmatched.
+ * A number whose prefix reaches several countries (e.g. "7" for Russia and
+ * Kazakhstan) is counted once for each of these candidates. On demand, the
+ * numbers are also written out annotated, in input order:
+ *
+ *    352661123456;352;luxembourg
+ *    999123;;
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - getDefault() follows the current NumberingPlan. A run keeps
+ *              the classifier (and thus the plan) it started with.
+ ******************************************************************************/
+
+public class DirectDialPrefixClassifier {
+
+    private final static int BLOCK_SIZE = 4 << 20;
+    private final static int LEAF_SIZE = 64 << 10;
+    private final static int LIST_LEAF_SIZE = 4096;
+    private final static Charset ASCII = Charset.forName("US-ASCII");
+
+    private final DirectDialPrefixTrie trie;
+    private final CompiledDirectDialPrefixMatrix matrix; // (null) if constructed from a trie only
+    private final CountryId[] countries; // all countries reachable through some prefix
+    private final int[][] countriesByPrefix; // prefix index -> indexes into "countries"
+    private final byte[][] annotationByPrefix; // prefix index -> ";<prefix>;<names>\n", last entry for "unmatched"
+
+    /**
+     * The classifier for the current NumberingPlan, created on first use and again after a plan change
+     */
+
+    private static volatile DirectDialPrefixClassifier defaultInstance = null;
+
+    public static DirectDialPrefixClassifier getDefault() {
+        CompiledDirectDialPrefixMatrix current = NumberingPlan.current().getMatrix();
+        DirectDialPrefixClassifier res = defaultInstance;
+        if (res == null || res.matrix != current) {
+            // racing threads may both build one, which is harmless
+            res = new DirectDialPrefixClassifier(current.getTrie(), current);
+            defaultInstance = res;
+        }
+        return res;
+    }
+
+    /**
+     * Constructor, taking the prefixes and their countries from "matrix"
+     */
+
+    public DirectDialPrefixClassifier(CompiledDirectDialPrefixMatrix matrix) {
+        this(matrix.getTrie(), matrix);
+    }
+
+    /**
+     * Constructor, taking the countries of each prefix from DirectDialPrefixMatrix
+     */
+
+    public DirectDialPrefixClassifier(DirectDialPrefixTrie trie) {
+        this(trie, null);
+    }
+
+    private DirectDialPrefixClassifier(DirectDialPrefixTrie trie, CompiledDirectDialPrefixMatrix matrix) {
+        Check.notNull(trie, "trie");
+        this.trie = trie;
+        this.matrix = matrix;
+        int prefixCount = trie.getPrefixCount();
+        List<CountryId> countryList = new ArrayList<CountryId>();
+        Map<CountryId, Integer> countryIndexes = new HashMap<CountryId, Integer>();
+        this.countriesByPrefix = new int[prefixCount][];
+        this.annotationByPrefix = new byte[prefixCount + 1][];
+        for (int p = 0; p < prefixCount; p++) {
+            DirectDialPrefixId prefixId = trie.getPrefix(p);
+            Set<CountryId> targets = (matrix == null) ? DirectDialPrefixMatrix.getTargets(prefixId) : matrix.getTargets(p);
+            int[] indexes = new int[targets.size()];
+            StringBuilder annotation = new StringBuilder(";").append(prefixId.getDdPrefix()).append(';');
+            int i = 0;
+            for (CountryId cid : targets) {
+                Integer index = countryIndexes.get(cid);
+                if (index == null) {
+                    index = Integer.valueOf(countryList.size());
+                    countryIndexes.put(cid, index);
+                    countryList.add(cid);
+                }
+                indexes[i] = index.intValue();
+                if (i > 0) {
+                    annotation.append(',');
+                }
+                annotation.append(cid.getCanonicalName());
+                i++;
+            }
+            countriesByPrefix[p] = indexes;
+            annotationByPrefix[p] = annotation.append('\n').toString().getBytes(ASCII);
+        }
+        annotationByPrefix[prefixCount] = ";;\n".getBytes(ASCII);
+        this.countries = countryList.toArray(new CountryId[countryList.size()]);
+    }
+
+    /**
+     * The counts resulting from a classification. Immutable.
+     */
+
+    public class Counts {
+
+        private final long[] byPrefix; // indexed by prefix index, plus one for "unmatched"
+
+        Counts(long[] byPrefix) {
+            this.byPrefix = byPrefix;
+        }
+
+        /**
+         * The number of (non-empty) numbers classified
+         */
+
+        public long getTotal() {
+            long res = 0;
+            for (long x : byPrefix) {
+                res += x;
+            }
+            return res;
+        }
+
+        /**
+         * The number of numbers which did not match any prefix
+         */
+
+        public long getUnmatched() {
+            return byPrefix[byPrefix.length - 1];
+        }
+
+        /**
+         * The number of numbers whose longest matching prefix is "prefixId"
+         */
+
+        public long getCount(DirectDialPrefixId prefixId) {
+            Check.notNull(prefixId, "prefix id");
+            int p = trie.indexOf(prefixId);
+            return (p < 0) ? 0 : byPrefix[p];
+        }
+
+        /**
+         * The non-zero counts by prefix, in the order of the trie's prefixes
+         */
+
+        public Map<DirectDialPrefixId, Long> getCountsByPrefix() {
+            Map<DirectDialPrefixId, Long> res = new LinkedHashMap<DirectDialPrefixId, Long>();
+            for (int p = 0; p < byPrefix.length - 1; p++) {
+                if (byPrefix[p] != 0) {
+                    res.put(trie.getPrefix(p), Long.valueOf(byPrefix[p]));
+                }
+            }
+            return Collections.unmodifiableMap(res);
+        }
+
+        /**
+         * The non-zero counts by country; a number is counted for every country its prefix may reach
+         */
+
+        public Map<CountryId, Long> getCountsByCountry() {
+            long[] byCountry = new long[countries.length];
+            for (int p = 0; p < byPrefix.length - 1; p++) {
+                for (int c : countriesByPrefix[p]) {
+                    byCountry[c] += byPrefix[p];
+                }
+            }
+            Map<CountryId, Long> res = new LinkedHashMap<CountryId, Long>();
+            for (int c = 0; c < countries.length; c++) {
+                if (byCountry[c] != 0) {
+                    res.put(countries[c], Long.valueOf(byCountry[c]));
+                }
+            }
+            return Collections.unmodifiableMap(res);
+        }
+    }
+
+    /**
+     * What a fork-join task over a region yields: counts and, if annotating, the annotated lines in order
+     */
+
+    private static class Part {
+        final long[] counts;
+        final List<byte[]> output; // (null) if not annotating
+
+        Part(long[] counts, List<byte[]> output) {
+            this.counts = counts;
+            this.output = output;
+        }
+
+        Part merge(Part right) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += right.counts[i];
+            }
+            if (output != null) {
+                output.addAll(right.output);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Classify the lines of buf[start,end[, which ends at a line boundary (or at the end of the input)
+     */
+
+    private class BlockTask extends RecursiveTask<Part> {
+
+        private static final long serialVersionUID = 1L;
+        private final byte[] buf;
+        private final int start;
+        private final int end;
+        private final boolean annotate;
+
+        BlockTask(byte[] buf, int start, int end, boolean annotate) {
+            this.buf = buf;
+            this.start = start;
+            this.end = end;
+            this.annotate = annotate;
+        }
+
+        @Override
+        protected Part compute() {
+            if (end - start > LEAF_SIZE) {
+                int mid = start + (end - start) / 2;
+                while (mid < end && buf[mid - 1] != '\n') {
+                    mid++;
+                }
+                if (mid < end) {
+                    BlockTask left = new BlockTask(buf, start, mid, annotate);
+                    left.fork();
+                    Part right = new BlockTask(buf, mid, end, annotate).compute();
+                    return left.join().merge(right);
+                }
+                // a single huge line, fall through
+            }
+            return classifyLeaf();
+        }
+
+        private Part classifyLeaf() {
+            int prefixCount = trie.getPrefixCount();
+            long[] counts = new long[prefixCount + 1];
+            OutputBuffer out = annotate ? new OutputBuffer(end - start + (end - start) / 2) : null;
+            int i = start;
+            while (i < end) {
+                int lineEnd = i;
+                while (lineEnd < end && buf[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                int s = i;
+                int e = lineEnd;
+                while (s < e && (buf[s] & 0xFF) <= ' ') {
+                    s++;
+                }
+                while (e > s && (buf[e - 1] & 0xFF) <= ' ') {
+                    e--;
+                }
+                if (s < e) {
+                    int p = trie.longestMatchIndex(buf, s, e);
+                    if (p < 0) {
+                        p = prefixCount;
+                    }
+                    counts[p]++;
+                    if (out != null) {
+                        out.write(buf, s, e - s);
+                        byte[] annotation = annotationByPrefix[p];
+                        out.write(annotation, 0, annotation.length);
+                    }
+                }
+                i = lineEnd + 1;
+            }
+            List<byte[]> output = null;
+            if (out != null) {
+                output = new ArrayList<byte[]>();
+                output.add(out.toByteArray());
+            }
+            return new Part(counts, output);
+        }
+    }
+
+    /**
+     * A growable byte array without the synchronization of ByteArrayOutputStream
+     */
+
+    private static class OutputBuffer {
+        private byte[] bytes;
+        private int count;
+
+        OutputBuffer(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void write(byte[] b, int off, int len) {
+            if (count + len > bytes.length) {
+                byte[] newBytes = new byte[Math.max(bytes.length * 2, count + len)];
+                System.arraycopy(bytes, 0, newBytes, 0, count);
+                bytes = newBytes;
+            }
+            System.arraycopy(b, off, bytes, count, len);
+            count += len;
+        }
+
+        byte[] toByteArray() {
+            byte[] res = new byte[count];
+            System.arraycopy(bytes, 0, res, 0, count);
+            return res;
+        }
+    }
+
+    /**
+     * Classify the numbers of the list
+     */
+
+    private class ListTask extends RecursiveTask<Part> {
+
+        private static final long serialVersionUID = 1L;
+        private final List<? extends CharSequence> numbers;
+        private final int start;
+        private final int end;
+
+        ListTask(List<? extends CharSequence> numbers, int start, int end) {
+            this.numbers = numbers;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Part compute() {
+            if (end - start > LIST_LEAF_SIZE) {
+                int mid = (start + end) >>> 1;
+                ListTask left = new ListTask(numbers, start, mid);
+                left.fork();
+                Part right = new ListTask(numbers, mid, end).compute();
+                return left.join().merge(right);
+            }
+            int prefixCount = trie.getPrefixCount();
+            long[] counts = new long[prefixCount + 1];
+            for (int i = start; i < end; i++) {
+                CharSequence x = numbers.get(i);
+                if (x == null) {
+                    continue;
+                }
+                int s = 0;
+                int e = x.length();
+                while (s < e && x.charAt(s) <= ' ') {
+                    s++;
+                }
+                while (e > s && x.charAt(e - 1) <= ' ') {
+                    e--;
+                }
+                if (s < e) {
+                    int p = trie.longestMatchIndex(x, s, e);
+                    counts[(p < 0) ? prefixCount : p]++;
+                }
+            }
+            return new Part(counts, null);
+        }
+    }
+
+    /**
+     * Classify a list of numbers; (null) and blank entries are skipped. The list should support fast random access.
+     */
+
+    public Counts classify(List<? extends CharSequence> numbers, ForkJoinPool pool) {
+        Check.notNull(numbers, "numbers");
+        Check.notNull(pool, "pool");
+        return new Counts(pool.invoke(new ListTask(numbers, 0, numbers.size())).counts);
+    }
+
+    /**
+     * Classify the numbers read from "in", one per line. The stream is not closed.
+     */
+
+    public Counts classify(InputStream in, ForkJoinPool pool) throws IOException {
+        return run(in, null, pool);
+    }
+
+    /**
+     * Classify the numbers read from "in", one per line, and write them to "out" in the same order, annotated with
+     * the prefix and the canonical names of the countries. Neither stream is closed.
+     */
+
+    public Counts annotate(InputStream in, OutputStream out, ForkJoinPool pool) throws IOException {
+        Check.notNull(out, "output stream");
+        return run(in, out, pool);
+    }
+
+    /**
+     * Classify the numbers in "file", one per line
+     */
+
+    public Counts classify(File file, ForkJoinPool pool) throws IOException {
+        Check.notNull(file, "file");
+        InputStream in = new FileInputStream(file);
+        try {
+            return classify(in, pool);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Read blocks ending at line boundaries; while the pool works on one block, the next one is read
+     */
+
+    private Counts run(InputStream in, OutputStream out, ForkJoinPool pool) throws IOException {
+        Check.notNull(in, "input stream");
+        Check.notNull(pool, "pool");
+        long[] total = new long[trie.getPrefixCount() + 1];
+        byte[] buf = new byte[BLOCK_SIZE];
+        byte[] spare = new byte[BLOCK_SIZE];
+        int filled = 0;
+        ForkJoinTask<Part> pending = null;
+        boolean eof = false;
+        while (!eof) {
+            // fill the buffer
+            while (filled < buf.length) {
+                int n = in.read(buf, filled, buf.length - filled);
+                if (n < 0) {
+                    eof = true;
+                    break;
+                }
+                filled += n;
+            }
+            // the block ends after the last newline, unless this is the end of input
+            int blockEnd = filled;
+            if (!eof) {
+                while (blockEnd > 0 && buf[blockEnd - 1] != '\n') {
+                    blockEnd--;
+                }
+                if (blockEnd == 0) {
+                    // a line longer than the buffer; grow and go on reading
+                    byte[] bigger = new byte[buf.length * 2];
+                    System.arraycopy(buf, 0, bigger, 0, filled);
+                    buf = bigger;
+                    spare = new byte[bigger.length];
+                    continue;
+                }
+            }
+            ForkJoinTask<Part> task = pool.submit(new BlockTask(buf, 0, blockEnd, out != null));
+            if (pending != null) {
+                // the previous task works on "spare", which can be reused once it is done
+                collect(pending.join(), total, out);
+            }
+            pending = task;
+            // the rest of the buffer goes to the start of the spare buffer, which becomes the next buffer
+            int rest = filled - blockEnd;
+            if (spare.length < buf.length) {
+                spare = new byte[buf.length];
+            }
+            System.arraycopy(buf, blockEnd, spare, 0, rest);
+            byte[] tmp = buf;
+            buf = spare;
+            spare = tmp;
+            filled = rest;
+        }
+        if (pending != null) {
+            collect(pending.join(), total, out);
+        }
+        if (out != null) {
+            out.flush();
+        }
+        return new Counts(total);
+    }
+
+    private static void collect(Part part, long[] total, OutputStream out) throws IOException {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += part.counts[i];
+        }
+        if (out != null) {
+            for (byte[] bytes : part.output) {
+                out.write(bytes);
+            }
+        }
+    }
+}
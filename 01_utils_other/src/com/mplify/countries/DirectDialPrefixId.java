@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
@@ -35,6 +34,11 @@ import com.mplify.enums.EnumerativeTypeUsingString;
  * 2010.12.14 - Added Country code +883, an "iNum"
  *              https://evolution.voxeo.com/inum/
  * 2011.10.19 - Adapted for LOG4J --> SLF4J migration
+ * 2026.10.19 - Best fit and exact fit go through a DirectDialPrefixTrie
+ *              instead of probing a TreeMap with ever-shorter substrings.
+ *              Added the batch obtainUsingBestFit(CharSequence[], ...)
+ *              Lookups go through the trie of the current NumberingPlan,
+ *              which may add prefixes read from a file to the ones below
  ******************************************************************************/
 
 public class DirectDialPrefixId implements EnumerativeTypeUsingString {
@@ -330,11 +334,11 @@ public class DirectDialPrefixId implements EnumerativeTypeUsingString {
     public final static List<DirectDialPrefixId> LIST;
 
     /*
-     * The values hashed by their actual prefixes, immutabée
+     * The values in a trie over the digits of their actual prefixes, immutable. This is the trie of the compiled-in
+     * NumberingPlan; lookups use the trie of the current NumberingPlan.
      */
 
-    private final static Map<String, DirectDialPrefixId> MAP_BY_PREFIX;
-    private final static int MAX_PREFIX_LENGTH;
+    private final static DirectDialPrefixTrie TRIE;
 
     /*
      * Init
@@ -620,19 +624,15 @@ public class DirectDialPrefixId implements EnumerativeTypeUsingString {
                 }
             };
             TreeMap<String, DirectDialPrefixId> map = new TreeMap<String, DirectDialPrefixId>(sc);
-            int maxCcLength = 0;
             for (DirectDialPrefixId ccid : list) {
                 DirectDialPrefixId old = map.put(ccid.ddprefix, ccid);
                 if (old != null) {
                     throw new IllegalStateException("The country code '" + ccid.ddprefix + "' already exists in the internal map");
                 }
-                maxCcLength = Math.max(ccid.ddprefix.length(), maxCcLength);
             }
-
-            MAX_PREFIX_LENGTH = maxCcLength;
-            MAP_BY_PREFIX = Collections.unmodifiableMap(map);
             // just use the values sorted by key for the LIST, but one has to create a copy of the returned list
             LIST = Collections.unmodifiableList(new ArrayList<DirectDialPrefixId>(map.values()));
+            TRIE = new DirectDialPrefixTrie(LIST);
         }
     }
 
@@ -653,6 +653,18 @@ public class DirectDialPrefixId implements EnumerativeTypeUsingString {
         }
     }
 
+    /**
+     * Create a prefix which is not one of the constants, read from a numbering plan file. Throws
+     * IllegalArgumentException if "ddprefix" is not digits starting with [1-9].
+     */
+
+    static DirectDialPrefixId createAdditional(String ddprefix) {
+        if (ddprefix == null || ddprefix.length() == 0) {
+            throw new IllegalArgumentException("The passed 'direct dial prefix' is (null) or empty");
+        }
+        return new DirectDialPrefixId(ddprefix);
+    }
+
     /**
      * Get the direct dial prefix, as String
      */
@@ -694,20 +706,14 @@ public class DirectDialPrefixId implements EnumerativeTypeUsingString {
      * either throw or return 'null' if not found
      */
 
-    public static DirectDialPrefixId obtainUsingBestFit(String phoneNumber, boolean throwIfNotFound) {
+    public static DirectDialPrefixId obtainUsingBestFit(CharSequence phoneNumber, boolean throwIfNotFound) {
         if (phoneNumber == null) {
             throw new IllegalArgumentException("The passed 'phone number' is (null)");
         } else {
-            String prefix = phoneNumber.substring(0, Math.min(phoneNumber.length(), MAX_PREFIX_LENGTH));
-            while (prefix.length() > 0) {
-                DirectDialPrefixId ccId = MAP_BY_PREFIX.get(prefix);
-                if (ccId != null) {
-                    return ccId;
-                } else {
-                    prefix = prefix.substring(0, prefix.length() - 1);
-                }
-            }
-            if (throwIfNotFound) {
+            DirectDialPrefixId ccId = NumberingPlan.current().getTrie().longestMatch(phoneNumber);
+            if (ccId != null) {
+                return ccId;
+            } else if (throwIfNotFound) {
                 throw new IllegalArgumentException("The passed 'phone number' '" + phoneNumber + "' does not match any direct dial prefix");
             } else {
                 return null;
@@ -715,16 +721,42 @@ public class DirectDialPrefixId implements EnumerativeTypeUsingString {
         }
     }
 
+    /**
+     * Obtain the 'best fit' for each of the "phoneNumbers", writing it to the same index of "results", which must be
+     * at least as long. A number which does not match (or is null) yields (null). Returns the number of numbers which
+     * matched.
+     */
+
+    public static int obtainUsingBestFit(CharSequence[] phoneNumbers, DirectDialPrefixId[] results) {
+        return NumberingPlan.current().getTrie().longestMatches(phoneNumbers, results);
+    }
+
+    /**
+     * Get the trie currently used for the lookups, for callers which classify numbers in bulk
+     */
+
+    public static DirectDialPrefixTrie getTrie() {
+        return NumberingPlan.current().getTrie();
+    }
+
+    /**
+     * Get the trie over the constants of this class
+     */
+
+    static DirectDialPrefixTrie getCompiledInTrie() {
+        return TRIE;
+    }
+
     /**
      * Obtain the CountryCodeId that exactly matches the given country-code prefix. May either throw or return 'null' if
      * not found
      */
 
-    public static DirectDialPrefixId obtainUsingExactFit(String cc, boolean throwIfNotFound) {
+    public static DirectDialPrefixId obtainUsingExactFit(CharSequence cc, boolean throwIfNotFound) {
         if (cc == null) {
             throw new IllegalArgumentException("The passed 'country code' is (null)");
         } else {
-            DirectDialPrefixId ccId = MAP_BY_PREFIX.get(cc);
+            DirectDialPrefixId ccId = NumberingPlan.current().getTrie().exactMatch(cc);
             if (ccId != null) {
                 return ccId;
             } else if (throwIfNotFound) {
@@ -1,24 +1,12 @@
 package com.mplify.countries;
 
 import java.io.IOException;
-import java.io.LineNumberReader;
-import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
+import java.io.InputStream;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.mplify.listparsing.Parsing;
-import com.mplify.logging.LogFacilities;
 import com.mplify.resources.ResourceHelpers;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
@@ -45,19 +33,20 @@ import com.mplify.resources.ResourceHelpers;
  * 2009.01.07 - Review: Added Satellite network DD codes, threw 
  * 2011.06.16 - Minor renames (ResourceHelpers.slurpResource)
  * 2011.10.19 - Adapted for LOG4J --> SLF4J migration
+ * 2026.10.19 - The matrix is a CompiledDirectDialPrefixMatrix (bitsets and
+ *              immutable sets indexed by prefix and country) created by the
+ *              holder-class idiom, so that reads never synchronize. If a
+ *              "direct_dial_prefix_matrix.bin" made by
+ *              CompileDirectDialPrefixMatrix from the current text is found,
+ *              it is read instead of parsing the text.
+ *              Lookups go through the matrix of the current NumberingPlan;
+ *              the one loaded here is the compiled-in fallback.
  ******************************************************************************/
 
 public class DirectDialPrefixMatrix {
 
     private final static String CLASS = DirectDialPrefixMatrix.class.getName();
-    private final static Logger LOGGER_build = LoggerFactory.getLogger(CLASS + ".build");
-
-    /**
-     * Internal maps
-     */
-
-    private final static Map<DirectDialPrefixId, Set<CountryId>> byPrefix = new HashMap<DirectDialPrefixId, Set<CountryId>>();
-    private final static Map<CountryId, Set<DirectDialPrefixId>> byCountry = new HashMap<CountryId, Set<DirectDialPrefixId>>();
+    private final static Logger LOGGER_load = LoggerFactory.getLogger(CLASS + ".load");
 
     /**
      * Name of the resource which contains the mapping prefix -> country with this syntax: 1418 -> CANADA 1441 ->
@@ -69,152 +58,89 @@ public class DirectDialPrefixMatrix {
     private final static String fqResourceName = ResourceHelpers.fullyQualifyResourceName(DirectDialPrefixMatrix.class.getPackage(), MATRIX_RESOURCE);
 
     /**
-     * Standard "empty sets" returned whenever necessary
+     * Name of the optional resource with the precompiled (binary) form of the "MATRIX_RESOURCE", also in the same
+     * package as this class. It is used only if it has been compiled from the current text.
      */
 
-    private final static Set<CountryId> EMPTY_COUNTRYID_SET = Collections.unmodifiableSet(new HashSet<CountryId>());
-    private final static Set<DirectDialPrefixId> EMPTY_PREFIXID_SET = Collections.unmodifiableSet(new HashSet<DirectDialPrefixId>());
+    final static String COMPILED_RESOURCE = "direct_dial_prefix_matrix.bin";
 
     /**
-     * Flag controlling one-shot initialization
+     * The matrix is loaded when the holder class is initialized, i.e. on first use; the JVM guarantees that this
+     * happens once and that all threads see the result.
      */
 
-    private static volatile boolean initialized = false;
+    private static class Holder {
+        final static CompiledDirectDialPrefixMatrix MATRIX = load();
+    }
 
     /**
-     * Initialization is not done in a static constructor, but by a call to initialize()
+     * Read the "MATRIX_RESOURCE" and either read the "COMPILED_RESOURCE" compiled from it or parse it.
      */
 
-    private synchronized static void initialize() {
-        if (!initialized) {
-            try {
-                build();
-            } catch (IOException exe) {
-                throw new IllegalStateException("While initializing from '" + fqResourceName + "'", exe);
+    private static CompiledDirectDialPrefixMatrix load() {
+        Logger logger = LOGGER_load;
+        DirectDialPrefixTrie trie = DirectDialPrefixId.getCompiledInTrie();
+        try {
+            String text = ResourceHelpers.slurpResource(fqResourceName, "UTF-8");
+            InputStream in = DirectDialPrefixMatrix.class.getResourceAsStream(COMPILED_RESOURCE);
+            if (in != null) {
+                try {
+                    CompiledDirectDialPrefixMatrix res = CompiledDirectDialPrefixMatrix.readFrom(in, trie);
+                    if (res.getSourceChecksum() == CompiledDirectDialPrefixMatrix.checksum(text)) {
+                        return res;
+                    }
+                    logger.info("Resource '" + COMPILED_RESOURCE + "' was not compiled from the current '" + fqResourceName + "', parsing the latter");
+                } catch (IOException exe) {
+                    logger.warn("Could not read resource '" + COMPILED_RESOURCE + "', parsing '" + fqResourceName + "' instead", exe);
+                } finally {
+                    in.close();
+                }
             }
-            initialized = true;
+            return CompiledDirectDialPrefixMatrix.parse(text, fqResourceName, trie);
+        } catch (IOException exe) {
+            throw new IllegalStateException("While initializing from '" + fqResourceName + "'", exe);
         }
     }
 
     /**
-     * Read the "MATRIX_RESOURCE", parse it and fill the internal maps.
+     * Parse the "MATRIX_RESOURCE", always; for CompileDirectDialPrefixMatrix
      */
 
-    private static void build() throws IOException {
-        Logger logger = LOGGER_build;
-        // Get a "line number reader" which reads lines from the resource with the matrix data
-        LineNumberReader lr;
-        {
-            String rawMatrixData = ResourceHelpers.slurpResource(fqResourceName, "UTF-8");
-            lr = new LineNumberReader(new StringReader(rawMatrixData));
-        }
-        // Set up the patterns to handle comments and mapping
-        Pattern commentPattern = Pattern.compile("^\\s*#");
-        Pattern mappingPattern = Pattern.compile("^\\s*(\\w+)\\s*->\\s*(.+?)\\s*$");
+    static CompiledDirectDialPrefixMatrix parseResource() throws IOException {
+        String text = ResourceHelpers.slurpResource(fqResourceName, "UTF-8");
+        return CompiledDirectDialPrefixMatrix.parse(text, fqResourceName, DirectDialPrefixId.getCompiledInTrie());
+    }
 
-        // Process all the lines, filling the internal maps
-        {
-            String line;
-            while ((line = lr.readLine()) != null) {
-                {
-                    Matcher commentMatcher = commentPattern.matcher(line);
-                    if (commentMatcher.lookingAt()) {
-                        continue; // loop around
-                    }
-                }
-                {
-                    if ("".equals(line.trim())) {
-                        continue; // loop around
-                    }
-                }
-                {
-                    Matcher m = mappingPattern.matcher(line);
-                    if (!m.matches()) {
-                        logger.warn("Syntax error at line " + lr.getLineNumber() + " of resource '" + fqResourceName + "': " + LogFacilities.mangleString(line));
-                        continue; // loop around
-                    }
-                    String prefix = m.group(1).trim();
-                    String postfix = m.group(2).trim();
-                    // prefix must match "exactly"
-                    DirectDialPrefixId prefixId = DirectDialPrefixId.obtainUsingExactFit(prefix, false);
-                    if (prefixId == null) {
-                        logger.warn("Unknown direct-dial prefix at line " + lr.getLineNumber() + " of resource '" + fqResourceName + "': " + LogFacilities.mangleString(line));
-                        // forget this line
-                        continue;
-                    }
-                    // postfix must be separable into exactly matchable canonical country names 
-                    List<String> canoNames = Parsing.parseCommaSeparatedStuff(postfix, true);
-                    if (canoNames.isEmpty()) {
-                        // that prefix matches nothing? weird, but possible, just break off here
-                        logger.warn("Empty mapping at line " + lr.getLineNumber() + " of resource '" + fqResourceName + "': " + LogFacilities.mangleString(line));
-                        // forget this line
-                        continue;
-                    }
-                    // map all the canonical names, dumping those which don't match
-                    Set<CountryId> countryIds = new HashSet<CountryId>();
-                    for (String canoName : canoNames) {
-                        CountryId cid = CountryId.obtainFromCanonicalName(canoName, false);
-                        if (cid == null) {
-                            logger.warn("Unknown country '" + canoName + "' at line " + lr.getLineNumber() + " of resource '" + fqResourceName + "': " + LogFacilities.mangleString(line));
-                        } else {
-                            countryIds.add(cid);
-                        }
-                    }
-                    // insert into internal prefixid -> { countryid } map
-                    if (byPrefix.containsKey(prefixId)) {
-                        logger.warn("Prefix " + prefix + " appears at least twice in resource '" + fqResourceName + "'");
-                        byPrefix.get(prefixId).addAll(countryIds);
-                    } else {
-                        byPrefix.put(prefixId, countryIds);
-                    }
-                    // insert into internal countryid -> { prefixid } map
-                    {
-                        for (CountryId cid : countryIds) {
-                            if (!byCountry.containsKey(cid)) {
-                                byCountry.put(cid, new HashSet<DirectDialPrefixId>());
-                            }
-                            byCountry.get(cid).add(prefixId);
-                        }
-                    }
-                }
-            }
-        }
-        // Make all the sets immutable
-        for (CountryId k : byCountry.keySet()) {
-            Set<DirectDialPrefixId> v = byCountry.get(k);
-            byCountry.put(k, Collections.unmodifiableSet(v));
+    /**
+     * Get the compiled matrix currently in use, e.g. to test country membership through bitsets
+     */
 
-        }
-        for (DirectDialPrefixId k : byPrefix.keySet()) {
-            Set<CountryId> v = byPrefix.get(k);
-            byPrefix.put(k, Collections.unmodifiableSet(v));
-        }
+    public static CompiledDirectDialPrefixMatrix getCompiled() {
+        return NumberingPlan.current().getMatrix();
     }
 
     /**
-     * Write the internal tables in "MATRIX_RESOURCE" style to stdout.
+     * Get the matrix loaded from the "MATRIX_RESOURCE", over the constants of DirectDialPrefixId
      */
 
-    public static void dump() {
-
-        if (!initialized) {
-            initialize();
-        }
+    static CompiledDirectDialPrefixMatrix getCompiledIn() {
+        return Holder.MATRIX;
+    }
 
-        List<DirectDialPrefixId> ddList = new ArrayList<DirectDialPrefixId>(byPrefix.keySet());
+    /**
+     * Write the internal tables in "MATRIX_RESOURCE" style to stdout.
+     */
 
-        Comparator<DirectDialPrefixId> c = new Comparator<DirectDialPrefixId>() {
-            @Override
-            public int compare(DirectDialPrefixId prefix1, DirectDialPrefixId prefix2) {
-                return DirectDialPrefixId.prefixComparison(prefix1.getDdPrefix(), prefix2.getDdPrefix());
+    public static void dump() {
+        CompiledDirectDialPrefixMatrix matrix = NumberingPlan.current().getMatrix();
+        DirectDialPrefixTrie trie = matrix.getTrie();
+        // the trie has the prefixes sorted by DirectDialPrefixId.prefixComparison()
+        for (int p = 0; p < trie.getPrefixCount(); p++) {
+            Set<CountryId> countryIdSet = matrix.getTargets(p);
+            if (countryIdSet.isEmpty()) {
+                continue;
             }
-        };
-
-        Collections.sort(ddList, c);
-
-        for (DirectDialPrefixId prefixId : ddList) {
-            Set<CountryId> countryIdSet = byPrefix.get(prefixId);
-            System.out.printf("%-5s -> ", prefixId);
+            System.out.printf("%-5s -> ", trie.getPrefix(p));
             boolean addComma = false;
             for (CountryId cid : countryIdSet) {
                 if (addComma) {
@@ -237,15 +163,22 @@ public class DirectDialPrefixMatrix {
         if (prefixId == null) {
             throw new IllegalArgumentException("The passed 'prefix id' is (null)");
         }
-        if (!initialized) {
-            initialize();
+        return NumberingPlan.current().getMatrix().getTargets(prefixId);
+    }
+
+    /**
+     * Whether "countryId" can be reached with the "direct dial prefix"; cheaper than getTargets().contains(). Null
+     * arguments are not allowed.
+     */
+
+    public static boolean isTarget(DirectDialPrefixId prefixId, CountryId countryId) {
+        if (prefixId == null) {
+            throw new IllegalArgumentException("The passed 'prefix id' is (null)");
         }
-        Set<CountryId> res = byPrefix.get(prefixId);
-        if (res == null) {
-            return EMPTY_COUNTRYID_SET;
-        } else {
-            return res;
+        if (countryId == null) {
+            throw new IllegalArgumentException("The passed 'country id' is (null)");
         }
+        return NumberingPlan.current().getMatrix().isTarget(prefixId, countryId);
     }
 
     /**
@@ -258,28 +191,11 @@ public class DirectDialPrefixMatrix {
         if (countryId == null) {
             throw new IllegalArgumentException("The passed 'country id' is (null)");
         }
-        if (!initialized) {
-            initialize();
-        }
-        // we accept the _NOWHERE country id (CountryId for UTC timezones) and return the empty set
-        if (CountryId._NOWHERE.equals(countryId)) {
-            return EMPTY_PREFIXID_SET;
-        }
-        // for the _UNDEFINED country id, we might throw
-        if (CountryId._UNDEFINED.equals(countryId)) {
-            if (throwIfUndefinedCountryId) {
-                throw new IllegalArgumentException("The passed 'country id' is the 'undefined' country id");
-            } else {
-                return EMPTY_PREFIXID_SET;
-            }
-        }
-        // now for a serious result
-        Set<DirectDialPrefixId> res = byCountry.get(countryId);
-        if (res == null) {
-            return EMPTY_PREFIXID_SET;
-        } else {
-            return res;
+        // for the _UNDEFINED country id, we might throw; otherwise it yields the empty set, as does _NOWHERE
+        if (throwIfUndefinedCountryId && CountryId._UNDEFINED.equals(countryId)) {
+            throw new IllegalArgumentException("The passed 'country id' is the 'undefined' country id");
         }
+        return NumberingPlan.current().getMatrix().getPrefixes(countryId);
     }
 
 }
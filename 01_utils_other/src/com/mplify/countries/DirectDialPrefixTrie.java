@@ -0,0 +1,234 @@
+package com.mplify.countries;
+
+import java.util.Collection;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * An immutable 10-ary trie over the digits of a set of direct dial prefixes,
+ * flattened into an int array: the child of node n for digit d is found at
+ * children[n * 10 + d], 0 meaning "no child" (the root, node 0, is nobody's
+ * child). A node at which a prefix ends refers to its DirectDialPrefixId
+ * through the index of the latter in the trie (the order in which the
+ * prefixes were passed), so that callers can keep per-prefix data in plain
+ * arrays.
+ *
+ * Finding the longest prefix of a phone number is a single pass over at
+ * most "max prefix length" characters of the number, without creating any
+ * substrings. The first non-digit ends the walk, exactly as the former
+ * substring-and-probe lookup did not match anything past a non-digit.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public final class DirectDialPrefixTrie {
+
+    private final int[] children;
+    private final int[] terminals; // indexed by node: 1 + index of the prefix ending there, 0 if none
+    private final DirectDialPrefixId[] prefixes; // indexed by prefix index
+    private final int nodeCount;
+    private final int maxPrefixLength;
+
+    /**
+     * Build from the given prefixes; prefixes which occur twice are an error
+     */
+
+    public DirectDialPrefixTrie(Collection<DirectDialPrefixId> prefixes) {
+        Check.notNull(prefixes, "prefixes");
+        // the node count is bounded by the total number of digits, plus the root
+        int bound = 1;
+        for (DirectDialPrefixId id : prefixes) {
+            Check.notNull(id, "prefix id");
+            bound += id.getDdPrefix().length();
+        }
+        int[] ch = new int[bound * 10];
+        int[] term = new int[bound];
+        this.prefixes = prefixes.toArray(new DirectDialPrefixId[prefixes.size()]);
+        int nodes = 1;
+        int maxLength = 0;
+        for (int index = 0; index < this.prefixes.length; index++) {
+            DirectDialPrefixId id = this.prefixes[index];
+            String digits = id.getDdPrefix();
+            int node = 0;
+            for (int i = 0; i < digits.length(); i++) {
+                int d = digits.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    throw new IllegalArgumentException("The prefix '" + digits + "' contains a non-digit");
+                }
+                int next = ch[node * 10 + d];
+                if (next == 0) {
+                    next = nodes++;
+                    ch[node * 10 + d] = next;
+                }
+                node = next;
+            }
+            if (term[node] != 0) {
+                throw new IllegalArgumentException("The prefix '" + digits + "' occurs twice");
+            }
+            term[node] = index + 1;
+            maxLength = Math.max(maxLength, digits.length());
+        }
+        // trim to what was actually used
+        this.children = new int[nodes * 10];
+        System.arraycopy(ch, 0, children, 0, nodes * 10);
+        this.terminals = new int[nodes];
+        System.arraycopy(term, 0, terminals, 0, nodes);
+        this.nodeCount = nodes;
+        this.maxPrefixLength = maxLength;
+    }
+
+    /**
+     * Find the index of the longest prefix of x[start,end[, -1 if there is none
+     */
+
+    public int longestMatchIndex(CharSequence x, int start, int end) {
+        int res = 0;
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            int d = x.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            node = children[node * 10 + d];
+            if (node == 0) {
+                break;
+            }
+            int t = terminals[node];
+            if (t != 0) {
+                res = t;
+            }
+        }
+        return res - 1;
+    }
+
+    /**
+     * Find the index of the longest prefix of the ASCII characters in buf[start,end[, -1 if there is none. This is
+     * for callers which read numbers as bytes from a file.
+     */
+
+    public int longestMatchIndex(byte[] buf, int start, int end) {
+        int res = 0;
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            node = children[node * 10 + d];
+            if (node == 0) {
+                break;
+            }
+            int t = terminals[node];
+            if (t != 0) {
+                res = t;
+            }
+        }
+        return res - 1;
+    }
+
+    /**
+     * Find the longest prefix of x[start,end[, (null) if there is none
+     */
+
+    public DirectDialPrefixId longestMatch(CharSequence x, int start, int end) {
+        int index = longestMatchIndex(x, start, end);
+        return (index < 0) ? null : prefixes[index];
+    }
+
+    /**
+     * Find the longest prefix of x, (null) if there is none
+     */
+
+    public DirectDialPrefixId longestMatch(CharSequence x) {
+        return longestMatch(x, 0, x.length());
+    }
+
+    /**
+     * Find the index of "id" in this trie, -1 if it is not in there
+     */
+
+    public int indexOf(DirectDialPrefixId id) {
+        String digits = id.getDdPrefix();
+        int node = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            node = children[node * 10 + (digits.charAt(i) - '0')];
+            if (node == 0) {
+                return -1;
+            }
+        }
+        int t = terminals[node];
+        return t - 1;
+    }
+
+    /**
+     * Find the prefix which is exactly x, (null) if there is none
+     */
+
+    public DirectDialPrefixId exactMatch(CharSequence x) {
+        int node = 0;
+        int len = x.length();
+        for (int i = 0; i < len; i++) {
+            int d = x.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return null;
+            }
+            node = children[node * 10 + d];
+            if (node == 0) {
+                return null;
+            }
+        }
+        int t = terminals[node];
+        return (t == 0) ? null : prefixes[t - 1];
+    }
+
+    /**
+     * Find the longest prefix for each of the "numbers", writing it (or null) to the same index of "results", which
+     * must be at least as long. A (null) number yields a (null) result. Returns the number of numbers which matched.
+     */
+
+    public int longestMatches(CharSequence[] numbers, DirectDialPrefixId[] results) {
+        Check.notNull(numbers, "numbers");
+        Check.notNull(results, "results");
+        if (results.length < numbers.length) {
+            throw new IllegalArgumentException("The passed 'results' array has length " + results.length + " < " + numbers.length);
+        }
+        int matched = 0;
+        for (int i = 0; i < numbers.length; i++) {
+            CharSequence x = numbers[i];
+            DirectDialPrefixId id = (x == null) ? null : longestMatch(x, 0, x.length());
+            results[i] = id;
+            if (id != null) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getPrefixCount() {
+        return prefixes.length;
+    }
+
+    /**
+     * Get the prefix with the given index, as returned by longestMatchIndex()
+     */
+
+    public DirectDialPrefixId getPrefix(int index) {
+        return prefixes[index];
+    }
+
+    public int getMaxPrefixLength() {
+        return maxPrefixLength;
+    }
+}
@@ -0,0 +1,310 @@
+package com.mplify.countries;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+import com.mplify.listparsing.Parsing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * The set of direct dial prefixes and the prefix -> country matrix that
+ * DirectDialPrefixId and DirectDialPrefixMatrix answer from, as one
+ * immutable unit (a DirectDialPrefixTrie plus a
+ * CompiledDirectDialPrefixMatrix over that trie).
+ *
+ * The compiled-in plan consists of the DirectDialPrefixId constants and the
+ * bundled "direct_dial_prefix_matrix.txt". A plan file, with the same syntax
+ * as the latter, is applied on top of it:
+ *
+ *    # NANP area codes not known at compile time
+ *    1236 -> canada
+ *    1672 -> canada
+ *
+ * A prefix that is not a constant becomes a new DirectDialPrefixId; a prefix
+ * that is mapped by the bundled matrix gets the countries listed in the file
+ * instead. Unlike the bundled matrix, a plan file is checked strictly: any
+ * syntax error, bad prefix, unknown country or duplicate prefix rejects the
+ * whole file and the plan in use stays as it is.
+ *
+ * The current plan is held in a volatile field; installing a plan is a
+ * single write, so lookups never wait and never see half of a plan. Work
+ * that fetched a plan (e.g. a DirectDialPrefixClassifier run) goes on with
+ * that plan until it is done. Two successive static lookups (say
+ * DirectDialPrefixId.obtainUsingBestFit() then
+ * DirectDialPrefixMatrix.getTargets()) may straddle a swap; callers who need
+ * both answers from the same plan fetch current() once and use its trie and
+ * matrix. Installing (null) goes back to the compiled-in plan.
+ *
+ * refreshFromFile() re-reads a file only if it has been modified since it
+ * was last read; it may be called periodically from a main loop, like
+ * com.mplify.properties.FileSource.refreshFromFile().
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public final class NumberingPlan {
+
+    private final static String CLASS = NumberingPlan.class.getName();
+    private final static Logger LOGGER_refreshFromFile = LoggerFactory.getLogger(CLASS + ".refreshFromFile");
+    private final static Logger LOGGER_install = LoggerFactory.getLogger(CLASS + ".install");
+
+    private final static Pattern COMMENT_PATTERN = Pattern.compile("^\\s*#");
+    private final static Pattern MAPPING_PATTERN = Pattern.compile("^\\s*(\\w+)\\s*->\\s*(.+?)\\s*$");
+
+    private final DirectDialPrefixTrie trie;
+    private final CompiledDirectDialPrefixMatrix matrix; // (null) for the compiled-in plan, which loads it lazily
+    private final List<DirectDialPrefixId> additionalPrefixes; // immutable; prefixes which are not constants
+    private final String sourceName;
+    private final long lastModified; // of the file read, 0 for the compiled-in plan
+
+    /**
+     * The compiled-in plan; its matrix is loaded by DirectDialPrefixMatrix on first use
+     */
+
+    private final static NumberingPlan COMPILED_IN = new NumberingPlan(DirectDialPrefixId.getCompiledInTrie(), null, Collections.<DirectDialPrefixId> emptyList(), "(compiled in)", 0);
+
+    /**
+     * The installed plan, (null) meaning the compiled-in plan
+     */
+
+    private static volatile NumberingPlan installed = null;
+
+    /**
+     * The file last rejected by refreshFromFile() and its modification time, so that it is not read again until it
+     * changes; guarded by the class lock
+     */
+
+    private static String rejectedPath = null;
+    private static long rejectedLastModified = 0;
+
+    /**
+     * Constructor, used by the factory methods
+     */
+
+    private NumberingPlan(DirectDialPrefixTrie trie, CompiledDirectDialPrefixMatrix matrix, List<DirectDialPrefixId> additionalPrefixes, String sourceName, long lastModified) {
+        this.trie = trie;
+        this.matrix = matrix;
+        this.additionalPrefixes = additionalPrefixes;
+        this.sourceName = sourceName;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * The plan to use for lookups right now; never (null)
+     */
+
+    public static NumberingPlan current() {
+        NumberingPlan res = installed;
+        return (res == null) ? COMPILED_IN : res;
+    }
+
+    /**
+     * The plan made of the DirectDialPrefixId constants and the bundled matrix
+     */
+
+    public static NumberingPlan getCompiledIn() {
+        return COMPILED_IN;
+    }
+
+    /**
+     * Make "plan" the current plan; (null) goes back to the compiled-in plan
+     */
+
+    public static synchronized void install(NumberingPlan plan) {
+        Logger logger = LOGGER_install;
+        installed = (plan == COMPILED_IN) ? null : plan;
+        NumberingPlan now = current();
+        logger.info("Numbering plan from " + now.sourceName + " installed: " + now.trie.getPrefixCount() + " prefixes, " + now.additionalPrefixes.size() + " of them additional");
+    }
+
+    /**
+     * Read and install the plan file; if reading fails, the current plan stays in place and the exception is thrown
+     */
+
+    public static synchronized NumberingPlan reload(File file) throws IOException {
+        NumberingPlan plan = load(file);
+        install(plan);
+        return plan;
+    }
+
+    /**
+     * Reload the plan file if it has been modified since the current plan was read from it (or if the current plan
+     * does not come from that file). Returns true if a new plan has been installed. If the file cannot be read or is
+     * not valid, this is logged, the current plan stays in place and false is returned.
+     */
+
+    public static synchronized boolean refreshFromFile(File file) {
+        Logger logger = LOGGER_refreshFromFile;
+        Check.notNull(file, "file");
+        NumberingPlan cur = current();
+        long modified = file.lastModified(); // 0L if the file does not exist
+        if (modified == 0) {
+            logger.warn("Numbering plan file '" + file.getAbsolutePath() + "' does not exist or is unreadable, keeping plan from " + cur.sourceName);
+            return false;
+        }
+        String path = file.getAbsolutePath();
+        if (cur.sourceName.equals(path) && modified <= cur.lastModified) {
+            return false; // nothing to do yet
+        }
+        if (path.equals(rejectedPath) && modified == rejectedLastModified) {
+            return false; // already rejected as it is
+        }
+        try {
+            reload(file);
+            rejectedPath = null;
+            return true;
+        } catch (IOException exe) {
+            logger.error("Numbering plan file '" + path + "' rejected, keeping plan from " + cur.sourceName, exe);
+            rejectedPath = path;
+            rejectedLastModified = modified;
+            return false;
+        }
+    }
+
+    /**
+     * Read a plan file (UTF-8) into a plan, on top of the compiled-in plan, without installing it
+     */
+
+    public static NumberingPlan load(File file) throws IOException {
+        Check.notNull(file, "file");
+        long modified = file.lastModified();
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int n;
+            while ((n = in.read(bytes)) > 0) {
+                buf.write(bytes, 0, n);
+            }
+            return parse(buf.toString("UTF-8"), file.getAbsolutePath(), modified);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Parse the text of a plan file into a plan, on top of the compiled-in plan, without installing it. Throws
+     * IOException at the first problem.
+     */
+
+    public static NumberingPlan parse(String text, String sourceName, long lastModified) throws IOException {
+        Check.notNull(text, "text");
+        Check.notNull(sourceName, "source name");
+        DirectDialPrefixTrie compiledInTrie = COMPILED_IN.trie;
+        Map<DirectDialPrefixId, Set<CountryId>> fromFile = new LinkedHashMap<DirectDialPrefixId, Set<CountryId>>();
+        List<DirectDialPrefixId> additional = new ArrayList<DirectDialPrefixId>();
+        LineNumberReader lr = new LineNumberReader(new StringReader(text));
+        String line;
+        while ((line = lr.readLine()) != null) {
+            if (COMMENT_PATTERN.matcher(line).lookingAt() || "".equals(line.trim())) {
+                continue; // loop around
+            }
+            String where = " at line " + lr.getLineNumber() + " of '" + sourceName + "'";
+            Matcher m = MAPPING_PATTERN.matcher(line);
+            if (!m.matches()) {
+                throw new IOException("Syntax error" + where);
+            }
+            String prefix = m.group(1);
+            DirectDialPrefixId prefixId = compiledInTrie.exactMatch(prefix);
+            if (prefixId == null) {
+                try {
+                    prefixId = DirectDialPrefixId.createAdditional(prefix);
+                } catch (IllegalArgumentException exe) {
+                    throw new IOException("Bad direct-dial prefix '" + prefix + "'" + where, exe);
+                }
+                additional.add(prefixId);
+            }
+            if (fromFile.containsKey(prefixId)) {
+                throw new IOException("Prefix '" + prefix + "' appears twice, the second time" + where);
+            }
+            Set<CountryId> countryIds = new LinkedHashSet<CountryId>();
+            for (String canoName : Parsing.parseCommaSeparatedStuff(m.group(2), true)) {
+                CountryId cid = CountryId.obtainFromCanonicalName(canoName, false);
+                if (cid == null) {
+                    throw new IOException("Unknown country '" + canoName + "'" + where);
+                }
+                countryIds.add(cid);
+            }
+            if (countryIds.isEmpty()) {
+                throw new IOException("Empty mapping" + where);
+            }
+            fromFile.put(prefixId, countryIds);
+        }
+        // the trie: the constants plus the additional prefixes, sorted as DirectDialPrefixId.LIST is
+        List<DirectDialPrefixId> prefixes = new ArrayList<DirectDialPrefixId>(DirectDialPrefixId.LIST);
+        prefixes.addAll(additional);
+        Collections.sort(prefixes, new Comparator<DirectDialPrefixId>() {
+            @Override
+            public int compare(DirectDialPrefixId prefix1, DirectDialPrefixId prefix2) {
+                return DirectDialPrefixId.prefixComparison(prefix1.getDdPrefix(), prefix2.getDdPrefix());
+            }
+        });
+        DirectDialPrefixTrie trie = new DirectDialPrefixTrie(prefixes);
+        // the matrix: the bundled one, with the mappings from the file replacing or adding to it
+        CompiledDirectDialPrefixMatrix bundled = DirectDialPrefixMatrix.getCompiledIn();
+        Map<DirectDialPrefixId, Set<CountryId>> mapping = new LinkedHashMap<DirectDialPrefixId, Set<CountryId>>();
+        for (int p = 0; p < compiledInTrie.getPrefixCount(); p++) {
+            Set<CountryId> targets = bundled.getTargets(p);
+            if (!targets.isEmpty()) {
+                mapping.put(compiledInTrie.getPrefix(p), targets);
+            }
+        }
+        mapping.putAll(fromFile);
+        CompiledDirectDialPrefixMatrix matrix = CompiledDirectDialPrefixMatrix.build(trie, mapping, CompiledDirectDialPrefixMatrix.checksum(text));
+        return new NumberingPlan(trie, matrix, Collections.unmodifiableList(additional), sourceName, lastModified);
+    }
+
+    public DirectDialPrefixTrie getTrie() {
+        return trie;
+    }
+
+    public CompiledDirectDialPrefixMatrix getMatrix() {
+        return (matrix == null) ? DirectDialPrefixMatrix.getCompiledIn() : matrix;
+    }
+
+    /**
+     * The prefixes of this plan which are not DirectDialPrefixId constants
+     */
+
+    public List<DirectDialPrefixId> getAdditionalPrefixes() {
+        return additionalPrefixes;
+    }
+
+    /**
+     * The absolute path of the file this plan was read from, or "(compiled in)"
+     */
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
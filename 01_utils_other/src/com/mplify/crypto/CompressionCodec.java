@@ -0,0 +1,44 @@
+package com.mplify.crypto;
+
+import java.io.IOException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A compression algorithm, as used when packing. The CompressionStatus it
+ * returns is what is recorded with the compressed data, so that the reader
+ * knows which codec to decompress with.
+ *
+ * Implementations are thread-safe.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface CompressionCodec {
+
+    /**
+     * The status recorded for data compressed by this codec: COMPRESSED or COMPRESSED_FAST
+     */
+
+    public CompressionStatus getCompressionStatus();
+
+    /**
+     * Compress "length" bytes of "src" from "offset" on. Returns (null) if the result would not be smaller than the
+     * input.
+     */
+
+    public byte[] compress(byte[] src, int offset, int length);
+
+    /**
+     * Decompress "length" bytes of "src" from "offset" on into "dst" at "dstOffset". The result must be exactly
+     * "plainLength" bytes long; throws if it is not or if the data is malformed.
+     */
+
+    public void decompress(byte[] src, int offset, int length, byte[] dst, int dstOffset, int plainLength) throws IOException;
+}
@@ -15,17 +15,20 @@ import com.mplify.properties.PropertyName;
  *******************************************************************************
  * Simple enum indicating whether a value was compressed or not
  * 
- * Currently there is no indication about what algorithm was used.
+ * COMPRESSED means Deflate, COMPRESSED_FAST means the LZ4 block format
+ * (see Lz4BlockCodec). COMPRESSION_SKIPPED means compression has not even
+ * been tried as a sample of the input looked like random data.
  * 
  * 2011.06.16 - Created
  * 2011.11.09 - Removed ORIGINAL as redundant and confusing 
  * 2011.11.09 - Transformed from an EnumerativeTypeUsingInteger to an enum
  * 2011.12.30 - Added "compression useless"
+ * 2026.10.19 - Added "compressed fast" and "compression skipped"
  ******************************************************************************/
 
 public enum CompressionStatus implements EnumBasedOnInteger {
     
-    UNCOMPRESSED(0, "uncompressed"), COMPRESSED(1, "compressed"), COMPRESSION_USELESS(2, "compression_useless");
+    UNCOMPRESSED(0, "uncompressed"), COMPRESSED(1, "compressed"), COMPRESSION_USELESS(2, "compression_useless"), COMPRESSED_FAST(3, "compressed_fast"), COMPRESSION_SKIPPED(4, "compression_skipped");
 
     private final int value;
     private final PropertyName name;
@@ -75,6 +78,10 @@ public enum CompressionStatus implements EnumBasedOnInteger {
             res = COMPRESSED;
         } else if (x.intValue() == COMPRESSION_USELESS.value) {
             res = COMPRESSION_USELESS;
+        } else if (x.intValue() == COMPRESSED_FAST.value) {
+            res = COMPRESSED_FAST;
+        } else if (x.intValue() == COMPRESSION_SKIPPED.value) {
+            res = COMPRESSION_SKIPPED;
         } else {
             // NOP, problem will be caught directly below
         }
@@ -99,6 +106,10 @@ public enum CompressionStatus implements EnumBasedOnInteger {
                 res = COMPRESSED;
             } else if (COMPRESSION_USELESS.toString().equals(y)) {
                 res = COMPRESSION_USELESS;
+            } else if (COMPRESSED_FAST.toString().equals(y)) {
+                res = COMPRESSED_FAST;
+            } else if (COMPRESSION_SKIPPED.toString().equals(y)) {
+                res = COMPRESSION_SKIPPED;
             } else {
                 // NOP, problem will be caught directly below
             }            
@@ -1,5 +1,11 @@
 package com.mplify.crypto;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
 import com.mplify.stringmangling.DecryptException;
 import com.mplify.stringmangling.EncryptException;
 
@@ -15,14 +21,64 @@ import com.mplify.stringmangling.EncryptException;
  *******************************************************************************
  * Simple facility for encrypt/decrypt. Key data is supposed to be stored in
  * the instance.
- * 
+ *
  * 2011.06.15 - Created
  * 2011.11.08 - Removed the "keyIndex()"
+ * 2026.10.19 - Added the ByteBuffer variants, which write into a buffer
+ *              supplied by the caller instead of allocating the result
+ * 2026.10.19 - Added streaming variants, which encrypt in fixed-size frames
+ *              so that large payloads are never held in memory as a whole
  ******************************************************************************/
 
 public interface SymmetricKey {
 
     public byte[] encrypt(byte[] data) throws EncryptException;
     public byte[] decrypt(byte[] data) throws DecryptException;
-    
+
+    /**
+     * Encrypt the remaining bytes of "in" into "out", advancing the positions of both. Returns the number of bytes
+     * written. "out" must have at least getMaxEncryptedLength(in.remaining()) bytes remaining.
+     */
+
+    public int encrypt(ByteBuffer in, ByteBuffer out) throws EncryptException;
+
+    /**
+     * Decrypt the remaining bytes of "in" into "out", advancing the positions of both. Returns the number of bytes
+     * written. "out" must have at least in.remaining() bytes remaining.
+     */
+
+    public int decrypt(ByteBuffer in, ByteBuffer out) throws DecryptException;
+
+    /**
+     * The largest number of bytes that encrypting "plainLength" bytes may yield
+     */
+
+    public int getMaxEncryptedLength(int plainLength);
+
+    /**
+     * A stream encrypting what is written to it into "out", frame by frame. It must be closed to complete the
+     * encrypted stream; closing it closes "out".
+     */
+
+    public OutputStream encryptingStream(OutputStream out);
+
+    /**
+     * A stream reading "in", as written by encryptingStream() or encryptingChannel(), and yielding the plaintext.
+     * Throws IOException if "in" has been tampered with (as far as the implementation can tell) or cut off.
+     */
+
+    public InputStream decryptingStream(InputStream in);
+
+    /**
+     * Same as encryptingStream(), for channels
+     */
+
+    public WritableByteChannel encryptingChannel(WritableByteChannel out);
+
+    /**
+     * Same as decryptingStream(), for channels
+     */
+
+    public ReadableByteChannel decryptingChannel(ReadableByteChannel in);
+
 }
@@ -0,0 +1,116 @@
+package com.mplify.crypto_impl;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.mplify.checkers._check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A bounded pool of Cipher instances, all initialized with the same key,
+ * transformation and mode.
+ *
+ * Cipher.getInstance() goes through the provider lookup, and init() expands
+ * the key; for the short strings encrypted per message that is most of the
+ * cost. After doFinal() a Cipher is back in its initialized state and can be
+ * used again without init(), so instances are kept around here.
+ *
+ * A Cipher is used by one thread at a time: acquire() hands out an idle one
+ * (or makes a new one if there is none), release() gives it back. At most
+ * "maxIdle" instances are kept; surplus ones are dropped. Nothing is bound to
+ * a thread, so a great number of short-lived (or virtual) threads does not
+ * pile up instances the way a ThreadLocal would. A Cipher on which an
+ * operation failed must not be released, as its state is then unknown.
+ *
+ * A pool made without a key hands out Ciphers that the caller init()s for
+ * each use; that is the case for modes which need a fresh IV per message
+ * (GCM), where only the getInstance() is saved.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Added pools of not-initialized Ciphers
+ ******************************************************************************/
+
+class CipherPool {
+
+    private final SecretKeySpec key; // (null) if Ciphers are handed out not initialized
+    private final String transformation;
+    private final int mode;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Cipher> idle = new ConcurrentLinkedQueue<Cipher>();
+    private final AtomicInteger idleCount = new AtomicInteger(0);
+
+    /**
+     * Constructor; "mode" is Cipher.ENCRYPT_MODE or Cipher.DECRYPT_MODE
+     */
+
+    public CipherPool(SecretKeySpec key, String transformation, int mode, int maxIdle) {
+        _check.notNull(key, "key");
+        _check.notNull(transformation, "transformation");
+        _check.isTrue(maxIdle >= 0, "The 'max idle' must be >= 0 but is %s", Integer.valueOf(maxIdle));
+        this.key = key;
+        this.transformation = transformation;
+        this.mode = mode;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Constructor for a pool whose Ciphers are not initialized; the caller init()s them after acquire()
+     */
+
+    public CipherPool(String transformation, int maxIdle) {
+        _check.notNull(transformation, "transformation");
+        _check.isTrue(maxIdle >= 0, "The 'max idle' must be >= 0 but is %s", Integer.valueOf(maxIdle));
+        this.key = null;
+        this.transformation = transformation;
+        this.mode = 0;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Get a Cipher for exclusive use until release(); it is initialized unless the pool has been made without a key
+     */
+
+    public Cipher acquire() throws GeneralSecurityException {
+        Cipher cipher = idle.poll();
+        if (cipher != null) {
+            idleCount.decrementAndGet();
+            return cipher;
+        }
+        cipher = Cipher.getInstance(transformation);
+        if (key != null) {
+            cipher.init(mode, key);
+        }
+        return cipher;
+    }
+
+    /**
+     * Give back a Cipher obtained by acquire(), after a successful doFinal()
+     */
+
+    public void release(Cipher cipher) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(cipher);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * The number of Ciphers currently idle in the pool
+     */
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
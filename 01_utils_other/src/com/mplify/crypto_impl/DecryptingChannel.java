@@ -0,0 +1,154 @@
+package com.mplify.crypto_impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+import com.mplify.checkers._check;
+import com.mplify.stringmangling.DecryptException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A ReadableByteChannel which decrypts what EncryptingChannel wrote to a
+ * source channel, frame by frame; see EncryptingChannel for the format.
+ *
+ * A frame is handed out only once it has been decrypted (and, depending on
+ * the FrameCipher, authenticated) as a whole. A stream which ends before
+ * its last frame, a frame length beyond what the header allows, or a
+ * header written with another key index make read() throw IOException.
+ * Nothing is read from the source after the last frame.
+ *
+ * The header is checked along with every frame, as part of its additional
+ * data (if the FrameCipher authenticates that).
+ *
+ * Memory use is two buffers of about the frame size given in the header,
+ * allocated once.
+ *
+ * Not thread-safe.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - The header (with its stream id) goes into the additional
+ *              data of every frame
+ ******************************************************************************/
+
+final class DecryptingChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel source;
+    private final FrameCipher cipher;
+    private final byte[] aad = new byte[EncryptingChannel.AAD_LENGTH]; // starts with the header
+    private final ByteBuffer word = ByteBuffer.allocate(EncryptingChannel.HEADER_LENGTH);
+    private ByteBuffer frame; // allocated once the header has been read
+    private ByteBuffer plain; // decrypted data not yet handed out, between position and limit
+    private long frameIndex = 0;
+    private boolean lastFrameRead = false;
+    private boolean open = true;
+
+    DecryptingChannel(ReadableByteChannel source, FrameCipher cipher) {
+        _check.notNull(source, "source channel");
+        _check.notNull(cipher, "frame cipher");
+        this.source = source;
+        this.cipher = cipher;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        if (frame == null) {
+            readHeader();
+        }
+        while (!plain.hasRemaining()) {
+            if (lastFrameRead) {
+                return -1;
+            }
+            readFrame();
+        }
+        int count = Math.min(dst.remaining(), plain.remaining());
+        ByteBuffer part = plain.duplicate();
+        part.limit(part.position() + count);
+        dst.put(part);
+        plain.position(plain.position() + count);
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            source.close();
+        }
+    }
+
+    private void readHeader() throws IOException {
+        word.clear();
+        readFully(word, "header");
+        word.flip();
+        int magic = word.getInt();
+        byte version = word.get();
+        int keyIndex = word.getInt();
+        int frameSize = word.getInt();
+        if (magic != EncryptingChannel.MAGIC || version != EncryptingChannel.VERSION) {
+            throw new IOException("Not an encrypted stream, or one of an unknown version (" + version + ")");
+        }
+        if (keyIndex != cipher.getKeyIndex()) {
+            throw new IOException("The stream has been encrypted with key index " + keyIndex + " but is decrypted with key index " + cipher.getKeyIndex());
+        }
+        if (frameSize <= 0 || frameSize > EncryptingChannel.MAX_FRAME_SIZE) {
+            throw new IOException("Bad frame size " + frameSize + " in stream header");
+        }
+        System.arraycopy(word.array(), 0, aad, 0, EncryptingChannel.HEADER_LENGTH);
+        int maxEncrypted = cipher.getMaxEncryptedLength(frameSize);
+        frame = ByteBuffer.allocate(maxEncrypted);
+        plain = ByteBuffer.allocate(maxEncrypted); // decryption wants room for the whole ciphertext
+        plain.flip(); // nothing to hand out yet
+    }
+
+    private void readFrame() throws IOException {
+        word.clear();
+        word.limit(4);
+        readFully(word, "frame " + frameIndex);
+        int lengthWord = word.getInt(0);
+        boolean last = (lengthWord & EncryptingChannel.LAST_FRAME_BIT) != 0;
+        int length = lengthWord & ~EncryptingChannel.LAST_FRAME_BIT;
+        if (length > frame.capacity()) {
+            throw new IOException("Frame " + frameIndex + " has length " + length + ", more than the " + frame.capacity() + " allowed");
+        }
+        frame.clear();
+        frame.limit(length);
+        readFully(frame, "frame " + frameIndex);
+        frame.flip();
+        EncryptingChannel.fillAad(aad, frameIndex, last);
+        plain.clear();
+        try {
+            cipher.decrypt(frame, plain, aad);
+        } catch (DecryptException exe) {
+            throw new IOException("Could not decrypt frame " + frameIndex, exe);
+        }
+        plain.flip();
+        frameIndex++;
+        lastFrameRead = last;
+    }
+
+    private void readFully(ByteBuffer buf, String what) throws IOException {
+        while (buf.hasRemaining()) {
+            if (source.read(buf) < 0) {
+                throw new EOFException("The encrypted stream ends within " + what + "; it has been cut off or not closed by the writer");
+            }
+        }
+    }
+}
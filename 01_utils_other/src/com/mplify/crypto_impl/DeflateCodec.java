@@ -0,0 +1,153 @@
+package com.mplify.crypto_impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.mplify.checkers._check;
+import com.mplify.crypto.CompressionCodec;
+import com.mplify.crypto.CompressionStatus;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Deflate (zlib format) with the JDK's Deflater and Inflater, recorded as
+ * COMPRESSED. Deflaters and Inflaters are kept for reuse, at most
+ * "maxIdle" of each; surplus ones are end()ed, which frees their native
+ * memory at once instead of whenever the GC gets to them.
+ *
+ * 2026.10.19 - Created, taken out of FramedPacker
+ * 2026.10.19 - Idle Deflaters and Inflaters bounded, as in CipherPool
+ ******************************************************************************/
+
+public class DeflateCodec implements CompressionCodec {
+
+    // Idle Deflaters and Inflaters kept by default; more threads than that may still work concurrently
+
+    private final static int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final int level;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<Deflater>();
+    private final ConcurrentLinkedQueue<Inflater> inflaters = new ConcurrentLinkedQueue<Inflater>();
+    private final AtomicInteger idleDeflaterCount = new AtomicInteger(0);
+    private final AtomicInteger idleInflaterCount = new AtomicInteger(0);
+
+    /**
+     * Constructor for the default compression level
+     */
+
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor for a given compression level (0-9, or Deflater.DEFAULT_COMPRESSION)
+     */
+
+    public DeflateCodec(int level) {
+        this(level, MAX_IDLE);
+    }
+
+    /**
+     * Constructor for a given compression level, keeping at most "maxIdle" Deflaters and Inflaters each
+     */
+
+    public DeflateCodec(int level, int maxIdle) {
+        _check.isTrue(level == Deflater.DEFAULT_COMPRESSION || (0 <= level && level <= 9), "The compression level must be in [0,9] but is %s", Integer.valueOf(level));
+        _check.isTrue(maxIdle >= 0, "The 'max idle' must be >= 0 but is %s", Integer.valueOf(maxIdle));
+        this.level = level;
+        this.maxIdle = maxIdle;
+    }
+
+    private Deflater acquireDeflater() {
+        Deflater deflater = deflaters.poll();
+        if (deflater != null) {
+            idleDeflaterCount.decrementAndGet();
+            return deflater;
+        }
+        return new Deflater(level);
+    }
+
+    private void releaseDeflater(Deflater deflater) {
+        if (idleDeflaterCount.incrementAndGet() <= maxIdle) {
+            releaseDeflater(deflater);
+        } else {
+            idleDeflaterCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    private Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        if (inflater != null) {
+            idleInflaterCount.decrementAndGet();
+            return inflater;
+        }
+        return new Inflater();
+    }
+
+    private void releaseInflater(Inflater inflater) {
+        if (idleInflaterCount.incrementAndGet() <= maxIdle) {
+            releaseInflater(inflater);
+        } else {
+            idleInflaterCount.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    @Override
+    public CompressionStatus getCompressionStatus() {
+        return CompressionStatus.COMPRESSED;
+    }
+
+    @Override
+    public byte[] compress(byte[] src, int offset, int length) {
+        Deflater deflater = acquireDeflater();
+        try {
+            deflater.setInput(src, offset, length);
+            deflater.finish();
+            byte[] buf = new byte[length];
+            int n = 0;
+            while (!deflater.finished() && n < length) {
+                n += deflater.deflate(buf, n, length - n);
+            }
+            return (deflater.finished() && n < length) ? Arrays.copyOf(buf, n) : null;
+        } finally {
+            releaseDeflater(deflater);
+        }
+    }
+
+    @Override
+    public void decompress(byte[] src, int offset, int length, byte[] dst, int dstOffset, int plainLength) throws IOException {
+        Inflater inflater = acquireInflater();
+        try {
+            inflater.setInput(src, offset, length);
+            int n = 0;
+            while (!inflater.finished() && n < plainLength) {
+                int k = inflater.inflate(dst, dstOffset + n, plainLength - n);
+                if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += k;
+            }
+            if (n != plainLength || !inflater.finished()) {
+                throw new IOException("The data does not inflate to " + plainLength + " bytes");
+            }
+        } catch (DataFormatException exe) {
+            throw new IOException("The data cannot be inflated", exe);
+        } finally {
+            releaseInflater(inflater);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.mplify.crypto_impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.security.SecureRandom;
+
+import com.mplify.checkers._check;
+import com.mplify.stringmangling.EncryptException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A WritableByteChannel which encrypts what is written to it, frame by
+ * frame, into a target channel. The stream format:
+ *
+ *    header: MAGIC (4) | VERSION (1) | key index (4) | frame size (4)
+ *            | stream id (16)
+ *    frames: length word (4) | encrypted frame
+ *
+ * All ints are big-endian. The stream id is random, drawn per stream. A
+ * frame is at most "frame size" bytes of plaintext; the length word gives
+ * the length of the encrypted frame, its top bit is set on the last frame.
+ * Every frame but the last is full, the last one may be empty. The whole
+ * header, the frame index (8 bytes) and the "last" flag (1 byte) are
+ * passed as additional data to the FrameCipher: a frame only decrypts at
+ * its place in its own stream, and the header cannot be altered.
+ *
+ * Memory use is two buffers of about "frame size", allocated once; the
+ * payload is never held as a whole. close() writes the last frame and
+ * closes the target; without close() the stream is incomplete and will be
+ * refused by DecryptingChannel.
+ *
+ * Not thread-safe.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Random stream id in the header; the header is part of the
+ *              additional data of every frame
+ ******************************************************************************/
+
+final class EncryptingChannel implements WritableByteChannel {
+
+    final static int MAGIC = 0x4D504C53; // "MPLS"
+    final static byte VERSION = 1;
+    final static int STREAM_ID_LENGTH = 16;
+    final static int HEADER_LENGTH = 13 + STREAM_ID_LENGTH;
+    final static int AAD_LENGTH = HEADER_LENGTH + 9;
+    final static int LAST_FRAME_BIT = 0x80000000;
+    final static int DEFAULT_FRAME_SIZE = 16 * 1024;
+    final static int MAX_FRAME_SIZE = 1024 * 1024;
+
+    private final static SecureRandom RANDOM = new SecureRandom();
+
+    private final WritableByteChannel target;
+    private final FrameCipher cipher;
+    private final int frameSize;
+    private final ByteBuffer plain;
+    private final ByteBuffer frame;
+    private final byte[] aad = new byte[AAD_LENGTH]; // starts with the header
+    private long frameIndex = 0;
+    private boolean headerWritten = false;
+    private boolean open = true;
+
+    /**
+     * Constructor; nothing is written to "target" until the first write() or close()
+     */
+
+    EncryptingChannel(WritableByteChannel target, FrameCipher cipher, int frameSize) {
+        _check.notNull(target, "target channel");
+        _check.notNull(cipher, "frame cipher");
+        _check.isTrue(0 < frameSize && frameSize <= MAX_FRAME_SIZE, "The frame size must be in ]0,%s] but is %s", Integer.valueOf(MAX_FRAME_SIZE), Integer.valueOf(frameSize));
+        this.target = target;
+        this.cipher = cipher;
+        this.frameSize = frameSize;
+        this.plain = ByteBuffer.allocate(frameSize);
+        this.frame = ByteBuffer.allocate(4 + cipher.getMaxEncryptedLength(frameSize));
+    }
+
+    /**
+     * Fill "aad", which already starts with the stream header, with the frame index and the "last" flag
+     */
+
+    static void fillAad(byte[] aad, long frameIndex, boolean last) {
+        for (int i = 0; i < 8; i++) {
+            aad[HEADER_LENGTH + i] = (byte) (frameIndex >>> (56 - 8 * i));
+        }
+        aad[HEADER_LENGTH + 8] = (byte) (last ? 1 : 0);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        writeHeaderIfNeeded();
+        int res = src.remaining();
+        while (src.hasRemaining()) {
+            if (!plain.hasRemaining()) {
+                writeFrame(false); // there is more, so this one is not the last
+            }
+            int count = Math.min(src.remaining(), plain.remaining());
+            ByteBuffer part = src.duplicate();
+            part.limit(part.position() + count);
+            plain.put(part);
+            src.position(src.position() + count);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Write the last frame and close the target
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            writeHeaderIfNeeded();
+            writeFrame(true);
+        } finally {
+            target.close();
+        }
+    }
+
+    private void writeHeaderIfNeeded() throws IOException {
+        if (!headerWritten) {
+            frame.clear();
+            byte[] streamId = new byte[STREAM_ID_LENGTH];
+            RANDOM.nextBytes(streamId);
+            frame.putInt(MAGIC).put(VERSION).putInt(cipher.getKeyIndex()).putInt(frameSize).put(streamId);
+            frame.flip();
+            System.arraycopy(frame.array(), 0, aad, 0, HEADER_LENGTH);
+            writeFully(frame);
+            headerWritten = true;
+        }
+    }
+
+    private void writeFrame(boolean last) throws IOException {
+        plain.flip();
+        frame.clear();
+        frame.position(4);
+        fillAad(aad, frameIndex, last);
+        int length;
+        try {
+            length = cipher.encrypt(plain, frame, aad);
+        } catch (EncryptException exe) {
+            throw new IOException("Could not encrypt frame " + frameIndex, exe);
+        }
+        frame.putInt(0, last ? (length | LAST_FRAME_BIT) : length);
+        frame.flip();
+        writeFully(frame);
+        plain.clear();
+        frameIndex++;
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            target.write(buf);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mplify.crypto_impl;
+
+import java.nio.ByteBuffer;
+
+import com.mplify.stringmangling.DecryptException;
+import com.mplify.stringmangling.EncryptException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * What EncryptingChannel and DecryptingChannel need from a key to encrypt
+ * and decrypt one frame. "aad" identifies the frame (stream header with
+ * its stream id, index and "last" flag); an implementation that can
+ * authenticate it must do so, so that frames cannot be reordered, dropped,
+ * cut off or taken from another stream unnoticed.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - "aad" includes the stream header
+ ******************************************************************************/
+
+interface FrameCipher {
+
+    /**
+     * Same as SymmetricKey.encrypt(ByteBuffer, ByteBuffer), authenticating "aad" if possible
+     */
+
+    public int encrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws EncryptException;
+
+    /**
+     * Same as SymmetricKey.decrypt(ByteBuffer, ByteBuffer), checking "aad" if possible
+     */
+
+    public int decrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws DecryptException;
+
+    public int getMaxEncryptedLength(int plainLength);
+
+    /**
+     * The key index written into the stream header, -1 if the key has none
+     */
+
+    public int getKeyIndex();
+
+}
@@ -0,0 +1,656 @@
+package com.mplify.crypto_impl;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mplify.checkers._check;
+import com.mplify.crypto.CompressionCodec;
+import com.mplify.crypto.CompressionStatus;
+import com.mplify.crypto.EncryptionStatus;
+import com.mplify.crypto.RepackOrder;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.stringmangling.CompressBehaviour;
+import com.mplify.stringmangling.EncryptBehaviour;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Packing (compress, then encrypt, as ordered by a RepackOrder) of large
+ * payloads, cut into independent frames which are packed and unpacked in
+ * parallel on a ForkJoinPool. The container:
+ *
+ *    header: MAGIC (4) | VERSION (1) | frame size (4) | key index (4)
+ *            | container id (16)
+ *    frames: compression status (1) | encryption status (1)
+ *            | plain length (4) | stored length (4) | stored bytes
+ *    end   : a frame header with plain length -1 and stored length 0
+ *
+ * All ints are big-endian; the status bytes are the getValue() of
+ * CompressionStatus and EncryptionStatus. The key index is the one of the
+ * RepackOrder's SymmetricKeyInfo, -1 if nothing is encrypted; readKeyIndex()
+ * gives it to readers who must pick the key.
+ *
+ * Each frame is compressed with the CompressionCodec given at construction
+ * (Deflate by default) if the CompressBehaviour asks for it, ALWAYS or
+ * ONLY_IF_SMALLER alike, and marked with the codec's CompressionStatus.
+ * Before that, EntropyCheck looks at the start of the frame: if it looks
+ * like random data, compression is not even tried and the frame is stored
+ * as it is, marked COMPRESSION_SKIPPED. A frame that is tried but does not
+ * get smaller is stored as it is and marked COMPRESSION_USELESS. Either
+ * way, random or already-compressed parts of a payload cost nothing when
+ * unpacking. Each frame is then encrypted on its own with the SymmetricKey.
+ *
+ * Unpacking picks the codec by the status of each frame, so any instance
+ * unpacks the frames of any other.
+ *
+ * The byte[] variants work on the whole payload; the stream variants hold
+ * a batch of frames (a few per thread of the pool) at a time, so a payload
+ * of any size can be packed or unpacked with bounded memory.
+ *
+ * With a GcmSymmetricKeyImpl, frames are bound to their container: the
+ * container id is random, and each frame is encrypted with the container
+ * header, its index (8 bytes) and a "last frame" flag (1 byte) as
+ * additional data. The last frame is the one that is not full; packing
+ * adds an empty one if needed, so the end marker cannot be moved forward
+ * unnoticed. Unpacking with such a key refuses unencrypted frames, frames
+ * after the last one and containers without a last frame, so frames
+ * cannot be reordered, dropped, copied from another container or cut off.
+ * Without GCM, the container id is zero and nothing is authenticated.
+ *
+ * Instances are thread-safe.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Pluggable CompressionCodec; frames that look random are
+ *              not compressed (COMPRESSION_SKIPPED)
+ * 2026.10.19 - Stored lengths larger than a frame can get are refused
+ *              before the frame is read
+ * 2026.10.19 - With a GCM key, container header, frame index and "last"
+ *              flag are authenticated along with each frame
+ ******************************************************************************/
+
+public class FramedPacker {
+
+    public final static int DEFAULT_FRAME_SIZE = 64 * 1024;
+    public final static int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final static int MAGIC = 0x4D504C50; // "MPLP"
+    private final static byte VERSION = 1;
+    private final static int CONTAINER_ID_LENGTH = 16;
+    private final static int HEADER_LENGTH = 13 + CONTAINER_ID_LENGTH;
+    private final static int KEY_INDEX_OFFSET = 9;
+    private final static int FRAME_HEADER_LENGTH = 10;
+    private final static int AAD_LENGTH = HEADER_LENGTH + 9;
+    private final static int END_MARKER = -1;
+    private final static int MAX_ENCRYPTION_OVERHEAD = 64; // more than any SymmetricKey here adds (GCM: 33, AES: 16)
+
+    private final static SecureRandom RANDOM = new SecureRandom();
+
+    private final ForkJoinPool pool;
+    private final int frameSize;
+    private final int batchSize; // frames held at a time by the stream variants
+    private final CompressionCodec codec; // used when packing
+    private final boolean skipHighEntropy;
+    private final CompressionCodec deflateCodec;
+    private final CompressionCodec lz4Codec;
+
+    /**
+     * A frame, packed or not: "length" bytes of "bytes" from "offset" on
+     */
+
+    private final static class Frame {
+
+        CompressionStatus compressionStatus = CompressionStatus.UNCOMPRESSED;
+        EncryptionStatus encryptionStatus = EncryptionStatus.UNENCRYPTED;
+        int plainLength;
+        boolean last; // not full, so the last frame if frames are authenticated
+        byte[] bytes;
+        int offset;
+        int length;
+    }
+
+    /**
+     * Work done on frames [0, count) in parallel; the first exception thrown is kept and the rest of the work goes on
+     */
+
+    private abstract static class FrameJob {
+
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+        abstract void run(int index) throws Exception;
+    }
+
+    private final static class FrameTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FrameJob job;
+        private final int from;
+        private final int to;
+
+        FrameTask(FrameJob job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    job.run(from);
+                } catch (Exception exe) {
+                    job.failure.compareAndSet(null, exe);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new FrameTask(job, from, middle), new FrameTask(job, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Constructor with the default frame size
+     */
+
+    public FramedPacker(ForkJoinPool pool) {
+        this(pool, DEFAULT_FRAME_SIZE);
+    }
+
+    /**
+     * Constructor with Deflate, skipping frames that look random
+     */
+
+    public FramedPacker(ForkJoinPool pool, int frameSize) {
+        this(pool, frameSize, new DeflateCodec(), true);
+    }
+
+    /**
+     * Constructor. "codec" is used for packing; if "skipHighEntropy" is set, frames on which EntropyCheck says so are
+     * not compressed.
+     */
+
+    public FramedPacker(ForkJoinPool pool, int frameSize, CompressionCodec codec, boolean skipHighEntropy) {
+        _check.notNull(pool, "pool");
+        _check.isTrue(0 < frameSize && frameSize <= MAX_FRAME_SIZE, "The frame size must be in ]0,%s] but is %s", Integer.valueOf(MAX_FRAME_SIZE), Integer.valueOf(frameSize));
+        _check.notNull(codec, "codec");
+        CompressionStatus status = codec.getCompressionStatus();
+        _check.isTrue(status == CompressionStatus.COMPRESSED || status == CompressionStatus.COMPRESSED_FAST, "The codec records status '%s'", status);
+        this.pool = pool;
+        this.frameSize = frameSize;
+        this.batchSize = 4 * pool.getParallelism();
+        this.codec = codec;
+        this.skipHighEntropy = skipHighEntropy;
+        this.deflateCodec = (status == CompressionStatus.COMPRESSED) ? codec : new DeflateCodec();
+        this.lz4Codec = (status == CompressionStatus.COMPRESSED_FAST) ? codec : new Lz4BlockCodec();
+    }
+
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Pack "data" into a container
+     */
+
+    public byte[] pack(byte[] data, final RepackOrder order) throws IOException {
+        _check.notNull(data, "data array");
+        _check.notNull(order, "repack order");
+        final byte[] header = newHeader(order);
+        // with authenticated frames, the last frame must not be full
+        int count = (authenticatingKey(order) != null) ? data.length / frameSize + 1 : (data.length + frameSize - 1) / frameSize;
+        final Frame[] frames = new Frame[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = new Frame();
+            frames[i].bytes = data;
+            frames[i].offset = i * frameSize;
+            frames[i].length = Math.min(frameSize, data.length - frames[i].offset);
+        }
+        runInParallel(count, new FrameJob() {
+            @Override
+            void run(int index) throws Exception {
+                packFrame(frames[index], order, header, index);
+            }
+        });
+        int total = HEADER_LENGTH + FRAME_HEADER_LENGTH;
+        for (Frame frame : frames) {
+            total += FRAME_HEADER_LENGTH + frame.length;
+        }
+        ByteBuffer res = ByteBuffer.allocate(total);
+        res.put(header);
+        for (Frame frame : frames) {
+            putFrame(res, frame);
+        }
+        putEndMarker(res);
+        return res.array();
+    }
+
+    /**
+     * Pack what can be read from "in" into a container written to "out"; neither stream is closed
+     */
+
+    public void pack(InputStream in, OutputStream out, final RepackOrder order) throws IOException {
+        _check.notNull(in, "input stream");
+        _check.notNull(out, "output stream");
+        _check.notNull(order, "repack order");
+        final byte[] containerHeader = newHeader(order);
+        out.write(containerHeader);
+        boolean authenticated = (authenticatingKey(order) != null);
+        byte[][] buffers = new byte[batchSize][frameSize];
+        final Frame[] frames = new Frame[batchSize];
+        long frameIndex = 0;
+        boolean atEnd = false;
+        while (!atEnd) {
+            int count = 0;
+            while (count < batchSize && !atEnd) {
+                int n = readFully(in, buffers[count], frameSize);
+                atEnd = (n < frameSize);
+                if (n > 0 || authenticated) {
+                    frames[count] = new Frame();
+                    frames[count].bytes = buffers[count];
+                    frames[count].length = n;
+                    count++;
+                }
+            }
+            final long firstIndex = frameIndex;
+            runInParallel(count, new FrameJob() {
+                @Override
+                void run(int index) throws Exception {
+                    packFrame(frames[index], order, containerHeader, firstIndex + index);
+                }
+            });
+            for (int i = 0; i < count; i++) {
+                writeFrame(out, frames[i]);
+            }
+            frameIndex += count;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+        putEndMarker(header);
+        out.write(header.array(), 0, header.position());
+        out.flush();
+    }
+
+    /**
+     * Unpack a container made by pack(); "symKey" may be (null) if nothing in it is encrypted. With a
+     * GcmSymmetricKeyImpl, the container must have been packed with it.
+     */
+
+    public byte[] unpack(final byte[] container, final SymmetricKey symKey) throws IOException {
+        _check.notNull(container, "container");
+        ByteBuffer buf = ByteBuffer.wrap(container);
+        int containerFrameSize = readHeader(buf);
+        final byte[] header = Arrays.copyOf(container, HEADER_LENGTH);
+        boolean authenticated = (authenticatingKey(symKey) != null);
+        List<Frame> list = new ArrayList<Frame>();
+        long total = 0;
+        while (true) {
+            if (buf.remaining() < FRAME_HEADER_LENGTH) {
+                throw new EOFException("The container ends within the header of frame " + list.size());
+            }
+            Frame frame = readFrameHeader(buf, containerFrameSize, list.size());
+            if (authenticated) {
+                checkAuthenticatedLayout(list.isEmpty() ? null : list.get(list.size() - 1), frame, list.size());
+            }
+            if (frame == null) {
+                break;
+            }
+            if (buf.remaining() < frame.length) {
+                throw new EOFException("The container ends within frame " + list.size());
+            }
+            frame.bytes = container;
+            frame.offset = buf.position();
+            buf.position(buf.position() + frame.length);
+            list.add(frame);
+            total += frame.plainLength;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("The unpacked data is too large for an array: " + total + " bytes");
+        }
+        final Frame[] frames = list.toArray(new Frame[list.size()]);
+        final int[] offsets = new int[frames.length];
+        for (int i = 1; i < frames.length; i++) {
+            offsets[i] = offsets[i - 1] + frames[i - 1].plainLength;
+        }
+        final byte[] res = new byte[(int) total];
+        runInParallel(frames.length, new FrameJob() {
+            @Override
+            void run(int index) throws Exception {
+                unpackFrame(frames[index], symKey, header, res, offsets[index], index);
+            }
+        });
+        return res;
+    }
+
+    /**
+     * Unpack a container read from "in", writing the data to "out"; neither stream is closed. "symKey" may be (null) if
+     * nothing in it is encrypted. With a GcmSymmetricKeyImpl, the container must have been packed with it.
+     */
+
+    public void unpack(InputStream in, OutputStream out, final SymmetricKey symKey) throws IOException {
+        _check.notNull(in, "input stream");
+        _check.notNull(out, "output stream");
+        DataInputStream din = new DataInputStream(in);
+        final byte[] header = new byte[HEADER_LENGTH];
+        din.readFully(header);
+        int containerFrameSize = readHeader(ByteBuffer.wrap(header));
+        boolean authenticated = (authenticatingKey(symKey) != null);
+        final byte[][] buffers = new byte[batchSize][containerFrameSize];
+        final Frame[] frames = new Frame[batchSize];
+        byte[] frameHeader = new byte[FRAME_HEADER_LENGTH];
+        long frameIndex = 0;
+        Frame previous = null;
+        boolean atEnd = false;
+        while (!atEnd) {
+            int count = 0;
+            while (count < batchSize && !atEnd) {
+                din.readFully(frameHeader);
+                Frame frame = readFrameHeader(ByteBuffer.wrap(frameHeader), containerFrameSize, frameIndex);
+                if (authenticated) {
+                    checkAuthenticatedLayout(previous, frame, frameIndex);
+                }
+                if (frame == null) {
+                    atEnd = true;
+                } else {
+                    frame.bytes = new byte[frame.length];
+                    din.readFully(frame.bytes);
+                    frames[count++] = frame;
+                    frameIndex++;
+                    previous = frame;
+                }
+            }
+            final long firstIndex = frameIndex - count;
+            runInParallel(count, new FrameJob() {
+                @Override
+                void run(int index) throws Exception {
+                    unpackFrame(frames[index], symKey, header, buffers[index], 0, firstIndex + index);
+                }
+            });
+            for (int i = 0; i < count; i++) {
+                out.write(buffers[i], 0, frames[i].plainLength);
+                frames[i] = null;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * The key index found in the header of a container, -1 if nothing has been encrypted
+     */
+
+    public static int readKeyIndex(byte[] container) throws IOException {
+        _check.notNull(container, "container");
+        ByteBuffer buf = ByteBuffer.wrap(container);
+        readHeader(buf);
+        return buf.getInt(KEY_INDEX_OFFSET);
+    }
+
+    /**
+     * The compression status of each frame of a container, for diagnostics
+     */
+
+    public static List<CompressionStatus> getCompressionStatuses(byte[] container) throws IOException {
+        _check.notNull(container, "container");
+        ByteBuffer buf = ByteBuffer.wrap(container);
+        int containerFrameSize = readHeader(buf);
+        List<CompressionStatus> res = new ArrayList<CompressionStatus>();
+        Frame frame;
+        while (buf.remaining() >= FRAME_HEADER_LENGTH && (frame = readFrameHeader(buf, containerFrameSize, res.size())) != null) {
+            res.add(frame.compressionStatus);
+            buf.position(buf.position() + frame.length);
+        }
+        return res;
+    }
+
+    private void runInParallel(int count, FrameJob job) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        pool.invoke(new FrameTask(job, 0, count));
+        Exception failure = job.failure.get();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
+    /**
+     * The key if it is one that authenticates frames along with their place in the container, else (null)
+     */
+
+    private static GcmSymmetricKeyImpl authenticatingKey(SymmetricKey symKey) {
+        return (symKey instanceof GcmSymmetricKeyImpl) ? (GcmSymmetricKeyImpl) symKey : null;
+    }
+
+    private static GcmSymmetricKeyImpl authenticatingKey(RepackOrder order) {
+        return (order.encryptBehaviour == EncryptBehaviour.DO_ENCRYPT) ? authenticatingKey(order.symKeyInfo.symKey) : null;
+    }
+
+    /**
+     * The additional data of frame "frameIndex" of the container with "header"
+     */
+
+    private static byte[] aad(byte[] header, long frameIndex, boolean last) {
+        return ByteBuffer.allocate(AAD_LENGTH).put(header).putLong(frameIndex).put((byte) (last ? 1 : 0)).array();
+    }
+
+    /**
+     * Compress and encrypt frame "frameIndex" of the container with "header" in place, as ordered
+     */
+
+    private void packFrame(Frame frame, RepackOrder order, byte[] header, long frameIndex) throws Exception {
+        frame.plainLength = frame.length;
+        frame.last = (frame.length < frameSize);
+        if (order.compressBehaviour == CompressBehaviour.ALWAYS || order.compressBehaviour == CompressBehaviour.ONLY_IF_SMALLER) {
+            if (skipHighEntropy && EntropyCheck.looksIncompressible(frame.bytes, frame.offset, frame.length)) {
+                frame.compressionStatus = CompressionStatus.COMPRESSION_SKIPPED;
+            } else {
+                byte[] compressed = codec.compress(frame.bytes, frame.offset, frame.length);
+                if (compressed != null) {
+                    frame.compressionStatus = codec.getCompressionStatus();
+                    frame.bytes = compressed;
+                    frame.offset = 0;
+                    frame.length = compressed.length;
+                } else {
+                    frame.compressionStatus = CompressionStatus.COMPRESSION_USELESS;
+                }
+            }
+        }
+        if (order.encryptBehaviour == EncryptBehaviour.DO_ENCRYPT) {
+            byte[] plain = frame.bytes;
+            if (frame.offset != 0 || frame.length != plain.length) {
+                plain = Arrays.copyOfRange(frame.bytes, frame.offset, frame.offset + frame.length);
+            }
+            frame.encryptionStatus = EncryptionStatus.ENCRYPTED;
+            GcmSymmetricKeyImpl gcm = authenticatingKey(order);
+            if (gcm != null) {
+                frame.bytes = gcm.encrypt(plain, aad(header, frameIndex, frame.last));
+            } else {
+                frame.bytes = order.symKeyInfo.symKey.encrypt(plain);
+            }
+            frame.offset = 0;
+            frame.length = frame.bytes.length;
+        }
+    }
+
+    /**
+     * Decrypt and decompress frame "frameIndex" of the container with "header" into "dst" at "dstOffset"
+     */
+
+    private void unpackFrame(Frame frame, SymmetricKey symKey, byte[] header, byte[] dst, int dstOffset, long frameIndex) throws Exception {
+        byte[] bytes = frame.bytes;
+        int offset = frame.offset;
+        int length = frame.length;
+        if (frame.encryptionStatus == EncryptionStatus.ENCRYPTED) {
+            if (symKey == null) {
+                throw new IOException("Frame " + frameIndex + " is encrypted but no key has been given");
+            }
+            if (offset != 0 || length != bytes.length) {
+                bytes = Arrays.copyOfRange(bytes, offset, offset + length);
+            }
+            GcmSymmetricKeyImpl gcm = authenticatingKey(symKey);
+            if (gcm != null) {
+                if (GcmSymmetricKeyImpl.readKeyIndex(bytes) != gcm.getKeyIndex()) {
+                    throw new IOException("Frame " + frameIndex + " is not GCM data for key index " + gcm.getKeyIndex()); // no legacy data here
+                }
+                bytes = gcm.decrypt(bytes, aad(header, frameIndex, frame.last));
+            } else {
+                bytes = symKey.decrypt(bytes);
+            }
+            offset = 0;
+            length = bytes.length;
+        }
+        CompressionCodec frameCodec = null;
+        if (frame.compressionStatus == CompressionStatus.COMPRESSED) {
+            frameCodec = deflateCodec;
+        } else if (frame.compressionStatus == CompressionStatus.COMPRESSED_FAST) {
+            frameCodec = lz4Codec;
+        }
+        if (frameCodec != null) {
+            try {
+                frameCodec.decompress(bytes, offset, length, dst, dstOffset, frame.plainLength);
+            } catch (IOException exe) {
+                throw new IOException("Frame " + frameIndex + ": " + exe.getMessage(), exe);
+            }
+        } else {
+            if (length != frame.plainLength) {
+                throw new IOException("Frame " + frameIndex + " holds " + length + " bytes instead of " + frame.plainLength);
+            }
+            System.arraycopy(bytes, offset, dst, dstOffset, length);
+        }
+    }
+
+    /**
+     * The container header; the container id is random if frames are authenticated, else zero
+     */
+
+    private byte[] newHeader(RepackOrder order) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH);
+        buf.putInt(MAGIC).put(VERSION).putInt(frameSize);
+        buf.putInt(order.encryptBehaviour == EncryptBehaviour.DO_ENCRYPT ? order.symKeyInfo.symKeyIndex : -1);
+        if (authenticatingKey(order) != null) {
+            byte[] containerId = new byte[CONTAINER_ID_LENGTH];
+            RANDOM.nextBytes(containerId);
+            buf.put(containerId);
+        }
+        return buf.array();
+    }
+
+    private static void putFrame(ByteBuffer buf, Frame frame) {
+        buf.put((byte) frame.compressionStatus.getValue()).put((byte) frame.encryptionStatus.getValue());
+        buf.putInt(frame.plainLength).putInt(frame.length);
+        buf.put(frame.bytes, frame.offset, frame.length);
+    }
+
+    private static void putEndMarker(ByteBuffer buf) {
+        buf.put((byte) 0).put((byte) 0).putInt(END_MARKER).putInt(0);
+    }
+
+    private static void writeFrame(OutputStream out, Frame frame) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+        header.put((byte) frame.compressionStatus.getValue()).put((byte) frame.encryptionStatus.getValue());
+        header.putInt(frame.plainLength).putInt(frame.length);
+        out.write(header.array());
+        out.write(frame.bytes, frame.offset, frame.length);
+    }
+
+    /**
+     * Check the header at the start of "buf" and skip it; returns the frame size
+     */
+
+    private static int readHeader(ByteBuffer buf) throws IOException {
+        if (buf.remaining() < HEADER_LENGTH) {
+            throw new EOFException("The container ends within its header");
+        }
+        int magic = buf.getInt();
+        byte version = buf.get();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Not a packed container, or one of an unknown version (" + version + ")");
+        }
+        int frameSize = buf.getInt();
+        if (frameSize <= 0 || frameSize > MAX_FRAME_SIZE) {
+            throw new IOException("Bad frame size " + frameSize + " in container header");
+        }
+        buf.getInt(); // key index
+        buf.position(buf.position() + CONTAINER_ID_LENGTH);
+        return frameSize;
+    }
+
+    /**
+     * Read a frame header of a container with frames of "containerFrameSize"; returns (null) at the end marker. The
+     * stored length is checked before anything is allocated for it: compression is only kept if it makes the frame
+     * smaller, so only encryption may make it longer than "containerFrameSize".
+     */
+
+    private static Frame readFrameHeader(ByteBuffer buf, int containerFrameSize, long frameIndex) throws IOException {
+        Frame frame = new Frame();
+        frame.compressionStatus = CompressionStatus.obtain(Integer.valueOf(buf.get()), false);
+        frame.encryptionStatus = EncryptionStatus.obtain(Integer.valueOf(buf.get()), false);
+        frame.plainLength = buf.getInt();
+        frame.length = buf.getInt();
+        if (frame.plainLength == END_MARKER && frame.length == 0) {
+            return null;
+        }
+        if (frame.compressionStatus == null || frame.encryptionStatus == null) {
+            throw new IOException("Unknown compression or encryption status in frame " + frameIndex);
+        }
+        int maxLength = containerFrameSize + (frame.encryptionStatus == EncryptionStatus.ENCRYPTED ? MAX_ENCRYPTION_OVERHEAD : 0);
+        if (frame.plainLength < 0 || frame.plainLength > containerFrameSize || frame.length < 0 || frame.length > maxLength) {
+            throw new IOException("Bad lengths in frame " + frameIndex + ": " + frame.plainLength + " plain, " + frame.length + " stored");
+        }
+        frame.last = (frame.plainLength < containerFrameSize);
+        return frame;
+    }
+
+    /**
+     * With a key that authenticates frames: check "frame" (null for the end marker), read after "previous" (null if
+     * none), against truncation, frames after the last one and unencrypted frames slipped in
+     */
+
+    private static void checkAuthenticatedLayout(Frame previous, Frame frame, long frameIndex) throws IOException {
+        if (previous != null && previous.last) {
+            if (frame != null) {
+                throw new IOException("Frame " + frameIndex + " follows the last frame");
+            }
+            return;
+        }
+        if (frame == null) {
+            throw new EOFException("The container ends at frame " + frameIndex + " without a last frame; it has been cut off");
+        }
+        if (frame.encryptionStatus != EncryptionStatus.ENCRYPTED) {
+            throw new IOException("Frame " + frameIndex + " is not encrypted, but the key demands authenticated frames");
+        }
+    }
+
+    /**
+     * Read until "buf" is full or the stream ends; returns the number of bytes read
+     */
+
+    private static int readFully(InputStream in, byte[] buf, int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            int k = in.read(buf, n, length - n);
+            if (k < 0) {
+                break;
+            }
+            n += k;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,428 @@
+package com.mplify.crypto_impl;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.mplify.checkers._check;
+import com.mplify.crypto.KeyManager;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.stringmangling.DecryptException;
+import com.mplify.stringmangling.EncryptException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * AES-GCM encrypt/decrypt with a versioned ciphertext format:
+ *
+ *    byte  0      : version, VERSION_GCM
+ *    bytes 1-4    : key index (as used by KeyManager), big-endian
+ *    bytes 5-16   : nonce
+ *    bytes 17-... : ciphertext, same length as the plaintext
+ *    last 16 bytes: authentication tag
+ *
+ * Unlike SymmetricKeyImpl (ECB), equal plaintexts give different
+ * ciphertexts and any modification of the ciphertext or of the header is
+ * detected on decryption (the header is authenticated as additional data).
+ * Callers may add their own additional authenticated data ("aad"), e.g. a
+ * record id, which must then be given again to decrypt.
+ *
+ * Nonces are a random 64-bit prefix, drawn per instance, followed by a
+ * 32-bit counter; a new prefix is drawn when the counter runs out. Nonces
+ * thus never repeat within an instance and collide across instances using
+ * the same key only with negligible probability.
+ *
+ * The key given is key material that SymmetricKeyImpl may use too, and ECB
+ * encryption with it works as a raw AES oracle (it yields the GHASH subkey
+ * and the GCM keystream). GCM therefore never uses it directly but a subkey
+ * of the same length: the start of HMAC-SHA256(key material, "gcm-v1").
+ * The key material itself only serves to decrypt legacy data.
+ *
+ * Legacy data, as written by SymmetricKeyImpl with the same key, carries no
+ * header. If decrypting legacy data is allowed, data is taken to be legacy
+ * unless it starts with VERSION_GCM followed by the index of this key; the
+ * odds of legacy data starting like that are 2^-40. Legacy data is not
+ * authenticated, so "aad" is not checked for it.
+ *
+ * GCM needs a Java 8 runtime (or a provider offering "AES/GCM/NoPadding");
+ * from 8u60 on, HotSpot uses the AES-NI and CLMUL intrinsics for it.
+ *
+ * Streams are cut into frames of 16 KiB, each in the above format, with the
+ * stream header (which holds a random stream id), the frame index and a
+ * "last frame" flag as additional data: frames cannot be reordered,
+ * dropped, cut off or moved between streams unnoticed, and the stream
+ * header cannot be altered. Legacy data is never accepted
+ * within a stream. Frames are kept small because single GCM operations over
+ * large arrays turned out slow on JDK 17.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - Added the streaming variants
+ * 2026.10.19 - GCM uses a subkey derived from the key material, not the
+ *              key material that ECB uses
+ ******************************************************************************/
+
+public class GcmSymmetricKeyImpl implements SymmetricKey {
+
+    public final static byte VERSION_GCM = 1;
+
+    private final static String TRANSFORMATION = "AES/GCM/NoPadding";
+    private final static int NONCE_LENGTH = 12;
+    private final static int NONCE_OFFSET = 5;
+    private final static int TAG_LENGTH = 16;
+    private final static int HEADER_LENGTH = NONCE_OFFSET + NONCE_LENGTH;
+    private final static int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+    private final static String SUBKEY_LABEL = "gcm-v1";
+
+    private final static SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Nonce prefix and the counter running under it
+     */
+
+    private final static class NonceSource {
+
+        final long prefix = RANDOM.nextLong();
+        final AtomicInteger counter = new AtomicInteger(0);
+    }
+
+    private final int keyIndex;
+    private final SecretKeySpec key; // the GCM subkey, never used for anything else
+    private final SymmetricKey legacy; // (null) if legacy data is refused; uses the key material
+    private final CipherPool pool = new CipherPool(TRANSFORMATION, MAX_IDLE);
+    private final AtomicReference<NonceSource> nonceSource = new AtomicReference<NonceSource>(new NonceSource());
+
+    /**
+     * Constructor taking the key material; if "decryptLegacy" is set, data without header is decrypted as
+     * SymmetricKeyImpl would with that key material
+     */
+
+    public GcmSymmetricKeyImpl(int keyIndex, SecretKeySpec key, boolean decryptLegacy) {
+        _check.largerOrEqualToZero(keyIndex, "key index");
+        _check.notNull(key, "key");
+        this.keyIndex = keyIndex;
+        this.key = deriveSubkey(key);
+        this.legacy = decryptLegacy ? new SymmetricKeyImpl(key) : null;
+    }
+
+    /**
+     * The GCM subkey: as many bytes as the key material has, from the start of HMAC-SHA256(key material, SUBKEY_LABEL)
+     */
+
+    private static SecretKeySpec deriveSubkey(SecretKeySpec keyMaterial) {
+        byte[] raw = keyMaterial.getEncoded();
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(raw, "HmacSHA256"));
+            byte[] subkey = Arrays.copyOf(mac.doFinal(SUBKEY_LABEL.getBytes("US-ASCII")), raw.length);
+            return new SecretKeySpec(subkey, "AES");
+        } catch (Exception exe) {
+            _check.cannotHappen(exe);
+            throw new Error(_check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
+        }
+    }
+
+    /**
+     * Build the GCM key for the key material found at "keyIndex" in a KeyManager of SymmetricKeyImpl
+     */
+
+    public static GcmSymmetricKeyImpl fromKeyManager(KeyManager keyManager, int keyIndex, boolean decryptLegacy) {
+        _check.notNull(keyManager, "key manager");
+        SymmetricKeyImpl sksi = (SymmetricKeyImpl) keyManager.getKey(keyIndex);
+        return new GcmSymmetricKeyImpl(keyIndex, SymmetricKeyImpl.newAES128Key(sksi.getEncoded()), decryptLegacy);
+    }
+
+    /**
+     * The key index of versioned "data", or -1 if "data" is not in the versioned format (e.g. legacy data). Legacy
+     * data may pass for versioned data with probability 1/256; decrypting it will then fail.
+     */
+
+    public static int readKeyIndex(byte[] data) {
+        _check.notNull(data, "data array");
+        if (data.length < HEADER_LENGTH + TAG_LENGTH || data[0] != VERSION_GCM) {
+            return -1;
+        }
+        return readInt(data, 1);
+    }
+
+    public int getKeyIndex() {
+        return keyIndex;
+    }
+
+    /**
+     * Encrypt an array of byte
+     */
+
+    @Override
+    public byte[] encrypt(byte[] data) throws EncryptException {
+        return encrypt(data, null);
+    }
+
+    /**
+     * Encrypt an array of byte, authenticating "aad" (may be null) along with it
+     */
+
+    public byte[] encrypt(byte[] data, byte[] aad) throws EncryptException {
+        _check.notNull(data, "data array");
+        byte[] res = new byte[getMaxEncryptedLength(data.length)];
+        writeHeader(res);
+        try {
+            Cipher cipher = pool.acquire();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, res, NONCE_OFFSET, NONCE_LENGTH));
+            cipher.updateAAD(res, 0, HEADER_LENGTH);
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            cipher.doFinal(data, 0, data.length, res, HEADER_LENGTH);
+            pool.release(cipher);
+            return res;
+        } catch (Exception exe) {
+            throw new EncryptException(exe);
+        }
+    }
+
+    /**
+     * Decrypt an array of byte
+     */
+
+    @Override
+    public byte[] decrypt(byte[] data) throws DecryptException {
+        return decrypt(data, null);
+    }
+
+    /**
+     * Decrypt an array of byte; "aad" (may be null) must be the one given to encrypt()
+     */
+
+    public byte[] decrypt(byte[] data, byte[] aad) throws DecryptException {
+        _check.notNull(data, "data array");
+        if (!isVersioned(data, data.length)) {
+            return decryptLegacy(data);
+        }
+        try {
+            Cipher cipher = pool.acquire();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, data, NONCE_OFFSET, NONCE_LENGTH));
+            cipher.updateAAD(data, 0, HEADER_LENGTH);
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            byte[] res = cipher.doFinal(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            pool.release(cipher); // not reached if the tag does not match
+            return res;
+        } catch (Exception exe) {
+            throw new DecryptException(exe);
+        }
+    }
+
+    /**
+     * Encrypt the remaining bytes of "in" into "out"
+     */
+
+    @Override
+    public int encrypt(ByteBuffer in, ByteBuffer out) throws EncryptException {
+        return encrypt(in, out, null);
+    }
+
+    /**
+     * Encrypt the remaining bytes of "in" into "out", authenticating "aad" (may be null) along with them
+     */
+
+    public int encrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws EncryptException {
+        _check.notNull(in, "input buffer");
+        _check.notNull(out, "output buffer");
+        try {
+            int needed = getMaxEncryptedLength(in.remaining());
+            if (out.remaining() < needed) {
+                throw new ShortBufferException("Need " + needed + " bytes in the output buffer, have " + out.remaining());
+            }
+            byte[] header = new byte[HEADER_LENGTH];
+            writeHeader(header);
+            Cipher cipher = pool.acquire();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, header, NONCE_OFFSET, NONCE_LENGTH));
+            cipher.updateAAD(header);
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            out.put(header);
+            int written = cipher.doFinal(in, out);
+            pool.release(cipher);
+            return HEADER_LENGTH + written;
+        } catch (Exception exe) {
+            throw new EncryptException(exe);
+        }
+    }
+
+    /**
+     * Decrypt the remaining bytes of "in" into "out"
+     */
+
+    @Override
+    public int decrypt(ByteBuffer in, ByteBuffer out) throws DecryptException {
+        return decrypt(in, out, null);
+    }
+
+    /**
+     * Decrypt the remaining bytes of "in" into "out"; "aad" (may be null) must be the one given to encrypt()
+     */
+
+    public int decrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws DecryptException {
+        return decrypt(in, out, aad, legacy);
+    }
+
+    /**
+     * Decrypt, handing data which is not versioned to "fallback" or refusing it if "fallback" is (null)
+     */
+
+    private int decrypt(ByteBuffer in, ByteBuffer out, byte[] aad, SymmetricKey fallback) throws DecryptException {
+        _check.notNull(in, "input buffer");
+        _check.notNull(out, "output buffer");
+        byte[] header = new byte[HEADER_LENGTH];
+        if (in.remaining() >= HEADER_LENGTH) {
+            in.duplicate().get(header);
+        }
+        if (!isVersioned(header, in.remaining())) {
+            if (fallback == null) {
+                throw new DecryptException("The data is not in the versioned format for key index " + keyIndex);
+            }
+            return fallback.decrypt(in, out);
+        }
+        try {
+            Cipher cipher = pool.acquire();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, header, NONCE_OFFSET, NONCE_LENGTH));
+            cipher.updateAAD(header);
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            in.position(in.position() + HEADER_LENGTH);
+            int written = cipher.doFinal(in, out);
+            pool.release(cipher);
+            return written;
+        } catch (Exception exe) {
+            throw new DecryptException(exe);
+        }
+    }
+
+    /**
+     * Frames authenticate "aad"; data that is not versioned is refused
+     */
+
+    private final FrameCipher frameCipher = new FrameCipher() {
+
+        @Override
+        public int encrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws EncryptException {
+            return GcmSymmetricKeyImpl.this.encrypt(in, out, aad);
+        }
+
+        @Override
+        public int decrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws DecryptException {
+            return GcmSymmetricKeyImpl.this.decrypt(in, out, aad, null);
+        }
+
+        @Override
+        public int getMaxEncryptedLength(int plainLength) {
+            return GcmSymmetricKeyImpl.this.getMaxEncryptedLength(plainLength);
+        }
+
+        @Override
+        public int getKeyIndex() {
+            return keyIndex;
+        }
+    };
+
+    @Override
+    public OutputStream encryptingStream(OutputStream out) {
+        _check.notNull(out, "output stream");
+        return Channels.newOutputStream(encryptingChannel(Channels.newChannel(out)));
+    }
+
+    @Override
+    public InputStream decryptingStream(InputStream in) {
+        _check.notNull(in, "input stream");
+        return Channels.newInputStream(decryptingChannel(Channels.newChannel(in)));
+    }
+
+    @Override
+    public WritableByteChannel encryptingChannel(WritableByteChannel out) {
+        return new EncryptingChannel(out, frameCipher, EncryptingChannel.DEFAULT_FRAME_SIZE);
+    }
+
+    @Override
+    public ReadableByteChannel decryptingChannel(ReadableByteChannel in) {
+        return new DecryptingChannel(in, frameCipher);
+    }
+
+    /**
+     * Header and tag come on top of the plaintext length; there is no padding
+     */
+
+    @Override
+    public int getMaxEncryptedLength(int plainLength) {
+        _check.largerOrEqualToZero(plainLength, "plain length");
+        return HEADER_LENGTH + plainLength + TAG_LENGTH;
+    }
+
+    /**
+     * Is data of "length" bytes starting with "header" versioned data for this key?
+     */
+
+    private boolean isVersioned(byte[] header, int length) {
+        return length >= HEADER_LENGTH + TAG_LENGTH && header[0] == VERSION_GCM && readInt(header, 1) == keyIndex;
+    }
+
+    private byte[] decryptLegacy(byte[] data) throws DecryptException {
+        if (legacy == null) {
+            throw new DecryptException("The data is not in the versioned format for key index " + keyIndex);
+        }
+        return legacy.decrypt(data);
+    }
+
+    /**
+     * Write version, key index and a fresh nonce to the start of "buf"
+     */
+
+    private void writeHeader(byte[] buf) {
+        buf[0] = VERSION_GCM;
+        writeInt(buf, 1, keyIndex);
+        while (true) {
+            NonceSource ns = nonceSource.get();
+            int count = ns.counter.getAndIncrement();
+            if (count >= 0) {
+                writeInt(buf, NONCE_OFFSET, (int) (ns.prefix >>> 32));
+                writeInt(buf, NONCE_OFFSET + 4, (int) ns.prefix);
+                writeInt(buf, NONCE_OFFSET + 8, count);
+                return;
+            }
+            // 2^31 nonces drawn under this prefix; move to a new one
+            nonceSource.compareAndSet(ns, new NonceSource());
+        }
+    }
+
+    private static void writeInt(byte[] buf, int offset, int x) {
+        buf[offset] = (byte) (x >>> 24);
+        buf[offset + 1] = (byte) (x >>> 16);
+        buf[offset + 2] = (byte) (x >>> 8);
+        buf[offset + 3] = (byte) x;
+    }
+
+    private static int readInt(byte[] buf, int offset) {
+        return ((buf[offset] & 0xFF) << 24) | ((buf[offset + 1] & 0xFF) << 16) | ((buf[offset + 2] & 0xFF) << 8) | (buf[offset + 3] & 0xFF);
+    }
+}
@@ -14,7 +14,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,10 +48,18 @@ import com.mplify.resources.ResourceHelpers;
  * Implementation of a "Key Manager" which has a factory call to obtain
  * key material from a configurable file or resource.
  * 
+ * The key material is held in an immutable KeySet, with the keys in an
+ * array indexed by key index (so key indexes must be in [0,MAX_KEY_INDEX]).
+ * rotate() replaces the KeySet as a whole; readers just read the volatile
+ * reference and never block.
+ * 
  * 2011.06.16 - Created
  * 2011.12.29 - Added getKey(Integer) in addition to getKey(int)
  * 2012.12.28 - Throwing Error after _check.cannotHappen() to keep compiler 
  *              happy 
+ * 2026.10.19 - Keys in an array instead of a map, random key index from
+ *              ThreadLocalRandom instead of a shared Random, hot rotation
+ * 2026.10.19 - Key indexes checked before the key array is sized
  ******************************************************************************/
 
 public class KeyManagerImpl implements KeyManager {
@@ -59,25 +67,63 @@ public class KeyManagerImpl implements KeyManager {
     private final static String CLASS = KeyManagerImpl.class.getName();
     private final static Logger LOGGER_makeKeyManagerBasedOnStoredKeys = LoggerFactory.getLogger(CLASS + ".makeKeyManagerBasedOnStoredKeys");
     private final static Logger LOGGER_fromProperties_KeyManager = LoggerFactory.getLogger(CLASS + ".fromProperties_KeyManager");
+    private final static Logger LOGGER_rotate = LoggerFactory.getLogger(CLASS + ".rotate");
+
+    public final static int MAX_KEY_INDEX = 0xFFFF;
 
     private final static Pattern commentPattern = Pattern.compile("^\\s*#");
     private final static Pattern key128BitPattern = Pattern.compile("^\\s*(\\d+)\\s*:\\s*([0-9A-Fa-f]{32})\\s*($|#)");
     private final static Pattern hashPattern = Pattern.compile("^\\s*(HASH|hash)\\s*:\\s*([0-9A-Fa-f]+)\\s*($|#)");
 
-    private final Map<Integer, SymmetricKey> keyMaterial; // immutable
-    private final byte[] keyMaterialHash; // SHA-1 hash computed over the (index, key) tuples
-    private final ArrayList<Integer> allowed; // set of allowed indexes, not necessarily continguous
-    private final Random rand = new Random(); // used in obtaining random indexes
-    
+    private volatile KeySet keySet; // replaced as a whole by rotate()
+
+    /**
+     * Immutable key material
+     */
+
+    private final static class KeySet {
+
+        final SymmetricKey[] keys; // indexed by key index, (null) where there is no key
+        final int[] allowed; // set of allowed indexes, ascending, not necessarily continguous
+        final byte[] hash; // SHA-1 hash computed over the (index, key) tuples
+
+        KeySet(Map<Integer, SymmetricKey> keyMaterial) {
+            _check.notNull(keyMaterial, "key material map");
+            List<Integer> indexes = new ArrayList<Integer>(keyMaterial.keySet());
+            // check all indexes before sizing the array by the largest one
+            for (Integer x : indexes) {
+                _check.notNull(x, "key index");
+                _check.isTrue(x.intValue() >= 0 && x.intValue() <= MAX_KEY_INDEX, "The key index must be in [0,%s] but is %s", Integer.valueOf(MAX_KEY_INDEX), x);
+            }
+            Collections.sort(indexes);
+            int maxIndex = indexes.isEmpty() ? -1 : indexes.get(indexes.size() - 1).intValue();
+            this.keys = new SymmetricKey[maxIndex + 1];
+            this.allowed = new int[indexes.size()];
+            for (int i = 0; i < allowed.length; i++) {
+                Integer x = indexes.get(i);
+                SymmetricKey symKey = keyMaterial.get(x);
+                _check.notNull(symKey, "symmetric key");
+                keys[x.intValue()] = symKey;
+                allowed[i] = x.intValue();
+            }
+            this.hash = computeHashKeyOverMaterial(keys);
+        }
+
+        SymmetricKey getKey(int keyIndex) {
+            return (0 <= keyIndex && keyIndex < keys.length) ? keys[keyIndex] : null;
+        }
+    }
+
     /**
      * Constructor takes map of keys, which is deep-copied
      */
 
     public KeyManagerImpl(Map<Integer, SymmetricKey> keyMaterial) {
-        _check.notNull(keyMaterial,"key material map");
-        this.keyMaterial = Collections.unmodifiableMap(new HashMap<Integer, SymmetricKey>(keyMaterial));
-        this.keyMaterialHash = computeHashKeyOverMaterial();
-        this.allowed = new ArrayList<Integer>(keyMaterial.keySet());
+        this(new KeySet(keyMaterial));
+    }
+
+    private KeyManagerImpl(KeySet keySet) {
+        this.keySet = keySet;
     }
     
     /**
@@ -105,16 +151,15 @@ public class KeyManagerImpl implements KeyManager {
     public void writeToFile(File file) throws IOException {
         _check.notNull(file,"file");
         _check.isFalse(file.exists(), "The file '%s' already exists - won't overwrite", file);
+        KeySet ks = this.keySet;
         Writer w = new OutputStreamWriter(new FileOutputStream(file));
         try {
-            List<Integer> indexes = new ArrayList<Integer>(keyMaterial.keySet());
-            Collections.sort(indexes);
-            for (Integer x : indexes) {
-                SymmetricKeyImpl sksi = (SymmetricKeyImpl) keyMaterial.get(x);
+            for (int x : ks.allowed) {
+                SymmetricKeyImpl sksi = (SymmetricKeyImpl) ks.keys[x];
                 String raw = ByteCoding.toHexString(sksi.getEncoded());
                 w.write(x + ":" + raw + "\n");
             }
-            w.write("HASH:" + ByteCoding.toHexString(keyMaterialHash) + "\n");
+            w.write("HASH:" + ByteCoding.toHexString(ks.hash) + "\n");
         } finally {
             w.close();
         }
@@ -131,105 +176,136 @@ public class KeyManagerImpl implements KeyManager {
      */
 
     public static KeyManager makeKeyManagerBasedOnStoredKeys(ReferencedStuff refStuff) throws KeyManagerConstructionException {
-        Logger logger = LOGGER_makeKeyManagerBasedOnStoredKeys;
         _check.notNull(refStuff,"referenced stuff");
         try {
-            //
-            // Fill this map and possibly the hash, too
-            //
-            Map<Integer, SymmetricKey> map = new HashMap<Integer, SymmetricKey>();
-            byte[] hash = null;
-            //
-            // Get the stuff from disk or wherever
-            //
-            String text;
-            String provenance;
-            if (refStuff.file != null) {
-                text = ResourceHelpers.slurpFile(refStuff.file, "UTF-8");
-                provenance = "file '" + refStuff.file.getAbsolutePath() + "'";
-            } else {
-                assert refStuff.resource != null;
-                text = ResourceHelpers.slurpResource(refStuff.resource, "UTF-8");
-                provenance = "resource '" + refStuff.resource + "'";
-            }
-            //
-            // Analyze line by line
-            //
-            LineNumberReader lnr = new LineNumberReader(new StringReader(text));
-            try {
-                String line;
-                while ((line = lnr.readLine()) != null) {
-                    if (line.trim().isEmpty()) {
-                        // skip empty line
+            return new KeyManagerImpl(readKeySet(refStuff, false, LOGGER_makeKeyManagerBasedOnStoredKeys));
+        } catch (Exception exe) {
+            throw new KeyManagerConstructionException(exe);
+        }
+    }
+
+    /**
+     * Hot rotation: replace the key material by the one from a file or resource as accepted by
+     * makeKeyManagerBasedOnStoredKeys(), except that the hash is mandatory. Concurrent callers of getKey() and
+     * randomKeyIndex() are not blocked; they see either the old or the new key material. If the new key material
+     * cannot be read or does not match its hash, KeyManagerConstructionException is raised and the old key material
+     * stays in place.
+     * Keys still needed to decrypt older data must be part of the new key material, too.
+     */
+
+    public void rotate(ReferencedStuff refStuff) throws KeyManagerConstructionException {
+        Logger logger = LOGGER_rotate;
+        _check.notNull(refStuff,"referenced stuff");
+        KeySet newKeySet;
+        try {
+            newKeySet = readKeySet(refStuff, true, logger);
+        } catch (Exception exe) {
+            throw new KeyManagerConstructionException(exe);
+        }
+        KeySet oldKeySet = this.keySet;
+        this.keySet = newKeySet;
+        logger.info("Key material rotated from hash " + ByteCoding.toHexString(oldKeySet.hash) + " (" + oldKeySet.allowed.length + " keys) to hash " + ByteCoding.toHexString(newKeySet.hash) + " (" + newKeySet.allowed.length + " keys)");
+    }
+
+    /**
+     * Read key material from a file or resource, as described for makeKeyManagerBasedOnStoredKeys(). If "hashRequired"
+     * is set, the key material must come with a hash.
+     */
+
+    private static KeySet readKeySet(ReferencedStuff refStuff, boolean hashRequired, Logger logger) throws Exception {
+        //
+        // Fill this map and possibly the hash, too
+        //
+        Map<Integer, SymmetricKey> map = new HashMap<Integer, SymmetricKey>();
+        byte[] hash = null;
+        //
+        // Get the stuff from disk or wherever
+        //
+        String text;
+        String provenance;
+        if (refStuff.file != null) {
+            text = ResourceHelpers.slurpFile(refStuff.file, "UTF-8");
+            provenance = "file '" + refStuff.file.getAbsolutePath() + "'";
+        } else {
+            assert refStuff.resource != null;
+            text = ResourceHelpers.slurpResource(refStuff.resource, "UTF-8");
+            provenance = "resource '" + refStuff.resource + "'";
+        }
+        //
+        // Analyze line by line
+        //
+        LineNumberReader lnr = new LineNumberReader(new StringReader(text));
+        try {
+            String line;
+            while ((line = lnr.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    // skip empty line
+                    continue;
+                }
+                {
+                    Matcher m = key128BitPattern.matcher(line);
+                    if (m.matches()) {
+                        Integer keyIndex = new Integer(m.group(1));
+                        byte[] rawKey = ByteCoding.toByteArray(m.group(2));
+                        _check.isTrue(!map.containsKey(keyIndex), "Clash on key index %s at line %s in %s", keyIndex, new Integer(lnr.getLineNumber()), provenance);
+                        SecretKeySpec sks = SymmetricKeyImpl.newAES128Key(rawKey);
+                        map.put(keyIndex, new SymmetricKeyImpl(sks));
                         continue;
                     }
-                    {
-                        Matcher m = key128BitPattern.matcher(line);
-                        if (m.matches()) {
-                            Integer keyIndex = new Integer(m.group(1));
-                            byte[] rawKey = ByteCoding.toByteArray(m.group(2));
-                            _check.isTrue(!map.containsKey(keyIndex), "Clash on key index %s at line %s in %s", keyIndex, new Integer(lnr.getLineNumber()), provenance);
-                            SecretKeySpec sks = SymmetricKeyImpl.newAES128Key(rawKey);
-                            map.put(keyIndex, new SymmetricKeyImpl(sks));
-                            continue;
-                        }
-                    }
-                    {
-                        Matcher m = commentPattern.matcher(line);
-                        if (m.matches()) {
-                            continue; // skip
-                        }
+                }
+                {
+                    Matcher m = commentPattern.matcher(line);
+                    if (m.matches()) {
+                        continue; // skip
                     }
-                    {
-                        Matcher m = hashPattern.matcher(line);
-                        if (m.matches()) {
-                            // One could consider hashing the keys read up to now...
-                            _check.isTrue(hash == null, "Hash already set but encountered another one at line %s in %s", new Integer(lnr.getLineNumber()), provenance);
-                            hash = ByteCoding.toByteArray(m.group(2));
-                            continue;
-                        }
+                }
+                {
+                    Matcher m = hashPattern.matcher(line);
+                    if (m.matches()) {
+                        // One could consider hashing the keys read up to now...
+                        _check.isTrue(hash == null, "Hash already set but encountered another one at line %s in %s", new Integer(lnr.getLineNumber()), provenance);
+                        hash = ByteCoding.toByteArray(m.group(2));
+                        continue;
                     }
-                    _check.isTrue(false, "Unmatched line '%s' at line %s in %s", line, new Integer(lnr.getLineNumber()), provenance); // never returns
                 }
-            } finally {
-                lnr.close();
+                _check.isTrue(false, "Unmatched line '%s' at line %s in %s", line, new Integer(lnr.getLineNumber()), provenance); // never returns
             }
-            //
-            // We want to find at least one key!
-            //
-            _check.isFalse(map.isEmpty(), "There is no key material at all in %s", provenance);
-            //
-            // The map is now sucked into a "KeyManager". This also computes the hash
-            //
-            KeyManagerImpl keyManager = new KeyManagerImpl(map);
-            //
-            // If possible, compare hashes
-            //
-            if (hash != null) {
-                byte[] actualHash = keyManager.getKeyMaterialHash();
-                boolean hashCmp = ByteCoding.compareByteArrays(hash, actualHash);
-                if (!hashCmp) {
-                    _check.fail("The hash from %s (%s) and the hash computed over the key material (%s) don't match", provenance, ByteCoding.toHexString(hash), ByteCoding.toHexString(actualHash));
-                }
-                logger.info("Key material from " + provenance + " read and hash correspondance checked. Looking good!");
-            } else {
-                logger.warn("No hash given in " + provenance + " -- no guarantee as to key material!");
+        } finally {
+            lnr.close();
+        }
+        //
+        // We want to find at least one key!
+        //
+        _check.isFalse(map.isEmpty(), "There is no key material at all in %s", provenance);
+        //
+        // The map is now sucked into a "KeySet". This also computes the hash
+        //
+        KeySet keySet = new KeySet(map);
+        //
+        // If possible, compare hashes
+        //
+        _check.isFalse(hashRequired && hash == null, "There is no hash in %s, but one is required", provenance);
+        if (hash != null) {
+            byte[] actualHash = keySet.hash;
+            boolean hashCmp = ByteCoding.compareByteArrays(hash, actualHash);
+            if (!hashCmp) {
+                _check.fail("The hash from %s (%s) and the hash computed over the key material (%s) don't match", provenance, ByteCoding.toHexString(hash), ByteCoding.toHexString(actualHash));
             }
-            //
-            // If we are here, we have won!!
-            //
-            return keyManager;
-        } catch (Exception exe) {
-            throw new KeyManagerConstructionException(exe);
+            logger.info("Key material from " + provenance + " read and hash correspondance checked. Looking good!");
+        } else {
+            logger.warn("No hash given in " + provenance + " -- no guarantee as to key material!");
         }
+        //
+        // If we are here, we have won!!
+        //
+        return keySet;
     }
 
     /**
      * Compute a hash value of the stored keys
      */
 
-    @SuppressWarnings("boxing")
-    private byte[] computeHashKeyOverMaterial() {
+    private static byte[] computeHashKeyOverMaterial(SymmetricKey[] keys) {
         MessageDigest md;
         try {
             md = MessageDigest.getInstance("SHA-1");
@@ -238,10 +314,11 @@ public class KeyManagerImpl implements KeyManager {
             throw new Error(_check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
         }
         assert md != null;
-        List<Integer> indexes = new ArrayList<Integer>(keyMaterial.keySet());
-        Collections.sort(indexes);
-        for (Integer x : indexes) {
-            SymmetricKeyImpl sksi = (SymmetricKeyImpl) keyMaterial.get(x);
+        for (int x = 0; x < keys.length; x++) {
+            if (keys[x] == null) {
+                continue;
+            }
+            SymmetricKeyImpl sksi = (SymmetricKeyImpl) keys[x];
             md.update((byte) (x & 0xFF));
             md.update((byte) (x >> 8 & 0xFF));
             md.update((byte) (x >> 16 & 0xFF));
@@ -257,7 +334,13 @@ public class KeyManagerImpl implements KeyManager {
 
     @Override
     public SymmetricKey getKey(int keyIndex) {
-        return getKey(Integer.valueOf(keyIndex));
+        SymmetricKey res = this.keySet.getKey(keyIndex);
+        if (res == null) {
+            _check.fail("There is no key with index " + keyIndex);
+            throw new Error(_check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
+        } else {
+            return res;
+        }
     }
 
     /**
@@ -267,13 +350,7 @@ public class KeyManagerImpl implements KeyManager {
     @Override
     public SymmetricKey getKey(Integer keyIndex) {
         _check.notNull(keyIndex,"key index");
-        SymmetricKey res = this.keyMaterial.get(keyIndex);
-        if (res == null) {
-            _check.fail("There is no key with index " + keyIndex);
-            throw new Error(_check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
-        } else {
-            return res;
-        }        
+        return getKey(keyIndex.intValue());
     }
 
     /**
@@ -281,7 +358,7 @@ public class KeyManagerImpl implements KeyManager {
      */
 
     public byte[] getKeyMaterialHash() {
-        return this.keyMaterialHash.clone();
+        return this.keySet.hash.clone();
     }
 
     /**
@@ -315,9 +392,8 @@ public class KeyManagerImpl implements KeyManager {
     
     @Override
     public Integer randomKeyIndex() {
-        synchronized (rand) { 
-            return allowed.get(rand.nextInt(this.allowed.size()));
-        }
+        int[] allowed = this.keySet.allowed;
+        return Integer.valueOf(allowed[ThreadLocalRandom.current().nextInt(allowed.length)]);
     }
 
     /**
@@ -326,7 +402,7 @@ public class KeyManagerImpl implements KeyManager {
 
     @Override
     public boolean isAcceptableKeyIndex(int x) {
-        return keyMaterial.containsKey(Integer.valueOf(x));
+        return this.keySet.getKey(x) != null;
     }
 
 }
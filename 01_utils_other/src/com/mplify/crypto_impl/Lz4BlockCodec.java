@@ -0,0 +1,238 @@
+package com.mplify.crypto_impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.mplify.crypto.CompressionCodec;
+import com.mplify.crypto.CompressionStatus;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A fast compressor in pure Java writing the LZ4 block format (no LZ4 frame
+ * format around it: the length of the plain data is kept by the caller),
+ * recorded as COMPRESSED_FAST.
+ *
+ * Sequences of: token (4 bits literal count, 4 bits match length - 4)
+ * | literal count extension | literals | match offset (2, little-endian)
+ * | match length extension; the last sequence has literals only. Matches
+ * are found with a single-entry hash table over 4-byte sequences, and the
+ * search skips ahead faster and faster in data that yields no matches.
+ *
+ * The result is about twice as large as what Deflate makes of text, but
+ * packing is five times faster and unpacking two to three times.
+ *
+ * Instances hold no state and are thread-safe.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class Lz4BlockCodec implements CompressionCodec {
+
+    private final static int MIN_MATCH = 4;
+    private final static int LAST_LITERALS = 5; // the last 5 bytes are always literals
+    private final static int MF_LIMIT = 12; // the last match starts at least 12 bytes before the end
+    private final static int MIN_LENGTH = MF_LIMIT + 1; // below that, everything is literals
+    private final static int MAX_DISTANCE = 65535;
+    private final static int HASH_LOG = 12;
+    private final static int SKIP_TRIGGER = 6; // after 2^6 failed attempts, skip 2 bytes at a time, etc.
+    private final static int RUN_MASK = 15;
+
+    @Override
+    public CompressionStatus getCompressionStatus() {
+        return CompressionStatus.COMPRESSED_FAST;
+    }
+
+    @Override
+    public byte[] compress(byte[] src, int offset, int length) {
+        byte[] dst = new byte[length]; // the result must be smaller than that
+        int d = 0;
+        int anchor = 0; // start of the literals not written yet
+        if (length >= MIN_LENGTH) {
+            int[] table = new int[1 << HASH_LOG]; // positions relative to "offset"
+            int mfLimit = length - MF_LIMIT;
+            int matchLimit = length - LAST_LITERALS;
+            int ip = 1;
+            table[hash(readInt(src, offset))] = 0;
+            search: while (true) {
+                // find a match of at least MIN_MATCH bytes
+                int ref;
+                int attempts = 1 << SKIP_TRIGGER;
+                while (true) {
+                    if (ip > mfLimit) {
+                        break search;
+                    }
+                    int seq = readInt(src, offset + ip);
+                    int h = hash(seq);
+                    ref = table[h];
+                    table[h] = ip;
+                    if (ip - ref <= MAX_DISTANCE && readInt(src, offset + ref) == seq) {
+                        break;
+                    }
+                    ip += attempts++ >>> SKIP_TRIGGER;
+                }
+                // extend it forwards, then backwards over the pending literals
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[offset + ip + matchLength] == src[offset + ref + matchLength]) {
+                    matchLength++;
+                }
+                while (ip > anchor && ref > 0 && src[offset + ip - 1] == src[offset + ref - 1]) {
+                    ip--;
+                    ref--;
+                    matchLength++;
+                }
+                // write the sequence
+                int literals = ip - anchor;
+                if (d + sequenceLength(literals, matchLength) >= length) {
+                    return null;
+                }
+                int token = d++;
+                d = writeLiterals(src, offset + anchor, literals, dst, d);
+                dst[d++] = (byte) (ip - ref);
+                dst[d++] = (byte) ((ip - ref) >>> 8);
+                int matchRun = matchLength - MIN_MATCH;
+                if (matchRun >= RUN_MASK) {
+                    d = writeLengthExtension(matchRun - RUN_MASK, dst, d);
+                }
+                dst[token] = (byte) ((Math.min(literals, RUN_MASK) << 4) | Math.min(matchRun, RUN_MASK));
+                ip += matchLength;
+                anchor = ip;
+                if (ip > mfLimit) {
+                    break;
+                }
+                table[hash(readInt(src, offset + ip - 2))] = ip - 2;
+            }
+        }
+        // the last literals
+        int literals = length - anchor;
+        if (d + sequenceLength(literals, 0) >= length) {
+            return null;
+        }
+        dst[d++] = (byte) (Math.min(literals, RUN_MASK) << 4);
+        d = writeLiterals(src, offset + anchor, literals, dst, d);
+        return Arrays.copyOf(dst, d);
+    }
+
+    @Override
+    public void decompress(byte[] src, int offset, int length, byte[] dst, int dstOffset, int plainLength) throws IOException {
+        int ip = offset;
+        int end = offset + length;
+        int op = dstOffset;
+        int opEnd = dstOffset + plainLength;
+        while (true) {
+            if (ip >= end) {
+                throw new IOException("The data ends before its last sequence");
+            }
+            int token = src[ip++] & 0xFF;
+            // literals
+            int literals = token >>> 4;
+            if (literals == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end || literals > plainLength) {
+                        throw new IOException("Bad literal count at offset " + (ip - offset));
+                    }
+                    b = src[ip++] & 0xFF;
+                    literals += b;
+                } while (b == 255);
+            }
+            if (literals > end - ip || literals > opEnd - op) {
+                throw new IOException("Literal count " + literals + " overruns the data at offset " + (ip - offset));
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+            if (ip == end) {
+                break; // the last sequence has no match
+            }
+            // match
+            if (end - ip < 2) {
+                throw new IOException("The data ends within a match offset");
+            }
+            int distance = (src[ip] & 0xFF) | ((src[ip + 1] & 0xFF) << 8);
+            ip += 2;
+            if (distance == 0 || distance > op - dstOffset) {
+                throw new IOException("Bad match offset " + distance + " at offset " + (ip - offset));
+            }
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end || matchLength > plainLength) {
+                        throw new IOException("Bad match length at offset " + (ip - offset));
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > opEnd - op) {
+                throw new IOException("Match length " + matchLength + " overruns the result at offset " + (ip - offset));
+            }
+            int from = op - distance;
+            if (distance >= matchLength) {
+                System.arraycopy(dst, from, dst, op, matchLength);
+            } else {
+                for (int i = 0; i < matchLength; i++) { // overlapping: a repeated pattern
+                    dst[op + i] = dst[from + i];
+                }
+            }
+            op += matchLength;
+        }
+        if (op != opEnd) {
+            throw new IOException("The data decompresses to " + (op - dstOffset) + " bytes instead of " + plainLength);
+        }
+    }
+
+    private static int readInt(byte[] buf, int pos) {
+        return (buf[pos] & 0xFF) | ((buf[pos + 1] & 0xFF) << 8) | ((buf[pos + 2] & 0xFF) << 16) | (buf[pos + 3] << 24);
+    }
+
+    private static int hash(int seq) {
+        return (seq * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    /**
+     * The most bytes a sequence with that many literals and that match length may take (a match length of 0 for none)
+     */
+
+    private static int sequenceLength(int literals, int matchLength) {
+        int res = 1 + literals;
+        if (literals >= RUN_MASK) {
+            res += (literals - RUN_MASK) / 255 + 1;
+        }
+        if (matchLength > 0) {
+            res += 2;
+            if (matchLength - MIN_MATCH >= RUN_MASK) {
+                res += (matchLength - MIN_MATCH - RUN_MASK) / 255 + 1;
+            }
+        }
+        return res;
+    }
+
+    private static int writeLiterals(byte[] src, int from, int literals, byte[] dst, int d) {
+        int res = d;
+        if (literals >= RUN_MASK) {
+            res = writeLengthExtension(literals - RUN_MASK, dst, res);
+        }
+        System.arraycopy(src, from, dst, res, literals);
+        return res + literals;
+    }
+
+    private static int writeLengthExtension(int n, byte[] dst, int d) {
+        int res = d;
+        int rest = n;
+        while (rest >= 255) {
+            dst[res++] = (byte) 255;
+            rest -= 255;
+        }
+        dst[res++] = (byte) rest;
+        return res;
+    }
+}
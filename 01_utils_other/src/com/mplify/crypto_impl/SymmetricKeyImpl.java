@@ -1,5 +1,11 @@
 package com.mplify.crypto_impl;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.NoSuchAlgorithmException;
 
 import javax.crypto.Cipher;
@@ -28,6 +34,10 @@ import com.mplify.stringmangling.EncryptException;
  * 2011.06.15 - Created for tests
  * 2011.06.16 - Good enough for non-tests
  * 2011.11.08 - Removed the "key index"
+ * 2026.10.19 - Ciphers are taken from a CipherPool instead of being obtained
+ *              and initialized on each call. Added the ByteBuffer variants.
+ * 2026.10.19 - Added the streaming variants. Frames carry no authentication
+ *              here: use GcmSymmetricKeyImpl if tampering matters.
  ******************************************************************************/
 
 public class SymmetricKeyImpl implements SymmetricKey {
@@ -41,7 +51,22 @@ public class SymmetricKeyImpl implements SymmetricKey {
     // The SecretKeySpec is basically the key binary array, as provided by javax.crypto
     
     private final SecretKeySpec key;
-    
+
+    // The transformation passed to Cipher.getInstance(); the provider default for "AES" is ECB with PKCS5 padding
+
+    private final static String TRANSFORMATION = "AES";
+
+    // AES block size in bytes; PKCS5 padding adds between 1 and BLOCK_SIZE bytes
+
+    private final static int BLOCK_SIZE = 16;
+
+    // Idle Ciphers kept per pool; more threads than that may still work concurrently, they just create extra instances
+
+    private final static int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final CipherPool encryptPool;
+    private final CipherPool decryptPool;
+
     /**
      * Constructor
      */
@@ -49,6 +74,8 @@ public class SymmetricKeyImpl implements SymmetricKey {
     public SymmetricKeyImpl(SecretKeySpec key) {
         _check.notNull(key,"key");
         this.key = key;
+        this.encryptPool = new CipherPool(key, TRANSFORMATION, Cipher.ENCRYPT_MODE, MAX_IDLE);
+        this.decryptPool = new CipherPool(key, TRANSFORMATION, Cipher.DECRYPT_MODE, MAX_IDLE);
     }
 
     /**
@@ -103,15 +130,33 @@ public class SymmetricKeyImpl implements SymmetricKey {
     public byte[] encrypt(byte[] data) throws EncryptException {
         _check.notNull(data,"data array");
         try {
-            Cipher cipher = Cipher.getInstance("AES"); // Todo: use Cipher pool
-            cipher.init(Cipher.ENCRYPT_MODE, key);
+            Cipher cipher = encryptPool.acquire();
             byte[] encrypted = cipher.doFinal(data); // at this point, the Cipher can be reused!!
+            encryptPool.release(cipher); // not reached on failure; a failed Cipher is left to the GC
             return encrypted;
         } catch (Exception exe) {
             throw new EncryptException(exe);
         }
     }
 
+    /**
+     * Encrypt the remaining bytes of "in" into "out" using AES 128
+     */
+
+    @Override
+    public int encrypt(ByteBuffer in, ByteBuffer out) throws EncryptException {
+        _check.notNull(in,"input buffer");
+        _check.notNull(out,"output buffer");
+        try {
+            Cipher cipher = encryptPool.acquire();
+            int written = cipher.doFinal(in, out);
+            encryptPool.release(cipher);
+            return written;
+        } catch (Exception exe) {
+            throw new EncryptException(exe);
+        }
+    }
+
     /**
      * Decrypt an array of byte using AES 128
      */
@@ -120,15 +165,92 @@ public class SymmetricKeyImpl implements SymmetricKey {
     public byte[] decrypt(byte[] data) throws DecryptException {
         _check.notNull(data,"data array");
         try {
-            Cipher cipher = Cipher.getInstance("AES"); // Todo: use Cipher pool
-            cipher.init(Cipher.DECRYPT_MODE, key);
+            Cipher cipher = decryptPool.acquire();
             byte[] decrypted = cipher.doFinal(data); // at this point, the Cipher can be reused!!
+            decryptPool.release(cipher); // not reached on failure (e.g. bad padding)
             return decrypted;
         } catch (Exception exe) {
             throw new DecryptException(exe);
         }
     }
 
+    /**
+     * Decrypt the remaining bytes of "in" into "out" using AES 128
+     */
+
+    @Override
+    public int decrypt(ByteBuffer in, ByteBuffer out) throws DecryptException {
+        _check.notNull(in,"input buffer");
+        _check.notNull(out,"output buffer");
+        try {
+            Cipher cipher = decryptPool.acquire();
+            int written = cipher.doFinal(in, out);
+            decryptPool.release(cipher);
+            return written;
+        } catch (Exception exe) {
+            throw new DecryptException(exe);
+        }
+    }
+
+    /**
+     * PKCS5 padding always adds at least one byte, up to a full block
+     */
+
+    @Override
+    public int getMaxEncryptedLength(int plainLength) {
+        _check.largerOrEqualToZero(plainLength, "plain length");
+        return (plainLength / BLOCK_SIZE + 1) * BLOCK_SIZE;
+    }
+
+    /**
+     * Frames are just encrypted; ECB cannot authenticate the frame index, so frames may be reordered unnoticed
+     */
+
+    private final FrameCipher frameCipher = new FrameCipher() {
+
+        @Override
+        public int encrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws EncryptException {
+            return SymmetricKeyImpl.this.encrypt(in, out);
+        }
+
+        @Override
+        public int decrypt(ByteBuffer in, ByteBuffer out, byte[] aad) throws DecryptException {
+            return SymmetricKeyImpl.this.decrypt(in, out);
+        }
+
+        @Override
+        public int getMaxEncryptedLength(int plainLength) {
+            return SymmetricKeyImpl.this.getMaxEncryptedLength(plainLength);
+        }
+
+        @Override
+        public int getKeyIndex() {
+            return -1;
+        }
+    };
+
+    @Override
+    public OutputStream encryptingStream(OutputStream out) {
+        _check.notNull(out, "output stream");
+        return Channels.newOutputStream(encryptingChannel(Channels.newChannel(out)));
+    }
+
+    @Override
+    public InputStream decryptingStream(InputStream in) {
+        _check.notNull(in, "input stream");
+        return Channels.newInputStream(decryptingChannel(Channels.newChannel(in)));
+    }
+
+    @Override
+    public WritableByteChannel encryptingChannel(WritableByteChannel out) {
+        return new EncryptingChannel(out, frameCipher, EncryptingChannel.DEFAULT_FRAME_SIZE);
+    }
+
+    @Override
+    public ReadableByteChannel decryptingChannel(ReadableByteChannel in) {
+        return new DecryptingChannel(in, frameCipher);
+    }
+
     /**
      * Get the underlying bytes
      */
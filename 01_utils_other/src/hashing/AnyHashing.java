@@ -1,16 +1,18 @@
 package hashing;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
-
-import org.apache.commons.codec.binary.Base64;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.mplify.checkers.Check;
 import com.mplify.helpers.ByteCoding;
-import com.mplify.helpers.ReaderToString;
 
 /* 34567890123456789012345678901234567890123456789012345678901234567890123456789
  * *****************************************************************************
@@ -24,77 +26,308 @@ import com.mplify.helpers.ReaderToString;
  * A functionality to do hashing. Functions of this class have to be
  * multithread-capable as there will be only one "canonical instance" of
  * an actual AnyHashing subclass.
- * 
+ *
+ * MessageDigest instances are kept in a bounded pool: a digest is used by
+ * one thread at a time, between acquire() and release(). New ones are
+ * cloned from a prototype, which skips the provider lookup of
+ * MessageDigest.getInstance(). As with CipherPool, nothing is bound to a
+ * thread, so short-lived threads do not pile up instances.
+ *
+ * Files are hashed through a FileChannel: small ones are read into a
+ * buffer, large ones are memory-mapped and hashed without copying into the
+ * heap.
+ *
  * 2011.06.23 - Created based on existing SHA1Hashing, modified and made into
  *              a subclass of this.
+ * 2026.10.19 - Pooled MessageDigests cloned from a prototype; hex and Base64
+ *              encoded directly; hashing of InputStream, FileChannel, File
+ *              and ByteBuffer
+ * 2026.10.19 - getAlgoName(); acquire() and release() opened to the package,
+ *              for TreeHashing
+ * 2026.10.19 - An algorithm missing from the JVM makes hashing fail, not
+ *              the constructor (isAvailable())
+ * 2026.10.19 - hashToHex...() back on ByteCoding.toHexString(); toHex() is
+ *              only lowercase hex for new callers
  ******************************************************************************/
- 
+
 public abstract class AnyHashing {
 
+    private final static char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private final static char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private final static int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+    private final static int BUFFER_SIZE = 64 * 1024;
+    private final static long MAP_THRESHOLD = 1024 * 1024; // files at least that large are memory-mapped
+    private final static long MAP_CHUNK = 64 * 1024 * 1024; // mapped that much at a time
+
     private final String algoName;
-    
+    private final MessageDigest prototype; // null if the algorithm is not available
+    private final NoSuchAlgorithmException unavailable; // why the prototype is null
+    private final ConcurrentLinkedQueue<MessageDigest> idle = new ConcurrentLinkedQueue<MessageDigest>();
+    private final AtomicInteger idleCount = new AtomicInteger(0);
+
+    /**
+     * Constructor. If the JVM does not provide the algorithm, this does not fail (so that the canonical instance of a
+     * subclass can always be initialized), but every attempt to hash does.
+     */
+
     public AnyHashing(String algoName) {
         Check.notNullAndNotOnlyWhitespace(algoName, "algo name");
         this.algoName = algoName;
+        MessageDigest md = null;
+        NoSuchAlgorithmException exe = null;
+        try {
+            md = MessageDigest.getInstance(algoName);
+        } catch (NoSuchAlgorithmException exeNsa) {
+            exe = exeNsa;
+        }
+        this.prototype = md;
+        this.unavailable = exe;
+    }
+
+    /**
+     * The name of the algorithm, as given to MessageDigest.getInstance()
+     */
+
+    public String getAlgoName() {
+        return algoName;
+    }
+
+    /**
+     * Whether the JVM provides the algorithm; if not, hashing throws IllegalStateException
+     */
+
+    public boolean isAvailable() {
+        return prototype != null;
     }
-    
+
+    /**
+     * Get a MessageDigest, in its initial state, for exclusive use until release()
+     */
+
+    MessageDigest acquire() {
+        if (prototype == null) {
+            throw new IllegalStateException("The '" + algoName + "' MessageDigest is not available on this JVM", unavailable);
+        }
+        MessageDigest md = idle.poll();
+        if (md != null) {
+            idleCount.decrementAndGet();
+            return md;
+        }
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException exe) {
+            // not all providers' digests can be cloned
+            try {
+                return MessageDigest.getInstance(algoName);
+            } catch (Exception exe2) {
+                Check.cannotHappen(exe2);
+                throw new Error(Check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
+            }
+        }
+    }
+
+    /**
+     * Give back a MessageDigest obtained by acquire(); it is reset here
+     */
+
+    void release(MessageDigest md) {
+        md.reset();
+        if (idleCount.incrementAndGet() <= MAX_IDLE) {
+            idle.offer(md);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
     /**
      * Simple hash for rather short strings
      */
-    
+
     public byte[] hashWithoutBuffer(String input) {
         Check.notNull(input,"input string");
         try {
-            return MessageDigest.getInstance(algoName).digest(input.getBytes("UTF-8"));
+            return hashWithoutBuffer(input.getBytes("UTF-8"));
         } catch (Exception exe) {
             Check.cannotHappen(exe);
             throw new Error(Check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
-        }        
+        }
     }
-    
+
     /**
      * Simple hash for byte strings
      */
-    
+
     public byte[] hashWithoutBuffer(byte[] input) {
         Check.notNull(input,"input string");
+        MessageDigest md = acquire();
         try {
-            // TODO: Keep MessageDigest instances in a pool
-            return MessageDigest.getInstance(algoName).digest(input);
-        } catch (Exception exe) {
-            Check.cannotHappen(exe);
-            throw new Error(Check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
-        }        
+            return md.digest(input);
+        } finally {
+            release(md);
+        }
+    }
+
+    /**
+     * Hash the remaining bytes of "input", which are consumed: the position ends up at the limit. Direct buffers
+     * (including mapped ones) are hashed in place.
+     */
+
+    public byte[] hash(ByteBuffer input) {
+        Check.notNull(input,"input buffer");
+        MessageDigest md = acquire();
+        try {
+            md.update(input);
+            return md.digest();
+        } finally {
+            release(md);
+        }
     }
-    
+
+    /**
+     * Hash what can be read from "in", up to its end. The stream is not closed.
+     */
+
+    public byte[] hash(InputStream in) throws IOException {
+        Check.notNull(in,"input stream");
+        MessageDigest md = acquire();
+        try {
+            byte[] buf = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                md.update(buf, 0, n);
+            }
+            return md.digest();
+        } finally {
+            release(md);
+        }
+    }
+
+    /**
+     * Hash the whole content of the file behind "channel", whatever the channel's position, which is not changed. Files
+     * of MAP_THRESHOLD bytes or more are memory-mapped. The channel is not closed.
+     */
+
+    public byte[] hash(FileChannel channel) throws IOException {
+        Check.notNull(channel,"file channel");
+        MessageDigest md = acquire();
+        try {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                for (long pos = 0; pos < size; pos += MAP_CHUNK) {
+                    md.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_CHUNK, size - pos)));
+                }
+            } else {
+                ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+                long pos = 0;
+                int n;
+                while ((n = channel.read(buf, pos)) >= 0) {
+                    buf.flip();
+                    md.update(buf);
+                    buf.clear();
+                    pos += n;
+                }
+            }
+            return md.digest();
+        } finally {
+            release(md);
+        }
+    }
+
+    /**
+     * Hash the content of a file
+     */
+
+    public byte[] hash(File file) throws IOException {
+        Check.notNull(file,"file");
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return hash(in.getChannel());
+        } finally {
+            in.close(); // also closes the channel
+        }
+    }
+
     /**
-     * Hash, then encode to hex and return the hex string
+     * Hash, then encode to hex (as ByteCoding does) and return the hex string
      */
-    
+
     public String hashToHexWithoutBuffer(String input) {
         return ByteCoding.toHexString(hashWithoutBuffer(input));
     }
-    
+
     /**
-     * Hash, then encode to hex and return the hex string
+     * Hash, then encode to hex (as ByteCoding does) and return the hex string
      */
-    
+
     public String hashToHexWithoutBuffer(byte[] input) {
         return ByteCoding.toHexString(hashWithoutBuffer(input));
     }
 
     /**
-     * Hash, then encode to base64 and return the ASCII string
+     * Hash the content of a file, then encode to hex (as ByteCoding does) and return the hex string
      */
-    
+
+    public String hashToHex(File file) throws IOException {
+        return ByteCoding.toHexString(hash(file));
+    }
+
+    /**
+     * Hash, then encode to base64 and return the ASCII string. The IOException is not actually thrown anymore.
+     */
+
     public String hashToBase64(String input) throws IOException {
-        byte[] base64 = Base64.encodeBase64(hashWithoutBuffer(input));
-        ByteArrayInputStream bais = new ByteArrayInputStream(base64);
-        Reader reader = new InputStreamReader(bais, "ASCII");
-        try {
-            return ReaderToString.slurp(reader,1024);
-        } finally {
-            reader.close(); // also closes "bais"
+        return toBase64(hashWithoutBuffer(input));
+    }
+
+    /**
+     * Hash, then encode to base64 and return the ASCII string
+     */
+
+    public String hashToBase64(byte[] input) {
+        return toBase64(hashWithoutBuffer(input));
+    }
+
+    /**
+     * Encode to lowercase hex, two characters per byte. The hashToHex...() methods do not use this but keep
+     * ByteCoding's encoding, on which existing callers may depend.
+     */
+
+    public static String toHex(byte[] bytes) {
+        char[] res = new char[2 * bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            res[2 * i] = HEX_DIGITS[(bytes[i] >>> 4) & 0x0F];
+            res[2 * i + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(res);
+    }
+
+    /**
+     * Encode to base64 (RFC 4648 alphabet, with padding, no line breaks)
+     */
+
+    public static String toBase64(byte[] bytes) {
+        char[] res = new char[(bytes.length + 2) / 3 * 4];
+        int i = 0;
+        int k = 0;
+        while (i + 3 <= bytes.length) {
+            int x = ((bytes[i] & 0xFF) << 16) | ((bytes[i + 1] & 0xFF) << 8) | (bytes[i + 2] & 0xFF);
+            res[k++] = BASE64_DIGITS[x >>> 18];
+            res[k++] = BASE64_DIGITS[(x >>> 12) & 0x3F];
+            res[k++] = BASE64_DIGITS[(x >>> 6) & 0x3F];
+            res[k++] = BASE64_DIGITS[x & 0x3F];
+            i += 3;
+        }
+        int rest = bytes.length - i;
+        if (rest > 0) {
+            int x = (bytes[i] & 0xFF) << 16;
+            if (rest == 2) {
+                x |= (bytes[i + 1] & 0xFF) << 8;
+            }
+            res[k++] = BASE64_DIGITS[x >>> 18];
+            res[k++] = BASE64_DIGITS[(x >>> 12) & 0x3F];
+            res[k++] = (rest == 2) ? BASE64_DIGITS[(x >>> 6) & 0x3F] : '=';
+            res[k++] = '=';
         }
+        return new String(res);
     }
 }
@@ -0,0 +1,106 @@
+package hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Fast non-cryptographic hashing to a long, for bucketing and deduplication
+ * keys, where collisions must be rare but nobody is trying to provoke them.
+ * Never use these where AnyHashing is needed: they are trivial to attack.
+ *
+ * Hashing a ByteBuffer or a CharSequence allocates nothing (an array only
+ * gets a ByteBuffer wrapper, which escape analysis usually removes). A
+ * CharSequence is hashed as its UTF-16
+ * code units in little-endian order, i.e. hash64(s) is the hash of
+ * s.getBytes("UTF-16LE"), without encoding it first. Multi-byte values are
+ * read little-endian whatever the ByteOrder of a ByteBuffer.
+ *
+ * Like AnyHashing, subclasses have a canonical instance and are thread-safe.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public abstract class FastHashing {
+
+    /**
+     * Hash "length" bytes of "buf" from index "from" on, reading multi-byte values byte-swapped if "swap" is set
+     */
+
+    abstract long hash64(ByteBuffer buf, int from, int length, boolean swap);
+
+    /**
+     * Hash the UTF-16 code units of a CharSequence
+     */
+
+    public abstract long hash64(CharSequence input);
+
+    /**
+     * Hash a byte array
+     */
+
+    public long hash64(byte[] input) {
+        Check.notNull(input, "input array");
+        return hash64(input, 0, input.length);
+    }
+
+    /**
+     * Hash "length" bytes of "input" from "offset" on
+     */
+
+    public long hash64(byte[] input, int offset, int length) {
+        Check.notNull(input, "input array");
+        checkRange(input.length, offset, length);
+        return hash64(ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN), offset, length, false);
+    }
+
+    /**
+     * Hash the remaining bytes of "input"; unlike AnyHashing.hash(ByteBuffer), the position is not changed
+     */
+
+    public long hash64(ByteBuffer input) {
+        Check.notNull(input, "input buffer");
+        return hash64(input, input.position(), input.remaining(), input.order() == ByteOrder.BIG_ENDIAN);
+    }
+
+    static void checkRange(int arrayLength, int offset, int length) {
+        Check.isTrue(offset >= 0 && length >= 0 && offset <= arrayLength - length, "Bad range: offset %s, length %s, array length %s", Integer.valueOf(offset), Integer.valueOf(length),
+                Integer.valueOf(arrayLength));
+    }
+
+    static long getLong(ByteBuffer buf, int index, boolean swap) {
+        long x = buf.getLong(index);
+        return swap ? Long.reverseBytes(x) : x;
+    }
+
+    static int getInt(ByteBuffer buf, int index, boolean swap) {
+        int x = buf.getInt(index);
+        return swap ? Integer.reverseBytes(x) : x;
+    }
+
+    /**
+     * Four UTF-16 code units from "index" on, as the long read little-endian from their UTF-16LE bytes
+     */
+
+    static long getLong(CharSequence cs, int index) {
+        return cs.charAt(index) | ((long) cs.charAt(index + 1) << 16) | ((long) cs.charAt(index + 2) << 32) | ((long) cs.charAt(index + 3) << 48);
+    }
+
+    /**
+     * Byte "byteIndex" of the UTF-16LE encoding of "cs"
+     */
+
+    static int getByte(CharSequence cs, int byteIndex) {
+        char c = cs.charAt(byteIndex >>> 1);
+        return ((byteIndex & 1) == 0) ? (c & 0xFF) : (c >>> 8);
+    }
+}
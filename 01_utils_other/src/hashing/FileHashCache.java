@@ -0,0 +1,346 @@
+package hashing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mplify.checkers.Check;
+import com.mplify.helpers.ByteCoding;
+import com.mplify.mbeans.MBeanMarker;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A cache of the digests of files, for files that are hashed again and
+ * again (configuration, key material) but seldom change. A digest is
+ * returned without reading the file as long as the file's path, size,
+ * modification time and file key (device and inode on Unix; none on some
+ * platforms) are those it had when it was hashed.
+ *
+ * As with any such cache, a file rewritten with the same size within the
+ * resolution of the modification time would go unnoticed. So a digest is
+ * only kept if hashing started at least RACY_WINDOW_MS after the file was
+ * last modified; until then, it is hashed on every lookup. A file that
+ * changes while being hashed is not cached either.
+ *
+ * At most "maxSize" entries are kept; the least recently used ones are
+ * dropped first. If a persistence file is given, entries are read from it
+ * at construction and written to it by save(), so that a restarted process
+ * does not hash unchanged files again. An unreadable persistence file is
+ * logged and ignored. Of a persistence file holding more than "maxSize"
+ * entries, only the most recently used ones are read.
+ *
+ * Hit and miss counts are exported through FileHashCacheMBean; register the
+ * instance with the MBeanServer to have them scraped by MetricsRegistry.
+ *
+ * Instances are thread-safe; files are hashed and the persistence file is
+ * written outside of the lock.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - hashToHex() encodes as AnyHashing.hashToHex(File) does
+ * 2026.10.19 - save() writes a copy of the entries, outside of the lock;
+ *              load() skips surplus entries instead of evicting them
+ ******************************************************************************/
+
+public class FileHashCache implements FileHashCacheMBean, MBeanMarker {
+
+    private final static String CLASS = FileHashCache.class.getName();
+    private final static Logger LOGGER_load = LoggerFactory.getLogger(CLASS + ".load");
+
+    public final static long RACY_WINDOW_MS = 2000;
+
+    private final static int MAGIC = 0x4D504C48; // "MPLH"
+    private final static byte VERSION = 1;
+
+    private final AnyHashing hashing;
+    private final int maxSize;
+    private final File persistenceFile; // may be null
+    private final LinkedHashMap<String, CachedDigest> entries; // in access order; guarded by "this"
+    private final Object saveLock = new Object(); // keeps concurrent save() calls off the temporary file
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * What is known about a file when it was hashed
+     */
+
+    private final static class CachedDigest {
+
+        final long size;
+        final long modified_ns;
+        final String fileKey; // may be null
+        final byte[] digest;
+
+        CachedDigest(long size, long modified_ns, String fileKey, byte[] digest) {
+            this.size = size;
+            this.modified_ns = modified_ns;
+            this.fileKey = fileKey;
+            this.digest = digest;
+        }
+
+        CachedDigest(BasicFileAttributes attrs, byte[] digest) {
+            this(attrs.size(), attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), fileKeyOf(attrs), digest);
+        }
+
+        boolean describes(BasicFileAttributes attrs) {
+            return size == attrs.size() && modified_ns == attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS) && equal(fileKey, fileKeyOf(attrs));
+        }
+    }
+
+    /**
+     * Constructor for a cache that is not persisted
+     */
+
+    public FileHashCache(AnyHashing hashing, int maxSize) {
+        this(hashing, maxSize, null);
+    }
+
+    /**
+     * Constructor for a cache persisted to "persistenceFile", which is read now if it exists
+     */
+
+    public FileHashCache(AnyHashing hashing, final int maxSize, File persistenceFile) {
+        Check.notNull(hashing, "hashing");
+        Check.largerThanZero(maxSize, "max size");
+        this.hashing = hashing;
+        this.maxSize = maxSize;
+        this.persistenceFile = persistenceFile;
+        this.entries = new LinkedHashMap<String, CachedDigest>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDigest> eldest) {
+                if (size() > maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (persistenceFile != null && persistenceFile.exists()) {
+            try {
+                load();
+            } catch (IOException exe) {
+                LOGGER_load.warn("Could not read the hash cache from '" + persistenceFile + "', starting empty", exe);
+                synchronized (this) {
+                    entries.clear();
+                }
+            }
+        }
+    }
+
+    private static String keyOf(File file) {
+        return file.toPath().toAbsolutePath().normalize().toString();
+    }
+
+    private static String fileKeyOf(BasicFileAttributes attrs) {
+        Object fileKey = attrs.fileKey();
+        return (fileKey == null) ? null : fileKey.toString();
+    }
+
+    private static boolean equal(String a, String b) {
+        return (a == null) ? (b == null) : a.equals(b);
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attrs.isRegularFile()) {
+            throw new IOException("'" + path + "' is not a regular file");
+        }
+        return attrs;
+    }
+
+    /**
+     * The digest of the content of "file", from the cache if the file has not changed since it was hashed
+     */
+
+    public byte[] hash(File file) throws IOException {
+        Check.notNull(file, "file");
+        String key = keyOf(file);
+        Path path = file.toPath();
+        BasicFileAttributes before = readAttributes(path);
+        CachedDigest entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.describes(before)) {
+            hitCount.incrementAndGet();
+            return entry.digest.clone();
+        }
+        missCount.incrementAndGet();
+        long started_ms = System.currentTimeMillis();
+        byte[] digest = hashing.hash(file);
+        BasicFileAttributes after = readAttributes(path);
+        CachedDigest newEntry = new CachedDigest(after, digest.clone());
+        boolean keep = newEntry.describes(before) && started_ms - TimeUnit.NANOSECONDS.toMillis(newEntry.modified_ns) >= RACY_WINDOW_MS;
+        synchronized (this) {
+            if (keep) {
+                entries.put(key, newEntry);
+            } else {
+                entries.remove(key);
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * The digest of the content of "file" as a hex string, encoded as by AnyHashing.hashToHex(File)
+     */
+
+    public String hashToHex(File file) throws IOException {
+        return ByteCoding.toHexString(hash(file));
+    }
+
+    /**
+     * Forget what is known about "file"
+     */
+
+    public synchronized void invalidate(File file) {
+        Check.notNull(file, "file");
+        entries.remove(keyOf(file));
+    }
+
+    /**
+     * Forget everything; the counters are kept
+     */
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Write the entries to the persistence file. The entries are first written to a temporary file in the same
+     * directory, which then replaces the persistence file, so that a crash never leaves a partial one. Lookups are not
+     * held up meanwhile; what they change after the entries have been copied is left for the next save().
+     */
+
+    public void save() throws IOException {
+        Check.isTrue(persistenceFile != null, "This cache has no persistence file");
+        synchronized (saveLock) {
+            Map<String, CachedDigest> copy;
+            synchronized (this) {
+                copy = new LinkedHashMap<String, CachedDigest>(entries); // least recently used first
+            }
+            write(copy);
+        }
+    }
+
+    private void write(Map<String, CachedDigest> copy) throws IOException {
+        File tmp = new File(persistenceFile.getAbsoluteFile().getParentFile(), "." + persistenceFile.getName() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(hashing.getAlgoName());
+            out.writeInt(copy.size());
+            for (Map.Entry<String, CachedDigest> mapEntry : copy.entrySet()) {
+                CachedDigest entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified_ns);
+                out.writeBoolean(entry.fileKey != null);
+                if (entry.fileKey != null) {
+                    out.writeUTF(entry.fileKey);
+                }
+                out.writeShort(entry.digest.length);
+                out.write(entry.digest);
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(persistenceFile)) {
+            // renameTo() does not replace existing files on every platform
+            if (!persistenceFile.delete() || !tmp.renameTo(persistenceFile)) {
+                throw new IOException("Could not rename '" + tmp + "' to '" + persistenceFile + "'");
+            }
+        }
+    }
+
+    private synchronized void load() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(persistenceFile)));
+        try {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a hash cache file, or one of an unknown version");
+            }
+            String algoName = in.readUTF();
+            if (!algoName.equals(hashing.getAlgoName())) {
+                throw new IOException("The file holds '" + algoName + "' digests, not '" + hashing.getAlgoName() + "' ones");
+            }
+            int count = in.readInt();
+            int skip = count - maxSize; // the least recently used ones, written by a cache with a larger max size
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long modified_ns = in.readLong();
+                String fileKey = in.readBoolean() ? in.readUTF() : null;
+                byte[] digest = new byte[in.readUnsignedShort()];
+                in.readFully(digest);
+                if (i >= skip) {
+                    entries.put(key, new CachedDigest(size, modified_ns, fileKey, digest));
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public String getAlgoName() {
+        return hashing.getAlgoName();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return (lookups == 0) ? Double.NaN : (double) hits / lookups;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
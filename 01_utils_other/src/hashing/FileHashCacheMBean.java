@@ -0,0 +1,62 @@
+package hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Declaration of an MBean exporting the statistics of a FileHashCache.
+ *
+ * This currently is a "standard MBean"
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public interface FileHashCacheMBean {
+
+    /**
+     * The algorithm of the cached digests
+     */
+
+    public String getAlgoName();
+
+    /**
+     * Number of lookups answered from the cache, without reading the file
+     */
+
+    public long getHitCount();
+
+    /**
+     * Number of lookups for which the file had to be hashed
+     */
+
+    public long getMissCount();
+
+    /**
+     * Share of the lookups that were hits; NaN if there has been no lookup yet
+     */
+
+    public double getHitRatio();
+
+    /**
+     * Number of entries dropped because the cache was full
+     */
+
+    public long getEvictionCount();
+
+    /**
+     * Number of entries currently held
+     */
+
+    public int getSize();
+
+    /**
+     * Largest number of entries held
+     */
+
+    public int getMaxSize();
+}
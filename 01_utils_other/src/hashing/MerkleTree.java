@@ -0,0 +1,276 @@
+package hashing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import com.mplify.checkers.Check;
+import com.mplify.helpers.ByteCoding;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * The Merkle tree of a file cut into chunks of a fixed size, as computed by
+ * TreeHashing. Level 0 holds one leaf per chunk; each level above holds the
+ * hashes of pairs of nodes of the level below, an odd last node being
+ * carried up as it is; the top level holds the root.
+ *
+ * As in RFC 6962, a leaf is the hash of 0x00 followed by the chunk and an
+ * inner node the hash of 0x01 followed by its two children, so that a leaf
+ * can never be passed off as an inner node. An empty file has a single
+ * empty chunk.
+ *
+ * A tree computed by the sender of a file is sent along with it (toBytes(),
+ * fromBytes(), which only carry the leaves); the receiver compares it with
+ * the tree of what arrived, or checks chunks one by one as they arrive.
+ *
+ * Instances are immutable.
+ *
+ * 2026.10.19 - Created
+ * 2026.10.19 - getRootHex() encodes as ByteCoding does, like hashToHex()
+ ******************************************************************************/
+
+public final class MerkleTree {
+
+    private final static int MAGIC = 0x4D504C4D; // "MPLM"
+    private final static byte VERSION = 1;
+    private final static byte LEAF_PREFIX = 0;
+    private final static byte NODE_PREFIX = 1;
+
+    private final String algoName;
+    private final int chunkSize;
+    private final long size;
+    private final byte[][][] levels; // levels[0] are the leaves, levels[levels.length-1][0] is the root
+
+    private MerkleTree(String algoName, int chunkSize, long size, byte[][][] levels) {
+        this.algoName = algoName;
+        this.chunkSize = chunkSize;
+        this.size = size;
+        this.levels = levels;
+    }
+
+    /**
+     * The number of chunks a file of "size" bytes is cut into; at least 1
+     */
+
+    static int chunkCount(long size, int chunkSize) {
+        long count = Math.max(1, (size + chunkSize - 1) / chunkSize);
+        Check.isTrue(count <= Integer.MAX_VALUE, "A file of %s bytes has too many chunks of %s bytes", Long.valueOf(size), Integer.valueOf(chunkSize));
+        return (int) count;
+    }
+
+    /**
+     * Start the hash of a leaf on a MessageDigest in its initial state; the chunk is to be added by the caller
+     */
+
+    static void startLeaf(MessageDigest md) {
+        md.update(LEAF_PREFIX);
+    }
+
+    /**
+     * Build the tree over the given leaves, which are taken over
+     */
+
+    static MerkleTree build(AnyHashing hashing, int chunkSize, long size, byte[][] leaves) {
+        int height = 1;
+        for (int n = leaves.length; n > 1; n = (n + 1) / 2) {
+            height++;
+        }
+        byte[][][] levels = new byte[height][][];
+        levels[0] = leaves;
+        MessageDigest md = hashing.acquire();
+        try {
+            for (int k = 1; k < height; k++) {
+                byte[][] below = levels[k - 1];
+                byte[][] level = new byte[(below.length + 1) / 2][];
+                for (int i = 0; i < level.length; i++) {
+                    if (2 * i + 1 < below.length) {
+                        md.update(NODE_PREFIX);
+                        md.update(below[2 * i]);
+                        md.update(below[2 * i + 1]);
+                        level[i] = md.digest();
+                    } else {
+                        level[i] = below[2 * i];
+                    }
+                }
+                levels[k] = level;
+            }
+        } finally {
+            hashing.release(md);
+        }
+        return new MerkleTree(hashing.getAlgoName(), chunkSize, size, levels);
+    }
+
+    public String getAlgoName() {
+        return algoName;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * The size of the file, in bytes
+     */
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getChunkCount() {
+        return levels[0].length;
+    }
+
+    /**
+     * The offset of chunk "index" in the file
+     */
+
+    public long getChunkStart(int index) {
+        Check.isTrue(0 <= index && index < getChunkCount(), "There is no chunk %s", Integer.valueOf(index));
+        return (long) index * chunkSize;
+    }
+
+    /**
+     * The length of chunk "index"; only the last chunk may be shorter than the chunk size
+     */
+
+    public int getChunkLength(int index) {
+        return (int) Math.min(chunkSize, size - getChunkStart(index));
+    }
+
+    /**
+     * The leaf hash of chunk "index"
+     */
+
+    public byte[] getLeaf(int index) {
+        Check.isTrue(0 <= index && index < getChunkCount(), "There is no chunk %s", Integer.valueOf(index));
+        return levels[0][index].clone();
+    }
+
+    public byte[] getRoot() {
+        return levels[levels.length - 1][0].clone();
+    }
+
+    /**
+     * The root encoded to hex (as ByteCoding does), i.e. in the same case as the results of hashToHex()
+     */
+
+    public String getRootHex() {
+        return ByteCoding.toHexString(levels[levels.length - 1][0]);
+    }
+
+    /**
+     * Compare the leaf hash of chunk "index" with a freshly computed one
+     */
+
+    boolean leafEquals(int index, byte[] leaf) {
+        return MessageDigest.isEqual(levels[0][index], leaf);
+    }
+
+    /**
+     * The indexes of the chunks, in ascending order, that differ between this tree and "other", which must have the
+     * same algorithm and chunk size. Chunks that only one of the trees has are counted as differing. Between trees with
+     * the same number of chunks, only the subtrees whose roots differ are descended into.
+     */
+
+    public int[] findDifferingChunks(MerkleTree other) {
+        Check.notNull(other, "other tree");
+        Check.isTrue(algoName.equals(other.algoName), "The trees were computed with '%s' and '%s'", algoName, other.algoName);
+        Check.isTrue(chunkSize == other.chunkSize, "The trees have chunks of %s and %s bytes", Integer.valueOf(chunkSize), Integer.valueOf(other.chunkSize));
+        int[] res = new int[Math.max(getChunkCount(), other.getChunkCount())];
+        int count = 0;
+        if (getChunkCount() == other.getChunkCount()) {
+            count = findDifferingChunks(other, levels.length - 1, 0, res, count);
+        } else {
+            for (int i = 0; i < res.length; i++) {
+                if (i >= getChunkCount() || i >= other.getChunkCount() || !MessageDigest.isEqual(levels[0][i], other.levels[0][i])) {
+                    res[count++] = i;
+                }
+            }
+        }
+        return Arrays.copyOf(res, count);
+    }
+
+    private int findDifferingChunks(MerkleTree other, int level, int index, int[] res, int count) {
+        if (MessageDigest.isEqual(levels[level][index], other.levels[level][index])) {
+            return count;
+        }
+        if (level == 0) {
+            res[count] = index;
+            return count + 1;
+        }
+        int newCount = findDifferingChunks(other, level - 1, 2 * index, res, count);
+        if (2 * index + 1 < levels[level - 1].length) {
+            newCount = findDifferingChunks(other, level - 1, 2 * index + 1, res, newCount);
+        }
+        return newCount;
+    }
+
+    /**
+     * Serialize, leaves only
+     */
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(algoName);
+            out.writeInt(chunkSize);
+            out.writeLong(size);
+            out.writeInt(levels[0][0].length);
+            for (byte[] leaf : levels[0]) {
+                out.write(leaf);
+            }
+            out.close();
+            return bos.toByteArray();
+        } catch (IOException exe) {
+            Check.cannotHappen(exe);
+            throw new Error(Check.NEVER_GET_HERE_BUT_NEEDED_FOR_KEEPING_COMPILER_HAPPY);
+        }
+    }
+
+    /**
+     * Deserialize what toBytes() gave; the inner nodes are recomputed with "hashing", which must use the algorithm
+     * the tree was computed with
+     */
+
+    public static MerkleTree fromBytes(byte[] bytes, AnyHashing hashing) throws IOException {
+        Check.notNull(bytes, "bytes");
+        Check.notNull(hashing, "hashing");
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a serialized Merkle tree, or one of an unknown version");
+        }
+        String algoName = in.readUTF();
+        if (!algoName.equals(hashing.getAlgoName())) {
+            throw new IOException("The tree was computed with '" + algoName + "', not '" + hashing.getAlgoName() + "'");
+        }
+        int chunkSize = in.readInt();
+        long size = in.readLong();
+        int digestLength = in.readInt();
+        if (chunkSize <= 0 || size < 0 || digestLength <= 0) {
+            throw new IOException("Bad chunk size " + chunkSize + ", size " + size + " or digest length " + digestLength);
+        }
+        int count = chunkCount(size, chunkSize);
+        if ((long) count * digestLength != in.available()) {
+            throw new IOException("Expected " + count + " leaves of " + digestLength + " bytes, but " + in.available() + " bytes remain");
+        }
+        byte[][] leaves = new byte[count][digestLength];
+        for (byte[] leaf : leaves) {
+            in.readFully(leaf);
+        }
+        return build(hashing, chunkSize, size, leaves);
+    }
+}
@@ -0,0 +1,198 @@
+package hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * MurmurHash3 x64_128 (Austin Appleby), in pure Java. hash64() gives the
+ * first half of the 128-bit hash, hash128() both halves, written to an
+ * array supplied by the caller. The seed is taken as unsigned 32 bits, as
+ * by the reference implementation.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class Murmur3Hashing extends FastHashing {
+
+    private final static long C1 = 0x87C37B91114253D5L;
+    private final static long C2 = 0x4CF5AD432745937FL;
+
+    /**
+     * Canonical instance to be used by all, with seed 0
+     */
+
+    public final static Murmur3Hashing CI = new Murmur3Hashing(0);
+
+    private final long seed;
+
+    /**
+     * Constructor for another seed
+     */
+
+    public Murmur3Hashing(int seed) {
+        this.seed = seed & 0xFFFFFFFFL;
+    }
+
+    @Override
+    long hash64(ByteBuffer buf, int from, int length, boolean swap) {
+        return hashBytes(buf, from, length, swap, null);
+    }
+
+    @Override
+    public long hash64(CharSequence input) {
+        return hashChars(input, null);
+    }
+
+    /**
+     * Hash a byte array, writing the 128-bit hash to result[0] and result[1]
+     */
+
+    public void hash128(byte[] input, long[] result) {
+        Check.notNull(input, "input array");
+        hash128(input, 0, input.length, result);
+    }
+
+    /**
+     * Hash "length" bytes of "input" from "offset" on, writing the 128-bit hash to result[0] and result[1]
+     */
+
+    public void hash128(byte[] input, int offset, int length, long[] result) {
+        Check.notNull(input, "input array");
+        checkRange(input.length, offset, length);
+        checkResult(result);
+        hashBytes(ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN), offset, length, false, result);
+    }
+
+    /**
+     * Hash the remaining bytes of "input", writing the 128-bit hash to result[0] and result[1]. The position is not
+     * changed.
+     */
+
+    public void hash128(ByteBuffer input, long[] result) {
+        Check.notNull(input, "input buffer");
+        checkResult(result);
+        hashBytes(input, input.position(), input.remaining(), input.order() == ByteOrder.BIG_ENDIAN, result);
+    }
+
+    /**
+     * Hash the UTF-16 code units of a CharSequence, writing the 128-bit hash to result[0] and result[1]
+     */
+
+    public void hash128(CharSequence input, long[] result) {
+        checkResult(result);
+        hashChars(input, result);
+    }
+
+    private static void checkResult(long[] result) {
+        Check.notNull(result, "result array");
+        Check.isTrue(result.length >= 2, "The result array has length %s, it needs at least 2", Integer.valueOf(result.length));
+    }
+
+    /**
+     * Hash; returns the first half and writes both halves to "result" unless that is null
+     */
+
+    private long hashBytes(ByteBuffer buf, int from, int length, boolean swap, long[] result) {
+        long h1 = seed;
+        long h2 = seed;
+        int p = from;
+        int limit = from + (length & ~15);
+        while (p < limit) {
+            h1 = mixH1(h1, h2, getLong(buf, p, swap));
+            h2 = mixH2(h2, h1, getLong(buf, p + 8, swap));
+            p += 16;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int rest = length & 15;
+        for (int i = rest - 1; i >= 8; i--) {
+            k2 = (k2 << 8) | (buf.get(p + i) & 0xFF);
+        }
+        for (int i = Math.min(rest, 8) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (buf.get(p + i) & 0xFF);
+        }
+        return finish(h1, h2, k1, k2, length, result);
+    }
+
+    private long hashChars(CharSequence cs, long[] result) {
+        Check.notNull(cs, "input char sequence");
+        int n = cs.length();
+        long h1 = seed;
+        long h2 = seed;
+        int p = 0; // in chars
+        int limit = n & ~7;
+        while (p < limit) {
+            h1 = mixH1(h1, h2, getLong(cs, p));
+            h2 = mixH2(h2, h1, getLong(cs, p + 4));
+            p += 8;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int rest = n & 7;
+        for (int i = rest - 1; i >= 4; i--) {
+            k2 = (k2 << 16) | cs.charAt(p + i);
+        }
+        for (int i = Math.min(rest, 4) - 1; i >= 0; i--) {
+            k1 = (k1 << 16) | cs.charAt(p + i);
+        }
+        return finish(h1, h2, k1, k2, 2L * n, result);
+    }
+
+    private static long mixH1(long h1, long h2, long k1) {
+        long h = h1 ^ mixK1(k1);
+        h = Long.rotateLeft(h, 27) + h2;
+        return h * 5 + 0x52DCE729;
+    }
+
+    private static long mixH2(long h2, long h1, long k2) {
+        long h = h2 ^ mixK2(k2);
+        h = Long.rotateLeft(h, 31) + h1;
+        return h * 5 + 0x38495AB5;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long finish(long h1In, long h2In, long k1, long k2, long length, long[] result) {
+        long h1 = h1In ^ mixK1(k1);
+        long h2 = h2In ^ mixK2(k2);
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        if (result != null) {
+            result[0] = h1;
+            result[1] = h2;
+        }
+        return h1;
+    }
+
+    private static long fmix(long x) {
+        long k = x;
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
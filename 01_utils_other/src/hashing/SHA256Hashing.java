@@ -0,0 +1,34 @@
+package hashing;
+
+
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A functionality to do SHA-256 hashing
+ * 
+ * 2026.10.19 - Created
+ ******************************************************************************/
+ 
+public class SHA256Hashing extends AnyHashing {
+
+    /**
+     * Canonical instance to be used by all
+     */
+    
+    public final static SHA256Hashing CI = new SHA256Hashing();
+    
+    /**
+     * Ureachable constructor
+     */
+    
+    private SHA256Hashing() {
+        super("SHA-256");
+    }
+}
@@ -0,0 +1,37 @@
+package hashing;
+
+
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * A functionality to do SHA3-256 hashing
+ * 
+ * The JDK provides SHA3 from Java 9 on; on older JVMs, isAvailable() is
+ * false and hashing throws IllegalStateException.
+ * 
+ * 2026.10.19 - Created
+ ******************************************************************************/
+ 
+public class SHA3_256Hashing extends AnyHashing {
+
+    /**
+     * Canonical instance to be used by all
+     */
+    
+    public final static SHA3_256Hashing CI = new SHA3_256Hashing();
+    
+    /**
+     * Ureachable constructor
+     */
+    
+    private SHA3_256Hashing() {
+        super("SHA3-256");
+    }
+}
@@ -0,0 +1,237 @@
+package hashing;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Tree hashing of large files: the file is cut into chunks of a fixed size,
+ * which are hashed in parallel on a ForkJoinPool, then combined into a
+ * MerkleTree. Chunks of MAP_THRESHOLD bytes or more are memory-mapped and
+ * hashed without copying into the heap.
+ *
+ * The root depends on the chunk size and on the AnyHashing used; it is not
+ * the plain hash of the file.
+ *
+ * Against the tree of the original, a received file can be verified as a
+ * whole (findCorruptedChunks()), which locates the corrupted chunks so only
+ * those need to be transferred again, or one chunk at a time as they
+ * arrive (verifyChunk()).
+ *
+ * Instances are thread-safe.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TreeHashing {
+
+    public final static int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    public final static int MAX_CHUNK_SIZE = 1024 * 1024 * 1024;
+
+    private final static int MAP_THRESHOLD = 1024 * 1024; // chunks at least that large are memory-mapped
+
+    private final AnyHashing hashing;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Leaves computed in parallel; the first exception thrown is kept and the rest of the work goes on
+     */
+
+    private final static class LeafJob {
+
+        final FileChannel channel;
+        final int chunkSize;
+        final long size;
+        final byte[][] leaves;
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+        LeafJob(FileChannel channel, int chunkSize, long size) {
+            this.channel = channel;
+            this.chunkSize = chunkSize;
+            this.size = size;
+            this.leaves = new byte[MerkleTree.chunkCount(size, chunkSize)][];
+        }
+    }
+
+    private final class LeafTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LeafJob job;
+        private final int from;
+        private final int to;
+
+        LeafTask(LeafJob job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                long start = (long) from * job.chunkSize;
+                try {
+                    job.leaves[from] = hashChunk(job.channel, start, (int) Math.min(job.chunkSize, job.size - start));
+                } catch (Exception exe) {
+                    job.failure.compareAndSet(null, exe);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LeafTask(job, from, middle), new LeafTask(job, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Constructor with the default chunk size
+     */
+
+    public TreeHashing(AnyHashing hashing, ForkJoinPool pool) {
+        this(hashing, pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor
+     */
+
+    public TreeHashing(AnyHashing hashing, ForkJoinPool pool, int chunkSize) {
+        Check.notNull(hashing, "hashing");
+        Check.notNull(pool, "pool");
+        Check.isTrue(0 < chunkSize && chunkSize <= MAX_CHUNK_SIZE, "The chunk size must be in ]0,%s] but is %s", Integer.valueOf(MAX_CHUNK_SIZE), Integer.valueOf(chunkSize));
+        this.hashing = hashing;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Compute the tree of the whole content of the file behind "channel", whatever the channel's position, which is not
+     * changed. The channel is not closed.
+     */
+
+    public MerkleTree hash(FileChannel channel) throws IOException {
+        Check.notNull(channel, "file channel");
+        return hash(channel, chunkSize);
+    }
+
+    /**
+     * Compute the tree of the content of a file
+     */
+
+    public MerkleTree hash(File file) throws IOException {
+        Check.notNull(file, "file");
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return hash(in.getChannel());
+        } finally {
+            in.close(); // also closes the channel
+        }
+    }
+
+    /**
+     * Compare the file behind "channel" with the file "expected" was computed on; returns the indexes of the chunks
+     * that differ, in ascending order, chunks beyond the end of the shorter file included. The chunk size of
+     * "expected" is used, whatever the one of this instance.
+     */
+
+    public int[] findCorruptedChunks(FileChannel channel, MerkleTree expected) throws IOException {
+        Check.notNull(channel, "file channel");
+        checkAlgoName(expected);
+        return expected.findDifferingChunks(hash(channel, expected.getChunkSize()));
+    }
+
+    /**
+     * Compare the content of a file with the file "expected" was computed on, as findCorruptedChunks(FileChannel,...)
+     */
+
+    public int[] findCorruptedChunks(File file, MerkleTree expected) throws IOException {
+        Check.notNull(file, "file");
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return findCorruptedChunks(in.getChannel(), expected);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Check chunk "index" of the file behind "channel" against "expected", in the calling thread. The chunk is read at
+     * the offset it has in the original file; false if the file is too short to hold all of it.
+     */
+
+    public boolean verifyChunk(FileChannel channel, MerkleTree expected, int index) throws IOException {
+        Check.notNull(channel, "file channel");
+        checkAlgoName(expected);
+        long start = expected.getChunkStart(index);
+        int length = expected.getChunkLength(index);
+        if (channel.size() < start + length) {
+            return false;
+        }
+        return expected.leafEquals(index, hashChunk(channel, start, length));
+    }
+
+    private void checkAlgoName(MerkleTree expected) {
+        Check.notNull(expected, "expected tree");
+        Check.isTrue(expected.getAlgoName().equals(hashing.getAlgoName()), "The tree was computed with '%s', not '%s'", expected.getAlgoName(), hashing.getAlgoName());
+    }
+
+    private MerkleTree hash(FileChannel channel, int chunkSize) throws IOException {
+        LeafJob job = new LeafJob(channel, chunkSize, channel.size());
+        pool.invoke(new LeafTask(job, 0, job.leaves.length));
+        Exception failure = job.failure.get();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+        return MerkleTree.build(hashing, chunkSize, job.size, job.leaves);
+    }
+
+    /**
+     * The leaf hash of the "length" bytes of the file from "start" on
+     */
+
+    private byte[] hashChunk(FileChannel channel, long start, int length) throws IOException {
+        MessageDigest md = hashing.acquire();
+        try {
+            MerkleTree.startLeaf(md);
+            if (length >= MAP_THRESHOLD) {
+                md.update(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            } else {
+                ByteBuffer buf = ByteBuffer.allocate(length);
+                while (buf.hasRemaining()) {
+                    if (channel.read(buf, start + buf.position()) < 0) {
+                        throw new EOFException("The file ends within the chunk at " + start + ", it may have been truncated while hashing");
+                    }
+                }
+                buf.flip();
+                md.update(buf);
+            }
+            return md.digest();
+        } finally {
+            hashing.release(md);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package hashing;
+
+import java.nio.ByteBuffer;
+
+import com.mplify.checkers.Check;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * xxHash64 (XXH64 as specified by Yann Collet), in pure Java. Gives the same
+ * values as the reference implementation for the same seed.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class XxHash64Hashing extends FastHashing {
+
+    private final static long P1 = 0x9E3779B185EBCA87L;
+    private final static long P2 = 0xC2B2AE3D27D4EB4FL;
+    private final static long P3 = 0x165667B19E3779F9L;
+    private final static long P4 = 0x85EBCA77C2B2AE63L;
+    private final static long P5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * Canonical instance to be used by all, with seed 0
+     */
+
+    public final static XxHash64Hashing CI = new XxHash64Hashing(0);
+
+    private final long seed;
+
+    /**
+     * Constructor for another seed
+     */
+
+    public XxHash64Hashing(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    long hash64(ByteBuffer buf, int from, int length, boolean swap) {
+        int p = from;
+        int end = from + length;
+        long h;
+        if (length >= 32) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            int limit = end - 32;
+            do {
+                v1 = round(v1, getLong(buf, p, swap));
+                v2 = round(v2, getLong(buf, p + 8, swap));
+                v3 = round(v3, getLong(buf, p + 16, swap));
+                v4 = round(v4, getLong(buf, p + 24, swap));
+                p += 32;
+            } while (p <= limit);
+            h = merge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += length;
+        while (p + 8 <= end) {
+            h = mixLong(h, getLong(buf, p, swap));
+            p += 8;
+        }
+        if (p + 4 <= end) {
+            h = mixInt(h, getInt(buf, p, swap));
+            p += 4;
+        }
+        while (p < end) {
+            h = mixByte(h, buf.get(p) & 0xFF);
+            p++;
+        }
+        return avalanche(h);
+    }
+
+    @Override
+    public long hash64(CharSequence input) {
+        Check.notNull(input, "input char sequence");
+        int n = input.length();
+        int p = 0; // in chars
+        long h;
+        if (n >= 16) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            int limit = n - 16;
+            do {
+                v1 = round(v1, getLong(input, p));
+                v2 = round(v2, getLong(input, p + 4));
+                v3 = round(v3, getLong(input, p + 8));
+                v4 = round(v4, getLong(input, p + 12));
+                p += 16;
+            } while (p <= limit);
+            h = merge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += 2L * n;
+        while (p + 4 <= n) {
+            h = mixLong(h, getLong(input, p));
+            p += 4;
+        }
+        if (p + 2 <= n) {
+            h = mixInt(h, input.charAt(p) | (input.charAt(p + 1) << 16));
+            p += 2;
+        }
+        if (p < n) {
+            h = mixByte(h, getByte(input, 2 * p));
+            h = mixByte(h, getByte(input, 2 * p + 1));
+        }
+        return avalanche(h);
+    }
+
+    private static long round(long acc, long lane) {
+        return Long.rotateLeft(acc + lane * P2, 31) * P1;
+    }
+
+    private static long merge(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+        h = (h ^ round(0, v1)) * P1 + P4;
+        h = (h ^ round(0, v2)) * P1 + P4;
+        h = (h ^ round(0, v3)) * P1 + P4;
+        h = (h ^ round(0, v4)) * P1 + P4;
+        return h;
+    }
+
+    private static long mixLong(long h, long lane) {
+        return Long.rotateLeft(h ^ round(0, lane), 27) * P1 + P4;
+    }
+
+    private static long mixInt(long h, int lane) {
+        return Long.rotateLeft(h ^ ((lane & 0xFFFFFFFFL) * P1), 23) * P2 + P3;
+    }
+
+    private static long mixByte(long h, int b) {
+        return Long.rotateLeft(h ^ (b * P5), 11) * P1;
+    }
+
+    private static long avalanche(long x) {
+        long h = x;
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+}
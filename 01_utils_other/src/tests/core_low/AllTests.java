@@ -33,6 +33,19 @@ import com.mplify.junit.TestStarter;
  * 2013.01.02 - Adapted to use TestStarter and JUnit 4 
  * 2013.01.29 - Added com.mplify.logic.TestLogicExpr
  * 2013.02.18 - Added TestCaseXMLHelper2
+ * 2026.10.19 - Added TestCaseDirectDialPrefixTrie
+ * 2026.10.19 - Added TestCaseDirectDialPrefixClassifier
+ * 2026.10.19 - Added TestCaseDirectDialPrefixMatrix
+ * 2026.10.19 - Added TestCaseNumberingPlan
+ * 2026.10.19 - Added TestCaseGcmSymmetricKey
+ * 2026.10.19 - Added TestCaseEncryptedStreams
+ * 2026.10.19 - Added TestCaseFramedPacker
+ * 2026.10.19 - Added TestCaseCompressionCodecs
+ * 2026.10.19 - Added TestCaseKeyManager
+ * 2026.10.19 - Added TestCaseHashing
+ * 2026.10.19 - Added TestCaseFastHashing
+ * 2026.10.19 - Added TestCaseTreeHashing
+ * 2026.10.19 - Added TestCaseFileHashCache
  *******************************************************************************/
 
 @RunWith(Suite.class)
@@ -41,7 +54,12 @@ import com.mplify.junit.TestStarter;
         TestCaseLocalDate.class, TestCaseLocalDateAndTime.class, TestCaseLocalTime.class, TestCaseLocalTimeParser.class, TestCaseMarshalUnmarshalPayload.class,
         TestCaseMarshalUnmarshalProperties.class, TestCasePayload.class, TestCasePhoneNumber.class, TestCaseRfc3066LangTag.class, TestCaseStringPacking.class, TestCaseTvec.class,
         TestReadingFilesWithNonAsciiFilenames.class, TestCaseConfirmationRequestSet.class,
-        com.mplify.logic.TestCaseLogicExpr.class, TestCaseMutableBoolean.class, TestCaseXMLHelper2.class })
+        com.mplify.logic.TestCaseLogicExpr.class, TestCaseMutableBoolean.class, TestCaseXMLHelper2.class,
+        TestCaseDirectDialPrefixTrie.class, TestCaseDirectDialPrefixClassifier.class,
+        TestCaseDirectDialPrefixMatrix.class, TestCaseNumberingPlan.class, TestCaseGcmSymmetricKey.class,
+        TestCaseEncryptedStreams.class, TestCaseFramedPacker.class, TestCaseCompressionCodecs.class,
+        TestCaseKeyManager.class, TestCaseHashing.class, TestCaseFastHashing.class,
+        TestCaseTreeHashing.class, TestCaseFileHashCache.class })
 public class AllTests extends TestStarter {
 
     // NOP, currently just a holder for annotations to be used by a JUnit Runner
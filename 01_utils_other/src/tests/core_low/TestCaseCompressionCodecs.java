@@ -0,0 +1,167 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+
+import com.mplify.crypto.CompressionCodec;
+import com.mplify.crypto_impl.DeflateCodec;
+import com.mplify.crypto_impl.EntropyCheck;
+import com.mplify.crypto_impl.Lz4BlockCodec;
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the compression codecs (round trips, refusal of malformed data)
+ * and the entropy estimate of EntropyCheck
+ ******************************************************************************/
+
+public class TestCaseCompressionCodecs extends TestStarter {
+
+    private static byte[] text(int length) {
+        byte[] res = new byte[length];
+        Random rand = new Random(length);
+        String[] words = { "{\"id\":", "\"name\":", "\"amount\":", "customer", "invoice", ", ", "}", "\n", "Luxembourg", "12.50" };
+        int i = 0;
+        while (i < length) {
+            String word = words[rand.nextInt(words.length)];
+            for (int k = 0; k < word.length() && i < length; k++) {
+                res[i++] = (byte) word.charAt(k);
+            }
+        }
+        return res;
+    }
+
+    private static byte[] repeated(int length, int period) {
+        byte[] res = new byte[length];
+        for (int i = 0; i < length; i++) {
+            res[i] = (byte) (i % period);
+        }
+        return res;
+    }
+
+    /**
+     * Compress what is at offset 3 of a larger array, then decompress at offset 5 of a larger array
+     */
+
+    private static void assertRoundTrip(CompressionCodec codec, byte[] data, boolean mustShrink) throws IOException {
+        byte[] src = new byte[data.length + 6];
+        System.arraycopy(data, 0, src, 3, data.length);
+        byte[] compressed = codec.compress(src, 3, data.length);
+        if (mustShrink) {
+            assertTrue(data.length + " bytes", compressed != null && compressed.length < data.length);
+        }
+        if (compressed != null) {
+            assertTrue(compressed.length < data.length);
+            byte[] dst = new byte[data.length + 7];
+            codec.decompress(compressed, 0, compressed.length, dst, 5, data.length);
+            assertTrue(data.length + " bytes", Arrays.equals(data, Arrays.copyOfRange(dst, 5, 5 + data.length)));
+        }
+    }
+
+    private static void roundTrips(CompressionCodec codec) throws IOException {
+        for (int length : new int[] { 0, 1, 12, 13, 14, 20, 100, 1000, 65536, 200 * 1000 }) {
+            assertRoundTrip(codec, text(length), length >= 100);
+            assertRoundTrip(codec, new byte[length], length >= 20);
+            assertRoundTrip(codec, repeated(length, 3), length >= 20); // overlapping matches
+            assertRoundTrip(codec, repeated(length, 251), length >= 1000);
+            assertRoundTrip(codec, HelperForTestCases.createFullyRandomByteStream(length), false);
+        }
+        // matches farther away than 64 KiB
+        byte[] block = HelperForTestCases.createFullyRandomByteStream(1000);
+        byte[] far = new byte[3 * 70 * 1000];
+        for (int i = 0; i < 3; i++) {
+            System.arraycopy(block, 0, far, i * 70 * 1000, block.length);
+        }
+        assertRoundTrip(codec, far, true);
+    }
+
+    @Test
+    public void testDeflateRoundTrips() throws IOException {
+        roundTrips(new DeflateCodec());
+        roundTrips(new DeflateCodec(1));
+        roundTrips(new DeflateCodec(Deflater.DEFAULT_COMPRESSION, 0)); // nothing kept, every instance is ended
+    }
+
+    @Test
+    public void testLz4RoundTrips() throws IOException {
+        roundTrips(new Lz4BlockCodec());
+    }
+
+    @Test
+    public void testRandomDataDoesNotShrink() {
+        byte[] random = HelperForTestCases.createFullyRandomByteStream(10000);
+        assertNull(new DeflateCodec().compress(random, 0, random.length));
+        assertNull(new Lz4BlockCodec().compress(random, 0, random.length));
+    }
+
+    @Test
+    public void testMalformedDataIsRefused() throws IOException {
+        CompressionCodec[] codecs = { new DeflateCodec(), new Lz4BlockCodec() };
+        byte[] data = text(5000);
+        Random rand = new Random(4711);
+        for (CompressionCodec codec : codecs) {
+            byte[] compressed = codec.compress(data, 0, data.length);
+            byte[] dst = new byte[data.length];
+            // cut off, claiming another length, garbage
+            assertRefused(codec, Arrays.copyOf(compressed, compressed.length - 1), dst, data.length);
+            assertRefused(codec, compressed, dst, data.length - 1);
+            assertRefused(codec, compressed, new byte[data.length + 1], data.length + 1);
+            for (int i = 0; i < 200; i++) {
+                byte[] garbage = compressed.clone();
+                garbage[rand.nextInt(garbage.length)] = (byte) rand.nextInt();
+                garbage[rand.nextInt(garbage.length)] = (byte) rand.nextInt();
+                try {
+                    codec.decompress(garbage, 0, garbage.length, dst, 0, data.length);
+                } catch (IOException exe) {
+                    // expected, unless the damage happens to keep the data valid; but nothing else must be thrown
+                }
+            }
+        }
+    }
+
+    private static void assertRefused(CompressionCodec codec, byte[] compressed, byte[] dst, int plainLength) {
+        try {
+            codec.decompress(compressed, 0, compressed.length, dst, 0, plainLength);
+            fail("Should have been refused");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEntropyCheck() {
+        byte[] random = HelperForTestCases.createFullyRandomByteStream(EntropyCheck.SAMPLE_SIZE);
+        assertTrue(EntropyCheck.bitsPerByte(random, 0, random.length) > 7.8);
+        assertTrue(EntropyCheck.looksIncompressible(random, 0, random.length));
+        byte[] text = text(EntropyCheck.SAMPLE_SIZE);
+        assertTrue(EntropyCheck.bitsPerByte(text, 0, text.length) < 6);
+        assertFalse(EntropyCheck.looksIncompressible(text, 0, text.length));
+        assertEquals(0.0, EntropyCheck.bitsPerByte(new byte[100], 0, 100), 0.0);
+        assertEquals(8.0, EntropyCheck.bitsPerByte(repeated(256, 256), 0, 256), 1e-9);
+        assertEquals(0.0, EntropyCheck.bitsPerByte(random, 0, 0), 0.0);
+        // too short to judge
+        assertFalse(EntropyCheck.looksIncompressible(random, 0, EntropyCheck.MIN_SAMPLE_SIZE - 1));
+        // deflated data looks random too
+        byte[] bigText = text(100 * 1000);
+        byte[] deflated = new DeflateCodec().compress(bigText, 0, bigText.length);
+        assertTrue(EntropyCheck.looksIncompressible(deflated, 0, deflated.length));
+    }
+}
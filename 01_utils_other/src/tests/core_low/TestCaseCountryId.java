@@ -27,6 +27,8 @@ import com.mplify.junit.TestStarter;
  * 2005.04.26 - Created
  * 2009.01.07 - Added testing of canonical names
  * 2010.10.10 - Simpler main() added. The new main() uses annotations.
+ * 2026.10.19 - isValid() checked on values just outside the table
+ * 2026.10.19 - Canonical names checked ignoring case and whitespace
  *******************************************************************************/
 
 //@SuppressWarnings("static-method")
@@ -101,6 +103,9 @@ public class TestCaseCountryId extends TestStarter {
             assertTrue("Problem with " + cid, CountryId.isValid(cid.getValue()));
         }
         assertFalse(CountryId.isValid(new Integer(2000)));
+        assertFalse(CountryId.isValid((Integer) null));
+        assertFalse(CountryId.isValid(0));
+        assertFalse(CountryId.isValid(-2));
     }
 
     @Test
@@ -110,6 +115,9 @@ public class TestCaseCountryId extends TestStarter {
             CountryId back = CountryId.obtainFromCanonicalName(canoName, true);
             assertEquals("Problem with " + cid, cid, back);
         }
+        assertEquals(CountryId.LUXEMBOURG, CountryId.obtainFromCanonicalName(" Luxembourg\t", true));
+        assertEquals(CountryId.LUXEMBOURG, CountryId.obtainFromCanonicalName(new StringBuilder("LUXEMBOURG"), true));
+        assertEquals(null, CountryId.obtainFromCanonicalName("luxembourgish", false));
         try {
             CountryId.obtain(2000);
             fail("Obtaining 2000 should throw Exception");
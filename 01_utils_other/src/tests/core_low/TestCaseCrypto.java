@@ -1,7 +1,14 @@
 package tests.core_low;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.crypto.spec.SecretKeySpec;
 
 import org.junit.Test;
@@ -25,6 +32,7 @@ import com.mplify.junit.HelperForTestCases;
  *******************************************************************************
  * Testing cryptography
  * 
+ * 2026.10.19 - Added tests for the ByteBuffer variants and concurrent use
  *******************************************************************************/
 import com.mplify.junit.TestStarter;
 
@@ -86,4 +94,77 @@ public class TestCaseCrypto extends TestStarter {
             HelperForTestCases.compareByteArrays(input, reinput, logger);
         }
     }
+
+    @Test
+    public void testByteBuffers() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey crypto = new SymmetricKeyImpl(sks);
+        ByteBuffer cipherText = ByteBuffer.allocateDirect(crypto.getMaxEncryptedLength(5000));
+        ByteBuffer plainText = ByteBuffer.allocate(cipherText.capacity()); // decryption wants room for the whole ciphertext
+        for (int i = 0; i < 5000; i += 37) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(i);
+            // same ciphertext as the byte[] variant (ECB, no IV)
+            cipherText.clear();
+            int written = crypto.encrypt(ByteBuffer.wrap(input), cipherText);
+            assertEquals(crypto.getMaxEncryptedLength(i), written);
+            cipherText.flip();
+            byte[] viaBuffer = new byte[written];
+            cipherText.duplicate().get(viaBuffer);
+            assertTrue(Arrays.equals(crypto.encrypt(input), viaBuffer));
+            // and back
+            plainText.clear();
+            assertEquals(i, crypto.decrypt(cipherText, plainText));
+            assertEquals(0, cipherText.remaining());
+            plainText.flip();
+            byte[] reinput = new byte[plainText.remaining()];
+            plainText.get(reinput);
+            assertTrue(Arrays.equals(input, reinput));
+        }
+    }
+
+    @Test
+    public void testShortOutputBuffer() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey crypto = new SymmetricKeyImpl(sks);
+        try {
+            crypto.encrypt(ByteBuffer.allocate(16), ByteBuffer.allocate(16));
+            fail("Expected failure on short output buffer");
+        } catch (Exception exe) {
+            // expected
+        }
+        // the key is still usable afterwards
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(100);
+        assertTrue(Arrays.equals(input, crypto.decrypt(crypto.encrypt(input))));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        final SymmetricKey crypto = new SymmetricKeyImpl(sks);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 2000; i++) {
+                            byte[] input = HelperForTestCases.createFullyRandomByteStream(i % 300);
+                            byte[] output = crypto.encrypt(input);
+                            if (!Arrays.equals(input, crypto.decrypt(output))) {
+                                throw new IllegalStateException("Mismatch at length " + input.length);
+                            }
+                        }
+                    } catch (Throwable exe) {
+                        failure.set(exe);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
 }
@@ -0,0 +1,148 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mplify.countries.CountryId;
+import com.mplify.countries.DirectDialPrefixClassifier;
+import com.mplify.countries.DirectDialPrefixClassifier.Counts;
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixMatrix;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the bulk classification of DirectDialPrefixClassifier against
+ * one-at-a-time lookups through DirectDialPrefixId and DirectDialPrefixMatrix
+ ******************************************************************************/
+
+public class TestCaseDirectDialPrefixClassifier extends TestStarter {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static List<String> generateNumbers(int count) {
+        Random rand = new Random(4711);
+        List<String> res = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder buf = new StringBuilder();
+            if (rand.nextInt(50) != 0) {
+                buf.append(DirectDialPrefixId.LIST.get(rand.nextInt(DirectDialPrefixId.LIST.size())).getDdPrefix());
+            }
+            int len = 9 + rand.nextInt(5);
+            while (buf.length() < len) {
+                buf.append((char) ('0' + rand.nextInt(10)));
+            }
+            res.add(buf.toString());
+        }
+        return res;
+    }
+
+    private static byte[] asLines(List<String> numbers) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < numbers.size(); i++) {
+            buf.append(numbers.get(i));
+            buf.append((i % 3 == 0) ? "\r\n" : "\n");
+            if (i % 1000 == 0) {
+                buf.append("  \n"); // blank lines are skipped
+            }
+        }
+        return buf.toString().getBytes();
+    }
+
+    private static void assertSameAsOneByOne(List<String> numbers, Counts counts) {
+        Map<DirectDialPrefixId, Long> byPrefix = new HashMap<DirectDialPrefixId, Long>();
+        Map<CountryId, Long> byCountry = new HashMap<CountryId, Long>();
+        long unmatched = 0;
+        for (String number : numbers) {
+            DirectDialPrefixId prefixId = DirectDialPrefixId.obtainUsingBestFit(number, false);
+            if (prefixId == null) {
+                unmatched++;
+                continue;
+            }
+            increment(byPrefix, prefixId);
+            for (CountryId cid : DirectDialPrefixMatrix.getTargets(prefixId)) {
+                increment(byCountry, cid);
+            }
+        }
+        assertEquals(numbers.size(), counts.getTotal());
+        assertEquals(unmatched, counts.getUnmatched());
+        assertEquals(byPrefix, counts.getCountsByPrefix());
+        assertEquals(byCountry, counts.getCountsByCountry());
+    }
+
+    private static <K> void increment(Map<K, Long> map, K key) {
+        Long x = map.get(key);
+        map.put(key, Long.valueOf(x == null ? 1 : x.longValue() + 1));
+    }
+
+    @Test
+    public void testList() {
+        List<String> numbers = generateNumbers(50000);
+        assertSameAsOneByOne(numbers, DirectDialPrefixClassifier.getDefault().classify(numbers, pool));
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        // larger than a block, so that blocks are carried over and split into leaves
+        List<String> numbers = generateNumbers(600000);
+        Counts counts = DirectDialPrefixClassifier.getDefault().classify(new ByteArrayInputStream(asLines(numbers)), pool);
+        assertSameAsOneByOne(numbers, counts);
+    }
+
+    @Test
+    public void testAnnotate() throws IOException {
+        List<String> numbers = Arrays.asList("352661123456", "  4412345679910 ", "999123", "", "70951234567");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Counts counts = DirectDialPrefixClassifier.getDefault().annotate(new ByteArrayInputStream(asLines(numbers)), out, pool);
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("352661123456;352;" + CountryId.LUXEMBOURG.getCanonicalName(), lines[0]);
+        assertTrue(lines[1], lines[1].startsWith("4412345679910;44;"));
+        assertEquals("999123;;", lines[2]);
+        assertTrue(lines[3], lines[3].startsWith("70951234567;7;"));
+        assertEquals(4, counts.getTotal());
+        assertEquals(1, counts.getUnmatched());
+        assertEquals(1, counts.getCount(DirectDialPrefixId.CC_352));
+    }
+
+    @Test
+    public void testNoTrailingNewlineAndEmpty() throws IOException {
+        DirectDialPrefixClassifier classifier = DirectDialPrefixClassifier.getDefault();
+        assertEquals(0, classifier.classify(new ByteArrayInputStream(new byte[0]), pool).getTotal());
+        Counts counts = classifier.classify(new ByteArrayInputStream("352661123456\n352691000000".getBytes()), pool);
+        assertEquals(2, counts.getCount(DirectDialPrefixId.CC_352));
+        assertEquals(Long.valueOf(2), counts.getCountsByCountry().get(CountryId.LUXEMBOURG));
+    }
+}
@@ -0,0 +1,98 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.mplify.countries.CompiledDirectDialPrefixMatrix;
+import com.mplify.countries.CountryId;
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixMatrix;
+import com.mplify.countries.DirectDialPrefixTrie;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing DirectDialPrefixMatrix and the CompiledDirectDialPrefixMatrix
+ * behind it, including the binary form
+ ******************************************************************************/
+
+public class TestCaseDirectDialPrefixMatrix extends TestStarter {
+
+    private final static String TEXT = "# comment\n\n352 -> luxembourg\n1 -> united_states, canada\n7->russian_federation\n999 -> nowhere_land\n";
+
+    @Test
+    public void testKnownMappings() {
+        assertEquals(Collections.singleton(CountryId.LUXEMBOURG), DirectDialPrefixMatrix.getTargets(DirectDialPrefixId.CC_352));
+        assertTrue(DirectDialPrefixMatrix.isTarget(DirectDialPrefixId.CC_352, CountryId.LUXEMBOURG));
+        assertFalse(DirectDialPrefixMatrix.isTarget(DirectDialPrefixId.CC_352, CountryId._UNDEFINED));
+        assertTrue(DirectDialPrefixMatrix.getPrefixes(CountryId.LUXEMBOURG, true).contains(DirectDialPrefixId.CC_352));
+        assertTrue(DirectDialPrefixMatrix.getPrefixes(CountryId._NOWHERE, true).isEmpty());
+        assertTrue(DirectDialPrefixMatrix.getPrefixes(CountryId._UNDEFINED, false).isEmpty());
+        try {
+            DirectDialPrefixMatrix.getPrefixes(CountryId._UNDEFINED, true);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBothDirectionsAgree() {
+        for (DirectDialPrefixId prefixId : DirectDialPrefixId.LIST) {
+            Set<CountryId> targets = DirectDialPrefixMatrix.getTargets(prefixId);
+            for (CountryId cid : CountryId.LIST_WITH_UNDEFINED_AND_NOWHERE) {
+                boolean expected = targets.contains(cid);
+                assertEquals(prefixId + "/" + cid, expected, DirectDialPrefixMatrix.isTarget(prefixId, cid));
+                assertEquals(prefixId + "/" + cid, expected, DirectDialPrefixMatrix.getPrefixes(cid, false).contains(prefixId));
+            }
+            try {
+                targets.clear();
+                assertTrue(targets.isEmpty()); // only acceptable if it was empty already
+            } catch (UnsupportedOperationException exe) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseAndBinaryForm() throws IOException {
+        DirectDialPrefixTrie trie = new DirectDialPrefixTrie(Arrays.asList(DirectDialPrefixId.CC_1, DirectDialPrefixId.CC_352, DirectDialPrefixId.CC_7));
+        CompiledDirectDialPrefixMatrix matrix = CompiledDirectDialPrefixMatrix.parse(TEXT, "test", trie);
+        assertEquals(CompiledDirectDialPrefixMatrix.checksum(TEXT), matrix.getSourceChecksum());
+        assertEquals(2, matrix.getTargets(DirectDialPrefixId.CC_1).size());
+        assertTrue(matrix.isTarget(DirectDialPrefixId.CC_1, CountryId.CANADA));
+        assertTrue(matrix.getTargets(DirectDialPrefixId.CC_44).isEmpty()); // not in the trie
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        matrix.writeTo(out);
+        CompiledDirectDialPrefixMatrix copy = CompiledDirectDialPrefixMatrix.readFrom(new ByteArrayInputStream(out.toByteArray()), trie);
+        assertEquals(matrix.getSourceChecksum(), copy.getSourceChecksum());
+        for (int p = 0; p < trie.getPrefixCount(); p++) {
+            assertEquals(matrix.getTargets(p), copy.getTargets(p));
+        }
+        assertEquals(matrix.getPrefixes(CountryId.CANADA), copy.getPrefixes(CountryId.CANADA));
+        try {
+            CompiledDirectDialPrefixMatrix.readFrom(new ByteArrayInputStream(TEXT.getBytes("UTF-8")), trie);
+            fail("Should have thrown");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+}
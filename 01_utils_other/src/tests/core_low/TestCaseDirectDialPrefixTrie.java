@@ -0,0 +1,118 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixTrie;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the DirectDialPrefixTrie behind DirectDialPrefixId's lookups
+ ******************************************************************************/
+
+public class TestCaseDirectDialPrefixTrie extends TestStarter {
+
+    /**
+     * The lookup as it was done before the trie: probe ever shorter prefixes
+     */
+
+    private static DirectDialPrefixId bestFitByProbing(Map<String, DirectDialPrefixId> map, int maxLength, String number) {
+        String prefix = number.substring(0, Math.min(number.length(), maxLength));
+        while (prefix.length() > 0) {
+            DirectDialPrefixId res = map.get(prefix);
+            if (res != null) {
+                return res;
+            }
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return null;
+    }
+
+    @Test
+    public void testSameAsProbing() {
+        Map<String, DirectDialPrefixId> map = new HashMap<String, DirectDialPrefixId>();
+        int maxLength = 0;
+        for (DirectDialPrefixId id : DirectDialPrefixId.LIST) {
+            map.put(id.getDdPrefix(), id);
+            maxLength = Math.max(maxLength, id.getDdPrefix().length());
+        }
+        Random rand = new Random(4711);
+        for (int i = 0; i < 200000; i++) {
+            StringBuilder buf = new StringBuilder();
+            int len = rand.nextInt(14);
+            for (int j = 0; j < len; j++) {
+                buf.append((char) ('0' + rand.nextInt(10)));
+            }
+            if (rand.nextInt(20) == 0 && len > 2) {
+                buf.setCharAt(rand.nextInt(len), '-');
+            }
+            String number = buf.toString();
+            assertSame(number, bestFitByProbing(map, maxLength, number), DirectDialPrefixId.obtainUsingBestFit(number, false));
+        }
+    }
+
+    @Test
+    public void testKnownNumbers() {
+        assertSame(DirectDialPrefixId.CC_352, DirectDialPrefixId.obtainUsingBestFit("352661123456", true));
+        assertSame(DirectDialPrefixId.CC_44, DirectDialPrefixId.obtainUsingBestFit(new StringBuilder("4412345679910"), true));
+        assertSame(DirectDialPrefixId.CC_8816, DirectDialPrefixId.obtainUsingBestFit("881612345", true));
+        assertSame(DirectDialPrefixId.CC_352, DirectDialPrefixId.obtainUsingExactFit("352", true));
+        assertNull(DirectDialPrefixId.obtainUsingExactFit("3526", false));
+        assertNull(DirectDialPrefixId.obtainUsingExactFit("", false));
+        assertNull(DirectDialPrefixId.obtainUsingBestFit("+352661123456", false));
+        try {
+            DirectDialPrefixId.obtainUsingBestFit("0", true);
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        CharSequence[] numbers = { "352661123456", null, "0123", "881912345", "1" };
+        DirectDialPrefixId[] results = new DirectDialPrefixId[numbers.length];
+        int matched = DirectDialPrefixId.obtainUsingBestFit(numbers, results);
+        for (int i = 0; i < numbers.length; i++) {
+            DirectDialPrefixId expected = (numbers[i] == null) ? null : DirectDialPrefixId.obtainUsingBestFit(numbers[i], false);
+            assertSame(expected, results[i]);
+        }
+        assertEquals(3, matched);
+    }
+
+    @Test
+    public void testStandalone() {
+        DirectDialPrefixTrie trie = new DirectDialPrefixTrie(Arrays.asList(DirectDialPrefixId.CC_1, DirectDialPrefixId.CC_352));
+        assertEquals(2, trie.getPrefixCount());
+        assertEquals(3, trie.getMaxPrefixLength());
+        assertEquals(5, trie.getNodeCount()); // root, "1", "3", "35", "352"
+        assertSame(DirectDialPrefixId.CC_1, trie.longestMatch("1555"));
+        assertSame(DirectDialPrefixId.CC_352, trie.longestMatch("x352", 1, 4));
+        assertNull(trie.longestMatch("35"));
+        assertNull(trie.exactMatch("35"));
+        try {
+            new DirectDialPrefixTrie(Arrays.asList(DirectDialPrefixId.CC_1, DirectDialPrefixId.CC_1));
+            fail("Should have thrown");
+        } catch (IllegalArgumentException exe) {
+            // expected
+        }
+    }
+}
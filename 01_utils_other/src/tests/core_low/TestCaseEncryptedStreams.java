@@ -0,0 +1,197 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the streaming variants of SymmetricKey: round trips around frame
+ * boundaries through streams and channels, and (for GCM) detection of cut
+ * off, reordered and modified streams, of frames from other streams and of
+ * changed headers
+ ******************************************************************************/
+
+public class TestCaseEncryptedStreams extends TestStarter {
+
+    private final static int FRAME = 16 * 1024; // the frame size written by the implementations
+    private final static int HEADER = 29; // the length of the stream header
+    private final static int[] LENGTHS = { 0, 1, 15, 16, FRAME - 1, FRAME, FRAME + 1, 3 * FRAME + 5 };
+
+    private static SecretKeySpec newKey() throws Exception {
+        return SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+    }
+
+    private static byte[] encryptViaStream(SymmetricKey crypto, byte[] input) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        OutputStream out = crypto.encryptingStream(buf);
+        try {
+            out.write(input);
+        } finally {
+            out.close();
+        }
+        return buf.toByteArray();
+    }
+
+    private static byte[] decryptViaStream(SymmetricKey crypto, byte[] encrypted, int chunk) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        InputStream in = crypto.decryptingStream(new ByteArrayInputStream(encrypted));
+        try {
+            byte[] bytes = new byte[chunk];
+            int n;
+            while ((n = in.read(bytes)) >= 0) {
+                buf.write(bytes, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return buf.toByteArray();
+    }
+
+    private static void assertRefused(SymmetricKey crypto, byte[] encrypted) {
+        try {
+            decryptViaStream(crypto, encrypted, 4096);
+            fail("Should have been refused");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+
+    private static void roundTrips(SymmetricKey crypto) throws IOException {
+        for (int length : LENGTHS) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(length);
+            byte[] encrypted = encryptViaStream(crypto, input);
+            assertTrue(length + " bytes", Arrays.equals(input, decryptViaStream(crypto, encrypted, 4096)));
+            assertTrue(length + " bytes", Arrays.equals(input, decryptViaStream(crypto, encrypted, 1)));
+        }
+    }
+
+    @Test
+    public void testRoundTripsGcm() throws Exception {
+        roundTrips(new GcmSymmetricKeyImpl(2, newKey(), false));
+    }
+
+    @Test
+    public void testRoundTripsEcb() throws Exception {
+        roundTrips(new SymmetricKeyImpl(newKey()));
+    }
+
+    @Test
+    public void testChannelsAndSmallWrites() throws Exception {
+        SymmetricKey crypto = new GcmSymmetricKeyImpl(2, newKey(), false);
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(2 * FRAME + 100);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        WritableByteChannel out = crypto.encryptingChannel(Channels.newChannel(buf));
+        for (int i = 0; i < input.length; i += 77) { // writes straddling frame boundaries
+            out.write(ByteBuffer.wrap(input, i, Math.min(77, input.length - i)));
+        }
+        out.close();
+        ReadableByteChannel in = crypto.decryptingChannel(Channels.newChannel(new ByteArrayInputStream(buf.toByteArray())));
+        ByteBuffer plain = ByteBuffer.allocate(input.length + 1);
+        while (in.read(plain) >= 0) {
+            // loop around
+        }
+        in.close();
+        plain.flip();
+        assertEquals(input.length, plain.remaining());
+        byte[] reinput = new byte[input.length];
+        plain.get(reinput);
+        assertTrue(Arrays.equals(input, reinput));
+    }
+
+    @Test
+    public void testCutOffIsDetected() throws Exception {
+        SymmetricKey crypto = new GcmSymmetricKeyImpl(2, newKey(), false);
+        byte[] encrypted = encryptViaStream(crypto, HelperForTestCases.createFullyRandomByteStream(3 * FRAME));
+        // within a frame, at a frame boundary, right after the header
+        assertRefused(crypto, Arrays.copyOf(encrypted, encrypted.length - 1));
+        int framed = 4 + crypto.getMaxEncryptedLength(FRAME);
+        assertRefused(crypto, Arrays.copyOf(encrypted, HEADER + framed));
+        assertRefused(crypto, Arrays.copyOf(encrypted, HEADER));
+        // setting the "last" bit on a frame which is not the last one
+        byte[] early = Arrays.copyOf(encrypted, HEADER + framed);
+        early[HEADER] |= 0x80;
+        assertRefused(crypto, early);
+        // not closed by the writer
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        OutputStream out = crypto.encryptingStream(buf);
+        out.write(new byte[2 * FRAME]);
+        out.flush();
+        assertRefused(crypto, buf.toByteArray());
+    }
+
+    @Test
+    public void testReorderingAndModificationAreDetected() throws Exception {
+        SymmetricKey crypto = new GcmSymmetricKeyImpl(2, newKey(), false);
+        byte[] encrypted = encryptViaStream(crypto, HelperForTestCases.createFullyRandomByteStream(3 * FRAME));
+        int framed = 4 + crypto.getMaxEncryptedLength(FRAME);
+        byte[] swapped = encrypted.clone();
+        System.arraycopy(encrypted, HEADER, swapped, HEADER + framed, framed);
+        System.arraycopy(encrypted, HEADER + framed, swapped, HEADER, framed);
+        assertRefused(crypto, swapped);
+        byte[] modified = encrypted.clone();
+        modified[modified.length / 2] ^= 0x01;
+        assertRefused(crypto, modified);
+    }
+
+    @Test
+    public void testFramesOfOtherStreamsAndHeaderChangesAreDetected() throws Exception {
+        SymmetricKey crypto = new GcmSymmetricKeyImpl(2, newKey(), false);
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(3 * FRAME);
+        byte[] encrypted = encryptViaStream(crypto, input);
+        byte[] other = encryptViaStream(crypto, input);
+        assertFalse(Arrays.equals(Arrays.copyOf(encrypted, HEADER), Arrays.copyOf(other, HEADER))); // stream ids differ
+        // frame 1 of another stream with the same key, at the same place
+        int framed = 4 + crypto.getMaxEncryptedLength(FRAME);
+        byte[] spliced = encrypted.clone();
+        System.arraycopy(other, HEADER + framed, spliced, HEADER + framed, framed);
+        assertRefused(crypto, spliced);
+        // the header of another stream
+        byte[] otherHeader = encrypted.clone();
+        System.arraycopy(other, 0, otherHeader, 0, HEADER);
+        assertRefused(crypto, otherHeader);
+        // a smaller frame size in the header, still large enough for the frames
+        byte[] frameSize = encrypted.clone();
+        ByteBuffer.wrap(frameSize).putInt(9, framed + 16);
+        assertRefused(crypto, frameSize);
+    }
+
+    @Test
+    public void testOtherKeyIndexIsRefused() throws Exception {
+        SecretKeySpec sks = newKey();
+        byte[] encrypted = encryptViaStream(new GcmSymmetricKeyImpl(2, sks, false), new byte[100]);
+        assertRefused(new GcmSymmetricKeyImpl(3, sks, false), encrypted);
+        assertRefused(new SymmetricKeyImpl(sks), encrypted);
+        assertRefused(new GcmSymmetricKeyImpl(2, sks, false), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14 });
+    }
+}
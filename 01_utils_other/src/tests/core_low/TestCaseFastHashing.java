@@ -0,0 +1,176 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.Security;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+import hashing.AnyHashing;
+import hashing.FastHashing;
+import hashing.Murmur3Hashing;
+import hashing.SHA256Hashing;
+import hashing.SHA3_256Hashing;
+import hashing.SHA512Hashing;
+import hashing.XxHash64Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing the SHA-2/SHA-3 AnyHashing subclasses against known digests, and
+ * XxHash64Hashing and Murmur3Hashing against known values and for giving the
+ * same hash whatever the input is passed as
+ ******************************************************************************/
+
+public class TestCaseFastHashing extends TestStarter {
+
+    private final static FastHashing[] ALL = { XxHash64Hashing.CI, new XxHash64Hashing(4711), Murmur3Hashing.CI, new Murmur3Hashing(-4711) };
+
+    @Test
+    public void testShaDigests() throws Exception {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", AnyHashing.toHex(SHA256Hashing.CI.hashWithoutBuffer("abc")));
+        assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f",
+                AnyHashing.toHex(SHA512Hashing.CI.hashWithoutBuffer("abc")));
+    }
+
+    @Test
+    public void testSha3Digest() throws Exception {
+        Assume.assumeTrue(Security.getAlgorithms("MessageDigest").contains("SHA3-256")); // Java 9 and later
+        assertTrue(SHA3_256Hashing.CI.isAvailable());
+        assertEquals("3a985da74fe225b2045c172d6bd390bd855f086e3e9d525b46bfe24511431532", AnyHashing.toHex(SHA3_256Hashing.CI.hashWithoutBuffer("abc")));
+    }
+
+    @Test
+    public void testUnavailableDigest() {
+        AnyHashing none = new AnyHashing("NO-SUCH-DIGEST") {
+            // nothing added
+        };
+        assertFalse(none.isAvailable());
+        try {
+            none.hashWithoutBuffer("abc");
+            fail("An unavailable digest cannot hash");
+        } catch (IllegalStateException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testXxHash64KnownValues() throws Exception {
+        assertEquals(0xEF46DB3751D8E999L, XxHash64Hashing.CI.hash64(new byte[0]));
+        assertEquals(0xD24EC4F1A98C6E5BL, XxHash64Hashing.CI.hash64("a".getBytes("ASCII")));
+        assertEquals(0x44BC2CF5AD770999L, XxHash64Hashing.CI.hash64("abc".getBytes("ASCII")));
+        assertEquals(0x0B242D361FDA71BCL, XxHash64Hashing.CI.hash64("The quick brown fox jumps over the lazy dog".getBytes("ASCII")));
+    }
+
+    @Test
+    public void testMurmur3KnownValues() throws Exception {
+        long[] result = new long[2];
+        Murmur3Hashing.CI.hash128(new byte[0], result);
+        assertEquals(0L, result[0]);
+        assertEquals(0L, result[1]);
+        Murmur3Hashing.CI.hash128("hello".getBytes("ASCII"), result);
+        assertEquals(0xCBD8A7B341BD9B02L, result[0]);
+        assertEquals(0x5B1E906A48AE1D19L, result[1]);
+        Murmur3Hashing.CI.hash128("The quick brown fox jumps over the lazy dog".getBytes("ASCII"), result);
+        assertEquals(0xE34BBC7BBC071B6CL, result[0]);
+        assertEquals(0x7A433CA9C49A9347L, result[1]);
+        assertEquals(result[0], Murmur3Hashing.CI.hash64("The quick brown fox jumps over the lazy dog".getBytes("ASCII")));
+    }
+
+    @Test
+    public void testSameHashWhateverTheInput() throws Exception {
+        long[] result = new long[2];
+        long[] result2 = new long[2];
+        for (int length = 0; length < 200; length++) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(length);
+            byte[] shifted = new byte[length + 13];
+            System.arraycopy(input, 0, shifted, 5, length);
+            for (FastHashing hashing : ALL) {
+                long expected = hashing.hash64(input);
+                assertEquals(expected, hashing.hash64(shifted, 5, length));
+                for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+                    ByteBuffer heap = ByteBuffer.wrap(shifted, 5, length).order(order);
+                    assertEquals(expected, hashing.hash64(heap));
+                    assertEquals(5, heap.position()); // not consumed
+                    ByteBuffer direct = ByteBuffer.allocateDirect(length + 3).order(order);
+                    direct.position(3);
+                    direct.put(input);
+                    direct.position(3);
+                    assertEquals(expected, hashing.hash64(direct));
+                    assertEquals(expected, hashing.hash64(direct.slice().order(order)));
+                }
+                if (hashing instanceof Murmur3Hashing) {
+                    ((Murmur3Hashing) hashing).hash128(input, result);
+                    assertEquals(expected, result[0]);
+                    ((Murmur3Hashing) hashing).hash128(ByteBuffer.wrap(shifted, 5, length), result2);
+                    assertEquals(result[0], result2[0]);
+                    assertEquals(result[1], result2[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCharSequences() throws Exception {
+        long[] result = new long[2];
+        long[] result2 = new long[2];
+        for (int length = 0; length < 100; length++) {
+            Random rand = new Random(length);
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                buf.append((char) rand.nextInt(0xD800)); // no surrogates, which getBytes() would mangle
+            }
+            String str = buf.toString();
+            byte[] utf16 = str.getBytes("UTF-16LE");
+            for (FastHashing hashing : ALL) {
+                assertEquals(hashing.hash64(utf16), hashing.hash64(str));
+                assertEquals(hashing.hash64(utf16), hashing.hash64(buf));
+                if (hashing instanceof Murmur3Hashing) {
+                    ((Murmur3Hashing) hashing).hash128(utf16, result);
+                    ((Murmur3Hashing) hashing).hash128(str, result2);
+                    assertEquals(result[0], result2[0]);
+                    assertEquals(result[1], result2[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSeedsMatter() {
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(100);
+        assertTrue(XxHash64Hashing.CI.hash64(input) != new XxHash64Hashing(1).hash64(input));
+        assertTrue(Murmur3Hashing.CI.hash64(input) != new Murmur3Hashing(1).hash64(input));
+    }
+
+    @Test
+    public void testBadArguments() {
+        try {
+            XxHash64Hashing.CI.hash64(new byte[10], 5, 6);
+            fail("Bad arguments should have been refused");
+        } catch (Exception exe) {
+            // expected
+        }
+        try {
+            Murmur3Hashing.CI.hash128(new byte[10], new long[1]);
+            fail("Bad arguments should have been refused");
+        } catch (Exception exe) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+import hashing.FileHashCache;
+import hashing.MD5Hashing;
+import hashing.SHA1Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing FileHashCache: hits and misses as files change or not, files
+ * modified too recently, LRU eviction, persistence, also into a smaller cache
+ ******************************************************************************/
+
+public class TestCaseFileHashCache extends TestStarter {
+
+    private final static long AN_HOUR_AGO = System.currentTimeMillis() - 3600 * 1000;
+
+    /**
+     * Write "content" to "file", modified at "modified_ms" (so that it is out of the racy window)
+     */
+
+    private static File write(File file, byte[] content, long modified_ms) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        assertTrue(file.setLastModified(modified_ms));
+        return file;
+    }
+
+    private static File newFile(byte[] content) throws IOException {
+        File file = File.createTempFile("hashcache", ".bin");
+        file.deleteOnExit();
+        return write(file, content, AN_HOUR_AGO);
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        FileHashCache cache = new FileHashCache(SHA1Hashing.CI, 10);
+        byte[] content = HelperForTestCases.createFullyRandomByteStream(5000);
+        File file = newFile(content);
+        try {
+            byte[] expected = SHA1Hashing.CI.hashWithoutBuffer(content);
+            assertTrue(Arrays.equals(expected, cache.hash(file)));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertTrue(Arrays.equals(expected, cache.hash(file)));
+            assertEquals(SHA1Hashing.CI.hashToHex(file), cache.hashToHex(new File(file.getParentFile(), "./" + file.getName())));
+            assertEquals(2, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(2.0 / 3, cache.getHitRatio(), 1e-9);
+            // same size, other modification time
+            content[100] ^= 0x01;
+            write(file, content, AN_HOUR_AGO + 1000);
+            assertTrue(Arrays.equals(SHA1Hashing.CI.hashWithoutBuffer(content), cache.hash(file)));
+            assertEquals(2, cache.getMissCount());
+            // other size, same modification time
+            write(file, Arrays.copyOf(content, 4999), AN_HOUR_AGO + 1000);
+            assertTrue(Arrays.equals(SHA1Hashing.CI.hashWithoutBuffer(Arrays.copyOf(content, 4999)), cache.hash(file)));
+            assertEquals(3, cache.getMissCount());
+            cache.invalidate(file);
+            cache.hash(file);
+            assertEquals(4, cache.getMissCount());
+            assertEquals(1, cache.getSize());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testReplacedFile() throws Exception {
+        FileHashCache cache = new FileHashCache(SHA1Hashing.CI, 10);
+        byte[] content = HelperForTestCases.createFullyRandomByteStream(5000);
+        File file = newFile(content);
+        try {
+            if (Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey() == null) {
+                return; // nothing to test on this platform
+            }
+            cache.hash(file);
+            // same size and modification time, but another file moved in place
+            content[0] ^= 0x01;
+            File other = newFile(content);
+            Files.move(other.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            assertTrue(Arrays.equals(SHA1Hashing.CI.hashWithoutBuffer(content), cache.hash(file)));
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testRecentlyModifiedFilesAreNotCached() throws Exception {
+        FileHashCache cache = new FileHashCache(SHA1Hashing.CI, 10);
+        File file = newFile(new byte[10]);
+        try {
+            assertTrue(file.setLastModified(System.currentTimeMillis()));
+            cache.hash(file);
+            cache.hash(file);
+            assertEquals(0, cache.getHitCount());
+            assertEquals(0, cache.getSize());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        FileHashCache cache = new FileHashCache(MD5Hashing.CI, 3);
+        File[] files = new File[4];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = newFile(HelperForTestCases.createFullyRandomByteStream(100 * i));
+        }
+        try {
+            cache.hash(files[0]);
+            cache.hash(files[1]);
+            cache.hash(files[2]);
+            cache.hash(files[0]); // hit; files[1] is now the least recently used
+            cache.hash(files[3]);
+            assertEquals(1, cache.getEvictionCount());
+            assertEquals(3, cache.getSize());
+            cache.hash(files[0]);
+            cache.hash(files[2]);
+            cache.hash(files[3]);
+            assertEquals(4, cache.getHitCount());
+            cache.hash(files[1]);
+            assertEquals(5, cache.getMissCount());
+        } finally {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        File persistenceFile = File.createTempFile("hashcache", ".cache");
+        assertTrue(persistenceFile.delete());
+        File file = newFile(HelperForTestCases.createFullyRandomByteStream(3000));
+        try {
+            FileHashCache cache = new FileHashCache(SHA1Hashing.CI, 10, persistenceFile);
+            String expected = cache.hashToHex(file);
+            cache.save();
+            // a warm restart
+            FileHashCache restarted = new FileHashCache(SHA1Hashing.CI, 10, persistenceFile);
+            assertEquals(1, restarted.getSize());
+            assertEquals(expected, restarted.hashToHex(file));
+            assertEquals(1, restarted.getHitCount());
+            assertEquals(0, restarted.getMissCount());
+            // other algorithm: the file is ignored
+            FileHashCache other = new FileHashCache(MD5Hashing.CI, 10, persistenceFile);
+            assertEquals(0, other.getSize());
+            assertEquals(MD5Hashing.CI.hashToHex(file), other.hashToHex(file));
+            // damaged file: ignored
+            byte[] bytes = Files.readAllBytes(persistenceFile.toPath());
+            Files.write(persistenceFile.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+            assertEquals(0, new FileHashCache(SHA1Hashing.CI, 10, persistenceFile).getSize());
+            try {
+                new FileHashCache(SHA1Hashing.CI, 10).save();
+                fail("A cache without persistence file cannot be saved");
+            } catch (Exception exe) {
+                // expected
+            }
+        } finally {
+            assertTrue(file.delete());
+            assertTrue(persistenceFile.delete());
+        }
+    }
+
+    @Test
+    public void testPersistenceFileLargerThanCache() throws Exception {
+        File persistenceFile = File.createTempFile("hashcache", ".cache");
+        assertTrue(persistenceFile.delete());
+        File[] files = new File[4];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = newFile(HelperForTestCases.createFullyRandomByteStream(100 * i));
+        }
+        try {
+            FileHashCache cache = new FileHashCache(MD5Hashing.CI, 10, persistenceFile);
+            for (File file : files) {
+                cache.hash(file);
+            }
+            cache.save();
+            // only the 2 most recently used are read, and that does not count as evicting the others
+            FileHashCache smaller = new FileHashCache(MD5Hashing.CI, 2, persistenceFile);
+            assertEquals(2, smaller.getSize());
+            assertEquals(0, smaller.getEvictionCount());
+            smaller.hash(files[2]);
+            smaller.hash(files[3]);
+            assertEquals(2, smaller.getHitCount());
+            smaller.hash(files[0]);
+            assertEquals(1, smaller.getMissCount());
+        } finally {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+            assertTrue(persistenceFile.delete());
+        }
+    }
+
+    @Test
+    public void testNotARegularFile() throws Exception {
+        try {
+            new FileHashCache(SHA1Hashing.CI, 10).hash(new File(System.getProperty("java.io.tmpdir")));
+            fail("A directory cannot be hashed");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mplify.crypto.CompressionStatus;
+import com.mplify.crypto.RepackOrder;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto.SymmetricKeyInfo;
+import com.mplify.crypto_impl.DeflateCodec;
+import com.mplify.crypto_impl.FramedPacker;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.Lz4BlockCodec;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+import com.mplify.junit.TestStarter;
+import com.mplify.stringmangling.CompressBehaviour;
+import com.mplify.stringmangling.EncryptBehaviour;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing FramedPacker: round trips through arrays and streams, with and
+ * without encryption, with either codec, per-frame COMPRESSION_SKIPPED and
+ * COMPRESSION_USELESS, broken containers, frames of a GCM container
+ * reordered, cut off, taken from another container or not encrypted
+ ******************************************************************************/
+
+public class TestCaseFramedPacker extends TestStarter {
+
+    private final static int FRAME = 4096;
+    private final static int HEADER = 29; // the length of the container header
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Text-like (compressible) data, with a stretch of random bytes in the middle
+     */
+
+    private static byte[] mixedData(int length, int randomFrom, int randomTo) {
+        byte[] res = new byte[length];
+        Random rand = new Random(length);
+        String words = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+        for (int i = 0; i < length; i++) {
+            res[i] = (byte) words.charAt((i * 7 + i / 13) % words.length());
+        }
+        for (int i = randomFrom; i < randomTo && i < length; i++) {
+            res[i] = (byte) rand.nextInt();
+        }
+        return res;
+    }
+
+    private static SymmetricKey newKey() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        return new GcmSymmetricKeyImpl(4, sks, false);
+    }
+
+    private static byte[] packViaStreams(FramedPacker packer, byte[] data, RepackOrder order) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        packer.pack(new ByteArrayInputStream(data), out, order);
+        return out.toByteArray();
+    }
+
+    private static byte[] unpackViaStreams(FramedPacker packer, byte[] container, SymmetricKey symKey) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        packer.unpack(new ByteArrayInputStream(container), out, symKey);
+        return out.toByteArray();
+    }
+
+    private static void roundTrips(FramedPacker packer, RepackOrder order, SymmetricKey symKey) throws IOException {
+        for (int length : new int[] { 0, 1, FRAME - 1, FRAME, FRAME + 1, 50 * FRAME + 17 }) {
+            byte[] data = mixedData(length, 3 * FRAME, 6 * FRAME);
+            byte[] container = packer.pack(data, order);
+            if (symKey == null) { // with GCM, the nonces differ
+                assertTrue(Arrays.equals(container, packViaStreams(packer, data, order)));
+            }
+            assertTrue(length + " bytes", Arrays.equals(data, packer.unpack(container, symKey)));
+            assertTrue(length + " bytes", Arrays.equals(data, unpackViaStreams(packer, container, symKey)));
+            assertTrue(length + " bytes", Arrays.equals(data, packer.unpack(packViaStreams(packer, data, order), symKey)));
+        }
+    }
+
+    @Test
+    public void testRoundTripsCompressed() throws IOException {
+        roundTrips(new FramedPacker(pool, FRAME), new RepackOrder(CompressBehaviour.ONLY_IF_SMALLER), null);
+    }
+
+    @Test
+    public void testRoundTripsCompressedFast() throws IOException {
+        FramedPacker packer = new FramedPacker(pool, FRAME, new Lz4BlockCodec(), true);
+        roundTrips(packer, new RepackOrder(CompressBehaviour.ALWAYS), null);
+        // the frames tell which codec to use
+        byte[] data = mixedData(10 * FRAME, 0, 0);
+        byte[] container = packer.pack(data, new RepackOrder(CompressBehaviour.ALWAYS));
+        assertEquals(CompressionStatus.COMPRESSED_FAST, FramedPacker.getCompressionStatuses(container).get(0));
+        assertTrue(Arrays.equals(data, new FramedPacker(pool, FRAME).unpack(container, null)));
+    }
+
+    @Test
+    public void testRoundTripsCompressedAndEncrypted() throws Exception {
+        SymmetricKey symKey = newKey();
+        roundTrips(new FramedPacker(pool, FRAME), new RepackOrder(CompressBehaviour.ALWAYS, EncryptBehaviour.DO_ENCRYPT, new SymmetricKeyInfo(4, symKey)), symKey);
+    }
+
+    private static void assertStatusPerFrame(FramedPacker packer, CompressionStatus randomFrameStatus) throws IOException {
+        byte[] data = mixedData(10 * FRAME, 3 * FRAME, 6 * FRAME);
+        byte[] container = packer.pack(data, new RepackOrder(CompressBehaviour.ALWAYS));
+        List<CompressionStatus> statuses = FramedPacker.getCompressionStatuses(container);
+        assertEquals(10, statuses.size());
+        for (int i = 0; i < 10; i++) {
+            CompressionStatus expected = (3 <= i && i < 6) ? randomFrameStatus : CompressionStatus.COMPRESSED;
+            assertEquals("frame " + i, expected, statuses.get(i));
+        }
+        assertTrue(container.length < data.length / 2);
+        assertTrue(Arrays.equals(data, packer.unpack(container, null)));
+    }
+
+    @Test
+    public void testSkippedCompressionPerFrame() throws Exception {
+        assertStatusPerFrame(new FramedPacker(pool, FRAME), CompressionStatus.COMPRESSION_SKIPPED);
+    }
+
+    @Test
+    public void testUselessCompressionPerFrame() throws Exception {
+        assertStatusPerFrame(new FramedPacker(pool, FRAME, new DeflateCodec(), false), CompressionStatus.COMPRESSION_USELESS);
+        // too short for the entropy check
+        byte[] container = new FramedPacker(pool, FRAME).pack(new byte[] { 42 }, new RepackOrder(CompressBehaviour.ALWAYS));
+        assertEquals(CompressionStatus.COMPRESSION_USELESS, FramedPacker.getCompressionStatuses(container).get(0));
+    }
+
+    @Test
+    public void testKeyIndex() throws Exception {
+        FramedPacker packer = new FramedPacker(pool, FRAME);
+        SymmetricKey symKey = newKey();
+        byte[] data = mixedData(3 * FRAME, 0, 0);
+        assertEquals(-1, FramedPacker.readKeyIndex(packer.pack(data, new RepackOrder(CompressBehaviour.ALWAYS))));
+        byte[] container = packer.pack(data, new RepackOrder(CompressBehaviour.ALWAYS, EncryptBehaviour.DO_ENCRYPT, new SymmetricKeyInfo(4, symKey)));
+        assertEquals(4, FramedPacker.readKeyIndex(container));
+        try {
+            packer.unpack(container, null);
+            fail("Should have needed the key");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBrokenContainers() throws Exception {
+        FramedPacker packer = new FramedPacker(pool, FRAME);
+        SymmetricKey symKey = newKey();
+        byte[] data = mixedData(5 * FRAME, FRAME, 2 * FRAME);
+        byte[] container = packer.pack(data, new RepackOrder(CompressBehaviour.ALWAYS, EncryptBehaviour.DO_ENCRYPT, new SymmetricKeyInfo(4, symKey)));
+        byte[] cutOff = Arrays.copyOf(container, container.length - 5);
+        byte[] modified = container.clone();
+        modified[container.length / 2] ^= 0x10;
+        byte[] notAContainer = mixedData(100, 0, 100);
+        // a stored length no frame can have, which must not be allocated
+        byte[] hugeFrame = container.clone();
+        ByteBuffer.wrap(hugeFrame).putInt(HEADER + 6, Integer.MAX_VALUE - 8);
+        for (byte[] broken : new byte[][] { cutOff, modified, notAContainer, hugeFrame }) {
+            assertRefused(packer, broken, symKey);
+        }
+    }
+
+    /**
+     * The offsets of the frames of "container", the end marker included
+     */
+
+    private static List<Integer> frameOffsets(byte[] container) {
+        List<Integer> res = new ArrayList<Integer>();
+        ByteBuffer buf = ByteBuffer.wrap(container);
+        int pos = HEADER;
+        while (true) {
+            res.add(Integer.valueOf(pos));
+            if (buf.getInt(pos + 2) == -1) {
+                return res;
+            }
+            pos += 10 + buf.getInt(pos + 6);
+        }
+    }
+
+    /**
+     * "container" with its bytes from "from" to "to" replaced by "replacement"
+     */
+
+    private static byte[] replace(byte[] container, int from, int to, byte[] replacement) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(container, 0, from);
+        out.write(replacement, 0, replacement.length);
+        out.write(container, to, container.length - to);
+        return out.toByteArray();
+    }
+
+    private static void assertRefused(FramedPacker packer, byte[] container, SymmetricKey symKey) {
+        try {
+            packer.unpack(container, symKey);
+            fail("Should have been refused");
+        } catch (IOException exe) {
+            // expected
+        }
+        try {
+            unpackViaStreams(packer, container, symKey);
+            fail("Should have been refused");
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFramesAreBoundToTheirContainer() throws Exception {
+        FramedPacker packer = new FramedPacker(pool, FRAME);
+        SymmetricKey symKey = newKey();
+        RepackOrder order = new RepackOrder(CompressBehaviour.ALWAYS, EncryptBehaviour.DO_ENCRYPT, new SymmetricKeyInfo(4, symKey));
+        byte[] data = mixedData(3 * FRAME, FRAME, 2 * FRAME);
+        byte[] container = packer.pack(data, order);
+        List<Integer> offsets = frameOffsets(container);
+        assertEquals(5, offsets.size()); // 3 full frames, an empty last one, the end marker
+        byte[] endMarker = Arrays.copyOfRange(container, offsets.get(4).intValue(), container.length);
+        // frames 0 and 1 swapped
+        byte[] frame0 = Arrays.copyOfRange(container, offsets.get(0).intValue(), offsets.get(1).intValue());
+        byte[] frame1 = Arrays.copyOfRange(container, offsets.get(1).intValue(), offsets.get(2).intValue());
+        byte[] swapped = replace(container, offsets.get(0).intValue(), offsets.get(2).intValue(), concat(frame1, frame0));
+        assertRefused(packer, swapped, symKey);
+        // cut off after a full frame, with an end marker
+        assertRefused(packer, concat(Arrays.copyOf(container, offsets.get(3).intValue()), endMarker), symKey);
+        assertRefused(packer, concat(Arrays.copyOf(container, HEADER), endMarker), symKey);
+        // frame 1 of another container packed the same way
+        byte[] other = packer.pack(data, order);
+        List<Integer> otherOffsets = frameOffsets(other);
+        byte[] spliced = replace(container, offsets.get(1).intValue(), offsets.get(2).intValue(),
+                Arrays.copyOfRange(other, otherOffsets.get(1).intValue(), otherOffsets.get(2).intValue()));
+        assertRefused(packer, spliced, symKey);
+        // frame 1 replaced by an unencrypted one
+        byte[] plain = packer.pack(Arrays.copyOfRange(data, FRAME, 2 * FRAME), new RepackOrder(CompressBehaviour.ALWAYS));
+        byte[] downgraded = replace(container, offsets.get(1).intValue(), offsets.get(2).intValue(), Arrays.copyOfRange(plain, HEADER, frameOffsets(plain).get(1).intValue()));
+        assertRefused(packer, downgraded, symKey);
+        // the original is fine, also when empty
+        assertTrue(Arrays.equals(data, packer.unpack(container, symKey)));
+        assertEquals(0, packer.unpack(packViaStreams(packer, new byte[0], order), symKey).length);
+        assertEquals(0, unpackViaStreams(packer, packer.pack(new byte[0], order), symKey).length);
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] res = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, res, a.length, b.length);
+        return res;
+    }
+}
@@ -0,0 +1,210 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.KeyManager;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+import com.mplify.stringmangling.DecryptException;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing GcmSymmetricKeyImpl: the versioned format, authentication of
+ * ciphertext and additional data, and decryption of legacy ECB data
+ ******************************************************************************/
+
+public class TestCaseGcmSymmetricKey extends TestStarter {
+
+    private static SecretKeySpec newKey() throws Exception {
+        return SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+    }
+
+    private static void assertNotDecrypted(GcmSymmetricKeyImpl crypto, byte[] data, byte[] aad) {
+        try {
+            crypto.decrypt(data, aad);
+            fail("Should not have decrypted");
+        } catch (DecryptException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCryptUncrypt() throws Exception {
+        GcmSymmetricKeyImpl crypto = new GcmSymmetricKeyImpl(7, newKey(), false);
+        for (int i = 0; i < 2000; i += 7) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(i);
+            byte[] output = crypto.encrypt(input);
+            assertEquals(crypto.getMaxEncryptedLength(i), output.length);
+            assertEquals(GcmSymmetricKeyImpl.VERSION_GCM, output[0]);
+            assertEquals(7, GcmSymmetricKeyImpl.readKeyIndex(output));
+            assertTrue(Arrays.equals(input, crypto.decrypt(output)));
+        }
+    }
+
+    @Test
+    public void testNoncesDiffer() throws Exception {
+        SecretKeySpec sks = newKey();
+        GcmSymmetricKeyImpl crypto = new GcmSymmetricKeyImpl(0, sks, false);
+        byte[] input = new byte[64];
+        assertFalse(Arrays.equals(crypto.encrypt(input), crypto.encrypt(input)));
+        // not even across instances with the same key: the headers (nonce included) differ
+        GcmSymmetricKeyImpl other = new GcmSymmetricKeyImpl(0, sks, false);
+        assertFalse(Arrays.equals(Arrays.copyOf(crypto.encrypt(input), 17), Arrays.copyOf(other.encrypt(input), 17)));
+    }
+
+    @Test
+    public void testTamperingIsDetected() throws Exception {
+        GcmSymmetricKeyImpl crypto = new GcmSymmetricKeyImpl(3, newKey(), false);
+        byte[] output = crypto.encrypt(HelperForTestCases.createFullyRandomByteStream(50));
+        for (int i = 0; i < output.length; i++) {
+            byte[] tampered = output.clone();
+            tampered[i] ^= 0x01;
+            assertNotDecrypted(crypto, tampered, null);
+        }
+        assertNotDecrypted(crypto, Arrays.copyOf(output, output.length - 1), null);
+    }
+
+    @Test
+    public void testAdditionalData() throws Exception {
+        GcmSymmetricKeyImpl crypto = new GcmSymmetricKeyImpl(3, newKey(), false);
+        byte[] input = "the payload".getBytes("UTF-8");
+        byte[] aad = "record 4711".getBytes("UTF-8");
+        byte[] output = crypto.encrypt(input, aad);
+        assertTrue(Arrays.equals(input, crypto.decrypt(output, aad)));
+        assertNotDecrypted(crypto, output, null);
+        assertNotDecrypted(crypto, output, "record 4712".getBytes("UTF-8"));
+        assertNotDecrypted(crypto, crypto.encrypt(input), aad);
+    }
+
+    @Test
+    public void testByteBuffers() throws Exception {
+        GcmSymmetricKeyImpl crypto = new GcmSymmetricKeyImpl(1, newKey(), false);
+        byte[] aad = { 1, 2, 3 };
+        ByteBuffer cipherText = ByteBuffer.allocateDirect(crypto.getMaxEncryptedLength(3000));
+        ByteBuffer plainText = ByteBuffer.allocate(cipherText.capacity());
+        for (int i = 0; i < 3000; i += 101) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(i);
+            cipherText.clear();
+            assertEquals(crypto.getMaxEncryptedLength(i), crypto.encrypt(ByteBuffer.wrap(input), cipherText, aad));
+            cipherText.flip();
+            byte[] viaBuffer = new byte[cipherText.remaining()];
+            cipherText.duplicate().get(viaBuffer);
+            assertTrue(Arrays.equals(input, crypto.decrypt(viaBuffer, aad))); // same format as the byte[] variant
+            plainText.clear();
+            assertEquals(i, crypto.decrypt(cipherText, plainText, aad));
+            plainText.flip();
+            byte[] reinput = new byte[plainText.remaining()];
+            plainText.get(reinput);
+            assertTrue(Arrays.equals(input, reinput));
+        }
+    }
+
+    @Test
+    public void testLegacyData() throws Exception {
+        SecretKeySpec sks = newKey();
+        SymmetricKey ecb = new SymmetricKeyImpl(sks);
+        GcmSymmetricKeyImpl withLegacy = new GcmSymmetricKeyImpl(5, sks, true);
+        GcmSymmetricKeyImpl withoutLegacy = new GcmSymmetricKeyImpl(5, sks, false);
+        for (int i = 0; i < 500; i += 13) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(i);
+            byte[] legacy = ecb.encrypt(input);
+            assertTrue(Arrays.equals(input, withLegacy.decrypt(legacy)));
+            ByteBuffer out = ByteBuffer.allocate(legacy.length);
+            assertEquals(i, withLegacy.decrypt(ByteBuffer.wrap(legacy), out));
+            if (legacy[0] != GcmSymmetricKeyImpl.VERSION_GCM) {
+                assertEquals(-1, GcmSymmetricKeyImpl.readKeyIndex(legacy));
+            }
+            assertNotDecrypted(withoutLegacy, legacy, null);
+            // new data is still GCM
+            assertTrue(Arrays.equals(input, withLegacy.decrypt(withLegacy.encrypt(input))));
+        }
+    }
+
+    @Test
+    public void testWrongKeyIndexIsRefused() throws Exception {
+        SecretKeySpec sks = newKey();
+        byte[] output = new GcmSymmetricKeyImpl(5, sks, false).encrypt(new byte[10]);
+        assertNotDecrypted(new GcmSymmetricKeyImpl(6, sks, false), output, null);
+    }
+
+    @Test
+    public void testSubkeyIsNotTheKeyMaterial() throws Exception {
+        SecretKeySpec sks = newKey();
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(100);
+        byte[] output = new GcmSymmetricKeyImpl(3, sks, false).encrypt(input);
+        // not decryptable with the key material, which ECB uses
+        try {
+            rawGcmDecrypt(sks, output);
+            fail("GCM must not use the key material itself");
+        } catch (GeneralSecurityException exe) {
+            // expected
+        }
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(sks.getEncoded(), "HmacSHA256"));
+        SecretKeySpec subkey = new SecretKeySpec(Arrays.copyOf(mac.doFinal("gcm-v1".getBytes("US-ASCII")), 16), "AES");
+        assertTrue(Arrays.equals(input, rawGcmDecrypt(subkey, output)));
+    }
+
+    private static byte[] rawGcmDecrypt(SecretKeySpec key, byte[] data) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(128, data, 5, 12));
+        cipher.updateAAD(data, 0, 17);
+        return cipher.doFinal(data, 17, data.length - 17);
+    }
+
+    @Test
+    public void testFromKeyManager() throws Exception {
+        final SymmetricKey ecb = new SymmetricKeyImpl(newKey());
+        KeyManager keyManager = new KeyManager() {
+            @Override
+            public SymmetricKey getKey(int symKeyIndex) {
+                assertEquals(9, symKeyIndex);
+                return ecb;
+            }
+
+            @Override
+            public SymmetricKey getKey(Integer symKeyIndex) {
+                return getKey(symKeyIndex.intValue());
+            }
+
+            @Override
+            public Integer randomKeyIndex() {
+                return Integer.valueOf(9);
+            }
+
+            @Override
+            public boolean isAcceptableKeyIndex(int x) {
+                return x == 9;
+            }
+        };
+        GcmSymmetricKeyImpl crypto = GcmSymmetricKeyImpl.fromKeyManager(keyManager, 9, true);
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(100);
+        assertEquals(9, GcmSymmetricKeyImpl.readKeyIndex(crypto.encrypt(input)));
+        assertTrue(Arrays.equals(input, crypto.decrypt(ecb.encrypt(input))));
+    }
+}
@@ -0,0 +1,154 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Test;
+
+import com.mplify.helpers.ByteCoding;
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+import hashing.AnyHashing;
+import hashing.MD5Hashing;
+import hashing.SHA1Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing AnyHashing: known digests, hex and Base64 encoding against
+ * ByteCoding and commons-codec, hashing of streams, buffers and files,
+ * concurrent use
+ ******************************************************************************/
+
+public class TestCaseHashing extends TestStarter {
+
+    private static File writeTempFile(byte[] content) throws IOException {
+        File file = File.createTempFile("hashing", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void testKnownDigests() throws Exception {
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", AnyHashing.toHex(MD5Hashing.CI.hashWithoutBuffer("")));
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", AnyHashing.toHex(MD5Hashing.CI.hashWithoutBuffer("abc")));
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", AnyHashing.toHex(SHA1Hashing.CI.hashWithoutBuffer("abc")));
+        assertEquals("qZk+NkcGgWq6PiVxeFDCbJzQ2J0=", SHA1Hashing.CI.hashToBase64("abc"));
+        byte[] input = "gr\u00FC\u00DFe".getBytes("UTF-8");
+        assertEquals(SHA1Hashing.CI.hashToHexWithoutBuffer(input), SHA1Hashing.CI.hashToHexWithoutBuffer("gr\u00FC\u00DFe"));
+    }
+
+    @Test
+    public void testEncodings() throws Exception {
+        for (int length = 0; length < 70; length++) {
+            byte[] bytes = HelperForTestCases.createFullyRandomByteStream(length);
+            assertEquals(ByteCoding.toHexString(bytes).toLowerCase(), AnyHashing.toHex(bytes)); // whatever the case of ByteCoding
+            assertEquals(new String(Base64.encodeBase64(bytes), "ASCII"), AnyHashing.toBase64(bytes));
+        }
+        byte[] input = HelperForTestCases.createFullyRandomByteStream(1000);
+        assertEquals(ByteCoding.toHexString(MD5Hashing.CI.hashWithoutBuffer(input)), MD5Hashing.CI.hashToHexWithoutBuffer(input));
+        assertEquals(new String(Base64.encodeBase64(SHA1Hashing.CI.hashWithoutBuffer(input)), "ASCII"), SHA1Hashing.CI.hashToBase64(input));
+    }
+
+    @Test
+    public void testStreamsAndBuffers() throws Exception {
+        for (AnyHashing hashing : new AnyHashing[] { MD5Hashing.CI, SHA1Hashing.CI }) {
+            for (int length : new int[] { 0, 1, 65535, 65536, 65537, 200 * 1000 }) {
+                byte[] input = HelperForTestCases.createFullyRandomByteStream(length);
+                byte[] expected = hashing.hashWithoutBuffer(input);
+                assertTrue(Arrays.equals(expected, hashing.hash(new ByteArrayInputStream(input))));
+                ByteBuffer heap = ByteBuffer.wrap(input);
+                assertTrue(Arrays.equals(expected, hashing.hash(heap)));
+                assertEquals(0, heap.remaining());
+                ByteBuffer direct = ByteBuffer.allocateDirect(length + 10);
+                direct.position(10);
+                direct.put(input);
+                direct.position(10);
+                assertTrue(Arrays.equals(expected, hashing.hash(direct)));
+            }
+        }
+    }
+
+    @Test
+    public void testFiles() throws Exception {
+        // below and above the size from which files are memory-mapped
+        for (int length : new int[] { 0, 100, 1024 * 1024 - 1, 1024 * 1024, 3 * 1024 * 1024 + 5 }) {
+            byte[] input = HelperForTestCases.createFullyRandomByteStream(length);
+            File file = writeTempFile(input);
+            try {
+                byte[] expected = MessageDigest.getInstance("SHA-1").digest(input);
+                assertTrue(Arrays.equals(expected, SHA1Hashing.CI.hash(file)));
+                assertEquals(ByteCoding.toHexString(expected), SHA1Hashing.CI.hashToHex(file));
+                RandomAccessFile raf = new RandomAccessFile(file, "r");
+                try {
+                    FileChannel channel = raf.getChannel();
+                    channel.position(length / 2);
+                    assertTrue(Arrays.equals(expected, SHA1Hashing.CI.hash(channel)));
+                    assertEquals(length / 2, channel.position());
+                } finally {
+                    raf.close();
+                }
+            } finally {
+                assertTrue(file.delete());
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        final byte[][] inputs = new byte[16][];
+        final String[] expected = new String[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = HelperForTestCases.createFullyRandomByteStream(100 * i);
+            expected[i] = ByteCoding.toHexString(MessageDigest.getInstance("MD5").digest(inputs[i]));
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int k = 0; k < 2000; k++) {
+                            int i = k % inputs.length;
+                            assertEquals(expected[i], MD5Hashing.CI.hashToHexWithoutBuffer(inputs[i]));
+                        }
+                    } catch (Throwable exe) {
+                        failure.compareAndSet(null, exe);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+}
@@ -0,0 +1,190 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.mplify.crypto.KeyManagerConstructionException;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.KeyManagerImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+import com.mplify.junit.TestStarter;
+import com.mplify.properties.ReferencedStuff;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing KeyManagerImpl: key lookup and random key indexes over a sparse
+ * set of indexes, writing and reading key files, hot rotation (accepted,
+ * refused, and under concurrent use)
+ ******************************************************************************/
+
+public class TestCaseKeyManager extends TestStarter {
+
+    private static Map<Integer, SymmetricKey> newKeys(int... indexes) throws Exception {
+        Map<Integer, SymmetricKey> res = new HashMap<Integer, SymmetricKey>();
+        for (int x : indexes) {
+            res.put(Integer.valueOf(x), new SymmetricKeyImpl(SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128))));
+        }
+        return res;
+    }
+
+    private static File writeToTempFile(KeyManagerImpl keyManager) throws IOException {
+        File file = File.createTempFile("keys", ".txt");
+        if (!file.delete()) {
+            throw new IOException("Could not delete " + file);
+        }
+        keyManager.writeToFile(file);
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void testGetKeyAndRandomKeyIndex() throws Exception {
+        Map<Integer, SymmetricKey> keys = newKeys(0, 3, 7);
+        KeyManagerImpl keyManager = new KeyManagerImpl(keys);
+        Set<Integer> seen = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            Integer x = keyManager.randomKeyIndex();
+            assertTrue(keys.containsKey(x));
+            assertSame(keys.get(x), keyManager.getKey(x.intValue()));
+            assertSame(keys.get(x), keyManager.getKey(x));
+            seen.add(x);
+        }
+        assertEquals(keys.keySet(), seen);
+        for (int x : new int[] { -1, 1, 2, 4, 8, 1000, Integer.MAX_VALUE, Integer.MIN_VALUE }) {
+            assertFalse(keyManager.isAcceptableKeyIndex(x));
+            try {
+                keyManager.getKey(x);
+                fail("There is no key " + x);
+            } catch (Exception exe) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testKeyIndexOutOfRange() throws Exception {
+        // huge indexes must be refused by the check, not by NegativeArraySizeException or OutOfMemoryError
+        for (int x : new int[] { -1, Integer.MIN_VALUE, KeyManagerImpl.MAX_KEY_INDEX + 1, 1 << 30, Integer.MAX_VALUE }) {
+            try {
+                new KeyManagerImpl(newKeys(0, x));
+                fail("Key index " + x + " should have been refused");
+            } catch (Exception exe) {
+                assertFalse(exe.toString(), exe instanceof NegativeArraySizeException);
+            }
+        }
+        assertTrue(new KeyManagerImpl(newKeys(0, KeyManagerImpl.MAX_KEY_INDEX)).isAcceptableKeyIndex(KeyManagerImpl.MAX_KEY_INDEX));
+    }
+
+    @Test
+    public void testWriteReadAndRotate() throws Exception {
+        KeyManagerImpl first = new KeyManagerImpl(newKeys(0, 1, 2));
+        KeyManagerImpl reread = (KeyManagerImpl) KeyManagerImpl.makeKeyManagerBasedOnStoredKeys(new ReferencedStuff(writeToTempFile(first)));
+        assertTrue(Arrays.equals(first.getKeyMaterialHash(), reread.getKeyMaterialHash()));
+        byte[] input = "Rotate me".getBytes("UTF-8");
+        byte[] encryptedWithFirst = first.getKey(1).encrypt(input);
+        assertTrue(Arrays.equals(input, reread.getKey(1).decrypt(encryptedWithFirst)));
+        // rotate to other key material
+        KeyManagerImpl second = new KeyManagerImpl(newKeys(1, 5));
+        reread.rotate(new ReferencedStuff(writeToTempFile(second)));
+        assertTrue(Arrays.equals(second.getKeyMaterialHash(), reread.getKeyMaterialHash()));
+        assertTrue(reread.isAcceptableKeyIndex(5));
+        assertFalse(reread.isAcceptableKeyIndex(0));
+        assertTrue(Arrays.equals(input, reread.getKey(5).decrypt(second.getKey(5).encrypt(input))));
+    }
+
+    @Test
+    public void testRotationRefused() throws Exception {
+        KeyManagerImpl keyManager = new KeyManagerImpl(newKeys(0, 1));
+        byte[] hash = keyManager.getKeyMaterialHash();
+        // no hash
+        File noHash = File.createTempFile("keys", ".txt");
+        noHash.deleteOnExit();
+        Writer w = new OutputStreamWriter(new FileOutputStream(noHash), "UTF-8");
+        try {
+            w.write("0:000102030405060708090a0b0c0d0e0f\n");
+        } finally {
+            w.close();
+        }
+        // wrong hash
+        File wrongHash = File.createTempFile("keys", ".txt");
+        wrongHash.deleteOnExit();
+        w = new OutputStreamWriter(new FileOutputStream(wrongHash), "UTF-8");
+        try {
+            w.write("0:000102030405060708090a0b0c0d0e0f\nHASH:0123456789abcdef0123456789abcdef01234567\n");
+        } finally {
+            w.close();
+        }
+        for (File file : new File[] { noHash, wrongHash, new File(noHash.getPath() + ".missing") }) {
+            try {
+                keyManager.rotate(new ReferencedStuff(file));
+                fail("Rotation to " + file + " should have been refused");
+            } catch (KeyManagerConstructionException exe) {
+                // expected
+            }
+            assertTrue(Arrays.equals(hash, keyManager.getKeyMaterialHash()));
+        }
+        // without hash, still good enough for the factory
+        assertTrue(KeyManagerImpl.makeKeyManagerBasedOnStoredKeys(new ReferencedStuff(noHash)).isAcceptableKeyIndex(0));
+    }
+
+    @Test
+    public void testRotationUnderConcurrentUse() throws Exception {
+        final KeyManagerImpl keyManager = new KeyManagerImpl(newKeys(0, 1, 2, 3));
+        File[] files = { writeToTempFile(new KeyManagerImpl(newKeys(0, 1, 2, 3))), writeToTempFile(new KeyManagerImpl(newKeys(0, 1, 2, 3))) };
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        byte[] input = new byte[100];
+                        while (!stop.get()) {
+                            SymmetricKey symKey = keyManager.getKey(keyManager.randomKeyIndex());
+                            assertTrue(Arrays.equals(input, symKey.decrypt(symKey.encrypt(input))));
+                        }
+                    } catch (Throwable exe) {
+                        failure.compareAndSet(null, exe);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int i = 0; i < 50; i++) {
+            keyManager.rotate(new ReferencedStuff(files[i % 2]));
+        }
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+}
@@ -0,0 +1,195 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.mplify.countries.CountryId;
+import com.mplify.countries.DirectDialPrefixClassifier;
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixMatrix;
+import com.mplify.countries.NumberingPlan;
+import com.mplify.junit.TestStarter;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing NumberingPlan: plan files on top of the compiled-in prefixes and
+ * matrix, rejection of bad files, and swapping plans under lookups
+ ******************************************************************************/
+
+public class TestCaseNumberingPlan extends TestStarter {
+
+    private final static String PLAN = "# additional NANP area code\n1236 -> canada\n\n352 -> luxembourg, belgium\n";
+
+    @After
+    public void backToCompiledIn() {
+        NumberingPlan.install(null);
+    }
+
+    private static void write(File file, String text) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void assertRejected(String text) {
+        try {
+            NumberingPlan.parse(text, "test", 0);
+            fail("Should have thrown on " + text);
+        } catch (IOException exe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPlanOnTopOfCompiledIn() throws IOException {
+        assertSame(DirectDialPrefixId.CC_1, DirectDialPrefixId.obtainUsingBestFit("12365550100", true));
+        assertNull(DirectDialPrefixId.obtainUsingExactFit("1236", false));
+        NumberingPlan.install(NumberingPlan.parse(PLAN, "test", 0));
+        DirectDialPrefixId added = DirectDialPrefixId.obtainUsingBestFit("12365550100", true);
+        assertEquals("1236", added.getDdPrefix());
+        assertEquals(Collections.singletonList(added), NumberingPlan.current().getAdditionalPrefixes());
+        assertEquals(Collections.singleton(CountryId.CANADA), DirectDialPrefixMatrix.getTargets(added));
+        assertTrue(DirectDialPrefixMatrix.getPrefixes(CountryId.CANADA, true).contains(added));
+        // replaced mapping
+        assertEquals(2, DirectDialPrefixMatrix.getTargets(DirectDialPrefixId.CC_352).size());
+        // untouched prefixes keep their bundled mapping
+        assertEquals(NumberingPlan.getCompiledIn().getMatrix().getTargets(DirectDialPrefixId.CC_44), DirectDialPrefixMatrix.getTargets(DirectDialPrefixId.CC_44));
+        assertSame(DirectDialPrefixId.CC_352, DirectDialPrefixId.obtainUsingBestFit("352661123456", true));
+        // the default classifier follows the plan
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertEquals(1, DirectDialPrefixClassifier.getDefault().classify(Collections.singletonList("12365550100"), pool).getCount(added));
+        } finally {
+            pool.shutdown();
+        }
+        NumberingPlan.install(null);
+        assertSame(DirectDialPrefixId.CC_1, DirectDialPrefixId.obtainUsingBestFit("12365550100", true));
+        assertSame(NumberingPlan.getCompiledIn(), NumberingPlan.current());
+    }
+
+    @Test
+    public void testBadFilesAreRejected() {
+        assertRejected("1236 = canada\n");
+        assertRejected("0123 -> canada\n");
+        assertRejected("1236 -> canada\n1236 -> canada\n");
+        assertRejected("1236 -> atlantis\n");
+        assertRejected("12x6 -> canada\n");
+    }
+
+    @Test
+    public void testRefreshFromFile() throws IOException {
+        File file = File.createTempFile("numbering_plan", ".txt");
+        try {
+            write(file, PLAN);
+            assertTrue(NumberingPlan.refreshFromFile(file));
+            NumberingPlan plan = NumberingPlan.current();
+            assertEquals(file.getAbsolutePath(), plan.getSourceName());
+            assertFalse(NumberingPlan.refreshFromFile(file)); // not modified
+            // a broken file is not taken, the plan stays
+            write(file, "1236 -> atlantis\n");
+            assertTrue(file.setLastModified(plan.getLastModified() + 2000));
+            assertFalse(NumberingPlan.refreshFromFile(file));
+            assertFalse(NumberingPlan.refreshFromFile(file)); // not read again
+            assertSame(plan, NumberingPlan.current());
+            // a good file is taken
+            write(file, "1672 -> canada\n");
+            assertTrue(file.setLastModified(plan.getLastModified() + 4000));
+            assertTrue(NumberingPlan.refreshFromFile(file));
+            assertEquals("1672", DirectDialPrefixId.obtainUsingBestFit("16725550100", true).getDdPrefix());
+            assertSame(DirectDialPrefixId.CC_1, DirectDialPrefixId.obtainUsingBestFit("12365550100", true));
+        } finally {
+            file.delete();
+        }
+        assertFalse(NumberingPlan.refreshFromFile(file)); // gone
+    }
+
+    @Test
+    public void testLookupsDuringReloads() throws Exception {
+        final NumberingPlan withPlan = NumberingPlan.parse(PLAN, "test", 0);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (!stop.get()) {
+                        DirectDialPrefixId id = DirectDialPrefixId.obtainUsingBestFit("12365550100", true);
+                        assertTrue(id.getDdPrefix(), id.getDdPrefix().equals("1") || id.getDdPrefix().equals("1236"));
+                        // trie and matrix of one plan always agree
+                        NumberingPlan plan = NumberingPlan.current();
+                        id = plan.getTrie().longestMatch("12365550100");
+                        assertFalse(plan.getMatrix().getTargets(id).isEmpty());
+                    }
+                } catch (Throwable exe) {
+                    failure.set(exe);
+                }
+            }
+        };
+        reader.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                NumberingPlan.install((i % 2 == 0) ? withPlan : null);
+            }
+        } finally {
+            stop.set(true);
+            reader.join();
+        }
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+
+    @Test
+    public void testLookupDoesNotAllocate() throws IOException {
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        if (!(tmx instanceof com.sun.management.ThreadMXBean)) {
+            return; // cannot measure on this JVM
+        }
+        com.sun.management.ThreadMXBean stmx = (com.sun.management.ThreadMXBean) tmx;
+        if (!stmx.isThreadAllocatedMemorySupported() || !stmx.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        NumberingPlan.install(NumberingPlan.parse(PLAN, "test", 0));
+        String[] inputs = { "12365550100", "352661123456", "4412345679910", "999" };
+        int found = 0;
+        for (int i = 0; i < 20000; i++) { // warm up, so that the measurement below runs compiled code
+            found += (DirectDialPrefixId.obtainUsingBestFit(inputs[i & 3], false) == null) ? 0 : 1;
+        }
+        long tid = Thread.currentThread().getId();
+        long before = stmx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 100000; i++) {
+            DirectDialPrefixId id = DirectDialPrefixId.obtainUsingBestFit(inputs[i & 3], false);
+            found += (id == null || !DirectDialPrefixMatrix.isTarget(id, CountryId.CANADA)) ? 0 : 1;
+        }
+        long allocated = stmx.getThreadAllocatedBytes(tid) - before;
+        assertNotNull(Integer.valueOf(found));
+        assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+}
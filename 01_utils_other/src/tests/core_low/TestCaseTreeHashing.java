@@ -0,0 +1,218 @@
+package tests.core_low;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.mplify.junit.HelperForTestCases;
+import com.mplify.junit.TestStarter;
+
+import hashing.MD5Hashing;
+import hashing.MerkleTree;
+import hashing.SHA1Hashing;
+import hashing.SHA256Hashing;
+import hashing.TreeHashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Testing TreeHashing and MerkleTree: the root against a tree computed by
+ * hand, the same tree whatever the parallelism, locating corrupted chunks
+ * and checking chunks one by one, serialization
+ ******************************************************************************/
+
+public class TestCaseTreeHashing extends TestStarter {
+
+    private final static int CHUNK_SIZE = 1000;
+
+    private static File writeTempFile(byte[] content) throws IOException {
+        File file = File.createTempFile("treehashing", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static byte[] digest(String algoName, byte prefix, byte[] a, int offset, int length, byte[] b) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algoName);
+        md.update(prefix);
+        md.update(a, offset, length);
+        if (b != null) {
+            md.update(b);
+        }
+        return md.digest();
+    }
+
+    /**
+     * The root, computed the straightforward way
+     */
+
+    private static byte[] expectedRoot(String algoName, byte[] content, int chunkSize) throws Exception {
+        byte[][] level = new byte[Math.max(1, (content.length + chunkSize - 1) / chunkSize)][];
+        for (int i = 0; i < level.length; i++) {
+            int start = i * chunkSize;
+            level[i] = digest(algoName, (byte) 0, content, start, Math.min(chunkSize, content.length - start), null);
+        }
+        while (level.length > 1) {
+            byte[][] above = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < above.length; i++) {
+                above[i] = (2 * i + 1 < level.length) ? digest(algoName, (byte) 1, level[2 * i], 0, level[2 * i].length, level[2 * i + 1]) : level[2 * i];
+            }
+            level = above;
+        }
+        return level[0];
+    }
+
+    @Test
+    public void testRoots() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TreeHashing treeHashing = new TreeHashing(SHA256Hashing.CI, pool, CHUNK_SIZE);
+            for (int length : new int[] { 0, 1, 999, 1000, 1001, 2000, 3000, 5500, 7 * 1000, 8 * 1000, 9 * 1000 + 1 }) {
+                byte[] content = HelperForTestCases.createFullyRandomByteStream(length);
+                File file = writeTempFile(content);
+                try {
+                    MerkleTree tree = treeHashing.hash(file);
+                    assertTrue(Arrays.equals(expectedRoot("SHA-256", content, CHUNK_SIZE), tree.getRoot()));
+                    assertEquals(length, tree.getSize());
+                    assertEquals(Math.max(1, (length + CHUNK_SIZE - 1) / CHUNK_SIZE), tree.getChunkCount());
+                    assertEquals(0, treeHashing.findCorruptedChunks(file, tree).length);
+                } finally {
+                    assertTrue(file.delete());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSameTreeWhateverTheParallelism() throws Exception {
+        // chunks large enough to be memory-mapped, and a short last chunk that is not
+        byte[] content = HelperForTestCases.createFullyRandomByteStream(5 * 1024 * 1024 + 1234);
+        File file = writeTempFile(content);
+        ForkJoinPool pool1 = new ForkJoinPool(1);
+        ForkJoinPool pool8 = new ForkJoinPool(8);
+        try {
+            MerkleTree tree1 = new TreeHashing(SHA1Hashing.CI, pool1, 1024 * 1024).hash(file);
+            MerkleTree tree8 = new TreeHashing(SHA1Hashing.CI, pool8, 1024 * 1024).hash(file);
+            assertEquals(6, tree1.getChunkCount());
+            assertEquals(tree1.getRootHex(), tree8.getRootHex());
+            assertTrue(Arrays.equals(expectedRoot("SHA-1", content, 1024 * 1024), tree1.getRoot()));
+            // the root is not the plain hash and depends on the chunk size
+            assertFalse(tree1.getRootHex().equals(SHA1Hashing.CI.hashToHex(file)));
+            assertFalse(tree1.getRootHex().equals(new TreeHashing(SHA1Hashing.CI, pool1, 2 * 1024 * 1024).hash(file).getRootHex()));
+        } finally {
+            pool1.shutdown();
+            pool8.shutdown();
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testLocateCorruptedChunks() throws Exception {
+        byte[] content = HelperForTestCases.createFullyRandomByteStream(13 * CHUNK_SIZE + 17);
+        File file = writeTempFile(content);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            TreeHashing treeHashing = new TreeHashing(SHA256Hashing.CI, pool, CHUNK_SIZE);
+            MerkleTree expected = treeHashing.hash(file);
+            assertEquals(14, expected.getChunkCount());
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                FileChannel channel = raf.getChannel();
+                // corrupt chunks 2, 7 and 13 (the short last one)
+                for (long pos : new long[] { 2 * CHUNK_SIZE + 5, 8 * CHUNK_SIZE - 1, 13 * CHUNK_SIZE + 16 }) {
+                    raf.seek(pos);
+                    raf.write(content[(int) pos] ^ 0x01);
+                }
+                assertTrue(Arrays.equals(new int[] { 2, 7, 13 }, treeHashing.findCorruptedChunks(channel, expected)));
+                for (int i = 0; i < expected.getChunkCount(); i++) {
+                    assertEquals(i != 2 && i != 7 && i != 13, treeHashing.verifyChunk(channel, expected, i));
+                }
+                // truncated within chunk 10: chunks 10 to 13 are corrupted
+                channel.truncate(10 * CHUNK_SIZE + 1);
+                assertTrue(Arrays.equals(new int[] { 2, 7, 10, 11, 12, 13 }, treeHashing.findCorruptedChunks(channel, expected)));
+                assertTrue(treeHashing.verifyChunk(channel, expected, 9));
+                assertFalse(treeHashing.verifyChunk(channel, expected, 10));
+                assertFalse(treeHashing.verifyChunk(channel, expected, 12));
+                // too long: the last chunk and the extra one are corrupted
+                channel.truncate(0);
+                raf.seek(0);
+                raf.write(content);
+                raf.write(new byte[CHUNK_SIZE]);
+                assertTrue(Arrays.equals(new int[] { 13, 14 }, treeHashing.findCorruptedChunks(channel, expected)));
+            } finally {
+                raf.close();
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        byte[] content = HelperForTestCases.createFullyRandomByteStream(11 * CHUNK_SIZE);
+        File file = writeTempFile(content);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TreeHashing treeHashing = new TreeHashing(SHA256Hashing.CI, pool, CHUNK_SIZE);
+            MerkleTree tree = treeHashing.hash(file);
+            MerkleTree copy = MerkleTree.fromBytes(tree.toBytes(), SHA256Hashing.CI);
+            assertEquals(tree.getRootHex(), copy.getRootHex());
+            assertEquals(tree.getSize(), copy.getSize());
+            assertEquals(tree.getChunkSize(), copy.getChunkSize());
+            assertEquals(0, copy.findDifferingChunks(tree).length);
+            // a tree with a bit flipped in one leaf
+            byte[] bytes = tree.toBytes();
+            bytes[bytes.length - 5 * 32] ^= 0x01;
+            MerkleTree bad = MerkleTree.fromBytes(bytes, SHA256Hashing.CI);
+            assertTrue(Arrays.equals(new int[] { 6 }, bad.findDifferingChunks(tree)));
+            assertTrue(Arrays.equals(new int[] { 6 }, treeHashing.findCorruptedChunks(file, bad)));
+            try {
+                MerkleTree.fromBytes(tree.toBytes(), MD5Hashing.CI);
+                fail("A SHA-256 tree should not be read as an MD5 one");
+            } catch (IOException exe) {
+                // expected
+            }
+            try {
+                MerkleTree.fromBytes(Arrays.copyOf(bytes, bytes.length - 1), SHA256Hashing.CI);
+                fail("A truncated tree should have been refused");
+            } catch (IOException exe) {
+                // expected
+            }
+            try {
+                new TreeHashing(MD5Hashing.CI, pool, CHUNK_SIZE).findCorruptedChunks(file, tree);
+                fail("A SHA-256 tree should not be checked with MD5");
+            } catch (Exception exe) {
+                // expected
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue(file.delete());
+        }
+    }
+}
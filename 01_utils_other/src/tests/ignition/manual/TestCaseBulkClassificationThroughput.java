@@ -0,0 +1,138 @@
+package tests.ignition.manual;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.mplify.countries.CountryId;
+import com.mplify.countries.DirectDialPrefixClassifier;
+import com.mplify.countries.DirectDialPrefixClassifier.Counts;
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixMatrix;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: generate a file of
+ * 10 million MSISDN-like numbers (override with -Dnumbers=...) and see how
+ * many numbers per second DirectDialPrefixClassifier gets through, with a
+ * pool of 1 thread and with a pool of all available processors, compared
+ * to reading lines and looking up each number through DirectDialPrefixId
+ * and DirectDialPrefixMatrix.
+ *
+ * The file is written to the temporary directory and deleted afterwards.
+ * Each variant runs three times; the first run mostly measures the warm-up
+ * (and the page cache).
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseBulkClassificationThroughput {
+
+    private final static int ROUNDS = 3;
+
+    private static File generateFile(int count) throws IOException {
+        File file = File.createTempFile("msisdns", ".txt");
+        file.deleteOnExit();
+        Random rand = new Random(4711);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        try {
+            byte[] line = new byte[16];
+            for (int i = 0; i < count; i++) {
+                String prefix = DirectDialPrefixId.LIST.get(rand.nextInt(DirectDialPrefixId.LIST.size())).getDdPrefix();
+                int len = 11 + rand.nextInt(3);
+                int pos = 0;
+                for (; pos < prefix.length(); pos++) {
+                    line[pos] = (byte) prefix.charAt(pos);
+                }
+                for (; pos < len; pos++) {
+                    line[pos] = (byte) ('0' + rand.nextInt(10));
+                }
+                line[pos++] = '\n';
+                out.write(line, 0, pos);
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * What one would write without the classifier
+     */
+
+    private static long oneByOne(File file) throws IOException {
+        long[] byCountry = new long[2048];
+        long total = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "US-ASCII"), 1 << 16);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                DirectDialPrefixId prefixId = DirectDialPrefixId.obtainUsingBestFit(line.trim(), false);
+                if (prefixId != null) {
+                    for (CountryId cid : DirectDialPrefixMatrix.getTargets(prefixId)) {
+                        byCountry[cid.getValue() + 1]++;
+                    }
+                }
+                total++;
+            }
+        } finally {
+            reader.close();
+        }
+        return total;
+    }
+
+    private static void print(String what, int count, long elapsed_ns) {
+        System.out.printf("%-36s %8.2f million numbers/s%n", what, count / (elapsed_ns / 1000.0));
+    }
+
+    @Test
+    public void testThroughput() throws IOException {
+        int count = Integer.getInteger("numbers", 10000000).intValue();
+        long t0 = System.nanoTime();
+        File file = generateFile(count);
+        System.out.printf("Generated %d numbers (%d bytes) in %d ms%n", count, file.length(), (System.nanoTime() - t0) / 1000000);
+        DirectDialPrefixClassifier classifier = DirectDialPrefixClassifier.getDefault();
+        int processors = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = new ForkJoinPool(processors);
+        try {
+            for (int r = 0; r < ROUNDS; r++) {
+                long t1 = System.nanoTime();
+                long total = oneByOne(file);
+                long t2 = System.nanoTime();
+                Counts counts1 = classifier.classify(file, single);
+                long t3 = System.nanoTime();
+                Counts countsN = classifier.classify(file, all);
+                long t4 = System.nanoTime();
+                if (total != count || counts1.getTotal() != count || countsN.getTotal() != count) {
+                    throw new IllegalStateException("Counted " + total + ", " + counts1.getTotal() + ", " + countsN.getTotal() + " instead of " + count);
+                }
+                System.out.println("Round " + r);
+                print("readLine() + lookups", count, t2 - t1);
+                print("classifier, 1 thread", count, t3 - t2);
+                print("classifier, " + processors + " threads", count, t4 - t3);
+            }
+        } finally {
+            single.shutdown();
+            all.shutdown();
+            file.delete();
+        }
+        System.out.flush();
+    }
+}
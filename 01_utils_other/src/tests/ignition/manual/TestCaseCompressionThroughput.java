@@ -0,0 +1,140 @@
+package tests.ignition.manual;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.mplify.crypto.CompressionCodec;
+import com.mplify.crypto.RepackOrder;
+import com.mplify.crypto_impl.DeflateCodec;
+import com.mplify.crypto_impl.FramedPacker;
+import com.mplify.crypto_impl.Lz4BlockCodec;
+import com.mplify.stringmangling.CompressBehaviour;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: FramedPacker on a single
+ * thread (so that the figures are CPU cost), packing and unpacking 16 MiB of
+ * text, JSON, random and already deflated data
+ *
+ * - with Deflate, always trying to compress (as before the entropy check)
+ * - with Deflate, skipping frames that look random
+ * - with the LZ4 block codec, skipping frames that look random
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseCompressionThroughput {
+
+    private final static int SIZE = 16 * 1024 * 1024;
+    private final static int ROUNDS = 3;
+
+    private static byte[] words(Random rand, String[] words) {
+        byte[] res = new byte[SIZE];
+        int i = 0;
+        while (i < SIZE) {
+            String word = words[rand.nextInt(words.length)];
+            for (int k = 0; k < word.length() && i < SIZE; k++) {
+                res[i++] = (byte) word.charAt(k);
+            }
+        }
+        return res;
+    }
+
+    private static byte[] text() {
+        return words(new Random(1), new String[] { "the ", "of ", "and ", "customer ", "invoice ", "was ", "delivered ", "to ", "Luxembourg ", "on ", "time", ".\n", ", ",
+                "number ", "message ", "which ", "has ", "been ", "sent " });
+    }
+
+    private static byte[] json() {
+        StringBuilder buf = new StringBuilder(SIZE + 200);
+        Random rand = new Random(2);
+        while (buf.length() < SIZE) {
+            buf.append("{\"id\":").append(rand.nextInt(1000000)).append(",\"msisdn\":\"+352").append(600000000 + rand.nextInt(100000000));
+            buf.append("\",\"status\":\"").append(rand.nextBoolean() ? "delivered" : "pending").append("\",\"amount\":").append(rand.nextInt(10000) / 100.0).append("},\n");
+        }
+        byte[] res = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            res[i] = (byte) buf.charAt(i);
+        }
+        return res;
+    }
+
+    private static byte[] random() {
+        byte[] res = new byte[SIZE];
+        new Random(3).nextBytes(res);
+        return res;
+    }
+
+    /**
+     * Deflated text, as a zip or a JPEG would be: 16 MiB of it, made of deflated pieces
+     */
+
+    private static byte[] deflated() {
+        byte[] source = text();
+        DeflateCodec codec = new DeflateCodec();
+        byte[] res = new byte[SIZE];
+        int i = 0;
+        int from = 0;
+        while (i < SIZE) {
+            byte[] piece = codec.compress(source, from, 1024 * 1024);
+            int n = Math.min(piece.length, SIZE - i);
+            System.arraycopy(piece, 0, res, i, n);
+            i += n;
+            from = (from + 1024 * 1024) % (SIZE - 1024 * 1024);
+        }
+        return res;
+    }
+
+    private static void run(String corpus, byte[] data, String name, FramedPacker packer) throws Exception {
+        RepackOrder order = new RepackOrder(CompressBehaviour.ONLY_IF_SMALLER);
+        long packNanos = Long.MAX_VALUE;
+        long unpackNanos = Long.MAX_VALUE;
+        int length = 0;
+        for (int r = -1; r < ROUNDS; r++) { // round -1 is warm-up; keep the best round
+            long t0 = System.nanoTime();
+            byte[] container = packer.pack(data, order);
+            long t1 = System.nanoTime();
+            packer.unpack(container, null);
+            long t2 = System.nanoTime();
+            if (r >= 0) {
+                packNanos = Math.min(packNanos, t1 - t0);
+                unpackNanos = Math.min(unpackNanos, t2 - t1);
+            }
+            length = container.length;
+        }
+        System.out.printf("%-7s %-22s pack %7.1f MB/s, unpack %7.1f MB/s, %5.1f%% of the size%n", corpus, name, mbPerSecond(packNanos), mbPerSecond(unpackNanos), 100.0 * length / SIZE);
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            String[] corpusNames = { "text", "json", "random", "deflated" };
+            byte[][] corpora = { text(), json(), random(), deflated() };
+            String[] names = { "deflate, always tried", "deflate, entropy check", "lz4, entropy check" };
+            CompressionCodec[] codecs = { new DeflateCodec(), new DeflateCodec(), new Lz4BlockCodec() };
+            boolean[] checks = { false, true, true };
+            for (int c = 0; c < corpora.length; c++) {
+                for (int k = 0; k < codecs.length; k++) {
+                    run(corpusNames[c], corpora[c], names[k], new FramedPacker(pool, FramedPacker.DEFAULT_FRAME_SIZE, codecs[k], checks[k]));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.flush();
+    }
+
+    private static double mbPerSecond(long nanos) {
+        return (SIZE / 1e6) / (nanos / 1e9);
+    }
+}
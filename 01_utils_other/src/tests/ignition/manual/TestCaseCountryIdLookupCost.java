@@ -0,0 +1,68 @@
+package tests.ignition.manual;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.countries.CountryId;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see what
+ * CountryId.obtain(int) costs compared to the former way of boxing the int
+ * and probing a HashMap<Integer,CountryId>. Most country codes are above
+ * the range of the Integer cache, so boxing them allocates.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseCountryIdLookupCost {
+
+    private final static int CODES = 1 << 16;
+    private final static int ROUNDS = 200;
+
+    @Test
+    public void testLookupCost() {
+        List<CountryId> list = CountryId.LIST_WITH_UNDEFINED_AND_NOWHERE;
+        Map<Integer, CountryId> map = new HashMap<Integer, CountryId>();
+        for (CountryId cid : list) {
+            map.put(Integer.valueOf(cid.getValue()), cid);
+        }
+        Random rand = new Random(4711);
+        int[] codes = new int[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = list.get(rand.nextInt(list.size())).getValue();
+        }
+        int sink = 0;
+        long viaMap = 0;
+        long viaTable = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += map.get(Integer.valueOf(codes[i])).hashCode();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < CODES; i++) {
+                sink += CountryId.obtain(codes[i]).hashCode();
+            }
+            long end = System.nanoTime();
+            if (r >= 0) { // the first quarter is warm-up
+                viaMap += middle - start;
+                viaTable += end - middle;
+            }
+        }
+        double ops = (double) ROUNDS * CODES;
+        System.out.printf("CountryId (%d values) HashMap<Integer,X>: %6.2f ns   obtain(int): %6.2f ns   (%d)%n", list.size(), viaMap / ops, viaTable / ops, sink);
+        System.out.flush();
+    }
+}
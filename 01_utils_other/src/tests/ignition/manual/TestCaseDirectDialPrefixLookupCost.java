@@ -0,0 +1,116 @@
+package tests.ignition.manual;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.mplify.countries.DirectDialPrefixId;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program to see how many
+ * DirectDialPrefixId.obtainUsingBestFit() lookups per second one gets with
+ * the trie (one at a time and in batches), compared to the former way of
+ * probing a TreeMap with ever shorter substrings of the number.
+ *
+ * The numbers are MSISDN-like: a random known prefix followed by digits,
+ * 11 to 13 characters in total. Run without "-ea": the TreeMap comparator,
+ * DirectDialPrefixId.prefixComparison(), asserts using regular expressions.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseDirectDialPrefixLookupCost {
+
+    private final static int NUMBERS = 1 << 16;
+    private final static int ROUNDS = 100;
+
+    private static String[] generateNumbers() {
+        Random rand = new Random(4711);
+        String[] res = new String[NUMBERS];
+        for (int i = 0; i < NUMBERS; i++) {
+            String prefix = DirectDialPrefixId.LIST.get(rand.nextInt(DirectDialPrefixId.LIST.size())).getDdPrefix();
+            StringBuilder buf = new StringBuilder(prefix);
+            int len = 11 + rand.nextInt(3);
+            while (buf.length() < len) {
+                buf.append((char) ('0' + rand.nextInt(10)));
+            }
+            res[i] = buf.toString();
+        }
+        return res;
+    }
+
+    /**
+     * The lookup as it was done before the trie
+     */
+
+    private static DirectDialPrefixId bestFitByProbing(Map<String, DirectDialPrefixId> map, int maxLength, String number) {
+        String prefix = number.substring(0, Math.min(number.length(), maxLength));
+        while (prefix.length() > 0) {
+            DirectDialPrefixId res = map.get(prefix);
+            if (res != null) {
+                return res;
+            }
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return null;
+    }
+
+    private static void print(String what, long elapsed_ns, int sink) {
+        double ops = (double) ROUNDS * NUMBERS;
+        System.out.printf("%-28s %8.2f million lookups/s   (%d)%n", what, ops / elapsed_ns * 1000.0, sink);
+    }
+
+    @Test
+    public void testLookupCost() {
+        String[] numbers = generateNumbers();
+        Map<String, DirectDialPrefixId> map = new TreeMap<String, DirectDialPrefixId>(new Comparator<String>() {
+            @Override
+            public int compare(String prefix1, String prefix2) {
+                return DirectDialPrefixId.prefixComparison(prefix1, prefix2);
+            }
+        });
+        int maxLength = 0;
+        for (DirectDialPrefixId id : DirectDialPrefixId.LIST) {
+            map.put(id.getDdPrefix(), id);
+            maxLength = Math.max(maxLength, id.getDdPrefix().length());
+        }
+        DirectDialPrefixId[] results = new DirectDialPrefixId[NUMBERS];
+        int sink = 0;
+        long viaMap = 0;
+        long viaTrie = 0;
+        long viaBatch = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < NUMBERS; i++) {
+                sink += bestFitByProbing(map, maxLength, numbers[i]).hashCode();
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < NUMBERS; i++) {
+                sink += DirectDialPrefixId.obtainUsingBestFit(numbers[i], true).hashCode();
+            }
+            long t2 = System.nanoTime();
+            sink += DirectDialPrefixId.obtainUsingBestFit(numbers, results);
+            long t3 = System.nanoTime();
+            if (r >= 0) { // the first quarter is warm-up
+                viaMap += t1 - t0;
+                viaTrie += t2 - t1;
+                viaBatch += t3 - t2;
+            }
+        }
+        print("TreeMap + substring", viaMap, sink);
+        print("trie", viaTrie, sink);
+        print("trie, batches of " + NUMBERS, viaBatch, sink);
+        System.out.flush();
+    }
+}
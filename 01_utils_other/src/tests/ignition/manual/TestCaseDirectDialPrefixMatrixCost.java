@@ -0,0 +1,116 @@
+package tests.ignition.manual;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.mplify.countries.CompiledDirectDialPrefixMatrix;
+import com.mplify.countries.CountryId;
+import com.mplify.countries.DirectDialPrefixId;
+import com.mplify.countries.DirectDialPrefixMatrix;
+import com.mplify.countries.DirectDialPrefixTrie;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program for DirectDialPrefixMatrix:
+ *
+ * 1) The latency of the very first getTargets(), which loads the matrix.
+ *    Only meaningful if this is the first test run in the JVM.
+ * 2) The cost of parsing the text form vs. reading the binary form, first
+ *    (cold) and after warm-up.
+ * 3) The cost per lookup of getTargets() and isTarget() compared to the
+ *    HashMap<DirectDialPrefixId, Set<CountryId>> the matrix used to be.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseDirectDialPrefixMatrixCost {
+
+    private final static int ROUNDS = 200;
+
+    private static String readText() throws IOException {
+        InputStream in = DirectDialPrefixMatrix.class.getResourceAsStream("direct_dial_prefix_matrix.txt");
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            byte[] bytes = new byte[4096];
+            int n;
+            while ((n = in.read(bytes)) > 0) {
+                buf.write(bytes, 0, n);
+            }
+            return buf.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testCost() throws IOException {
+        long t0 = System.nanoTime();
+        Set<CountryId> first = DirectDialPrefixMatrix.getTargets(DirectDialPrefixId.CC_352);
+        long t1 = System.nanoTime();
+        System.out.printf("First getTargets() (loads the matrix)   %8.3f ms   (%s)%n", (t1 - t0) / 1e6, first);
+
+        String text = readText();
+        DirectDialPrefixTrie trie = DirectDialPrefixId.getTrie();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DirectDialPrefixMatrix.getCompiled().writeTo(out);
+        byte[] binary = out.toByteArray();
+        for (int r = 0; r < 3; r++) {
+            long t2 = System.nanoTime();
+            CompiledDirectDialPrefixMatrix.parse(text, "text", trie);
+            long t3 = System.nanoTime();
+            CompiledDirectDialPrefixMatrix.readFrom(new ByteArrayInputStream(binary), trie);
+            long t4 = System.nanoTime();
+            System.out.printf("Round %d: parse text (%d chars) %8.3f ms, read binary (%d bytes) %8.3f ms%n", r, text.length(), (t3 - t2) / 1e6, binary.length, (t4 - t3) / 1e6);
+        }
+
+        Map<DirectDialPrefixId, Set<CountryId>> map = new HashMap<DirectDialPrefixId, Set<CountryId>>();
+        for (DirectDialPrefixId prefixId : DirectDialPrefixId.LIST) {
+            map.put(prefixId, DirectDialPrefixMatrix.getTargets(prefixId));
+        }
+        DirectDialPrefixId[] prefixes = DirectDialPrefixId.LIST.toArray(new DirectDialPrefixId[0]);
+        CountryId probe = CountryId.CANADA;
+        long viaMap = 0;
+        long viaTargets = 0;
+        long viaBits = 0;
+        int sink = 0;
+        for (int r = -ROUNDS / 4; r < ROUNDS; r++) {
+            long t5 = System.nanoTime();
+            for (int i = 0; i < 10000; i++) {
+                sink += map.get(prefixes[i % prefixes.length]).contains(probe) ? 1 : 0;
+            }
+            long t6 = System.nanoTime();
+            for (int i = 0; i < 10000; i++) {
+                sink += DirectDialPrefixMatrix.getTargets(prefixes[i % prefixes.length]).contains(probe) ? 1 : 0;
+            }
+            long t7 = System.nanoTime();
+            for (int i = 0; i < 10000; i++) {
+                sink += DirectDialPrefixMatrix.isTarget(prefixes[i % prefixes.length], probe) ? 1 : 0;
+            }
+            long t8 = System.nanoTime();
+            if (r >= 0) { // the first quarter is warm-up
+                viaMap += t6 - t5;
+                viaTargets += t7 - t6;
+                viaBits += t8 - t7;
+            }
+        }
+        double lookups = ROUNDS * 10000.0;
+        System.out.printf("HashMap.get().contains()      %6.1f ns/lookup%n", viaMap / lookups);
+        System.out.printf("getTargets().contains()       %6.1f ns/lookup%n", viaTargets / lookups);
+        System.out.printf("isTarget()                    %6.1f ns/lookup   (%d)%n", viaBits / lookups, sink);
+        System.out.flush();
+    }
+}
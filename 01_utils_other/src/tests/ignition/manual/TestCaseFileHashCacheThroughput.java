@@ -0,0 +1,101 @@
+package tests.ignition.manual;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import hashing.FileHashCache;
+import hashing.SHA256Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: hashing a set of files
+ * of configuration-like sizes over and over with AnyHashing.hash(File)
+ * against FileHashCache, then the first pass of a cache restarted from its
+ * persistence file.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseFileHashCacheThroughput {
+
+    private final static int[] SIZES = { 512, 4 * 1024, 64 * 1024, 1024 * 1024 };
+    private final static int FILES_PER_SIZE = 50;
+    private final static int PASSES = 20;
+
+    private static volatile int sink;
+
+    @Test
+    public void testThroughput() throws Exception {
+        File dir = File.createTempFile("hashcache", ".dir");
+        if (!dir.delete() || !dir.mkdir()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        File[] files = new File[SIZES.length * FILES_PER_SIZE];
+        Random rand = new Random(4711);
+        for (int i = 0; i < files.length; i++) {
+            byte[] content = new byte[SIZES[i / FILES_PER_SIZE]];
+            rand.nextBytes(content);
+            files[i] = new File(dir, "file" + i);
+            FileOutputStream out = new FileOutputStream(files[i]);
+            try {
+                out.write(content);
+            } finally {
+                out.close();
+            }
+            // out of the racy window, else nothing is cached
+            files[i].setLastModified(System.currentTimeMillis() - 60 * 1000);
+        }
+        File persistenceFile = new File(dir, "cache");
+        try {
+            FileHashCache cache = new FileHashCache(SHA256Hashing.CI, files.length, persistenceFile);
+            for (int r = 0; r < 3; r++) {
+                long t0 = System.nanoTime();
+                for (int p = 0; p < PASSES; p++) {
+                    for (File file : files) {
+                        sink += SHA256Hashing.CI.hash(file).length;
+                    }
+                }
+                long t1 = System.nanoTime();
+                for (int p = 0; p < PASSES; p++) {
+                    for (File file : files) {
+                        sink += cache.hash(file).length;
+                    }
+                }
+                long t2 = System.nanoTime();
+                long lookups = (long) PASSES * files.length;
+                System.out.printf("%d lookups of %d files: hash(File) %8.1f us/lookup, FileHashCache %6.1f us/lookup (hit ratio %.3f)%n", Long.valueOf(lookups),
+                        Integer.valueOf(files.length), (t1 - t0) / 1e3 / lookups, (t2 - t1) / 1e3 / lookups, Double.valueOf(cache.getHitRatio()));
+            }
+            cache.save();
+            long t0 = System.nanoTime();
+            FileHashCache restarted = new FileHashCache(SHA256Hashing.CI, files.length, persistenceFile);
+            for (File file : files) {
+                sink += restarted.hash(file).length;
+            }
+            long t1 = System.nanoTime();
+            System.out.printf("Warm restart: loading and one pass over %d files in %.1f ms, %d hits, %d misses%n", Integer.valueOf(files.length), (t1 - t0) / 1e6,
+                    Long.valueOf(restarted.getHitCount()), Long.valueOf(restarted.getMissCount()));
+        } finally {
+            for (File file : dir.listFiles()) {
+                if (!file.delete()) {
+                    throw new IOException("Could not delete " + file);
+                }
+            }
+            if (!dir.delete()) {
+                throw new IOException("Could not delete " + dir);
+            }
+        }
+        System.out.flush();
+    }
+}
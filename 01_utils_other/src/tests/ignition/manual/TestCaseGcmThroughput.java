@@ -0,0 +1,79 @@
+package tests.ignition.manual;
+
+import java.util.Random;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: encrypt + decrypt
+ * throughput of SymmetricKeyImpl (AES/ECB/PKCS5) vs. GcmSymmetricKeyImpl
+ * (AES/GCM, with header) at 64 B, 1 KiB, 64 KiB and 1 MiB per call, same
+ * key, single thread.
+ *
+ * Whether GCM runs on the AES-NI/CLMUL intrinsics can be checked with
+ * -XX:+UnlockDiagnosticVMOptions -XX:+PrintIntrinsics.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseGcmThroughput {
+
+    private final static int[] SIZES = { 64, 1024, 64 * 1024, 1024 * 1024 };
+    private final static long BYTES_PER_ROUND = 32L * 1024 * 1024;
+    private final static int ROUNDS = 5;
+
+    private static long run(SymmetricKey crypto, byte[] data, int calls) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < calls; i++) {
+            sink += crypto.decrypt(crypto.encrypt(data)).length;
+        }
+        return sink;
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey ecb = new SymmetricKeyImpl(sks);
+        SymmetricKey gcm = new GcmSymmetricKeyImpl(0, sks, false);
+        Random rand = new Random(4711);
+        for (int size : SIZES) {
+            byte[] data = new byte[size];
+            rand.nextBytes(data);
+            int calls = (int) (BYTES_PER_ROUND / size);
+            long sink = 0;
+            for (int r = -1; r < ROUNDS; r++) { // round -1 is warm-up
+                long t0 = System.nanoTime();
+                sink += run(ecb, data, calls);
+                long t1 = System.nanoTime();
+                sink += run(gcm, data, calls);
+                long t2 = System.nanoTime();
+                if (r >= 0) {
+                    System.out.printf("%8d B: ECB %8.1f MB/s (%8.0f ns/call), GCM %8.1f MB/s (%8.0f ns/call)%n", size, //
+                            mbPerSecond(t1 - t0), (t1 - t0) / (double) calls, //
+                            mbPerSecond(t2 - t1), (t2 - t1) / (double) calls);
+                }
+            }
+            System.out.println("(" + sink + ")");
+        }
+        System.out.flush();
+    }
+
+    private static double mbPerSecond(long nanos) {
+        return (BYTES_PER_ROUND / 1e6) / (nanos / 1e9);
+    }
+}
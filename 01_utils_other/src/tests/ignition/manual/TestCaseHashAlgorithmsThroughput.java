@@ -0,0 +1,103 @@
+package tests.ignition.manual;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hashing.AnyHashing;
+import hashing.FastHashing;
+import hashing.MD5Hashing;
+import hashing.Murmur3Hashing;
+import hashing.SHA1Hashing;
+import hashing.SHA256Hashing;
+import hashing.SHA3_256Hashing;
+import hashing.SHA512Hashing;
+import hashing.XxHash64Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: throughput in GB/s of
+ * the digests (MD5, SHA-1, SHA-256, SHA-512, SHA3-256) against the fast
+ * non-cryptographic hashes (xxHash64, Murmur3) on 64 byte, 4 KiB and 1 MiB
+ * inputs, to help choose one for a given job.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseHashAlgorithmsThroughput {
+
+    private final static int[] SIZES = { 64, 4 * 1024, 1024 * 1024 };
+    private final static long BYTES_PER_RUN = 256L * 1024 * 1024;
+    private final static long MAX_CALLS_PER_RUN = 2000 * 1000;
+
+    private static volatile long sink;
+
+    private static void report(String name, int size, int calls, long nanos) {
+        System.out.printf("%-9s %8d bytes: %8.1f ns/call, %6.2f GB/s%n", name, Integer.valueOf(size), (double) nanos / calls, (double) size * calls / nanos);
+    }
+
+    private static int callsFor(int size) {
+        return (int) Math.min(MAX_CALLS_PER_RUN, BYTES_PER_RUN / size);
+    }
+
+    private static void run(String name, AnyHashing hashing) {
+        for (int size : SIZES) {
+            byte[] input = new byte[size];
+            new Random(size).nextBytes(input);
+            int calls = callsFor(size);
+            long best = Long.MAX_VALUE;
+            for (int r = -1; r < 3; r++) { // round -1 is warm-up; keep the best round
+                long t0 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += hashing.hashWithoutBuffer(input)[0];
+                }
+                long t1 = System.nanoTime();
+                if (r >= 0) {
+                    best = Math.min(best, t1 - t0);
+                }
+            }
+            report(name, size, calls, best);
+        }
+    }
+
+    private static void run(String name, FastHashing hashing) {
+        for (int size : SIZES) {
+            byte[] input = new byte[size];
+            new Random(size).nextBytes(input);
+            int calls = callsFor(size);
+            long best = Long.MAX_VALUE;
+            for (int r = -1; r < 3; r++) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += hashing.hash64(input);
+                }
+                long t1 = System.nanoTime();
+                if (r >= 0) {
+                    best = Math.min(best, t1 - t0);
+                }
+            }
+            report(name, size, calls, best);
+        }
+    }
+
+    @Test
+    public void testThroughput() {
+        run("MD5", MD5Hashing.CI);
+        run("SHA-1", SHA1Hashing.CI);
+        run("SHA-256", SHA256Hashing.CI);
+        run("SHA-512", SHA512Hashing.CI);
+        if (SHA3_256Hashing.CI.isAvailable()) {
+            run("SHA3-256", SHA3_256Hashing.CI);
+        }
+        run("xxHash64", XxHash64Hashing.CI);
+        run("Murmur3", Murmur3Hashing.CI);
+        System.out.flush();
+    }
+}
@@ -0,0 +1,125 @@
+package tests.ignition.manual;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mplify.helpers.ByteCoding;
+
+import hashing.AnyHashing;
+import hashing.MD5Hashing;
+import hashing.SHA1Hashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: hashToHexWithoutBuffer()
+ * of MD5Hashing.CI and SHA1Hashing.CI at several input sizes, against the
+ * way it was done before (MessageDigest.getInstance() per call, then
+ * ByteCoding.toHexString()); then hashing a 256 MiB file through a
+ * FileInputStream and through hash(File), which memory-maps it.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseHashingThroughput {
+
+    private final static int[] SIZES = { 16, 64, 256, 1024, 16 * 1024, 1024 * 1024 };
+    private final static long BYTES_PER_RUN = 64L * 1024 * 1024;
+    private final static long MAX_CALLS_PER_RUN = 1000 * 1000;
+    private final static int FILE_SIZE = 256 * 1024 * 1024;
+
+    private static volatile int sink;
+
+    private static String legacyHashToHex(String algoName, byte[] input) throws Exception {
+        return ByteCoding.toHexString(MessageDigest.getInstance(algoName).digest(input));
+    }
+
+    private static void run(AnyHashing hashing, String algoName) throws Exception {
+        for (int size : SIZES) {
+            byte[] input = new byte[size];
+            new Random(size).nextBytes(input);
+            int calls = (int) Math.min(MAX_CALLS_PER_RUN, BYTES_PER_RUN / size);
+            long legacyNanos = Long.MAX_VALUE;
+            long nanos = Long.MAX_VALUE;
+            for (int r = -1; r < 3; r++) { // round -1 is warm-up; keep the best round
+                long t0 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += legacyHashToHex(algoName, input).length();
+                }
+                long t1 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += hashing.hashToHexWithoutBuffer(input).length();
+                }
+                long t2 = System.nanoTime();
+                if (r >= 0) {
+                    legacyNanos = Math.min(legacyNanos, t1 - t0);
+                    nanos = Math.min(nanos, t2 - t1);
+                }
+            }
+            System.out.printf("%-5s %8d bytes: before %9.0f ns/call (%7.1f MB/s), now %9.0f ns/call (%7.1f MB/s)%n", algoName, Integer.valueOf(size), //
+                    (double) legacyNanos / calls, (double) size * calls * 1e3 / legacyNanos, (double) nanos / calls, (double) size * calls * 1e3 / nanos);
+        }
+    }
+
+    private static byte[] hashThroughStream(String algoName, File file) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algoName);
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                md.update(buf, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return md.digest();
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        run(MD5Hashing.CI, "MD5");
+        run(SHA1Hashing.CI, "SHA-1");
+        File file = File.createTempFile("hashing", ".bin");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                byte[] block = new byte[1024 * 1024];
+                Random rand = new Random(4711);
+                for (int i = 0; i < FILE_SIZE / block.length; i++) {
+                    rand.nextBytes(block);
+                    out.write(block);
+                }
+            } finally {
+                out.close();
+            }
+            for (int r = 0; r < 3; r++) { // the file is in the page cache after the first round
+                long t0 = System.nanoTime();
+                sink += hashThroughStream("SHA-1", file).length;
+                long t1 = System.nanoTime();
+                sink += SHA1Hashing.CI.hash(file).length;
+                long t2 = System.nanoTime();
+                System.out.printf("SHA-1 of a %d MiB file: FileInputStream %.0f MB/s, hash(File) %.0f MB/s%n", Integer.valueOf(FILE_SIZE >> 20), //
+                        FILE_SIZE * 1e3 / (t1 - t0), FILE_SIZE * 1e3 / (t2 - t1));
+            }
+        } finally {
+            if (!file.delete()) {
+                throw new IOException("Could not delete " + file);
+            }
+        }
+        System.out.flush();
+    }
+}
@@ -0,0 +1,133 @@
+package tests.ignition.manual;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.mplify.crypto.KeyManager;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.KeyManagerImpl;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: 32 threads calling
+ * randomKeyIndex() and getKey() as fast as they can, on KeyManagerImpl and on
+ * the way it was done before (a Random shared under a lock, keys in a
+ * HashMap), which is reproduced here as "LegacyKeyManager".
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseKeyManagerThroughput {
+
+    private final static int THREADS = 32;
+    private final static int CALLS_PER_THREAD = 2 * 1000 * 1000;
+    private final static int KEYS = 16;
+
+    /**
+     * The former implementation of randomKeyIndex() and getKey()
+     */
+
+    private static class LegacyKeyManager implements KeyManager {
+
+        private final Map<Integer, SymmetricKey> keyMaterial;
+        private final ArrayList<Integer> allowed;
+        private final Random rand = new Random();
+
+        LegacyKeyManager(Map<Integer, SymmetricKey> keyMaterial) {
+            this.keyMaterial = Collections.unmodifiableMap(new HashMap<Integer, SymmetricKey>(keyMaterial));
+            this.allowed = new ArrayList<Integer>(keyMaterial.keySet());
+        }
+
+        @Override
+        public SymmetricKey getKey(int symKeyIndex) {
+            return getKey(Integer.valueOf(symKeyIndex));
+        }
+
+        @Override
+        public SymmetricKey getKey(Integer symKeyIndex) {
+            SymmetricKey res = keyMaterial.get(symKeyIndex);
+            if (res == null) {
+                throw new IllegalArgumentException("There is no key with index " + symKeyIndex);
+            }
+            return res;
+        }
+
+        @Override
+        public Integer randomKeyIndex() {
+            synchronized (rand) {
+                return allowed.get(rand.nextInt(allowed.size()));
+            }
+        }
+
+        @Override
+        public boolean isAcceptableKeyIndex(int x) {
+            return keyMaterial.containsKey(Integer.valueOf(x));
+        }
+    }
+
+    private static long run(final KeyManager keyManager) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicLong sink = new AtomicLong();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException exe) {
+                        return;
+                    }
+                    long hashes = 0;
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        hashes += System.identityHashCode(keyManager.getKey(keyManager.randomKeyIndex().intValue()));
+                    }
+                    sink.addAndGet(hashes);
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - t0;
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        KeyManagerImpl keyManager = (KeyManagerImpl) KeyManagerImpl.makeKeyManagerBasedOnNewKeys(KEYS);
+        Map<Integer, SymmetricKey> keys = new HashMap<Integer, SymmetricKey>();
+        for (int i = 0; i < KEYS; i++) {
+            keys.put(Integer.valueOf(i), keyManager.getKey(i));
+        }
+        KeyManager legacy = new LegacyKeyManager(keys);
+        long calls = (long) THREADS * CALLS_PER_THREAD;
+        for (int r = -1; r < 3; r++) { // round -1 is warm-up
+            long legacyNanos = run(legacy);
+            long nanos = run(keyManager);
+            if (r >= 0) {
+                System.out.printf("%d threads, randomKeyIndex() + getKey(): legacy %.1f ns/call (%.1f M calls/s), now %.1f ns/call (%.1f M calls/s)%n", Integer.valueOf(THREADS), //
+                        (double) legacyNanos / calls, calls * 1e3 / legacyNanos, (double) nanos / calls, calls * 1e3 / nanos);
+            }
+        }
+        System.out.flush();
+    }
+}
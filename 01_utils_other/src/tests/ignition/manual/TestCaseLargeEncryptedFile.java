@@ -0,0 +1,130 @@
+package tests.ignition.manual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not part of the suite, as it writes a 1 GiB file to the temp directory:
+ * encrypt 1 GiB through GcmSymmetricKeyImpl.encryptingChannel() into a file
+ * and decrypt it through decryptingStream(), checking the CRC32 of the
+ * plaintext on both sides.
+ *
+ * The heap stays bounded: the old generation must not grow by more than
+ * 16 MiB while this runs. Run it with e.g. -Xmx32m to see it through in a
+ * small heap.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseLargeEncryptedFile {
+
+    private final static long SIZE = 1024L * 1024 * 1024;
+    private final static int WRITE_SIZE = 100 * 1000; // not a multiple of the frame size, on purpose
+
+    private static List<MemoryPoolMXBean> oldGenPools() {
+        List<MemoryPoolMXBean> res = new ArrayList<MemoryPoolMXBean>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && (pool.getName().contains("Old") || pool.getName().contains("Tenured"))) {
+                res.add(pool);
+            }
+        }
+        return res;
+    }
+
+    private static long oldGenPeak(List<MemoryPoolMXBean> pools) {
+        long res = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            res += pool.getPeakUsage().getUsed();
+        }
+        return res;
+    }
+
+    @Test
+    public void testEncryptDecryptOneGiB() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey crypto = new GcmSymmetricKeyImpl(0, sks, false);
+        File file = File.createTempFile("encrypted", ".bin");
+        try {
+            System.gc();
+            List<MemoryPoolMXBean> pools = oldGenPools();
+            for (MemoryPoolMXBean pool : pools) {
+                pool.resetPeakUsage();
+            }
+            long oldGenBefore = oldGenPeak(pools);
+            // encrypt
+            byte[] block = new byte[WRITE_SIZE];
+            Random rand = new Random(4711);
+            CRC32 written = new CRC32();
+            long t0 = System.nanoTime();
+            WritableByteChannel out = crypto.encryptingChannel(new FileOutputStream(file).getChannel());
+            try {
+                for (long done = 0; done < SIZE; done += WRITE_SIZE) {
+                    int count = (int) Math.min(WRITE_SIZE, SIZE - done);
+                    rand.nextBytes(block);
+                    written.update(block, 0, count);
+                    out.write(ByteBuffer.wrap(block, 0, count));
+                }
+            } finally {
+                out.close();
+            }
+            long t1 = System.nanoTime();
+            // decrypt
+            CRC32 read = new CRC32();
+            long total = 0;
+            InputStream in = crypto.decryptingStream(new FileInputStream(file));
+            try {
+                int n;
+                while ((n = in.read(block)) >= 0) {
+                    read.update(block, 0, n);
+                    total += n;
+                }
+            } finally {
+                in.close();
+            }
+            long t2 = System.nanoTime();
+            long oldGenGrowth = oldGenPeak(pools) - oldGenBefore;
+            System.out.printf("Encrypted %d bytes into %d bytes in %.1f s (%.0f MB/s), decrypted in %.1f s (%.0f MB/s)%n", SIZE, file.length(), //
+                    (t1 - t0) / 1e9, SIZE / 1e6 / ((t1 - t0) / 1e9), (t2 - t1) / 1e9, SIZE / 1e6 / ((t2 - t1) / 1e9));
+            System.out.printf("Old generation peak grew by %d KiB; max heap %d MiB%n", oldGenGrowth / 1024, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+            assertEquals(SIZE, total);
+            assertEquals(written.getValue(), read.getValue());
+            assertTrue("old generation grew by " + oldGenGrowth + " bytes", oldGenGrowth < 16 * 1024 * 1024);
+        } finally {
+            if (!file.delete()) {
+                throw new IOException("Could not delete " + file);
+            }
+        }
+    }
+}
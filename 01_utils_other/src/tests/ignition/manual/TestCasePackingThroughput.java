@@ -0,0 +1,129 @@
+package tests.ignition.manual;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.RepackOrder;
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto.SymmetricKeyInfo;
+import com.mplify.crypto_impl.FramedPacker;
+import com.mplify.crypto_impl.GcmSymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+import com.mplify.stringmangling.CompressBehaviour;
+import com.mplify.stringmangling.EncryptBehaviour;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: compress-then-encrypt
+ * throughput over a 64 MiB document (text-like, with some random stretches)
+ *
+ * 1) as one piece on the calling thread (one Deflater, one encrypt())
+ * 2) with FramedPacker on a pool of 1 thread
+ * 3) with FramedPacker on a pool of availableProcessors() threads
+ *
+ * and unpacking for 2) and 3).
+ *
+ * Only single-CPU machines have run this so far, where 2) and 3) are the
+ * same: the speed-up of 3) over 2) has not been measured and is unverified.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCasePackingThroughput {
+
+    private final static int SIZE = 64 * 1024 * 1024;
+    private final static int ROUNDS = 3;
+
+    private static byte[] document() {
+        byte[] res = new byte[SIZE];
+        Random rand = new Random(4711);
+        String[] words = { "invoice", "customer", "amount", "the", "of", "number", "delivery", "2026-10-19", "status", "EUR", "Luxembourg", "account" };
+        int i = 0;
+        while (i < SIZE) {
+            if (rand.nextInt(20000) == 0) { // a random stretch, as an embedded image would be
+                int n = Math.min(SIZE - i, 4096 + rand.nextInt(65536));
+                for (int k = 0; k < n; k++) {
+                    res[i++] = (byte) rand.nextInt();
+                }
+            } else {
+                String word = words[rand.nextInt(words.length)];
+                for (int k = 0; k < word.length() && i < SIZE; k++) {
+                    res[i++] = (byte) word.charAt(k);
+                }
+                if (i < SIZE) {
+                    res[i++] = (byte) (rand.nextInt(8) == 0 ? '\n' : ' ');
+                }
+            }
+        }
+        return res;
+    }
+
+    private static byte[] packAsOnePiece(byte[] data, SymmetricKey symKey) throws Exception {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        byte[] buf = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buf);
+            out.write(buf, 0, n);
+        }
+        deflater.end();
+        return symKey.encrypt(out.toByteArray());
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        byte[] data = document();
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey symKey = new GcmSymmetricKeyImpl(0, sks, false);
+        RepackOrder order = new RepackOrder(CompressBehaviour.ALWAYS, EncryptBehaviour.DO_ENCRYPT, new SymmetricKeyInfo(0, symKey));
+        int cores = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = new ForkJoinPool(cores);
+        try {
+            FramedPacker singlePacker = new FramedPacker(single);
+            FramedPacker allPacker = new FramedPacker(all);
+            for (int r = -1; r < ROUNDS; r++) { // round -1 is warm-up
+                long t0 = System.nanoTime();
+                int onePieceLength = packAsOnePiece(data, symKey).length;
+                long t1 = System.nanoTime();
+                byte[] container1 = singlePacker.pack(data, order);
+                long t2 = System.nanoTime();
+                singlePacker.unpack(container1, symKey);
+                long t3 = System.nanoTime();
+                byte[] containerN = allPacker.pack(data, order);
+                long t4 = System.nanoTime();
+                allPacker.unpack(containerN, symKey);
+                long t5 = System.nanoTime();
+                if (r >= 0) {
+                    System.out.printf("One piece: pack %6.1f MB/s (%d bytes)%n", mbPerSecond(t1 - t0), onePieceLength);
+                    System.out.printf("1 thread : pack %6.1f MB/s, unpack %6.1f MB/s (%d bytes)%n", mbPerSecond(t2 - t1), mbPerSecond(t3 - t2), container1.length);
+                    System.out.printf("%d threads: pack %6.1f MB/s, unpack %6.1f MB/s (%d bytes)%n", cores, mbPerSecond(t4 - t3), mbPerSecond(t5 - t4), containerN.length);
+                }
+            }
+        } finally {
+            single.shutdown();
+            all.shutdown();
+        }
+        System.out.flush();
+    }
+
+    private static double mbPerSecond(long nanos) {
+        return (SIZE / 1e6) / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,91 @@
+package tests.ignition.manual;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.mplify.crypto.SymmetricKey;
+import com.mplify.crypto_impl.SymmetricKeyImpl;
+import com.mplify.crypto_impl.SymmetricKeyImpl.KEY_SIZE;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program for SymmetricKeyImpl:
+ * encryption throughput at 64 B, 1 KiB and 64 KiB per call with
+ *
+ * 1) Cipher.getInstance() + init() on each call (what encrypt() used to do)
+ * 2) encrypt(byte[]), taking the Cipher from the pool
+ * 3) encrypt(ByteBuffer, ByteBuffer) into a reused buffer
+ *
+ * The 64 B case is the one that matters for per-message string encryption.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseSymmetricKeyThroughput {
+
+    private final static int[] SIZES = { 64, 1024, 64 * 1024 };
+    private final static long BYTES_PER_ROUND = 16L * 1024 * 1024;
+    private final static int ROUNDS = 5;
+
+    private static byte[] encryptTheOldWay(SecretKeySpec key, byte[] data) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        return cipher.doFinal(data);
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        SecretKeySpec sks = SymmetricKeyImpl.newKey(SymmetricKeyImpl.createAESKeyGenerator(KEY_SIZE.KEY_128));
+        SymmetricKey crypto = new SymmetricKeyImpl(sks);
+        Random rand = new Random(4711);
+        for (int size : SIZES) {
+            byte[] data = new byte[size];
+            rand.nextBytes(data);
+            ByteBuffer in = ByteBuffer.wrap(data);
+            ByteBuffer out = ByteBuffer.allocate(crypto.getMaxEncryptedLength(size));
+            int calls = (int) (BYTES_PER_ROUND / size);
+            long sink = 0;
+            for (int r = -1; r < ROUNDS; r++) { // round -1 is warm-up
+                long t0 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += encryptTheOldWay(sks, data).length;
+                }
+                long t1 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += crypto.encrypt(data).length;
+                }
+                long t2 = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    in.clear();
+                    out.clear();
+                    sink += crypto.encrypt(in, out);
+                }
+                long t3 = System.nanoTime();
+                if (r >= 0) {
+                    System.out.printf("%6d B: getInstance/init %8.1f MB/s (%7.0f ns/call), pooled %8.1f MB/s (%7.0f ns/call), ByteBuffer %8.1f MB/s (%7.0f ns/call)%n", size, //
+                            mbPerSecond(t1 - t0), (t1 - t0) / (double) calls, //
+                            mbPerSecond(t2 - t1), (t2 - t1) / (double) calls, //
+                            mbPerSecond(t3 - t2), (t3 - t2) / (double) calls);
+                }
+            }
+            System.out.println("(" + sink + ")");
+        }
+        System.out.flush();
+    }
+
+    private static double mbPerSecond(long nanos) {
+        return (BYTES_PER_ROUND / 1e6) / (nanos / 1e9);
+    }
+}
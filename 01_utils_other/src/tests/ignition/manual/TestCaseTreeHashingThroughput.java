@@ -0,0 +1,87 @@
+package tests.ignition.manual;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import hashing.SHA256Hashing;
+import hashing.TreeHashing;
+
+/* 34567890123456789012345678901234567890123456789012345678901234567890123456789
+ * *****************************************************************************
+ * Copyright (c) 2026, M-PLIFY S.A.
+ *                     21, rue Glesener
+ *                     L-1631 LUXEMBOURG
+ *
+ * All rights reserved.
+ *******************************************************************************
+ *******************************************************************************
+ * Not really a test case, more a benchmark program: SHA-256 of a generated
+ * 2 GiB file with AnyHashing.hash(File), single-threaded, against
+ * TreeHashing on pools of 1, 2, 4... threads up to the number of cores.
+ * The file is in the page cache after the first round, so this measures
+ * hashing, not the disk.
+ *
+ * 2026.10.19 - Created
+ ******************************************************************************/
+
+public class TestCaseTreeHashingThroughput {
+
+    private final static long FILE_SIZE = 2L * 1024 * 1024 * 1024;
+
+    private static volatile int sink;
+
+    private static File generateFile() throws IOException {
+        File file = File.createTempFile("treehashing", ".bin");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            byte[] block = new byte[4 * 1024 * 1024];
+            Random rand = new Random(4711);
+            for (long written = 0; written < FILE_SIZE; written += block.length) {
+                rand.nextBytes(block);
+                out.write(block);
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static void report(String what, long nanos) {
+        System.out.printf("%-28s %7.0f ms, %6.0f MB/s%n", what, nanos / 1e6, FILE_SIZE * 1e3 / nanos);
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        File file = generateFile();
+        try {
+            int cores = Runtime.getRuntime().availableProcessors();
+            System.out.printf("%d MiB file, %d cores%n", Long.valueOf(FILE_SIZE >> 20), Integer.valueOf(cores));
+            for (int r = 0; r < 3; r++) {
+                long t0 = System.nanoTime();
+                sink += SHA256Hashing.CI.hash(file).length;
+                report("AnyHashing.hash(File)", System.nanoTime() - t0);
+                for (int threads = 1; threads <= cores; threads = (threads == cores) ? threads + 1 : Math.min(2 * threads, cores)) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    try {
+                        TreeHashing treeHashing = new TreeHashing(SHA256Hashing.CI, pool);
+                        long t1 = System.nanoTime();
+                        sink += treeHashing.hash(file).getChunkCount();
+                        report("TreeHashing, " + threads + " threads", System.nanoTime() - t1);
+                    } finally {
+                        pool.shutdown();
+                    }
+                }
+            }
+        } finally {
+            if (!file.delete()) {
+                throw new IOException("Could not delete " + file);
+            }
+        }
+        System.out.flush();
+    }
+}